@@ -10,12 +10,17 @@ repositories {
 }
 
 dependencies {
-    implementation(files("src/main/resources/lib/cvc5-macOS-arm64-java-api.jar"))
+    compileOnly(files("src/main/resources/lib/cvc5-macOS-arm64-java-api.jar"))
+    testImplementation(files("src/main/resources/lib/cvc5-macOS-arm64-java-api.jar"))
     implementation("org.jspecify:jspecify:1.0.0")
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
 }
 
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
 tasks.test {
     useJUnitPlatform()
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.bossymr.flow;
+
+/**
+ * A limit on the exploration of a method.
+ * <p>
+ * If a budget is exceeded while a method is explored, the method is marked as incomplete, and its exit points only
+ * include the paths which were explored before the budget was exceeded.
+ *
+ * @see FlowOptions
+ */
+public enum Budget {
+    /**
+     * The number of snapshots visited while exploring a method. If exceeded, the exploration of the method is stopped.
+     */
+    SNAPSHOTS(Flow.Statistic.SnapshotBudgetExceeded),
+
+    /**
+     * The number of snapshots along a single path. If exceeded, the path is abandoned.
+     */
+    DEPTH(Flow.Statistic.DepthBudgetExceeded),
+
+    /**
+     * The number of times a single path visits the same loop header. If exceeded, the path is abandoned.
+     */
+    LOOP_VISITS(Flow.Statistic.LoopBudgetExceeded),
+
+    /**
+     * The time spent exploring a method. If exceeded, the exploration of the method is stopped.
+     */
+    DEADLINE(Flow.Statistic.DeadlineExceeded);
+
+    private final Flow.Statistic statistic;
+
+    Budget(Flow.Statistic statistic) {
+        this.statistic = statistic;
+    }
+
+    /**
+     * {@return the statistic which is incremented every time this budget is exceeded}
+     */
+    public Flow.Statistic getStatistic() {
+        return statistic;
+    }
+}
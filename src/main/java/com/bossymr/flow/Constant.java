@@ -1,15 +1,11 @@
 package com.bossymr.flow;
 
 import com.bossymr.flow.type.ValueType;
-import io.github.cvc5.Term;
-import io.github.cvc5.TermManager;
 
 import java.util.Objects;
 
 public sealed interface Constant<T> {
 
-    Term convert(TermManager manager);
-
     final class Boolean implements Constant<java.lang.Boolean> {
 
         private final boolean value;
@@ -27,11 +23,6 @@ public sealed interface Constant<T> {
             return ValueType.booleanType();
         }
 
-        @Override
-        public Term convert(TermManager manager) {
-            return manager.mkBoolean(value);
-        }
-
         @Override
         public boolean equals(Object o) {
             if (o == null || getClass() != o.getClass()) return false;
@@ -67,11 +58,6 @@ public sealed interface Constant<T> {
             return ValueType.integerType();
         }
 
-        @Override
-        public Term convert(TermManager manager) {
-            return manager.mkInteger(value);
-        }
-
         @Override
         public boolean equals(Object o) {
             if (o == null || getClass() != o.getClass()) return false;
@@ -115,11 +101,6 @@ public sealed interface Constant<T> {
             return ValueType.realType();
         }
 
-        @Override
-        public Term convert(TermManager manager) {
-            return manager.mkReal(value.numerator(), value.denominator());
-        }
-
         @Override
         public boolean equals(Object o) {
             if (o == null || getClass() != o.getClass()) return false;
@@ -168,11 +149,6 @@ public sealed interface Constant<T> {
             return ValueType.stringType();
         }
 
-        @Override
-        public Term convert(TermManager manager) {
-            return manager.mkString(value);
-        }
-
         @Override
         public boolean equals(Object o) {
             if (o == null || getClass() != o.getClass()) return false;
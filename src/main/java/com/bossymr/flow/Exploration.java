@@ -0,0 +1,324 @@
+package com.bossymr.flow;
+
+import com.bossymr.flow.instruction.AssertInstruction;
+import com.bossymr.flow.instruction.CallInstruction;
+import com.bossymr.flow.instruction.ControlFlowGraph;
+import com.bossymr.flow.instruction.Instruction;
+import com.bossymr.flow.instruction.Label;
+import com.bossymr.flow.instruction.ReturnInstruction;
+import com.bossymr.flow.state.FlowSnapshot;
+
+import java.io.Serial;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The exploration of all paths through a method.
+ * <p>
+ * Paths are explored from the first instruction of the method until they return. The exploration is limited by the
+ * budgets specified in the options of the method, if a budget is exceeded, either the path or the entire exploration is
+ * abandoned.
+ * <p>
+ * Paths are either explored by a single thread, or by a pool of workers. Each worker explores a path depth first, and
+ * forks the remaining successors of a branch, so that they can be stolen by idle workers.
+ */
+final class Exploration {
+
+    private final Flow.Method method;
+    private final FlowOptions options;
+    private final ControlFlowGraph graph;
+    private final SnapshotIndex index;
+
+    private final long deadline;
+    private final AtomicInteger snapshots = new AtomicInteger();
+    private volatile boolean stopped;
+
+    private final Set<Budget> exceededBudgets = ConcurrentHashMap.newKeySet();
+
+    Exploration(Flow.Method method) {
+        this.method = method;
+        this.options = method.getOptions();
+        this.graph = method.getControlFlowGraph();
+        this.index = method.getSnapshotIndex();
+        Duration timeout = options.getTimeout();
+        this.deadline = timeout != null ? System.nanoTime() + timeout.toNanos() : Long.MAX_VALUE;
+    }
+
+    /**
+     * A path through the method.
+     *
+     * @param snapshot the last snapshot in the path.
+     * @param visits the number of times this path has visited each loop header.
+     */
+    private record Path(FlowSnapshot snapshot, Map<Integer, Integer> visits) {}
+
+    /**
+     * Explores all paths starting at the provided snapshot.
+     *
+     * @param snapshot the snapshot at the first instruction of the method.
+     */
+    void explore(FlowSnapshot snapshot) {
+        Path path = visit(new Path(snapshot, Map.of()), snapshot);
+        if (path == null) {
+            return;
+        }
+        if (options.isMerging()) {
+            exploreMerging(path);
+        } else if (options.getParallelism() > 1) {
+            method.getFlow().getPool(options.getParallelism()).invoke(new Task(path));
+        } else {
+            exploreDepthFirst(path);
+        }
+    }
+
+    /**
+     * {@return all budgets which were exceeded while exploring the method}
+     */
+    Set<Budget> getExceededBudgets() {
+        return exceededBudgets;
+    }
+
+    private void exploreDepthFirst(Path path) {
+        Deque<Path> queue = new ArrayDeque<>();
+        queue.addFirst(path);
+        while (!queue.isEmpty()) {
+            List<Path> successors = step(queue.pop());
+            if (successors == null) {
+                return;
+            }
+            for (Path successor : successors.reversed()) {
+                queue.addFirst(successor);
+            }
+        }
+    }
+
+    /**
+     * A task which explores a path, and all paths which branch from it.
+     */
+    private final class Task extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path path;
+
+        private Task(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        protected void compute() {
+            List<Task> tasks = new ArrayList<>();
+            Path path = this.path;
+            while (path != null) {
+                List<Path> successors = step(path);
+                if (successors == null || successors.isEmpty()) {
+                    break;
+                }
+                // Continue with the first successor, so that paths are visited in the same order as when they are
+                // explored by a single thread, unless the remaining successors are stolen by another worker.
+                for (Path successor : successors.subList(1, successors.size())) {
+                    Task task = new Task(successor);
+                    task.fork();
+                    tasks.add(task);
+                }
+                path = successors.getFirst();
+            }
+            for (Task task : tasks.reversed()) {
+                task.join();
+            }
+        }
+    }
+
+    /**
+     * Explores the method while merging snapshots at labels.
+     * <p>
+     * Snapshots are visited in the order of their instructions, so that all snapshots which reach a label through a
+     * forward branch have been created before the label is visited. When a label is visited, all snapshots waiting at
+     * the label are merged.
+     *
+     * @param path the path at the first instruction.
+     */
+    private void exploreMerging(Path path) {
+        record Entry(int index, long order, Path path) {}
+        PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingInt(Entry::index).thenComparingLong(Entry::order));
+        long order = 0;
+        queue.add(new Entry(getIndex(path.snapshot()), order++, path));
+        while (!queue.isEmpty()) {
+            Entry entry = queue.poll();
+            List<Path> paths = new ArrayList<>();
+            paths.add(entry.path());
+            if (entry.path().snapshot().getInstruction() instanceof Label) {
+                while (!queue.isEmpty() && queue.peek().index() == entry.index()) {
+                    Path other = merge(paths, queue.poll().path());
+                    if (other != null) {
+                        paths.add(other);
+                    }
+                }
+            }
+            for (Path current : paths) {
+                List<Path> successors = step(current);
+                if (successors == null) {
+                    return;
+                }
+                for (Path successor : successors) {
+                    queue.add(new Entry(getIndex(successor.snapshot()), order++, successor));
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges the provided path with the first path in the provided list which it can be merged with.
+     *
+     * @param paths the paths waiting at a label.
+     * @param path the path.
+     * @return the provided path if it could not be merged, or {@code null} if it was merged.
+     */
+    private Path merge(List<Path> paths, Path path) {
+        for (int i = 0; i < paths.size(); i++) {
+            Path other = paths.get(i);
+            if (FlowSnapshot.isMergeable(other.snapshot(), path.snapshot())) {
+                FlowSnapshot snapshot = FlowSnapshot.merge(other.snapshot(), path.snapshot());
+                Map<Integer, Integer> visits = new HashMap<>(other.visits());
+                path.visits().forEach((index, count) -> visits.merge(index, count, Math::max));
+                paths.set(i, new Path(snapshot, Map.copyOf(visits)));
+                return null;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Calls the instruction of the last snapshot in the provided path.
+     *
+     * @param path the path.
+     * @return all successors of the path, or {@code null} if the exploration was stopped.
+     */
+    private List<Path> step(Path path) {
+        if (stopped) {
+            return null;
+        }
+        if (snapshots.incrementAndGet() > options.getMaxSnapshots()) {
+            stop(Budget.SNAPSHOTS);
+            return null;
+        }
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            stop(Budget.DEADLINE);
+            return null;
+        }
+        FlowSnapshot snapshot = path.snapshot();
+        if (options.isLazyFeasibility() && requiresFeasibility(snapshot.getInstruction()) && !(snapshot.isFeasible())) {
+            prune();
+            return List.of();
+        }
+        int index = getIndex(snapshot);
+        int fallthrough = graph.getFallthrough(index);
+        Instruction successor = fallthrough >= 0 ? graph.getInstruction(fallthrough) : null;
+        List<FlowSnapshot> successors = snapshot.getInstruction().call(method, snapshot, successor);
+        if (options.isLazyFeasibility()) {
+            successors = getFeasibleSuccessors(successors);
+        }
+        if (this.index != null) {
+            this.index.add(index, snapshot, successors);
+        }
+        List<Path> paths = new ArrayList<>(successors.size());
+        for (FlowSnapshot successorState : successors) {
+            Path successorPath = visit(path, successorState);
+            if (successorPath != null) {
+                paths.add(successorPath);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Checks whether the provided instruction requires that the path which reaches it is reachable. A path must be
+     * reachable before it returns, since the exit points of a method are instantiated by its callers, before it asserts
+     * a value, since the value of an unreachable path is not defined, and before it calls another method.
+     */
+    private static boolean requiresFeasibility(Instruction instruction) {
+        return instruction instanceof ReturnInstruction || instruction instanceof AssertInstruction || instruction instanceof CallInstruction;
+    }
+
+    /**
+     * Checks the reachability of all provided successors which have reached the maximum number of unchecked
+     * conditions.
+     *
+     * @param successors the successors.
+     * @return the successors which might be reachable.
+     */
+    private List<FlowSnapshot> getFeasibleSuccessors(List<FlowSnapshot> successors) {
+        List<FlowSnapshot> feasible = new ArrayList<>(successors.size());
+        for (FlowSnapshot successor : successors) {
+            if (successor.getUncheckedConditions() >= options.getFeasibilityInterval() && !(successor.isFeasible())) {
+                prune();
+                continue;
+            }
+            feasible.add(successor);
+        }
+        return feasible;
+    }
+
+    private void prune() {
+        method.getFlow().getStatistics().get(Flow.Statistic.PrunedPaths).increment();
+    }
+
+    /**
+     * Extends the provided path with the provided snapshot.
+     *
+     * @param path the path.
+     * @param snapshot the next snapshot in the path.
+     * @return the extended path, or {@code null} if the path was abandoned.
+     */
+    private Path visit(Path path, FlowSnapshot snapshot) {
+        if (snapshot.getDepth() > options.getMaxDepth()) {
+            exceed(Budget.DEPTH);
+            return null;
+        }
+        int index = getIndex(snapshot);
+        if (!(graph.isLoopHeader(index))) {
+            return new Path(snapshot, path.visits());
+        }
+        int visits = path.visits().getOrDefault(index, 0) + 1;
+        if (visits > options.getMaxLoopVisits()) {
+            exceed(Budget.LOOP_VISITS);
+            return null;
+        }
+        Map<Integer, Integer> successorVisits = new HashMap<>(path.visits());
+        successorVisits.put(index, visits);
+        return new Path(snapshot, Map.copyOf(successorVisits));
+    }
+
+    /**
+     * Stops the exploration of the method, since the provided budget was exceeded.
+     *
+     * @param budget the budget.
+     */
+    private void stop(Budget budget) {
+        // If more than one worker exceeds the budget at the same time, the budget should only be counted once.
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+        }
+        exceed(budget);
+    }
+
+    private void exceed(Budget budget) {
+        exceededBudgets.add(budget);
+        method.getFlow().getStatistics().get(budget.getStatistic()).increment();
+    }
+
+    private int getIndex(FlowSnapshot snapshot) {
+        Instruction instruction = snapshot.getInstruction();
+        if (!graph.contains(instruction)) {
+            throw new IllegalStateException("memory state belongs to instruction from other method");
+        }
+        return graph.getIndex(instruction);
+    }
+}
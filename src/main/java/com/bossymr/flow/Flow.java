@@ -1,32 +1,132 @@
 package com.bossymr.flow;
 
+import com.bossymr.flow.constraint.ConflictStore;
+import com.bossymr.flow.constraint.Constraint;
 import com.bossymr.flow.constraint.FlowSolver;
+import com.bossymr.flow.constraint.ModelCache;
+import com.bossymr.flow.constraint.Portfolio;
+import com.bossymr.flow.constraint.QueryCache;
+import com.bossymr.flow.constraint.SolverBackend;
 import com.bossymr.flow.expression.AnyExpression;
 import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.ExpressionFactory;
+import com.bossymr.flow.instruction.CallInstruction;
+import com.bossymr.flow.instruction.ControlFlowGraph;
 import com.bossymr.flow.instruction.Instruction;
 import com.bossymr.flow.instruction.ReturnInstruction;
 import com.bossymr.flow.state.FlowSnapshot;
 import com.bossymr.flow.type.ValueType;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 /**
  * A data flow analyzer.
+ * <p>
+ * A data flow analyzer keeps the pools which explore methods, and a solver for each thread which checks snapshots, until
+ * it is closed.
  */
-public class Flow {
+public class Flow implements AutoCloseable {
 
-    private final FlowSolver solver;
+    private final FlowOptions options;
+
+    /**
+     * The solver used by each thread. A solver keeps track of the snapshot it was last used with, as such, a solver
+     * cannot be shared between threads. A solver is created the first time a thread uses this data flow analyzer.
+     */
+    private final ThreadLocal<FlowSolver> solvers = new ThreadLocal<>();
+
+    /**
+     * The solver created by each thread, so that the solvers of all threads can be closed together with this data flow
+     * analyzer.
+     */
+    private final Queue<FlowSolver> openSolvers = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean closed;
+
+    /**
+     * The pools used to explore methods in parallel, for each level of parallelism.
+     */
+    private final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * The workers which analyze methods in the background, or {@code null} if methods are analyzed when they are
+     * created.
+     */
+    private final ExecutorService analyzer;
+
+    /**
+     * The analysis of each method which is analyzed in the background, until it is complete.
+     */
+    private final Set<CompletableFuture<Void>> analyses = ConcurrentHashMap.newKeySet();
+
+    private final QueryCache queryCache;
+    private final ModelCache modelCache;
+    private final ConflictStore conflictStore;
+    private final Portfolio portfolio;
+    private final ExpressionFactory expressionFactory;
 
     private final EnumMap<Statistic, LongAdder> statistics;
+    private final List<EnumMap<TierStatistic, LongAdder>> tierStatistics;
 
     public Flow() {
-        this.solver = new FlowSolver(this);
+        this(FlowOptions.defaultOptions());
+    }
+
+    public Flow(FlowOptions options) {
+        this.options = options;
+        this.queryCache = options.getQueryCacheSize() > 0 ? new QueryCache(options.getQueryCacheSize()) : null;
+        this.modelCache = options.getModelCacheSize() > 0 ? new ModelCache(options.getModelCacheSize()) : null;
+        this.conflictStore = options.getConflictStoreSize() > 0 ? new ConflictStore(options.getConflictStoreSize()) : null;
+        // A query is only decided by the portfolio if it is unknown after the first limit.
+        this.portfolio = options.getPortfolio().isEmpty() || options.getSolverLimits().isEmpty() ? null : createPortfolio(options);
+        this.expressionFactory = new ExpressionFactory(options.isSimplifying());
+        this.analyzer = options.getMethodParallelism() > 0 ? Executors.newFixedThreadPool(options.getMethodParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "flow-analyzer");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
         this.statistics = new EnumMap<>(Statistic.class);
         for (Statistic statistic : Statistic.values()) {
             statistics.put(statistic, new LongAdder());
         }
+        List<EnumMap<TierStatistic, LongAdder>> tierStatistics = new ArrayList<>();
+        for (int i = 0; i < options.getSolverLimits().size(); i++) {
+            EnumMap<TierStatistic, LongAdder> tier = new EnumMap<>(TierStatistic.class);
+            for (TierStatistic statistic : TierStatistic.values()) {
+                tier.put(statistic, new LongAdder());
+            }
+            tierStatistics.add(tier);
+        }
+        this.tierStatistics = List.copyOf(tierStatistics);
+    }
+
+    /**
+     * Creates the portfolio of a data flow analyzer with the provided options.
+     *
+     * @param options the options.
+     * @return the portfolio.
+     * @throws IllegalArgumentException if a configuration of the portfolio is also a solver backend.
+     */
+    private static Portfolio createPortfolio(FlowOptions options) {
+        for (SolverBackend configuration : options.getPortfolio()) {
+            // A session of a configuration is performed on another thread, while a session of the same backend might
+            // be used by the solver of this thread.
+            for (SolverBackend backend : options.getSolverBackends()) {
+                if (backend == configuration) {
+                    throw new IllegalArgumentException("portfolio configuration '" + configuration.getName() + "' is also a solver backend");
+                }
+            }
+        }
+        return new Portfolio(options.getPortfolio(), options.getSolverLimits());
     }
 
     /**
@@ -38,13 +138,129 @@ public class Flow {
      * @return a new method.
      */
     public Method createMethod(String name, Signature signature, Consumer<CodeBuilder> code) {
-        return new Method(name, signature, code);
+        return new Method(name, signature, options, code);
+    }
+
+    /**
+     * Create a new method which is analyzed with the provided options instead of the options of this data flow
+     * analyzer.
+     *
+     * @param name the method's name.
+     * @param signature the method's signature.
+     * @param options the options used to analyze the method.
+     * @param code the method's code body.
+     * @return a new method.
+     */
+    public Method createMethod(String name, Signature signature, FlowOptions options, Consumer<CodeBuilder> code) {
+        return new Method(name, signature, options, code);
+    }
+
+    /**
+     * {@return the options used by this data flow analyzer}
+     */
+    public FlowOptions getOptions() {
+        return options;
     }
 
+    /**
+     * {@return the solver used by the current thread}
+     *
+     * @throws IllegalStateException if this data flow analyzer has been closed.
+     */
     public FlowSolver getSolver() {
+        if (closed) {
+            throw new IllegalStateException("data flow analyzer has been closed");
+        }
+        FlowSolver solver = solvers.get();
+        if (solver == null) {
+            solver = new FlowSolver(this);
+            openSolvers.add(solver);
+            solvers.set(solver);
+        }
         return solver;
     }
 
+    /**
+     * {@return the cache of the results of reachability queries, or {@code null} if results are not cached}
+     */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * {@return the cache of the models produced by solvers, or {@code null} if models are not cached}
+     */
+    public ModelCache getModelCache() {
+        return modelCache;
+    }
+
+    /**
+     * {@return the store of the conflicts learned from unsatisfiable queries, or {@code null} if conflicts are not
+     * learned}
+     */
+    public ConflictStore getConflictStore() {
+        return conflictStore;
+    }
+
+    /**
+     * {@return the factory used to create all expressions of this data flow analyzer}
+     */
+    public ExpressionFactory getExpressionFactory() {
+        return expressionFactory;
+    }
+
+    /**
+     * {@return the portfolio which decides hard queries, or {@code null} if hard queries are not decided by a portfolio}
+     */
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    /**
+     * Returns the pool used to explore methods with the specified level of parallelism.
+     *
+     * @param parallelism the level of parallelism.
+     * @return the pool.
+     */
+    ForkJoinPool getPool(int parallelism) {
+        if (closed) {
+            throw new IllegalStateException("data flow analyzer has been closed");
+        }
+        return pools.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+
+    /**
+     * Closes this data flow analyzer. Methods which are still analyzed are finished, after which the pools which explore
+     * methods are shut down, and the solver of every thread and the portfolio are closed. Closing a data flow analyzer
+     * which is already closed has no effect.
+     * <p>
+     * The methods of a closed data flow analyzer can no longer be analyzed, and its snapshots can no longer be checked,
+     * however, the snapshots and exit points found before it was closed are kept.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        if (analyzer != null) {
+            // Methods which are analyzed in the background still use the pools and solvers of this data flow analyzer,
+            // and a method is only submitted to the workers once its callees have been analyzed.
+            CompletableFuture.allOf(analyses.toArray(CompletableFuture<?>[]::new)).exceptionally(throwable -> null).join();
+            analyzer.close();
+        }
+        closed = true;
+        for (ForkJoinPool pool : pools.values()) {
+            pool.close();
+        }
+        pools.clear();
+        for (FlowSolver solver; (solver = openSolvers.poll()) != null; ) {
+            solver.close();
+        }
+        if (portfolio != null) {
+            portfolio.close();
+        }
+    }
+
     /**
      * {@return the statistics kept by this data flow analyzer}
      */
@@ -52,6 +268,17 @@ public class Flow {
         return statistics;
     }
 
+    /**
+     * Returns the statistics kept for each limit in the escalation policy of this data flow analyzer, in the same order
+     * as the limits.
+     *
+     * @return the statistics of each limit.
+     * @see FlowOptions#getSolverLimits()
+     */
+    public List<EnumMap<TierStatistic, LongAdder>> getTierStatistics() {
+        return tierStatistics;
+    }
+
     public enum Statistic {
         /**
          * How many times the solver was asked whether a set of assertions was satisfiable.
@@ -73,10 +300,134 @@ public class Flow {
          */
         SatisfiabilityPop,
 
+        /**
+         * How many times the result of a reachability query was found in the query cache.
+         */
+        QueryCacheHits,
+
+        /**
+         * How many times the result of a reachability query was not found in the query cache.
+         */
+        QueryCacheMisses,
+
+        /**
+         * How many independent groups of constraints were checked while slicing reachability queries.
+         */
+        ConstraintGroups,
+
+        /**
+         * How many reachability queries were decided without a solver, because their constraints only bound variables
+         * by constants.
+         */
+        PresolvedQueries,
+
+        /**
+         * How many times a cached model satisfied the constraints of a query, so that the solver was not used.
+         */
+        ModelCacheHits,
+
+        /**
+         * How many times no cached model satisfied the constraints of a query.
+         */
+        ModelCacheMisses,
+
+        /**
+         * How many times the constraints of a query contained a learned conflict, so that the solver was not used.
+         */
+        ConflictStoreHits,
+
+        /**
+         * How many times the constraints of a query did not contain any learned conflict.
+         */
+        ConflictStoreMisses,
+
+        /**
+         * How many conflicts were learned from unsatisfiable queries.
+         */
+        LearnedConflicts,
+
+        /**
+         * How many times a query was retried with a larger limit, because its result was unknown.
+         */
+        EscalatedQueries,
+
+        /**
+         * How many hard queries were raced by every configuration in the portfolio.
+         */
+        PortfolioQueries,
+
+        /**
+         * How many hard queries were performed directly by the configuration which won a previous race for a query of
+         * the same shape.
+         */
+        PortfolioRoutedQueries,
+
+        /**
+         * How many conditional branches were decided without a solver, because the condition, or its negation, was
+         * already required by the path.
+         */
+        ImpliedBranches,
+
+        /**
+         * How many conditional branches were explored without checking whether either side is reachable.
+         */
+        DeferredBranches,
+
+        /**
+         * How many paths were abandoned because they were not reachable when they were checked, after their
+         * conditions had been added without being checked.
+         */
+        PrunedPaths,
+
         /**
          * How many times a snapshot was created.
          */
         Snapshots,
+
+        /**
+         * How many times two snapshots were merged into a single snapshot.
+         */
+        MergedSnapshots,
+
+        /**
+         * How many times the exploration of a method was stopped because too many snapshots were visited.
+         */
+        SnapshotBudgetExceeded,
+
+        /**
+         * How many times a path was abandoned because it contained too many snapshots.
+         */
+        DepthBudgetExceeded,
+
+        /**
+         * How many times a path was abandoned because it visited a loop header too many times.
+         */
+        LoopBudgetExceeded,
+
+        /**
+         * How many times the exploration of a method was stopped because it took too long.
+         */
+        DeadlineExceeded,
+    }
+
+    /**
+     * The statistics kept for each limit in the escalation policy.
+     */
+    public enum TierStatistic {
+        /**
+         * How many queries were performed with the limit.
+         */
+        Queries,
+
+        /**
+         * How many queries performed with the limit had an unknown result.
+         */
+        Unknown,
+
+        /**
+         * How much time was spent on queries performed with the limit, in nanoseconds.
+         */
+        Nanoseconds,
     }
 
     /**
@@ -86,20 +437,42 @@ public class Flow {
      * throw an exception, as such, it is up to the user to validate any code before it is passed to the analyzer. For
      * example, casting objects from one type to another is not supported natively, and needs to be implemented in the
      * code passed to the method.
+     * <p>
+     * A method is either analyzed when it is created, or in the background, once all methods it calls have been
+     * analyzed. The results of a method which is analyzed in the background are available once it has been analyzed,
+     * and every method which returns them waits until then.
+     *
+     * @see FlowOptions#getMethodParallelism()
      */
     public class Method {
 
         private final String name;
         private final Signature signature;
+        private final FlowOptions options;
         private final List<Instruction> instructions;
+        private final ControlFlowGraph graph;
 
         private final FlowSnapshot entryPoint;
-        private final List<FlowSnapshot> exitPoints = new ArrayList<>();
+        private final List<FlowSnapshot> exitPoints = Collections.synchronizedList(new ArrayList<>());
+        private final Set<Budget> exceededBudgets = EnumSet.noneOf(Budget.class);
         private final List<Expression> arguments;
+        private volatile SnapshotIndex snapshotIndex;
+        private volatile MethodSummary summary;
 
-        private Method(String name, Signature signature, Consumer<CodeBuilder> code) {
+        /**
+         * The methods called by this method, in the order they are first called.
+         */
+        private final List<Method> callees;
+
+        /**
+         * The analysis of this method, which is complete once all paths through this method have been explored.
+         */
+        private final CompletableFuture<Void> analysis;
+
+        private Method(String name, Signature signature, FlowOptions options, Consumer<CodeBuilder> code) {
             this.name = name;
             this.signature = signature;
+            this.options = options;
             this.instructions = new ArrayList<>();
             CodeBuilder codeBuilder = new CodeBuilder(this);
             code.accept(codeBuilder);
@@ -111,6 +484,8 @@ public class Flow {
                     throw new IllegalStateException("method '" + this + "' must return a value");
                 }
             }
+            this.graph = new ControlFlowGraph(instructions);
+            this.snapshotIndex = new SnapshotIndex(graph.size(), options.isLazyFeasibility());
             // We need the entry point to be before the first instruction in the method.
             // This is so that we can call #beforeInstruction(...) on the first instruction.
             this.entryPoint = FlowSnapshot.emptyState(Flow.this);
@@ -121,33 +496,37 @@ public class Flow {
                 this.arguments.add(variable);
                 this.entryPoint.store(i, variable);
             }
-            compute();
+            Set<Method> callees = new LinkedHashSet<>();
+            for (Instruction instruction : instructions) {
+                if (instruction instanceof CallInstruction callInstruction) {
+                    callees.add(callInstruction.getMethod());
+                }
+            }
+            this.callees = List.copyOf(callees);
+            if (analyzer == null) {
+                compute();
+                this.analysis = CompletableFuture.completedFuture(null);
+            } else {
+                // This method is analyzed once all of its callees have been analyzed, as such, methods are analyzed in
+                // reverse topological order of the call graph, and no worker waits for another worker.
+                CompletableFuture<?>[] dependencies = new CompletableFuture<?>[this.callees.size()];
+                for (int i = 0; i < dependencies.length; i++) {
+                    dependencies[i] = this.callees.get(i).analysis;
+                }
+                CompletableFuture<Void> analysis = CompletableFuture.allOf(dependencies).thenRunAsync(this::compute, analyzer);
+                analyses.add(analysis);
+                analysis.whenComplete((result, throwable) -> analyses.remove(analysis));
+                this.analysis = analysis;
+            }
         }
 
         private void compute() {
-            Deque<FlowSnapshot> queue = new ArrayDeque<>();
-            Instruction firstInstruction = instructions.getFirst();
-            if (firstInstruction != null) {
-                queue.addFirst(entryPoint.successorState(firstInstruction));
-            }
-            while (!queue.isEmpty()) {
-                FlowSnapshot snapshot = queue.pop();
-                Instruction instruction = snapshot.getInstruction();
-                int index = instructions.indexOf(instruction);
-                if (index < 0) {
-                    throw new IllegalStateException("memory state belongs to instruction from other method");
-                }
-                Instruction successor;
-                if (index + 1 >= instructions.size()) {
-                    successor = null;
-                } else {
-                    successor = instructions.get(index + 1);
-                }
-                List<FlowSnapshot> successors = instruction.call(this, snapshot, successor);
-                for (FlowSnapshot successorState : successors.reversed()) {
-                    queue.addFirst(successorState);
-                }
+            if (graph.size() == 0) {
+                return;
             }
+            Exploration exploration = new Exploration(this);
+            exploration.explore(entryPoint.successorState(graph.getInstruction(0)));
+            exceededBudgets.addAll(exploration.getExceededBudgets());
         }
 
         public Flow getFlow() {
@@ -168,6 +547,13 @@ public class Flow {
             return signature;
         }
 
+        /**
+         * {@return the options used to analyze this method}
+         */
+        public FlowOptions getOptions() {
+            return options;
+        }
+
         /**
          * {@return the method's instructions}
          */
@@ -175,6 +561,13 @@ public class Flow {
             return instructions;
         }
 
+        /**
+         * {@return the control flow graph of this method}
+         */
+        public ControlFlowGraph getControlFlowGraph() {
+            return graph;
+        }
+
         /**
          * Returns the expressions used to reference this method's arguments.
          *
@@ -184,6 +577,42 @@ public class Flow {
             return arguments;
         }
 
+        /**
+         * {@return the methods called by this method, in the order they are first called}
+         */
+        public List<Method> getCallees() {
+            return callees;
+        }
+
+        /**
+         * Waits until this method has been analyzed. A method which is analyzed when it is created is always analyzed,
+         * otherwise, this method blocks until this method, and all methods it calls, have been analyzed. Every method
+         * which depends on the results of the analysis waits until this method has been analyzed.
+         *
+         * @throws RuntimeException if the analysis of this method, or a method it calls, failed.
+         * @throws Error if the analysis of this method, or a method it calls, failed, for example, if an assertion
+         * failed.
+         * @see FlowOptions#getMethodParallelism()
+         */
+        public void await() {
+            try {
+                analysis.join();
+            } catch (CompletionException e) {
+                switch (e.getCause()) {
+                    case RuntimeException cause -> throw cause;
+                    case Error cause -> throw cause;
+                    default -> throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+
+        /**
+         * {@return whether this method has been analyzed, or its analysis has failed}
+         */
+        public boolean isAnalyzed() {
+            return analysis.isDone();
+        }
+
         /**
          * A snapshot made at the start of this method before any instruction is called.
          *
@@ -194,46 +623,117 @@ public class Flow {
         }
 
         /**
-         * All possible snapshots made at the exit points of this method.
+         * All possible snapshots made at the exit points of this method. If this method is not complete, only the exit
+         * points of the paths which were explored before a budget was exceeded are included.
          *
          * @return a list of all possible snapshots
+         * @see #isComplete()
          */
         public List<FlowSnapshot> getExitPoints() {
+            await();
             return exitPoints;
         }
 
+        /**
+         * Adds a snapshot made at an exit point of this method, while this method is being analyzed.
+         *
+         * @param exitPoint the snapshot.
+         */
+        public void addExitPoint(FlowSnapshot exitPoint) {
+            exitPoints.add(exitPoint);
+        }
+
+        /**
+         * Checks whether all paths through this method were explored. If a budget was exceeded while exploring this
+         * method, the exit points of this method only include the paths which were explored before the budget was
+         * exceeded.
+         *
+         * @return whether all paths through this method were explored.
+         * @see #getExceededBudgets()
+         */
+        public boolean isComplete() {
+            await();
+            return exceededBudgets.isEmpty();
+        }
+
+        /**
+         * {@return all budgets which were exceeded while exploring this method}
+         */
+        public Set<Budget> getExceededBudgets() {
+            await();
+            return Collections.unmodifiableSet(exceededBudgets);
+        }
+
+        /**
+         * Returns the summary of this method, which is computed from the exit points of this method the first time it
+         * is used.
+         *
+         * @return the summary of this method.
+         * @see FlowOptions#isMergingSummaries()
+         */
+        public MethodSummary getSummary() {
+            MethodSummary summary = this.summary;
+            if (summary == null) {
+                synchronized (this) {
+                    summary = this.summary;
+                    if (summary == null) {
+                        summary = MethodSummary.of(getFlow().getExpressionFactory(), List.copyOf(getExitPoints()), options.isMergingSummaries());
+                        this.summary = summary;
+                    }
+                }
+            }
+            return summary;
+        }
+
         /**
          * All possible snapshots made at the exit points of this method if this method was called by the provided
          * snapshot. All arguments to this method are popped from the stack of the provided snapshot in the order they
          * are declared.
+         * <p>
+         * The summary of this method is instantiated with the arguments passed by the provided snapshot, and a snapshot
+         * is returned for each exit point of each entry. The condition of each entry is only checked by the solver if it
+         * is neither a literal nor implied by the constraints of the provided snapshot.
          *
          * @param caller a snapshot of the program calling this method.
          * @return a list of all possible snapshots
+         * @see #getSummary()
          */
         public List<FlowSnapshot> getExitPoints(FlowSnapshot caller) {
             if (signature.returnType() == ValueType.emptyType()) {
                 return List.of(caller);
             }
+            // The last argument is at the top of the stack.
+            List<Expression> stack = caller.getStack();
+            Map<Expression, Expression> values = new HashMap<>();
+            for (int i = 0; i < arguments.size(); i++) {
+                values.put(arguments.get(i), stack.get(stack.size() - arguments.size() + i));
+            }
+            ExpressionFactory factory = getFlow().getExpressionFactory();
             List<FlowSnapshot> states = new ArrayList<>();
-            // Iterate over all possible exit points of this method.
-            for (FlowSnapshot exitPoint : exitPoints) {
-                // Create a copy of the memory state.
-                FlowSnapshot snapshot = caller.successorState(exitPoint);
-                Map<Expression, Expression> values = new HashMap<>();
-                // For all arguments, pop the argument from the stack (in reverse order since the first argument is
-                // popped last).
-                for (Expression argument : arguments.reversed()) {
-                    Expression value = snapshot.pop();
-                    values.put(argument, value);
-                }
-                Expression returnValue = exitPoint.getStack().getLast().translate(child -> values.getOrDefault(child, child));
-                snapshot.push(returnValue);
-                // All constraints from the call site have been added to the disconnected state, as such, we can check
-                // if it is possible for this memory state to be returned given the arguments we pass to the method.
-                if (!snapshot.isReachable()) {
+            for (MethodSummary.Entry entry : getSummary().getEntries()) {
+                Expression condition = factory.substitute(entry.condition(), values);
+                Constraint implication = MethodSummary.isLiteral(condition, true) ? Constraint.ALWAYS_TRUE
+                        : MethodSummary.isLiteral(condition, false) ? Constraint.ALWAYS_FALSE
+                        : caller.getImplication(condition);
+                // All constraints from the call site are defined by the predecessors of the snapshot, as such, we can
+                // check if it is possible for this entry to be returned given the arguments we pass to the method.
+                if (implication == Constraint.ALWAYS_FALSE || (implication == Constraint.UNKNOWN && !(caller.isReachable(condition)))) {
                     continue;
                 }
-                states.add(snapshot);
+                Expression returnValue = factory.substitute(entry.returnValue(), values);
+                // A merged entry is returned by several exit points, each exit point is kept as the weak predecessor of
+                // its own snapshot, which all return the same value.
+                for (FlowSnapshot exitPoint : entry.exitPoints()) {
+                    FlowSnapshot snapshot = caller.successorState(exitPoint);
+                    for (int i = 0; i < arguments.size(); i++) {
+                        snapshot.pop();
+                    }
+                    if (implication == Constraint.UNKNOWN) {
+                        snapshot.require(condition);
+                    }
+                    snapshot.push(returnValue);
+                    states.add(snapshot);
+                }
             }
             return states;
         }
@@ -243,27 +743,19 @@ public class Flow {
          *
          * @param instruction the instruction
          * @return a list of all possible snapshots
+         * @throws IllegalStateException if the snapshots of this method have been released.
+         * @see #release()
          */
         public List<FlowSnapshot> beforeInstruction(Instruction instruction) {
-            Deque<FlowSnapshot> queue = new ArrayDeque<>(exitPoints);
-            List<FlowSnapshot> states = new ArrayList<>();
-            while (!queue.isEmpty()) {
-                // Search all snapshots for snapshots belonging to the specified instruction.
-                // If an instruction belongs to the specified instruction, add its predecessor to the list.
-                // We need to search until we reach the end of the method, since an instruction might be encountered
-                // than once.
-                FlowSnapshot snapshot = queue.pop();
-                FlowSnapshot predecessor = snapshot.getPredecessor();
-                if (instruction.equals(snapshot.getInstruction())) {
-                    // The predecessor cannot be null, because the first instruction always has a predecessor that
-                    // doesn't belong to any instruction.
-                    states.add(predecessor);
-                }
-                if (predecessor != null) {
-                    queue.add(predecessor);
-                }
+            await();
+            SnapshotIndex index = getSnapshotIndex();
+            if (index == null) {
+                throw new IllegalStateException("snapshots of method '" + this + "' have been released");
             }
-            return states;
+            if (!(graph.contains(instruction))) {
+                return List.of();
+            }
+            return index.getBefore(graph.getIndex(instruction));
         }
 
         /**
@@ -271,25 +763,38 @@ public class Flow {
          *
          * @param instruction the instruction
          * @return a list of all possible snapshots
+         * @throws IllegalStateException if the snapshots of this method have been released.
+         * @see #release()
          */
         public List<FlowSnapshot> afterInstruction(Instruction instruction) {
-            Deque<FlowSnapshot> queue = new ArrayDeque<>(exitPoints);
-            List<FlowSnapshot> states = new ArrayList<>();
-            while (!queue.isEmpty()) {
-                // Search all snapshots for snapshots where it's predecessor belongs to the specified instruction, but not
-                // the instruction itself.
-                FlowSnapshot snapshot = queue.pop();
-                FlowSnapshot predecessor = snapshot.getPredecessor();
-                if (predecessor != null) {
-                    if (!instruction.equals(snapshot.getInstruction())) {
-                        if (instruction.equals(predecessor.getInstruction())) {
-                            states.add(snapshot);
-                        }
-                    }
-                    queue.add(predecessor);
-                }
+            await();
+            SnapshotIndex index = getSnapshotIndex();
+            if (index == null) {
+                throw new IllegalStateException("snapshots of method '" + this + "' have been released");
             }
-            return states;
+            if (!(graph.contains(instruction))) {
+                return List.of();
+            }
+            return index.getAfter(graph.getIndex(instruction));
+        }
+
+        /**
+         * Releases the snapshots kept to find the snapshots made before and after each instruction of this method.
+         * After this method is released, {@link #beforeInstruction(Instruction)} and
+         * {@link #afterInstruction(Instruction)} can no longer be used. The exit points of this method are kept, so that
+         * this method can still be called.
+         */
+        public void release() {
+            await();
+            snapshotIndex = null;
+        }
+
+        /**
+         * {@return the index of the snapshots made before and after each instruction, or {@code null} if the snapshots
+         * have been released}
+         */
+        SnapshotIndex getSnapshotIndex() {
+            return snapshotIndex;
         }
 
         @Override
@@ -0,0 +1,673 @@
+package com.bossymr.flow;
+
+import com.bossymr.flow.constraint.SolverBackend;
+import com.bossymr.flow.constraint.SolverLimit;
+import com.bossymr.flow.constraint.cvc5.Cvc5Backend;
+import com.bossymr.flow.constraint.linear.LinearBackend;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The options used by a data flow analyzer.
+ * <p>
+ * Options are immutable, as such, every {@code with} method returns a copy of these options where only the specified
+ * option is changed. The options of a data flow analyzer are used by all methods, unless other options are provided
+ * when the method is created.
+ */
+public final class FlowOptions {
+
+    private boolean merging;
+    private boolean mergingSummaries;
+
+    private int maxSnapshots = Integer.MAX_VALUE;
+    private int maxDepth = Integer.MAX_VALUE;
+    private int maxLoopVisits = Integer.MAX_VALUE;
+    private Duration timeout;
+
+    private int parallelism = 1;
+    private int methodParallelism;
+
+    private boolean lazyFeasibility;
+    private int feasibilityInterval = Integer.MAX_VALUE;
+
+    private int queryCacheSize;
+    private boolean slicing;
+    private int modelCacheSize;
+    private int conflictStoreSize;
+    private List<SolverLimit> solverLimits = List.of();
+    private boolean selectingLogic;
+    private boolean presolving;
+    private boolean simplifying;
+    private List<SolverBackend> solverBackends = List.of(new Cvc5Backend(), new LinearBackend());
+    private List<SolverBackend> portfolio = List.of();
+
+    private FlowOptions() {}
+
+    private FlowOptions(FlowOptions options) {
+        this.merging = options.merging;
+        this.mergingSummaries = options.mergingSummaries;
+        this.maxSnapshots = options.maxSnapshots;
+        this.maxDepth = options.maxDepth;
+        this.maxLoopVisits = options.maxLoopVisits;
+        this.timeout = options.timeout;
+        this.parallelism = options.parallelism;
+        this.methodParallelism = options.methodParallelism;
+        this.lazyFeasibility = options.lazyFeasibility;
+        this.feasibilityInterval = options.feasibilityInterval;
+        this.queryCacheSize = options.queryCacheSize;
+        this.slicing = options.slicing;
+        this.modelCacheSize = options.modelCacheSize;
+        this.conflictStoreSize = options.conflictStoreSize;
+        this.solverLimits = options.solverLimits;
+        this.selectingLogic = options.selectingLogic;
+        this.presolving = options.presolving;
+        this.simplifying = options.simplifying;
+        this.solverBackends = options.solverBackends;
+        this.portfolio = options.portfolio;
+    }
+
+    /**
+     * {@return the default options}
+     */
+    public static FlowOptions defaultOptions() {
+        return new FlowOptions();
+    }
+
+    /**
+     * Returns whether snapshots which reach the same label are merged into a single snapshot.
+     * <p>
+     * If enabled, snapshots which reach the same label with the same stack shape are merged into a single snapshot.
+     * Values which differ between the snapshots are replaced by conditional expressions over the path conditions of
+     * each snapshot, and the path condition of the merged snapshot is the disjunction of the path conditions. As a
+     * result, a method with a number of sequential branches has a number of exit points proportional to the number
+     * of branches, instead of exponential. Merging takes precedence over {@link #getParallelism()}, as such, a method
+     * which merges snapshots is always explored by a single thread.
+     *
+     * @return whether snapshots are merged.
+     */
+    public boolean isMerging() {
+        return merging;
+    }
+
+    /**
+     * Returns a copy of these options where snapshots are merged at labels.
+     *
+     * @param merging whether snapshots are merged.
+     * @return a copy of these options.
+     * @see #isMerging()
+     */
+    public FlowOptions withMerging(boolean merging) {
+        FlowOptions options = new FlowOptions(this);
+        options.merging = merging;
+        return options;
+    }
+
+    /**
+     * Returns whether all entries of the summary of a method are merged into a single entry.
+     * <p>
+     * The summary of a method contains an entry for each value returned by the method, and each entry is checked
+     * separately at each call site. If enabled, all entries are merged into a single entry, whose value is a conditional
+     * expression over the path conditions of each entry, as such, each call site creates a single snapshot and performs
+     * at most a single query, at the cost of larger expressions.
+     *
+     * @return whether summaries are merged.
+     * @see MethodSummary
+     */
+    public boolean isMergingSummaries() {
+        return mergingSummaries;
+    }
+
+    /**
+     * Returns a copy of these options where all entries of the summary of a method are merged into a single entry.
+     *
+     * @param mergingSummaries whether summaries are merged.
+     * @return a copy of these options.
+     * @see #isMergingSummaries()
+     */
+    public FlowOptions withMergingSummaries(boolean mergingSummaries) {
+        FlowOptions options = new FlowOptions(this);
+        options.mergingSummaries = mergingSummaries;
+        return options;
+    }
+
+    /**
+     * {@return the maximum number of snapshots visited while exploring a method}
+     *
+     * @see Budget#SNAPSHOTS
+     */
+    public int getMaxSnapshots() {
+        return maxSnapshots;
+    }
+
+    /**
+     * Returns a copy of these options with the specified maximum number of snapshots visited while exploring a method.
+     *
+     * @param maxSnapshots the maximum number of snapshots.
+     * @return a copy of these options.
+     * @throws IllegalArgumentException if the maximum number of snapshots is not positive.
+     * @see Budget#SNAPSHOTS
+     */
+    public FlowOptions withMaxSnapshots(int maxSnapshots) {
+        FlowOptions options = new FlowOptions(this);
+        options.maxSnapshots = requirePositive(maxSnapshots);
+        return options;
+    }
+
+    /**
+     * {@return the maximum number of snapshots along a single path}
+     *
+     * @see Budget#DEPTH
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns a copy of these options with the specified maximum number of snapshots along a single path.
+     *
+     * @param maxDepth the maximum number of snapshots along a single path.
+     * @return a copy of these options.
+     * @throws IllegalArgumentException if the maximum depth is not positive.
+     * @see Budget#DEPTH
+     */
+    public FlowOptions withMaxDepth(int maxDepth) {
+        FlowOptions options = new FlowOptions(this);
+        options.maxDepth = requirePositive(maxDepth);
+        return options;
+    }
+
+    /**
+     * {@return the maximum number of times a single path visits the same loop header}
+     *
+     * @see Budget#LOOP_VISITS
+     */
+    public int getMaxLoopVisits() {
+        return maxLoopVisits;
+    }
+
+    /**
+     * Returns a copy of these options with the specified maximum number of times a single path visits the same loop
+     * header.
+     *
+     * @param maxLoopVisits the maximum number of visits.
+     * @return a copy of these options.
+     * @throws IllegalArgumentException if the maximum number of visits is not positive.
+     * @see Budget#LOOP_VISITS
+     */
+    public FlowOptions withMaxLoopVisits(int maxLoopVisits) {
+        FlowOptions options = new FlowOptions(this);
+        options.maxLoopVisits = requirePositive(maxLoopVisits);
+        return options;
+    }
+
+    /**
+     * {@return the maximum time spent exploring a method, or {@code null} if the time is not limited}
+     *
+     * @see Budget#DEADLINE
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Returns a copy of these options with the specified maximum time spent exploring a method.
+     *
+     * @param timeout the maximum time, or {@code null} if the time is not limited.
+     * @return a copy of these options.
+     * @throws IllegalArgumentException if the timeout is negative.
+     * @see Budget#DEADLINE
+     */
+    public FlowOptions withTimeout(Duration timeout) {
+        if (timeout != null && timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+        }
+        FlowOptions options = new FlowOptions(this);
+        options.timeout = timeout;
+        return options;
+    }
+
+    /**
+     * Returns the number of threads used to explore a method.
+     * <p>
+     * If more than one thread is used, paths are explored in parallel by a pool of workers, which steal pending paths
+     * from each other. Each worker uses its own solver, so that reachability queries are performed concurrently. The
+     * exit points of a method are the same regardless of the number of threads, although their order might differ.
+     * This option is ignored if snapshots are merged, see {@link #isMerging()}, in which case a method is always
+     * explored by a single thread.
+     *
+     * @return the number of threads used to explore a method.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns a copy of these options with the specified number of threads used to explore a method.
+     *
+     * @param parallelism the number of threads.
+     * @return a copy of these options.
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     * @see #getParallelism()
+     */
+    public FlowOptions withParallelism(int parallelism) {
+        FlowOptions options = new FlowOptions(this);
+        options.parallelism = requirePositive(parallelism);
+        return options;
+    }
+
+    /**
+     * Returns the number of threads used to analyze methods in the background.
+     * <p>
+     * If no threads are used, a method is analyzed when it is created. Otherwise, a method is analyzed by a pool of
+     * workers once all methods it calls have been analyzed, as such, methods are analyzed bottom-up over the call graph,
+     * and methods which do not depend on each other are analyzed concurrently. Each worker uses its own solver. A method
+     * which is analyzed in the background is waited for when its results are used, and a failure during its analysis
+     * is thrown at that point instead of when it is created. Only the options of the data flow analyzer are used.
+     *
+     * @return the number of threads used to analyze methods, or {@code 0} if methods are analyzed when they are
+     * created.
+     * @see Flow.Method#await()
+     */
+    public int getMethodParallelism() {
+        return methodParallelism;
+    }
+
+    /**
+     * Returns a copy of these options with the specified number of threads used to analyze methods in the background.
+     *
+     * @param methodParallelism the number of threads, or {@code 0} if methods should be analyzed when they are created.
+     * @return a copy of these options.
+     * @throws IllegalArgumentException if the number of threads is negative.
+     * @see #getMethodParallelism()
+     */
+    public FlowOptions withMethodParallelism(int methodParallelism) {
+        if (methodParallelism < 0) {
+            throw new IllegalArgumentException("method parallelism must not be negative: " + methodParallelism);
+        }
+        FlowOptions options = new FlowOptions(this);
+        options.methodParallelism = methodParallelism;
+        return options;
+    }
+
+    /**
+     * Returns whether the reachability of both sides of a conditional branch is only checked once it matters.
+     * <p>
+     * If disabled, both sides of every conditional branch are checked, and a side is only explored if it is reachable.
+     * If enabled, both sides are explored without being checked, and a path is only checked before it returns,
+     * asserts a value, or calls a method, or once the number of unchecked conditions along the path reaches the
+     * {@linkplain #getFeasibilityInterval() feasibility interval}. A path which is not reachable is abandoned once it is
+     * checked. As a result, paths which are never checked do not require any queries, and the conditions of a path are
+     * checked together by a single query. However, paths which are not reachable are explored until they are checked,
+     * and the snapshots returned by {@link Flow.Method#beforeInstruction(com.bossymr.flow.instruction.Instruction)} are
+     * checked when they are requested.
+     *
+     * @return whether the reachability of branches is checked lazily.
+     */
+    public boolean isLazyFeasibility() {
+        return lazyFeasibility;
+    }
+
+    /**
+     * Returns a copy of these options where the reachability of branches is checked lazily.
+     *
+     * @param lazyFeasibility whether the reachability of branches is checked lazily.
+     * @return a copy of these options.
+     * @see #isLazyFeasibility()
+     */
+    public FlowOptions withLazyFeasibility(boolean lazyFeasibility) {
+        FlowOptions options = new FlowOptions(this);
+        options.lazyFeasibility = lazyFeasibility;
+        return options;
+    }
+
+    /**
+     * {@return the maximum number of unchecked conditions along a path, if the reachability of branches is checked
+     * lazily}
+     *
+     * @see #isLazyFeasibility()
+     */
+    public int getFeasibilityInterval() {
+        return feasibilityInterval;
+    }
+
+    /**
+     * Returns a copy of these options with the specified maximum number of unchecked conditions along a path.
+     *
+     * @param feasibilityInterval the maximum number of unchecked conditions.
+     * @return a copy of these options.
+     * @throws IllegalArgumentException if the interval is not positive.
+     * @see #isLazyFeasibility()
+     */
+    public FlowOptions withFeasibilityInterval(int feasibilityInterval) {
+        FlowOptions options = new FlowOptions(this);
+        options.feasibilityInterval = requirePositive(feasibilityInterval);
+        return options;
+    }
+
+    /**
+     * Returns the maximum number of results kept in the query cache.
+     * <p>
+     * The result of each reachability query is cached, keyed on the constraints of the queried snapshot, so that a
+     * query with the same constraints as a previous query is not checked by a solver. The cache is shared by all methods
+     * of a data flow analyzer, as such, only the options of the data flow analyzer are used.
+     *
+     * @return the maximum number of cached results, or {@code 0} if results are not cached.
+     */
+    public int getQueryCacheSize() {
+        return queryCacheSize;
+    }
+
+    /**
+     * Returns a copy of these options with the specified maximum number of results kept in the query cache.
+     *
+     * @param queryCacheSize the maximum number of cached results, or {@code 0} if results should not be cached.
+     * @return a copy of these options.
+     * @throws IllegalArgumentException if the maximum number of results is negative.
+     * @see #getQueryCacheSize()
+     */
+    public FlowOptions withQueryCacheSize(int queryCacheSize) {
+        if (queryCacheSize < 0) {
+            throw new IllegalArgumentException("query cache size must not be negative: " + queryCacheSize);
+        }
+        FlowOptions options = new FlowOptions(this);
+        options.queryCacheSize = queryCacheSize;
+        return options;
+    }
+
+    /**
+     * Returns whether the constraints of a snapshot are split into independent groups before they are checked.
+     * <p>
+     * If enabled, the constraints of a snapshot are split into groups which do not share any variables, and each group
+     * is checked separately. Only the groups which contain the most recently added constraints are usually not found in
+     * the query cache, as such, the solver only checks the constraints which might make the snapshot unreachable. The
+     * solver is not used incrementally while constraints are sliced. Only the options of the data flow analyzer are
+     * used.
+     *
+     * @return whether constraints are sliced.
+     */
+    public boolean isSlicing() {
+        return slicing;
+    }
+
+    /**
+     * Returns a copy of these options where the constraints of a snapshot are split into independent groups.
+     *
+     * @param slicing whether constraints are sliced.
+     * @return a copy of these options.
+     * @see #isSlicing()
+     */
+    public FlowOptions withSlicing(boolean slicing) {
+        FlowOptions options = new FlowOptions(this);
+        options.slicing = slicing;
+        return options;
+    }
+
+    /**
+     * Returns the maximum number of models kept in the model cache.
+     * <p>
+     * The model of each satisfiable query is cached, and the constraints of each query are evaluated against the cached
+     * models before they are checked by a solver. If any model satisfies the constraints, the query is reachable, and the
+     * solver is not used. Every cached model is evaluated on a miss, as such, the cache should be small. The cache is
+     * shared by all methods of a data flow analyzer, as such, only the options of the data flow analyzer are used.
+     *
+     * @return the maximum number of cached models, or {@code 0} if models are not cached.
+     */
+    public int getModelCacheSize() {
+        return modelCacheSize;
+    }
+
+    /**
+     * Returns a copy of these options with the specified maximum number of models kept in the model cache.
+     *
+     * @param modelCacheSize the maximum number of cached models, or {@code 0} if models should not be cached.
+     * @return a copy of these options.
+     * @throws IllegalArgumentException if the maximum number of models is negative.
+     * @see #getModelCacheSize()
+     */
+    public FlowOptions withModelCacheSize(int modelCacheSize) {
+        if (modelCacheSize < 0) {
+            throw new IllegalArgumentException("model cache size must not be negative: " + modelCacheSize);
+        }
+        FlowOptions options = new FlowOptions(this);
+        options.modelCacheSize = modelCacheSize;
+        return options;
+    }
+
+    /**
+     * Returns the maximum number of conflicts kept in the conflict store.
+     * <p>
+     * If a query is not satisfiable, its unsat core is learned as a conflict, and a query whose constraints contain a
+     * learned conflict is not reachable without being checked by a solver. If the solver cannot produce an unsat core,
+     * all constraints of the query are learned instead. The store is shared by all methods of a data flow analyzer, as
+     * such, only the options of the data flow analyzer are used.
+     *
+     * @return the maximum number of learned conflicts, or {@code 0} if conflicts are not learned.
+     * @see com.bossymr.flow.constraint.ConflictStore
+     */
+    public int getConflictStoreSize() {
+        return conflictStoreSize;
+    }
+
+    /**
+     * Returns a copy of these options with the specified maximum number of conflicts kept in the conflict store.
+     *
+     * @param conflictStoreSize the maximum number of learned conflicts, or {@code 0} if conflicts should not be learned.
+     * @return a copy of these options.
+     * @throws IllegalArgumentException if the maximum number of conflicts is negative.
+     * @see #getConflictStoreSize()
+     */
+    public FlowOptions withConflictStoreSize(int conflictStoreSize) {
+        if (conflictStoreSize < 0) {
+            throw new IllegalArgumentException("conflict store size must not be negative: " + conflictStoreSize);
+        }
+        FlowOptions options = new FlowOptions(this);
+        options.conflictStoreSize = conflictStoreSize;
+        return options;
+    }
+
+    /**
+     * Returns the escalation policy used when the result of a satisfiability query is unknown.
+     * <p>
+     * Each query is first performed with the first limit. If the result of the query is unknown, the query is retried
+     * with the next limit, until either the result is known or every limit has been used, in which case the result is
+     * unknown. Limits should therefore be ordered from the cheapest to the most expensive, for example, a small
+     * resource limit followed by a larger timeout. If no limits are specified, queries are not limited. The policy is
+     * shared by all methods of a data flow analyzer, as such, only the options of the data flow analyzer are used.
+     *
+     * @return the limits of each attempt.
+     */
+    public List<SolverLimit> getSolverLimits() {
+        return solverLimits;
+    }
+
+    /**
+     * Returns a copy of these options with the specified escalation policy.
+     *
+     * @param solverLimits the limits of each attempt, or an empty list if queries should not be limited.
+     * @return a copy of these options.
+     * @see #getSolverLimits()
+     */
+    public FlowOptions withSolverLimits(List<SolverLimit> solverLimits) {
+        FlowOptions options = new FlowOptions(this);
+        options.solverLimits = List.copyOf(solverLimits);
+        return options;
+    }
+
+    /**
+     * Returns whether each query is checked by a solver configured with the narrowest logic which covers the query.
+     * <p>
+     * If enabled, the constraints of each query are inspected for the theories they use, for example, whether they use
+     * integers, reals, strings or nonlinear arithmetic, and a separate solver is kept for each logic. Otherwise, every
+     * query is checked by a solver configured with all supported theories, unless no backend supports all theories.
+     * Only the options of the data flow analyzer are used.
+     *
+     * @return whether the logic of each query is selected.
+     * @see com.bossymr.flow.constraint.Logic
+     */
+    public boolean isSelectingLogic() {
+        return selectingLogic;
+    }
+
+    /**
+     * Returns a copy of these options where the logic of each query is selected.
+     *
+     * @param selectingLogic whether the logic of each query is selected.
+     * @return a copy of these options.
+     * @see #isSelectingLogic()
+     */
+    public FlowOptions withSelectingLogic(boolean selectingLogic) {
+        FlowOptions options = new FlowOptions(this);
+        options.selectingLogic = selectingLogic;
+        return options;
+    }
+
+    /**
+     * Returns whether queries whose constraints only bound variables by constants are decided without a solver.
+     * <p>
+     * If enabled, constraints which compare a variable with a literal are collected as an interval for each variable.
+     * A query is not reachable if the interval of any variable is empty, and reachable if every constraint is such a
+     * bound. Otherwise, the query is checked by a solver. Only the options of the data flow analyzer are used.
+     *
+     * @return whether queries are presolved.
+     */
+    public boolean isPresolving() {
+        return presolving;
+    }
+
+    /**
+     * Returns a copy of these options where queries are presolved.
+     *
+     * @param presolving whether queries are presolved.
+     * @return a copy of these options.
+     * @see #isPresolving()
+     */
+    public FlowOptions withPresolving(boolean presolving) {
+        FlowOptions options = new FlowOptions(this);
+        options.presolving = presolving;
+        return options;
+    }
+
+    /**
+     * Returns whether expressions are simplified when they are created.
+     * <p>
+     * If enabled, literals are folded, double negations are cancelled, sums, conjunctions, and disjunctions are
+     * flattened, and comparisons are normalized as each expression is created. As a result, an expression such as a
+     * loop counter stays the same size regardless of the number of iterations, and equivalent constraints are more
+     * likely to have the same structure. Only the options of the data flow analyzer are used.
+     *
+     * @return whether expressions are simplified.
+     * @see com.bossymr.flow.expression.Simplifier
+     */
+    public boolean isSimplifying() {
+        return simplifying;
+    }
+
+    /**
+     * Returns a copy of these options where expressions are simplified.
+     *
+     * @param simplifying whether expressions are simplified.
+     * @return a copy of these options.
+     * @see #isSimplifying()
+     */
+    public FlowOptions withSimplifying(boolean simplifying) {
+        FlowOptions options = new FlowOptions(this);
+        options.simplifying = simplifying;
+        return options;
+    }
+
+    /**
+     * Returns the backends used to check whether constraints are satisfiable, in order of preference.
+     * <p>
+     * Each query is checked by the first backend which is available on this platform and supports the logic of the
+     * query. By default, every query is decided by cvc5, and, if cvc5 is not available on this platform, linear
+     * arithmetic is decided by a backend implemented in Java. If no backend supports the logic of a query, its result is
+     * unknown. Only the options of the
+     * data flow analyzer are used.
+     *
+     * @return the backends, in order of preference.
+     * @see com.bossymr.flow.constraint.Logic
+     */
+    public List<SolverBackend> getSolverBackends() {
+        return solverBackends;
+    }
+
+    /**
+     * Returns a copy of these options with the specified backends.
+     *
+     * @param solverBackends the backends, in order of preference.
+     * @return a copy of these options.
+     * @see #getSolverBackends()
+     */
+    public FlowOptions withSolverBackends(List<SolverBackend> solverBackends) {
+        FlowOptions options = new FlowOptions(this);
+        options.solverBackends = List.copyOf(solverBackends);
+        return options;
+    }
+
+    /**
+     * Returns the configurations which race to decide hard queries.
+     * <p>
+     * A query is hard if its result is unknown after the first limit of the escalation policy, as such, a portfolio is
+     * only used if at least one limit is specified. A hard query is performed by every configuration which supports its
+     * logic on a separate thread, limited by the last limit of the escalation policy, or by a multiple of the first limit
+     * if only a single limit is specified. The first configuration to decide the query wins, and is used directly for later hard
+     * queries with the same logic and a similar number of constraints. For example, a portfolio might consist of
+     * multiple cvc5 backends with different options. Configurations must be separate instances, which are not also solver
+     * backends, since the sessions of a backend might not be usable by multiple threads at the same time. If no configurations are specified, hard
+     * queries are instead retried with each limit in turn. Only the options of the data flow analyzer are used.
+     *
+     * @return the configurations of the portfolio.
+     * @see com.bossymr.flow.constraint.Portfolio
+     * @see #getSolverLimits()
+     */
+    public List<SolverBackend> getPortfolio() {
+        return portfolio;
+    }
+
+    /**
+     * Returns a copy of these options with the specified portfolio.
+     *
+     * @param portfolio the configurations of the portfolio, or an empty list if no portfolio should be used.
+     * @return a copy of these options.
+     * @see #getPortfolio()
+     */
+    public FlowOptions withPortfolio(List<SolverBackend> portfolio) {
+        FlowOptions options = new FlowOptions(this);
+        options.portfolio = List.copyOf(portfolio);
+        return options;
+    }
+
+    private static int requirePositive(int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("value must be positive: " + value);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowOptions{" +
+                "merging=" + merging +
+                ", mergingSummaries=" + mergingSummaries +
+                ", maxSnapshots=" + maxSnapshots +
+                ", maxDepth=" + maxDepth +
+                ", maxLoopVisits=" + maxLoopVisits +
+                ", timeout=" + timeout +
+                ", parallelism=" + parallelism +
+                ", methodParallelism=" + methodParallelism +
+                ", lazyFeasibility=" + lazyFeasibility +
+                ", feasibilityInterval=" + feasibilityInterval +
+                ", queryCacheSize=" + queryCacheSize +
+                ", slicing=" + slicing +
+                ", modelCacheSize=" + modelCacheSize +
+                ", conflictStoreSize=" + conflictStoreSize +
+                ", solverLimits=" + solverLimits +
+                ", selectingLogic=" + selectingLogic +
+                ", presolving=" + presolving +
+                ", simplifying=" + simplifying +
+                ", solverBackends=" + solverBackends +
+                ", portfolio=" + portfolio +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.bossymr.flow;
+
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.ExpressionFactory;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.state.FlowSnapshot;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code MethodSummary} describes the return values of a method over the arguments of the method.
+ * <p>
+ * Each entry of a summary is the path condition under which a method returns a value, and the value it returns. Exit
+ * points which return the same value are combined into a single entry, whose condition is the disjunction of their path
+ * conditions. If summaries are merged, all entries are combined into a single entry, whose value is a conditional
+ * expression over the conditions of each entry. A summary is computed once, and is instantiated at each call site by
+ * replacing the arguments of the method with the values passed by the caller.
+ *
+ * @see FlowOptions#isMergingSummaries()
+ */
+public final class MethodSummary {
+
+    private final List<Entry> entries;
+
+    private MethodSummary(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Computes the summary of the provided exit points.
+     *
+     * @param factory the factory used to create the conditions and values of the summary.
+     * @param exitPoints the exit points, where the return value is at the top of the stack.
+     * @param merging whether all entries are combined into a single entry.
+     * @return the summary of the exit points.
+     */
+    static MethodSummary of(ExpressionFactory factory, List<FlowSnapshot> exitPoints, boolean merging) {
+        Map<Expression, Entry> entries = new LinkedHashMap<>();
+        for (FlowSnapshot exitPoint : exitPoints) {
+            Expression condition = exitPoint.getPathCondition();
+            condition = condition != null ? factory.canonicalize(condition) : factory.booleanLiteral(true);
+            if (isLiteral(condition, false)) {
+                continue;
+            }
+            Expression returnValue = factory.canonicalize(exitPoint.peek());
+            entries.merge(returnValue, new Entry(condition, returnValue, List.of(exitPoint)), (entry, other) -> entry.combine(factory, other));
+        }
+        List<Entry> summary = List.copyOf(entries.values());
+        if (merging && summary.size() > 1) {
+            // The value of the last entry is used if the condition of no other entry is satisfied, as such, the values
+            // are nested in reverse order.
+            Entry merged = summary.getLast();
+            for (Entry entry : summary.reversed().subList(1, summary.size())) {
+                List<FlowSnapshot> points = new ArrayList<>(entry.exitPoints());
+                points.addAll(merged.exitPoints());
+                merged = new Entry(factory.binary(BinaryOperator.OR, entry.condition(), merged.condition()),
+                        factory.conditional(entry.condition(), entry.returnValue(), merged.returnValue()),
+                        List.copyOf(points));
+            }
+            summary = List.of(merged);
+        }
+        return new MethodSummary(summary);
+    }
+
+    /**
+     * Checks whether the provided expression is a boolean literal with the provided value.
+     *
+     * @param expression the expression.
+     * @param value the value.
+     * @return whether the expression is a literal with the value.
+     */
+    static boolean isLiteral(Expression expression, boolean value) {
+        return expression instanceof LiteralExpression literal && literal.getValue() instanceof Boolean other && other == value;
+    }
+
+    /**
+     * {@return the entries of this summary}
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return entries.toString();
+    }
+
+    /**
+     * An {@code Entry} is a value returned by a method, and the condition under which it is returned.
+     *
+     * @param condition the condition, over the arguments of the method.
+     * @param returnValue the return value, over the arguments of the method.
+     * @param exitPoints the exit points summarized by this entry.
+     */
+    public record Entry(Expression condition, Expression returnValue, List<FlowSnapshot> exitPoints) {
+
+        private Entry combine(ExpressionFactory factory, Entry other) {
+            List<FlowSnapshot> points = new ArrayList<>(exitPoints);
+            points.addAll(other.exitPoints);
+            return new Entry(factory.binary(BinaryOperator.OR, condition, other.condition), returnValue, List.copyOf(points));
+        }
+
+        @Override
+        public String toString() {
+            return condition + " -> " + returnValue;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.bossymr.flow;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * A {@code Rational} represents an exact rational number.
+ * <p>
+ * A rational number is always normalized, so that its denominator is positive, and its numerator and denominator do not
+ * have a common divisor. As a result, two rational numbers are equal if and only if they represent the same number.
+ */
+public final class Rational implements Comparable<Rational> {
+
+    public static final Rational ZERO = new Rational(BigInteger.ZERO, BigInteger.ONE);
+    public static final Rational ONE = new Rational(BigInteger.ONE, BigInteger.ONE);
+
+    private final BigInteger numerator;
+    private final BigInteger denominator;
+
+    private Rational(BigInteger numerator, BigInteger denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    /**
+     * Returns a rational number with the provided integer value.
+     *
+     * @param value the value.
+     * @return a rational number.
+     */
+    public static Rational valueOf(long value) {
+        return valueOf(BigInteger.valueOf(value));
+    }
+
+    /**
+     * Returns a rational number with the provided integer value.
+     *
+     * @param value the value.
+     * @return a rational number.
+     */
+    public static Rational valueOf(BigInteger value) {
+        return new Rational(value, BigInteger.ONE);
+    }
+
+    /**
+     * Returns a rational number with the provided numerator and denominator.
+     *
+     * @param numerator the numerator.
+     * @param denominator the denominator.
+     * @return a rational number.
+     * @throws ArithmeticException if the denominator is zero.
+     */
+    public static Rational valueOf(long numerator, long denominator) {
+        return valueOf(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+    }
+
+    /**
+     * Returns a rational number with the provided numerator and denominator.
+     *
+     * @param numerator the numerator.
+     * @param denominator the denominator.
+     * @return a rational number.
+     * @throws ArithmeticException if the denominator is zero.
+     */
+    public static Rational valueOf(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0) {
+            throw new ArithmeticException("denominator is zero");
+        }
+        if (denominator.signum() < 0) {
+            numerator = numerator.negate();
+            denominator = denominator.negate();
+        }
+        BigInteger divisor = numerator.gcd(denominator);
+        if (!(divisor.equals(BigInteger.ONE))) {
+            numerator = numerator.divide(divisor);
+            denominator = denominator.divide(divisor);
+        }
+        return new Rational(numerator, denominator);
+    }
+
+    /**
+     * {@return the numerator of this number}
+     */
+    public BigInteger getNumerator() {
+        return numerator;
+    }
+
+    /**
+     * {@return the denominator of this number, which is always positive}
+     */
+    public BigInteger getDenominator() {
+        return denominator;
+    }
+
+    /**
+     * {@return whether this number is an integer}
+     */
+    public boolean isInteger() {
+        return denominator.equals(BigInteger.ONE);
+    }
+
+    /**
+     * {@return the signum of this number}
+     */
+    public int signum() {
+        return numerator.signum();
+    }
+
+    public Rational add(Rational other) {
+        if (denominator.equals(other.denominator)) {
+            return valueOf(numerator.add(other.numerator), denominator);
+        }
+        return valueOf(numerator.multiply(other.denominator).add(other.numerator.multiply(denominator)), denominator.multiply(other.denominator));
+    }
+
+    public Rational subtract(Rational other) {
+        return add(other.negate());
+    }
+
+    public Rational multiply(Rational other) {
+        return valueOf(numerator.multiply(other.numerator), denominator.multiply(other.denominator));
+    }
+
+    /**
+     * Divides this number by the provided number.
+     *
+     * @param other the divisor.
+     * @return the quotient.
+     * @throws ArithmeticException if the divisor is zero.
+     */
+    public Rational divide(Rational other) {
+        return valueOf(numerator.multiply(other.denominator), denominator.multiply(other.numerator));
+    }
+
+    public Rational negate() {
+        return new Rational(numerator.negate(), denominator);
+    }
+
+    /**
+     * {@return the largest integer which is less than or equal to this number}
+     */
+    public BigInteger floor() {
+        BigInteger[] result = numerator.divideAndRemainder(denominator);
+        if (result[1].signum() < 0) {
+            return result[0].subtract(BigInteger.ONE);
+        }
+        return result[0];
+    }
+
+    @Override
+    public int compareTo(Rational other) {
+        return numerator.multiply(other.denominator).compareTo(other.numerator.multiply(denominator));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        Rational rational = (Rational) o;
+        return Objects.equals(numerator, rational.numerator) && Objects.equals(denominator, rational.denominator);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(numerator, denominator);
+    }
+
+    @Override
+    public String toString() {
+        if (isInteger()) {
+            return numerator.toString();
+        }
+        return numerator + "/" + denominator;
+    }
+}
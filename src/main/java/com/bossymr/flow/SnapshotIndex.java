@@ -0,0 +1,121 @@
+package com.bossymr.flow;
+
+import com.bossymr.flow.state.FlowSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An index of the snapshots made before and after each instruction of a method.
+ * <p>
+ * The index is populated while the method is explored, as every snapshot is called, so that finding the snapshots made
+ * before or after an instruction does not require searching through every path of the method. Instructions are
+ * identified by their index in the control flow graph of the method.
+ * <p>
+ * If the reachability of branches is checked lazily, a path might be explored past a branch which it cannot take, as
+ * such, each snapshot is checked before it is returned, and snapshots on paths which are not reachable are not returned.
+ * The snapshots made before an instruction are found through the snapshots which represent the instruction, since the
+ * condition of a branch is required by the successor of the branch, and not by the snapshot before the successor.
+ *
+ * @see FlowOptions#isLazyFeasibility()
+ */
+final class SnapshotIndex {
+
+    /**
+     * The snapshots which represent each instruction, whose predecessors are the snapshots made before the instruction.
+     */
+    private final AtomicReferenceArray<List<FlowSnapshot>> before;
+    private final AtomicReferenceArray<List<FlowSnapshot>> after;
+    private final boolean lazyFeasibility;
+
+    /**
+     * Creates a new empty index.
+     *
+     * @param size the number of instructions in the method.
+     * @param lazyFeasibility whether the reachability of branches is checked lazily.
+     */
+    SnapshotIndex(int size, boolean lazyFeasibility) {
+        this.before = new AtomicReferenceArray<>(size);
+        this.after = new AtomicReferenceArray<>(size);
+        this.lazyFeasibility = lazyFeasibility;
+    }
+
+    /**
+     * Adds a snapshot which was called, and the successors it produced, to this index.
+     *
+     * @param index the index of the instruction of the snapshot.
+     * @param snapshot the snapshot.
+     * @param successors the successors of the snapshot.
+     */
+    void add(int index, FlowSnapshot snapshot, List<FlowSnapshot> successors) {
+        addBefore(index, snapshot);
+        for (FlowSnapshot successor : successors) {
+            // A call instruction creates an intermediate snapshot for each exit point of the called method, which
+            // belongs to the same instruction. Only the snapshot after the intermediate snapshot is made after the
+            // instruction.
+            if (successor.getInstruction() != snapshot.getInstruction()) {
+                getList(after, index).add(successor);
+            }
+        }
+    }
+
+    private void addBefore(int index, FlowSnapshot snapshot) {
+        if (!(snapshot.getMergedSnapshots().isEmpty())) {
+            // A merged snapshot represents the same instruction as the snapshots it was merged from.
+            for (FlowSnapshot mergedSnapshot : snapshot.getMergedSnapshots()) {
+                addBefore(index, mergedSnapshot);
+            }
+            return;
+        }
+        if (snapshot.getPredecessor() != null) {
+            getList(before, index).add(snapshot);
+        }
+    }
+
+    /**
+     * Returns all snapshots made before the instruction at the specified index.
+     *
+     * @param index the index of the instruction.
+     * @return all snapshots made before the instruction.
+     */
+    List<FlowSnapshot> getBefore(int index) {
+        List<FlowSnapshot> snapshots = getSnapshots(before.get(index));
+        snapshots.replaceAll(FlowSnapshot::getPredecessor);
+        return snapshots;
+    }
+
+    /**
+     * Returns all snapshots made after the instruction at the specified index.
+     *
+     * @param index the index of the instruction.
+     * @return all snapshots made after the instruction.
+     */
+    List<FlowSnapshot> getAfter(int index) {
+        return getSnapshots(after.get(index));
+    }
+
+    private static List<FlowSnapshot> getList(AtomicReferenceArray<List<FlowSnapshot>> lists, int index) {
+        List<FlowSnapshot> list = lists.get(index);
+        if (list == null) {
+            lists.compareAndSet(index, null, Collections.synchronizedList(new ArrayList<>(2)));
+            list = lists.get(index);
+        }
+        return list;
+    }
+
+    private List<FlowSnapshot> getSnapshots(List<FlowSnapshot> list) {
+        if (list == null) {
+            return new ArrayList<>();
+        }
+        List<FlowSnapshot> snapshots;
+        synchronized (list) {
+            snapshots = new ArrayList<>(list);
+        }
+        if (lazyFeasibility) {
+            snapshots.removeIf(snapshot -> !(snapshot.isFeasible()));
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,111 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.expression.Expression;
+
+import java.util.*;
+
+/**
+ * A store of the conflicts learned from unsatisfiable queries.
+ * <p>
+ * A conflict is a set of constraints which is unsatisfiable, usually the unsat core of a query. Any set of constraints
+ * which contains every constraint of a conflict is also unsatisfiable, as such, a query whose constraints contain a
+ * known conflict is not checked by a solver. Since expressions are interned, a path which shares the constraints which
+ * made a sibling path unreachable is found to be unreachable without a solver.
+ * <p>
+ * Each conflict is indexed by one of its constraints, so that only the conflicts indexed by a constraint of a query are
+ * compared with the query. The store is bounded, and the least recently used conflict is evicted once the store is
+ * full. A store is shared by all solvers of a data flow analyzer.
+ */
+public class ConflictStore {
+
+    private final Map<Set<Expression>, Set<Expression>> conflicts;
+
+    /**
+     * The conflicts indexed by each constraint.
+     */
+    private final Map<Expression, List<Set<Expression>>> watches = new HashMap<>();
+
+    /**
+     * Creates a new empty store.
+     *
+     * @param capacity the maximum number of conflicts kept by this store.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public ConflictStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.conflicts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Set<Expression>, Set<Expression>> eldest) {
+                if (size() > capacity) {
+                    unwatch(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a known conflict which is contained in the provided constraints.
+     *
+     * @param constraints the constraints.
+     * @return a conflict contained in the constraints, or {@code null} if no known conflict is contained in the
+     * constraints.
+     */
+    public synchronized Set<Expression> find(Collection<Expression> constraints) {
+        if (conflicts.isEmpty()) {
+            return null;
+        }
+        Set<Expression> set = constraints instanceof Set<Expression> value ? value : new HashSet<>(constraints);
+        for (Expression constraint : set) {
+            List<Set<Expression>> candidates = watches.get(constraint);
+            if (candidates == null) {
+                continue;
+            }
+            for (Set<Expression> conflict : candidates) {
+                if (set.containsAll(conflict)) {
+                    // Mark the conflict as recently used.
+                    conflicts.get(conflict);
+                    return conflict;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a conflict to this store.
+     *
+     * @param conflict the constraints, which must be unsatisfiable.
+     * @throws IllegalArgumentException if the conflict is empty.
+     */
+    public synchronized void add(Collection<Expression> conflict) {
+        if (conflict.isEmpty()) {
+            throw new IllegalArgumentException("conflict must not be empty");
+        }
+        Set<Expression> key = Set.copyOf(conflict);
+        if (conflicts.containsKey(key)) {
+            return;
+        }
+        watches.computeIfAbsent(key.iterator().next(), constraint -> new ArrayList<>(1)).add(key);
+        conflicts.put(key, key);
+    }
+
+    private void unwatch(Set<Expression> conflict) {
+        Expression constraint = conflict.iterator().next();
+        List<Set<Expression>> candidates = watches.get(constraint);
+        candidates.remove(conflict);
+        if (candidates.isEmpty()) {
+            watches.remove(constraint);
+        }
+    }
+
+    /**
+     * {@return the number of conflicts in this store}
+     */
+    public synchronized int size() {
+        return conflicts.size();
+    }
+}
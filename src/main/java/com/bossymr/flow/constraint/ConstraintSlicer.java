@@ -0,0 +1,105 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.expression.*;
+
+import java.util.*;
+
+/**
+ * Splits a set of constraints into independent groups.
+ * <p>
+ * Two constraints are dependent if they share a variable, either directly or through other constraints. Since
+ * independent groups do not share any variables, a set of constraints is satisfiable if and only if every group is
+ * satisfiable on its own. Constraints without any variables are placed in a group of their own.
+ */
+final class ConstraintSlicer {
+
+    private ConstraintSlicer() {}
+
+    /**
+     * Splits the provided constraints into independent groups. Groups which contain any of the provided relevant
+     * constraints are returned first, since they contain the constraints which have most recently been added, and
+     * are most likely to not be satisfiable.
+     *
+     * @param constraints the constraints.
+     * @param relevant the constraints which were most recently added.
+     * @return the independent groups.
+     */
+    static List<List<Expression>> slice(List<Expression> constraints, Set<Expression> relevant) {
+        int[] parents = new int[constraints.size()];
+        Map<AnyExpression, Integer> owners = new HashMap<>();
+        for (int i = 0; i < constraints.size(); i++) {
+            parents[i] = i;
+            for (AnyExpression variable : getVariables(constraints.get(i))) {
+                Integer owner = owners.putIfAbsent(variable, i);
+                if (owner != null) {
+                    union(parents, owner, i);
+                }
+            }
+        }
+        Map<Integer, List<Expression>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < constraints.size(); i++) {
+            groups.computeIfAbsent(find(parents, i), key -> new ArrayList<>()).add(constraints.get(i));
+        }
+        List<List<Expression>> result = new ArrayList<>(groups.size());
+        List<List<Expression>> remaining = new ArrayList<>(groups.size());
+        for (List<Expression> group : groups.values()) {
+            if (group.stream().anyMatch(relevant::contains)) {
+                result.add(group);
+            } else {
+                remaining.add(group);
+            }
+        }
+        result.addAll(remaining);
+        return result;
+    }
+
+    /**
+     * Returns all variables in the provided expression.
+     *
+     * @param expression the expression.
+     * @return all variables in the expression.
+     */
+    static Set<AnyExpression> getVariables(Expression expression) {
+        Set<AnyExpression> variables = new HashSet<>();
+        Set<Expression> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Expression> queue = new ArrayDeque<>();
+        queue.add(expression);
+        while (!queue.isEmpty()) {
+            Expression current = queue.pop();
+            if (!(visited.add(current))) {
+                continue;
+            }
+            switch (current) {
+                case AnyExpression anyExpression -> variables.add(anyExpression);
+                case LiteralExpression ignored -> {}
+                case UnaryExpression unaryExpression -> queue.add(unaryExpression.getExpression());
+                case BinaryExpression binaryExpression -> {
+                    queue.add(binaryExpression.getLeft());
+                    queue.add(binaryExpression.getRight());
+                }
+                case ConditionalExpression conditionalExpression -> {
+                    queue.add(conditionalExpression.getCondition());
+                    queue.add(conditionalExpression.getThenExpression());
+                    queue.add(conditionalExpression.getElseExpression());
+                }
+            }
+        }
+        return variables;
+    }
+
+    private static int find(int[] parents, int index) {
+        while (parents[index] != index) {
+            parents[index] = parents[parents[index]];
+            index = parents[index];
+        }
+        return index;
+    }
+
+    private static void union(int[] parents, int first, int second) {
+        int firstRoot = find(parents, first);
+        int secondRoot = find(parents, second);
+        if (firstRoot != secondRoot) {
+            parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+        }
+    }
+}
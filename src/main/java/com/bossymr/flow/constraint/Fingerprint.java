@@ -0,0 +1,134 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.type.ValueType;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A fingerprint of a set of constraints.
+ * <p>
+ * The fingerprint of an expression only depends on its structure, and the fingerprint of a set of constraints does not
+ * depend on the order of the constraints. As a result, the same constraints on different paths, or added in a different
+ * order, have the same fingerprint. The operands of commutative operators are also unordered. A fingerprint consists of
+ * two independent 64-bit hashes, as such, the probability that two different sets of constraints have the same
+ * fingerprint is negligible.
+ *
+ * @param low the first hash.
+ * @param high the second hash.
+ * @param size the number of constraints.
+ */
+public record Fingerprint(long low, long high, int size) {
+
+    /**
+     * The fingerprint of an empty set of constraints.
+     */
+    public static final Fingerprint EMPTY = new Fingerprint(0, 0, 0);
+
+    private static final long LOW_SEED = 0x9E3779B97F4A7C15L;
+    private static final long HIGH_SEED = 0xC2B2AE3D27D4EB4FL;
+
+    /**
+     * Returns the fingerprint of the union of the constraints of this fingerprint and the provided constraints.
+     *
+     * @param constraints the constraints.
+     * @return the fingerprint of the union of the constraints.
+     */
+    public Fingerprint with(Collection<Expression> constraints) {
+        if (constraints.isEmpty()) {
+            return this;
+        }
+        Map<Expression, long[]> hashes = new IdentityHashMap<>();
+        long low = this.low;
+        long high = this.high;
+        for (Expression constraint : constraints) {
+            long[] hash = hash(constraint, hashes);
+            // The hashes are summed so that the fingerprint does not depend on the order of the constraints.
+            low += hash[0];
+            high += hash[1];
+        }
+        return new Fingerprint(low, high, size + constraints.size());
+    }
+
+    /**
+     * Computes the hashes of the provided expression.
+     *
+     * @param expression the expression.
+     * @param hashes the hashes of expressions which have already been visited, since an expression might appear more
+     * than once in the same constraint.
+     * @return the hashes of the expression.
+     */
+    private static long[] hash(Expression expression, Map<Expression, long[]> hashes) {
+        long[] hash = hashes.get(expression);
+        if (hash != null) {
+            return hash;
+        }
+        hash = switch (expression) {
+            case AnyExpression anyExpression -> node(1, anyExpression.getId());
+            case LiteralExpression literalExpression -> node(2, hash(literalExpression.getType() + ":" + literalExpression));
+            case UnaryExpression unaryExpression -> {
+                long[] operand = hash(unaryExpression.getExpression(), hashes);
+                long[] result = node(3, hash(unaryExpression.getOperator().toString()));
+                yield combine(result, operand);
+            }
+            case BinaryExpression binaryExpression -> {
+                long[] left = hash(binaryExpression.getLeft(), hashes);
+                long[] right = hash(binaryExpression.getRight(), hashes);
+                long[] result = node(4, binaryExpression.getOperator().ordinal());
+                if (isCommutative(binaryExpression)) {
+                    yield combine(result, new long[]{left[0] + right[0], left[1] + right[1]}, new long[]{left[0] ^ right[0], left[1] ^ right[1]});
+                }
+                yield combine(result, left, right);
+            }
+            case ConditionalExpression conditionalExpression -> {
+                long[] condition = hash(conditionalExpression.getCondition(), hashes);
+                long[] thenExpression = hash(conditionalExpression.getThenExpression(), hashes);
+                long[] elseExpression = hash(conditionalExpression.getElseExpression(), hashes);
+                yield combine(node(5, 0), condition, thenExpression, elseExpression);
+            }
+        };
+        hashes.put(expression, hash);
+        return hash;
+    }
+
+    private static boolean isCommutative(BinaryExpression expression) {
+        return switch (expression.getOperator()) {
+            case EQUAL_TO, MULTIPLY, AND, XOR, OR -> true;
+            // Strings are also concatenated with the add operator, which is not commutative.
+            case ADD -> expression.getType() != ValueType.stringType();
+            default -> false;
+        };
+    }
+
+    private static long[] node(long kind, long value) {
+        return new long[]{mix(LOW_SEED ^ mix(kind + value * LOW_SEED)), mix(HIGH_SEED ^ mix(kind + value * HIGH_SEED))};
+    }
+
+    private static long[] combine(long[] node, long[]... operands) {
+        long low = node[0];
+        long high = node[1];
+        for (long[] operand : operands) {
+            low = mix(low * 31 + operand[0]);
+            high = mix(high * 37 + operand[1]);
+        }
+        return new long[]{low, high};
+    }
+
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -1,14 +1,15 @@
 package com.bossymr.flow.constraint;
 
 import com.bossymr.flow.Flow;
+import com.bossymr.flow.expression.AnyExpression;
 import com.bossymr.flow.expression.Expression;
 import com.bossymr.flow.state.FlowSnapshot;
-import io.github.cvc5.CVC5ApiException;
-import io.github.cvc5.Solver;
-import io.github.cvc5.TermManager;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
@@ -19,87 +20,670 @@ import java.util.concurrent.atomic.LongAdder;
  * <p>
  * For each snapshot the solver enters, a layer is added, as such, when it has to exit the snapshot, it can remove the
  * layer and only the constraints added by it.
+ * <p>
+ * A separate solver is kept for each logic, and each query is checked by the solver configured with the narrowest logic
+ * which covers the constraints of the query. The solver of each logic is a session of the first backend which is
+ * available and supports the logic. If no backend supports the logic, the result of every query in the logic is
+ * unknown.
+ * <p>
+ * If the data flow analyzer has a portfolio, a query whose result is unknown after the first limit is instead decided by
+ * the portfolio, for which a separate solver is kept for each configuration and logic.
+ *
+ * @see com.bossymr.flow.FlowOptions#getSolverBackends()
+ * @see Portfolio
  */
-public class FlowSolver {
+public class FlowSolver implements AutoCloseable {
 
     private final Flow flow;
-    private final TermManager manager;
-    private final Solver solver;
-    private FlowSnapshot owner;
+    private final Map<Logic, Instance> instances = new EnumMap<>(Logic.class);
 
-    private List<LongAdder> constraints = new ArrayList<>();
+    /**
+     * The solvers of each configuration in the portfolio of the data flow analyzer.
+     */
+    private final Map<SolverBackend, Map<Logic, Instance>> configurations = new HashMap<>();
+
+    /**
+     * The features of each expression, used to select the logic of each query.
+     */
+    private final Map<Expression, Integer> features = new WeakHashMap<>();
 
     public FlowSolver(Flow flow) {
         this.flow = flow;
-        this.manager = new TermManager();
-        this.solver = new Solver(manager);
-        try {
-            solver.setLogic("ALL");
-        } catch (CVC5ApiException e) {
-            throw new RuntimeException(e);
+    }
+
+    /**
+     * Returns the logic of a query with the provided constraints. If logics are not selected, every query is checked
+     * with all theories, unless no backend supports all theories, in which case the logic is still selected.
+     *
+     * @param constraints the constraints.
+     * @return the logic.
+     */
+    private Logic getLogic(List<Expression> constraints) {
+        if (!(flow.getOptions().isSelectingLogic()) && getInstance(Logic.ALL).session != null) {
+            return Logic.ALL;
+        }
+        return Logic.of(constraints, features);
+    }
+
+    private Instance getInstance(Logic logic) {
+        return instances.computeIfAbsent(logic, key -> new Instance(key, getBackend(key)));
+    }
+
+    private Instance getInstance(Logic logic, SolverBackend configuration) {
+        return configurations.computeIfAbsent(configuration, key -> new EnumMap<>(Logic.class))
+                .computeIfAbsent(logic, key -> new Instance(key, configuration));
+    }
+
+    /**
+     * {@return the first backend which is available and supports the provided logic, or {@code null} if no such backend
+     * exists}
+     */
+    private SolverBackend getBackend(Logic logic) {
+        for (SolverBackend backend : flow.getOptions().getSolverBackends()) {
+            if (backend.isAvailable() && backend.supports(logic)) {
+                return backend;
+            }
         }
+        return null;
     }
 
-    public Solver getSolver(FlowSnapshot snapshot) {
-        FlowSnapshot commonPredecessor = snapshot.commonPredecessor(owner);
-        backtrack(commonPredecessor);
-        enterAll(snapshot);
-        return solver;
+    /**
+     * Checks whether the provided snapshot is reachable.
+     * <p>
+     * If the result of a query with the same constraints is cached, the cached result is returned without modifying
+     * the solver, and without visiting the predecessors of the snapshot. Otherwise, the solver is modified to match the snapshot, and the result is added to the cache. A
+     * result which is not known is not cached.
+     * <p>
+     * Constraints which only bound variables by constants are decided without a solver.
+     * <p>
+     * If constraints are sliced, the constraints of the snapshot are instead split into independent groups, which are
+     * checked separately, so that each group can be found in the cache.
+     * <p>
+     * Before constraints are checked by the solver, they are evaluated against the models of previous queries. If any
+     * model satisfies the constraints, they are satisfiable, and the solver is not used.
+     * <p>
+     * If constraints are not satisfiable, the unsat core is learned as a conflict. Constraints which contain a learned
+     * conflict are not satisfiable, and are not checked by a solver.
+     *
+     * @param snapshot the snapshot.
+     * @return whether the snapshot is reachable.
+     */
+    public Reachable getReachability(FlowSnapshot snapshot) {
+        return getReachability(snapshot, null);
     }
 
-    public TermManager getManager() {
-        return manager;
+    /**
+     * Checks whether a successor of the provided snapshot, which requires the provided assumption, is reachable.
+     * <p>
+     * Unlike checking a successor snapshot, the solver only enters the predecessor of the provided snapshot, and the
+     * constraints of the snapshot and the assumption are checked as assumptions. As a result, the solver does not need
+     * to add a layer for each side of a decision, and the snapshot does not need to be entered before it is complete.
+     *
+     * @param snapshot the snapshot.
+     * @param assumption the assumption, or {@code null} if the snapshot itself is checked.
+     * @return whether the successor is reachable.
+     * @see #getReachability(FlowSnapshot)
+     */
+    public Reachable getReachability(FlowSnapshot snapshot, Expression assumption) {
+        QueryCache cache = flow.getQueryCache();
+        Fingerprint fingerprint = null;
+        Set<Expression> pathConstraints = null;
+        if (cache != null) {
+            fingerprint = assumption != null ? snapshot.getFingerprint().with(List.of(assumption)) : snapshot.getFingerprint();
+            pathConstraints = assumption != null ? snapshot.getPathConstraints(assumption) : snapshot.getPathConstraints();
+            Reachable result = cache.get(fingerprint, pathConstraints);
+            if (result != null) {
+                flow.getStatistics().get(Flow.Statistic.QueryCacheHits).increment();
+                return result;
+            }
+            flow.getStatistics().get(Flow.Statistic.QueryCacheMisses).increment();
+        }
+        List<Expression> constraints = getConstraints(snapshot, assumption);
+        Reachable result = isConflicting(constraints) ? Reachable.NOT_REACHABLE : null;
+        if (result == null && flow.getOptions().isPresolving()) {
+            result = Presolver.decide(constraints);
+            if (result != null) {
+                flow.getStatistics().get(Flow.Statistic.PresolvedQueries).increment();
+            }
+        }
+        if (result == null) {
+            if (flow.getOptions().isSlicing()) {
+                result = getSlicedReachability(constraints, assumption != null ? Set.of(assumption) : snapshot.getConstraints());
+            } else {
+                result = solve(snapshot, assumption, constraints);
+            }
+        }
+        if (cache != null && result != Reachable.UNKNOWN) {
+            cache.put(fingerprint, pathConstraints, result);
+        }
+        return result;
     }
 
     /**
-     * Successively enters all snapshots between the current owner of the solver and the provided snapshot.
+     * Checks whether the provided snapshot is reachable, by entering the snapshot, or its predecessor if an assumption
+     * is provided.
      *
-     * @param snapshot the snapshot
+     * @param snapshot the snapshot.
+     * @param assumption the assumption, or {@code null} if the snapshot itself is checked.
+     * @param constraints all constraints of the query.
+     * @return whether the snapshot is reachable.
      */
-    private void enterAll(FlowSnapshot snapshot) {
-        List<FlowSnapshot> predecessors = snapshot.getPredecessors();
-        for (FlowSnapshot predecessor : predecessors) {
-            // Skip until we reach the element after the current owner.
-            if (predecessor.getPredecessor() != owner) {
-                continue;
+    private Reachable solve(FlowSnapshot snapshot, Expression assumption, List<Expression> constraints) {
+        ModelCache models = flow.getModelCache();
+        if (models != null && isSatisfied(models, constraints)) {
+            return Reachable.REACHABLE;
+        }
+        Query query = instance -> {
+            Reachable result;
+            if (assumption == null) {
+                result = instance.getSession(snapshot).checkSat(List.of());
+            } else {
+                SolverSession session = instance.getSession(snapshot.getPredecessor());
+                List<Expression> assumptions = new ArrayList<>(snapshot.getConstraints().size() + 1);
+                assumptions.addAll(snapshot.getConstraints());
+                assumptions.add(assumption);
+                result = session.checkSat(assumptions);
             }
-            owner = predecessor;
-            if (predecessor.getConstraints().isEmpty()) {
-                continue;
+            if (models != null && result == Reachable.REACHABLE) {
+                models.add(getModel(instance, constraints));
             }
-            try {
-                flow.getStatistics().get(Flow.Statistic.SatisfiabilityPush).increment();
-                constraints.add(new LongAdder());
-                solver.push();
-            } catch (CVC5ApiException e) {
-                throw new RuntimeException(e);
+            if (result == Reachable.NOT_REACHABLE) {
+                learn(instance, constraints);
             }
-            for (Expression constraint : predecessor.getConstraints()) {
+            return result;
+        };
+        return checkSat(getLogic(constraints), constraints.size(), query);
+    }
+
+    /**
+     * {@return all constraints of the provided snapshot and all of its predecessors, and the provided assumption}
+     */
+    private static List<Expression> getConstraints(FlowSnapshot snapshot, Expression assumption) {
+        List<Expression> constraints = new ArrayList<>();
+        if (assumption != null) {
+            constraints.add(assumption);
+        }
+        for (FlowSnapshot predecessor = snapshot; predecessor != null; predecessor = predecessor.getPredecessor()) {
+            constraints.addAll(predecessor.getConstraints());
+        }
+        return constraints;
+    }
+
+    /**
+     * Checks whether the provided constraints contain a conflict learned from a previous query, in which case the
+     * constraints are not satisfiable.
+     *
+     * @param constraints the constraints.
+     * @return whether the constraints contain a learned conflict.
+     */
+    private boolean isConflicting(List<Expression> constraints) {
+        ConflictStore conflicts = flow.getConflictStore();
+        if (conflicts == null) {
+            return false;
+        }
+        if (conflicts.find(constraints) != null) {
+            flow.getStatistics().get(Flow.Statistic.ConflictStoreHits).increment();
+            return true;
+        }
+        flow.getStatistics().get(Flow.Statistic.ConflictStoreMisses).increment();
+        return false;
+    }
+
+    /**
+     * Learns a conflict from the last query of the provided solver, which must have been unsatisfiable. If the solver
+     * cannot produce an unsat core, all constraints of the query are learned instead.
+     *
+     * @param instance the solver.
+     * @param constraints the constraints of the last query.
+     */
+    private void learn(Instance instance, List<Expression> constraints) {
+        ConflictStore conflicts = flow.getConflictStore();
+        if (conflicts == null) {
+            return;
+        }
+        List<Expression> core = instance.session.getUnsatCore();
+        if (core == null || core.isEmpty()) {
+            core = constraints;
+        }
+        if (core.isEmpty()) {
+            return;
+        }
+        conflicts.add(core);
+        flow.getStatistics().get(Flow.Statistic.LearnedConflicts).increment();
+    }
+
+    private boolean isSatisfied(ModelCache models, List<Expression> constraints) {
+        if (models.find(constraints) != null) {
+            flow.getStatistics().get(Flow.Statistic.ModelCacheHits).increment();
+            return true;
+        }
+        flow.getStatistics().get(Flow.Statistic.ModelCacheMisses).increment();
+        return false;
+    }
+
+    /**
+     * Returns the model produced by the last satisfiable query of the provided solver, for all variables in the
+     * provided constraints.
+     *
+     * @param instance the solver.
+     * @param constraints the constraints of the last query.
+     * @return the model.
+     */
+    private Model getModel(Instance instance, List<Expression> constraints) {
+        Map<AnyExpression, Object> values = new HashMap<>();
+        for (Expression constraint : constraints) {
+            for (AnyExpression variable : ConstraintSlicer.getVariables(constraint)) {
+                if (values.containsKey(variable)) {
+                    continue;
+                }
+                Object value = instance.session.getValue(variable);
+                if (value != null) {
+                    values.put(variable, value);
+                }
+            }
+        }
+        return new Model(values);
+    }
+
+    /**
+     * Checks whether the provided constraints are satisfiable, by checking each independent group of constraints
+     * separately.
+     *
+     * @param constraints all constraints of the query.
+     * @param relevant the constraints which were most recently added.
+     * @return whether the constraints are satisfiable.
+     */
+    private Reachable getSlicedReachability(List<Expression> constraints, Set<Expression> relevant) {
+        QueryCache cache = flow.getQueryCache();
+        Reachable result = Reachable.REACHABLE;
+        for (List<Expression> group : ConstraintSlicer.slice(constraints, relevant)) {
+            flow.getStatistics().get(Flow.Statistic.ConstraintGroups).increment();
+            Fingerprint fingerprint = null;
+            Set<Expression> key = null;
+            Reachable reachability = null;
+            if (cache != null) {
+                fingerprint = Fingerprint.EMPTY.with(group);
+                key = Set.copyOf(group);
+                reachability = cache.get(fingerprint, key);
+                flow.getStatistics().get(reachability != null ? Flow.Statistic.QueryCacheHits : Flow.Statistic.QueryCacheMisses).increment();
+            }
+            if (reachability == null) {
+                reachability = check(group);
+                if (cache != null && reachability != Reachable.UNKNOWN) {
+                    cache.put(fingerprint, key, reachability);
+                }
+            }
+            if (reachability == Reachable.NOT_REACHABLE) {
+                return Reachable.NOT_REACHABLE;
+            }
+            if (reachability == Reachable.UNKNOWN) {
+                result = Reachable.UNKNOWN;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the provided constraints are satisfiable, independently of the constraints of any snapshot.
+     *
+     * @param constraints the constraints.
+     * @return whether the constraints are satisfiable.
+     */
+    private Reachable check(List<Expression> constraints) {
+        ModelCache models = flow.getModelCache();
+        if (models != null && isSatisfied(models, constraints)) {
+            return Reachable.REACHABLE;
+        }
+        Query query = instance -> {
+            SolverSession session = instance.getSession(null);
+            flow.getStatistics().get(Flow.Statistic.SatisfiabilityPush).increment();
+            session.push();
+            for (Expression constraint : constraints) {
                 flow.getStatistics().get(Flow.Statistic.SatisfiabilityAssertions).increment();
-                constraints.getLast().increment();
-                solver.assertFormula(constraint.convert(manager));
+                session.assertFormula(constraint);
             }
+            Reachable result = session.checkSat(List.of());
+            if (models != null && result == Reachable.REACHABLE) {
+                models.add(getModel(instance, constraints));
+            }
+            if (result == Reachable.NOT_REACHABLE) {
+                learn(instance, constraints);
+            }
+            flow.getStatistics().get(Flow.Statistic.SatisfiabilityPop).increment();
+            session.pop();
+            return result;
+        };
+        return checkSat(getLogic(constraints), constraints.size(), query);
+    }
+
+    /**
+     * Performs a satisfiability query, with each limit in the escalation policy of the data flow analyzer until the
+     * result is known. If the data flow analyzer has a portfolio, and the result is unknown after the first limit, the
+     * query is instead decided by the portfolio.
+     *
+     * @param logic the logic of the query.
+     * @param size the number of constraints of the query.
+     * @param query the query.
+     * @return the result of the query, which is unknown if the query exceeded every limit.
+     * @see com.bossymr.flow.FlowOptions#getSolverLimits()
+     */
+    private Reachable checkSat(Logic logic, int size, Query query) {
+        Instance instance = getInstance(logic);
+        if (instance.session == null) {
+            return Reachable.UNKNOWN;
+        }
+        List<SolverLimit> limits = flow.getOptions().getSolverLimits();
+        if (limits.isEmpty()) {
+            flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).increment();
+            return query.perform(instance);
         }
+        Reachable result = null;
+        for (int i = 0; i < limits.size(); i++) {
+            if (i > 0) {
+                flow.getStatistics().get(Flow.Statistic.EscalatedQueries).increment();
+            }
+            instance.setLimit(limits.get(i));
+            EnumMap<Flow.TierStatistic, LongAdder> statistics = flow.getTierStatistics().get(i);
+            statistics.get(Flow.TierStatistic.Queries).increment();
+            flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).increment();
+            long start = System.nanoTime();
+            result = query.perform(instance);
+            statistics.get(Flow.TierStatistic.Nanoseconds).add(System.nanoTime() - start);
+            if (result != Reachable.UNKNOWN) {
+                return result;
+            }
+            statistics.get(Flow.TierStatistic.Unknown).increment();
+            if (flow.getPortfolio() != null) {
+                // The query is hard, as such, it is decided by the portfolio.
+                return race(Portfolio.Shape.of(logic, size), query);
+            }
+        }
+        return result;
     }
 
     /**
-     * Successively pops constraints from the current owner of the solver to the provided snapshot.
+     * Decides a query with the portfolio of the data flow analyzer.
+     * <p>
+     * If a configuration has won a race for a query of the same shape, the query is performed by that configuration.
+     * Otherwise, or if its result is unknown, the query is performed by every configuration which supports the logic
+     * of the query on a separate thread. The first configuration with a known result wins, and the configurations which
+     * are still running are asked to abandon their queries. Not every backend can stop a query which has started, as
+     * such, a configuration might keep running after the race has ended. A configuration is not used while any of its
+     * solvers is still performing a query of a previous race, since the sessions of a backend might share state which
+     * can only be used by one thread at a time. If the limit of the portfolio has a timeout, the race is abandoned once
+     * the timeout has elapsed, in which case the result is unknown.
      *
-     * @param snapshot the snapshot
+     * @param shape the shape of the query.
+     * @param query the query.
+     * @return the result of the query.
+     * @see Portfolio#getLimit()
      */
-    private void backtrack(FlowSnapshot snapshot) {
-        while (owner != snapshot && owner != null) {
-            if (owner.getConstraints().isEmpty()) {
-                owner = owner.getPredecessor();
-                continue;
+    private Reachable race(Portfolio.Shape shape, Query query) {
+        Portfolio portfolio = flow.getPortfolio();
+        SolverLimit limit = portfolio.getLimit();
+        SolverBackend winner = portfolio.getWinner(shape);
+        if (winner != null && !(isBusy(winner))) {
+            flow.getStatistics().get(Flow.Statistic.PortfolioRoutedQueries).increment();
+            flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).increment();
+            Instance instance = getInstance(shape.logic(), winner);
+            instance.setLimit(limit);
+            Reachable result = query.perform(instance);
+            if (result != Reachable.UNKNOWN) {
+                return result;
+            }
+            portfolio.setWinner(shape, null);
+        }
+        List<Instance> candidates = new ArrayList<>();
+        for (SolverBackend configuration : portfolio.getConfigurations()) {
+            // A configuration which lost a previous race might still be running, since not every backend can be
+            // interrupted.
+            if (configuration.isAvailable() && configuration.supports(shape.logic()) && !(isBusy(configuration))) {
+                candidates.add(getInstance(shape.logic(), configuration));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Reachable.UNKNOWN;
+        }
+        flow.getStatistics().get(Flow.Statistic.PortfolioQueries).increment();
+        ExecutorCompletionService<Instance> service = new ExecutorCompletionService<>(portfolio.getExecutor());
+        long deadline = limit.timeout() != null ? System.nanoTime() + limit.timeout().toNanos() : Long.MAX_VALUE;
+        for (Instance candidate : candidates) {
+            flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).increment();
+            candidate.interrupted = false;
+            candidate.running = service.submit(() -> {
+                candidate.result = Reachable.UNKNOWN;
+                // The race might have ended before the query was started.
+                if (!(candidate.interrupted)) {
+                    candidate.setLimit(limit);
+                    candidate.result = query.perform(candidate);
+                }
+                return candidate;
+            });
+        }
+        try {
+            for (int i = 0; i < candidates.size(); i++) {
+                Future<Instance> future = deadline != Long.MAX_VALUE ? service.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : service.take();
+                if (future == null) {
+                    // The remaining candidates have exceeded the timeout without returning, and are still running.
+                    interrupt(candidates);
+                    return Reachable.UNKNOWN;
+                }
+                Instance candidate = future.get();
+                candidate.running = null;
+                if (candidate.result == Reachable.UNKNOWN) {
+                    continue;
+                }
+                portfolio.setWinner(shape, candidate.configuration);
+                interrupt(candidates);
+                return candidate.result;
+            }
+            return Reachable.UNKNOWN;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupt(candidates);
+            return Reachable.UNKNOWN;
+        } catch (ExecutionException e) {
+            interrupt(candidates);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * {@return whether any solver of the provided configuration is still performing a query of the portfolio}
+     */
+    private boolean isBusy(SolverBackend configuration) {
+        Map<Logic, Instance> instances = configurations.get(configuration);
+        if (instances == null) {
+            return false;
+        }
+        for (Instance instance : instances.values()) {
+            if (instance.isRunning()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Interrupts each of the provided solvers which is still performing a query of the portfolio.
+     *
+     * @param instances the solvers.
+     */
+    private static void interrupt(List<Instance> instances) {
+        for (Instance instance : instances) {
+            if (instance.isRunning()) {
+                instance.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Closes the session of each logic and configuration of this solver. A session which is still performing a query
+     * of the portfolio is interrupted instead, since it cannot be closed while it is used by another thread. A solver
+     * cannot be used once it is closed.
+     */
+    @Override
+    public void close() {
+        List<Instance> instances = new ArrayList<>(this.instances.values());
+        for (Map<Logic, Instance> configuration : configurations.values()) {
+            instances.addAll(configuration.values());
+        }
+        for (Instance instance : instances) {
+            if (instance.isRunning()) {
+                instance.interrupt();
+            } else if (instance.session != null) {
+                instance.session.close();
             }
-            owner = owner.getPredecessor();
-            try {
+        }
+        this.instances.clear();
+        configurations.clear();
+    }
+
+    /**
+     * A satisfiability query, which can be performed by any solver.
+     */
+    @FunctionalInterface
+    private interface Query {
+
+        /**
+         * Performs this query with the provided solver.
+         *
+         * @param instance the solver.
+         * @return the result of the query.
+         */
+        Reachable perform(Instance instance);
+    }
+
+    /**
+     * A solver configured with a specific logic.
+     */
+    private final class Instance {
+
+        /**
+         * The backend which created the session, or {@code null} if no backend supports the logic.
+         */
+        private final SolverBackend configuration;
+
+        /**
+         * The session, or {@code null} if no backend supports the logic.
+         */
+        private final SolverSession session;
+        private FlowSnapshot owner;
+
+        /**
+         * The query being performed by the portfolio, or {@code null} if no query is being performed.
+         */
+        private Future<Instance> running;
+
+        /**
+         * The result of the last query performed by the portfolio.
+         */
+        private volatile Reachable result;
+
+        /**
+         * Whether the query being performed by the portfolio has been interrupted.
+         */
+        private volatile boolean interrupted;
+
+        private final List<LongAdder> constraints = new ArrayList<>();
+
+        /**
+         * The limit of the last query, or {@code null} if the queries have not been limited.
+         */
+        private SolverLimit limit;
+
+        private Instance(Logic logic, SolverBackend configuration) {
+            this.configuration = configuration;
+            this.session = configuration != null ? configuration.createSession(logic) : null;
+        }
+
+        /**
+         * {@return whether a query of the portfolio is still performed by this solver}
+         */
+        private boolean isRunning() {
+            return running != null && !(running.isDone());
+        }
+
+        /**
+         * Requests that the query being performed by the portfolio is abandoned. If the query has not yet started, it
+         * is not performed, otherwise, the session is interrupted.
+         */
+        private void interrupt() {
+            interrupted = true;
+            session.interrupt();
+        }
+
+        private SolverSession getSession(FlowSnapshot snapshot) {
+            if (snapshot == null) {
+                backtrack(null);
+                return session;
+            }
+            FlowSnapshot commonPredecessor = snapshot.commonPredecessor(owner);
+            backtrack(commonPredecessor);
+            enterAll(snapshot);
+            return session;
+        }
+
+        /**
+         * Sets the limits of all subsequent queries. The options of the solver are only modified if the limit is
+         * changed.
+         *
+         * @param limit the limit.
+         */
+        private void setLimit(SolverLimit limit) {
+            if (limit.equals(this.limit)) {
+                return;
+            }
+            this.limit = limit;
+            session.setLimit(limit);
+        }
+
+        /**
+         * Successively enters all snapshots between the current owner of the solver and the provided snapshot.
+         *
+         * @param snapshot the snapshot
+         */
+        private void enterAll(FlowSnapshot snapshot) {
+            // The current owner is either null or a predecessor of the snapshot, as such, only the snapshots after the
+            // current owner need to be entered.
+            Deque<FlowSnapshot> predecessors = new ArrayDeque<>();
+            for (FlowSnapshot predecessor = snapshot; predecessor != owner; predecessor = predecessor.getPredecessor()) {
+                predecessors.addFirst(predecessor);
+            }
+            for (FlowSnapshot predecessor : predecessors) {
+                owner = predecessor;
+                if (predecessor.getConstraints().isEmpty()) {
+                    continue;
+                }
+                flow.getStatistics().get(Flow.Statistic.SatisfiabilityPush).increment();
+                constraints.add(new LongAdder());
+                session.push();
+                for (Expression constraint : predecessor.getConstraints()) {
+                    flow.getStatistics().get(Flow.Statistic.SatisfiabilityAssertions).increment();
+                    constraints.getLast().increment();
+                    session.assertFormula(constraint);
+                }
+            }
+        }
+
+        /**
+         * Successively pops constraints from the current owner of the solver to the provided snapshot.
+         *
+         * @param snapshot the snapshot
+         */
+        private void backtrack(FlowSnapshot snapshot) {
+            while (owner != snapshot && owner != null) {
+                if (owner.getConstraints().isEmpty()) {
+                    owner = owner.getPredecessor();
+                    continue;
+                }
+                owner = owner.getPredecessor();
                 flow.getStatistics().get(Flow.Statistic.SatisfiabilityPop).increment();
                 constraints.removeLast();
-                solver.pop();
-            } catch (CVC5ApiException e) {
-                throw new RuntimeException(e);
+                session.pop();
             }
         }
     }
@@ -0,0 +1,152 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ValueType;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A {@code Logic} represents the fragment of first-order logic used by a set of constraints.
+ * <p>
+ * A solver configured with a narrower logic is able to use procedures specialized for that logic, as such, each set of
+ * constraints should be checked by a solver configured with the narrowest logic which covers it.
+ */
+public enum Logic {
+    /**
+     * Linear arithmetic over integers.
+     */
+    QF_LIA,
+
+    /**
+     * Linear arithmetic over reals.
+     */
+    QF_LRA,
+
+    /**
+     * Linear arithmetic over integers and reals.
+     */
+    QF_LIRA,
+
+    /**
+     * Nonlinear arithmetic over integers.
+     */
+    QF_NIA,
+
+    /**
+     * Nonlinear arithmetic over reals.
+     */
+    QF_NRA,
+
+    /**
+     * Nonlinear arithmetic over integers and reals.
+     */
+    QF_NIRA,
+
+    /**
+     * Strings and linear arithmetic over integers.
+     */
+    QF_SLIA,
+
+    /**
+     * All supported theories.
+     */
+    ALL;
+
+    private static final int INTEGER = 1;
+    private static final int REAL = 1 << 1;
+    private static final int NONLINEAR = 1 << 2;
+    private static final int STRING = 1 << 3;
+    private static final int OTHER = 1 << 4;
+    private static final int VARIABLE = 1 << 5;
+
+    /**
+     * Returns the narrowest logic which covers all the provided constraints.
+     *
+     * @param constraints the constraints.
+     * @param features the features of expressions which have already been visited, which is updated with the features
+     * of all visited expressions.
+     * @return the narrowest logic which covers the constraints.
+     */
+    public static Logic of(Collection<Expression> constraints, Map<Expression, Integer> features) {
+        int result = 0;
+        for (Expression constraint : constraints) {
+            result |= getFeatures(constraint, features);
+        }
+        if ((result & OTHER) != 0) {
+            return ALL;
+        }
+        boolean nonlinear = (result & NONLINEAR) != 0;
+        boolean integer = (result & INTEGER) != 0;
+        boolean real = (result & REAL) != 0;
+        if ((result & STRING) != 0) {
+            return nonlinear || real ? ALL : QF_SLIA;
+        }
+        if (integer && real) {
+            return nonlinear ? QF_NIRA : QF_LIRA;
+        }
+        if (real) {
+            return nonlinear ? QF_NRA : QF_LRA;
+        }
+        return nonlinear ? QF_NIA : QF_LIA;
+    }
+
+    private static int getFeatures(Expression expression, Map<Expression, Integer> features) {
+        Integer cached = features.get(expression);
+        if (cached != null) {
+            return cached;
+        }
+        int result = getFeatures(expression.getType());
+        switch (expression) {
+            case AnyExpression ignored -> result |= VARIABLE;
+            case LiteralExpression ignored -> {}
+            case UnaryExpression unaryExpression -> {
+                result |= getFeatures(unaryExpression.getExpression(), features);
+                if (unaryExpression.getOperator() instanceof UnaryOperator.Convert) {
+                    result |= INTEGER | REAL;
+                }
+            }
+            case BinaryExpression binaryExpression -> {
+                int left = getFeatures(binaryExpression.getLeft(), features);
+                int right = getFeatures(binaryExpression.getRight(), features);
+                result |= left | right;
+                BinaryOperator operator = binaryExpression.getOperator();
+                if (operator == BinaryOperator.MULTIPLY && (left & VARIABLE) != 0 && (right & VARIABLE) != 0) {
+                    result |= NONLINEAR;
+                }
+                if ((operator == BinaryOperator.DIVIDE || operator == BinaryOperator.MODULO) && (right & VARIABLE) != 0) {
+                    result |= NONLINEAR;
+                }
+                if (operator == BinaryOperator.DIVIDE && binaryExpression.getType() == ValueType.integerType()) {
+                    // The quotient of a division is always a real, even if both operands are integers.
+                    result |= INTEGER | REAL;
+                }
+            }
+            case ConditionalExpression conditionalExpression -> {
+                result |= getFeatures(conditionalExpression.getCondition(), features);
+                result |= getFeatures(conditionalExpression.getThenExpression(), features);
+                result |= getFeatures(conditionalExpression.getElseExpression(), features);
+            }
+        }
+        features.put(expression, result);
+        return result;
+    }
+
+    private static int getFeatures(ValueType type) {
+        if (type == ValueType.integerType()) {
+            return INTEGER;
+        }
+        if (type == ValueType.realType()) {
+            return REAL;
+        }
+        if (type == ValueType.stringType()) {
+            return STRING;
+        }
+        if (type == ValueType.booleanType() || type == ValueType.emptyType()) {
+            return 0;
+        }
+        return OTHER;
+    }
+}
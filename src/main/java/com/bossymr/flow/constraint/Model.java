@@ -0,0 +1,128 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.Constant;
+import com.bossymr.flow.Rational;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.type.ValueType;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * A {@code Model} is an assignment of values to variables.
+ * <p>
+ * A model is produced by a solver when a set of constraints is satisfiable, and can be used to check whether another
+ * set of constraints is satisfied without a solver. Variables which are not assigned a value by the model are assigned
+ * a default value, since any assignment which satisfies a set of constraints proves that it is satisfiable. Booleans
+ * are represented by {@link Boolean}, integers by {@link BigInteger}, reals by {@link Rational}, and strings by
+ * {@link String}.
+ */
+public final class Model {
+
+    private final Map<AnyExpression, Object> values;
+
+    /**
+     * Creates a new model.
+     *
+     * @param values the value of each variable.
+     */
+    public Model(Map<AnyExpression, Object> values) {
+        this.values = Map.copyOf(values);
+    }
+
+    /**
+     * Returns the value of the provided variable.
+     *
+     * @param variable the variable.
+     * @return the value of the variable, or {@code null} if variables of its type cannot be evaluated.
+     */
+    public Object getValue(AnyExpression variable) {
+        Object value = values.get(variable);
+        if (value != null) {
+            return value;
+        }
+        ValueType type = variable.getType();
+        if (type == ValueType.booleanType()) {
+            return false;
+        }
+        if (type == ValueType.integerType()) {
+            return BigInteger.ZERO;
+        }
+        if (type == ValueType.realType()) {
+            return Rational.ZERO;
+        }
+        if (type == ValueType.stringType()) {
+            return "";
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether this model satisfies all the provided constraints.
+     *
+     * @param constraints the constraints.
+     * @return whether every constraint evaluates to {@code true}, or {@code false} if any constraint cannot be evaluated.
+     */
+    public boolean satisfies(Collection<Expression> constraints) {
+        Map<Expression, Object> results = new IdentityHashMap<>();
+        for (Expression constraint : constraints) {
+            if (!(Boolean.TRUE.equals(evaluate(constraint, results)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates the provided expression.
+     *
+     * @param expression the expression.
+     * @return the value of the expression, or {@code null} if it cannot be evaluated.
+     */
+    public Object evaluate(Expression expression) {
+        return evaluate(expression, new IdentityHashMap<>());
+    }
+
+    private Object evaluate(Expression expression, Map<Expression, Object> results) {
+        if (results.containsKey(expression)) {
+            return results.get(expression);
+        }
+        Object result = switch (expression) {
+            case AnyExpression anyExpression -> getValue(anyExpression);
+            case LiteralExpression literalExpression -> getValue(literalExpression);
+            case UnaryExpression unaryExpression -> {
+                Object value = evaluate(unaryExpression.getExpression(), results);
+                yield value != null ? unaryExpression.getOperator().evaluate(value) : null;
+            }
+            case BinaryExpression binaryExpression -> {
+                Object left = evaluate(binaryExpression.getLeft(), results);
+                Object right = evaluate(binaryExpression.getRight(), results);
+                yield left != null && right != null ? binaryExpression.getOperator().evaluate(left, right) : null;
+            }
+            case ConditionalExpression conditionalExpression -> {
+                Object condition = evaluate(conditionalExpression.getCondition(), results);
+                if (condition == null) {
+                    yield null;
+                }
+                yield evaluate((Boolean) condition ? conditionalExpression.getThenExpression() : conditionalExpression.getElseExpression(), results);
+            }
+        };
+        results.put(expression, result);
+        return result;
+    }
+
+    private static Object getValue(LiteralExpression expression) {
+        return switch (expression.getValue()) {
+            case Long value -> BigInteger.valueOf(value);
+            case Constant.Real.Fraction value -> value.denominator() != 0 ? Rational.valueOf(value.numerator(), value.denominator()) : null;
+            case Boolean value -> value;
+            case String value -> value;
+            default -> null;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+}
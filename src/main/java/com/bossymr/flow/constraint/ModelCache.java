@@ -0,0 +1,74 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.expression.Expression;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A cache of the models produced by solvers.
+ * <p>
+ * Before a set of constraints is checked by a solver, the cached models are evaluated against the constraints. If any
+ * model satisfies the constraints, the constraints are satisfiable, and the solver is not used. The cache is bounded,
+ * and the oldest model is evicted once the cache is full. A cache is shared by all solvers of a data flow analyzer.
+ */
+public class ModelCache {
+
+    private final int capacity;
+    private final Deque<Model> models;
+
+    /**
+     * Creates a new empty cache.
+     *
+     * @param capacity the maximum number of models kept by this cache.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public ModelCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.models = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Returns a model which satisfies all the provided constraints. The most recently added models are evaluated first,
+     * since they are most likely to be similar to the provided constraints.
+     *
+     * @param constraints the constraints.
+     * @return a model which satisfies the constraints, or {@code null} if no model satisfies the constraints.
+     */
+    public Model find(Collection<Expression> constraints) {
+        List<Model> models;
+        synchronized (this) {
+            models = List.copyOf(this.models);
+        }
+        for (Model model : models) {
+            if (model.satisfies(constraints)) {
+                return model;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a model to this cache.
+     *
+     * @param model the model.
+     */
+    public synchronized void add(Model model) {
+        if (models.size() == capacity) {
+            models.removeLast();
+        }
+        models.addFirst(model);
+    }
+
+    /**
+     * {@return the number of models in this cache}
+     */
+    public synchronized int size() {
+        return models.size();
+    }
+}
@@ -0,0 +1,153 @@
+package com.bossymr.flow.constraint;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A portfolio of differently configured backends, which race to decide hard queries.
+ * <p>
+ * A query is hard if its result is unknown after the first limit of the escalation policy. A hard query is checked by
+ * every configuration on a separate thread, and the first configuration to decide the query wins, after which all
+ * other configurations are asked to stop. A configuration which cannot stop a query once it has started, such as cvc5,
+ * instead runs until the query is decided or exceeds its limit, and is not used by later races until it has returned. Every race is limited by a finite limit,
+ * and if the limit has a timeout, a race is abandoned once the timeout has elapsed, even if a configuration has not
+ * returned. The winning configuration is recorded for the shape of the query, so that later hard queries of the same
+ * shape are checked by that configuration directly. A portfolio is shared by all solvers of a data flow analyzer, and
+ * is closed together with the data flow analyzer.
+ *
+ * @see com.bossymr.flow.FlowOptions#getPortfolio()
+ */
+public class Portfolio implements AutoCloseable {
+
+    /**
+     * The factor by which the first limit of an escalation policy with a single limit is multiplied to find the limit
+     * of a race.
+     */
+    private static final int LIMIT_FACTOR = 10;
+
+    private final List<SolverBackend> configurations;
+    private final SolverLimit limit;
+    private final ExecutorService executor;
+    private final Map<Shape, SolverBackend> winners = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new portfolio. Each race is limited by the last limit of the escalation policy, or, if the policy only
+     * has a single limit, by a multiple of that limit.
+     *
+     * @param configurations the configurations.
+     * @param limits the escalation policy.
+     * @throws IllegalArgumentException if no configurations are provided, if a configuration is provided more than
+     * once, or if the escalation policy does not limit a race.
+     */
+    public Portfolio(List<SolverBackend> configurations, List<SolverLimit> limits) {
+        if (configurations.isEmpty()) {
+            throw new IllegalArgumentException("portfolio must have at least one configuration");
+        }
+        if (limits.isEmpty()) {
+            throw new IllegalArgumentException("portfolio must have at least one limit");
+        }
+        Set<SolverBackend> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (SolverBackend configuration : configurations) {
+            if (!(distinct.add(configuration))) {
+                throw new IllegalArgumentException("portfolio configuration '" + configuration.getName() + "' is provided more than once");
+            }
+        }
+        this.configurations = List.copyOf(configurations);
+        this.limit = limits.size() > 1 ? limits.getLast() : limits.getFirst().multipliedBy(LIMIT_FACTOR);
+        if (!(limit.isLimited())) {
+            throw new IllegalArgumentException("portfolio must have a finite limit: " + limits);
+        }
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "flow-portfolio");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * {@return the configurations of this portfolio}
+     */
+    public List<SolverBackend> getConfigurations() {
+        return configurations;
+    }
+
+    /**
+     * {@return the limit of each configuration in a race}
+     */
+    public SolverLimit getLimit() {
+        return limit;
+    }
+
+    /**
+     * {@return the executor which performs the queries of each configuration}
+     */
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Returns the configuration which last won a race for a query with the provided shape.
+     *
+     * @param shape the shape of the query.
+     * @return the configuration, or {@code null} if no query with the shape has been decided.
+     */
+    public SolverBackend getWinner(Shape shape) {
+        return winners.get(shape);
+    }
+
+    /**
+     * Records the configuration which won a race for a query with the provided shape.
+     *
+     * @param shape the shape of the query.
+     * @param configuration the configuration, or {@code null} if the shape should be raced again.
+     */
+    void setWinner(Shape shape, SolverBackend configuration) {
+        if (configuration == null) {
+            winners.remove(shape);
+        } else {
+            winners.put(shape, configuration);
+        }
+    }
+
+    /**
+     * {@return the configuration which last won a race for each shape}
+     */
+    public Map<Shape, SolverBackend> getWinners() {
+        return Map.copyOf(winners);
+    }
+
+    /**
+     * Shuts down the threads which perform the queries of each configuration, and interrupts the queries which are
+     * still performed.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The shape of a query, which consists of its logic and the magnitude of its number of constraints.
+     *
+     * @param logic the logic of the query.
+     * @param size the number of bits needed to represent the number of constraints of the query.
+     */
+    public record Shape(Logic logic, int size) {
+
+        /**
+         * Returns the shape of a query.
+         *
+         * @param logic the logic of the query.
+         * @param constraints the number of constraints of the query.
+         * @return the shape of the query.
+         */
+        public static Shape of(Logic logic, int constraints) {
+            return new Shape(logic, Integer.SIZE - Integer.numberOfLeadingZeros(constraints));
+        }
+    }
+}
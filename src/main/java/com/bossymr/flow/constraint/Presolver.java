@@ -0,0 +1,235 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.Constant;
+import com.bossymr.flow.Rational;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ValueType;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * A decision procedure for sets of constraints which only bound variables by constants.
+ * <p>
+ * Constraints which compare a variable with a literal, such as {@code x < 10} or {@code !(x = 3)}, are collected as an
+ * interval and a set of excluded values for each variable, and boolean variables are assigned their required value.
+ * If the constraints of any variable cannot be satisfied, the set of constraints cannot be satisfied, regardless of any
+ * other constraints. If every constraint is a bound, and the constraints of every variable can be satisfied, the set of
+ * constraints can be satisfied, since the variables are independent. Otherwise, the constraints cannot be decided.
+ */
+final class Presolver {
+
+    private final Map<AnyExpression, Bounds> bounds = new HashMap<>();
+    private final Map<AnyExpression, Boolean> values = new HashMap<>();
+    private boolean unsatisfiable;
+    private boolean complete = true;
+
+    private Presolver() {}
+
+    /**
+     * Attempts to decide whether the provided constraints are satisfiable.
+     *
+     * @param constraints the constraints.
+     * @return whether the constraints are satisfiable, or {@code null} if the constraints cannot be decided.
+     */
+    static Reachable decide(Collection<Expression> constraints) {
+        Presolver presolver = new Presolver();
+        for (Expression constraint : constraints) {
+            presolver.add(constraint, true);
+            if (presolver.unsatisfiable) {
+                return Reachable.NOT_REACHABLE;
+            }
+        }
+        for (Bounds bounds : presolver.bounds.values()) {
+            if (!(bounds.isSatisfiable())) {
+                return Reachable.NOT_REACHABLE;
+            }
+        }
+        return presolver.complete ? Reachable.REACHABLE : null;
+    }
+
+    private void add(Expression expression, boolean positive) {
+        switch (expression) {
+            case UnaryExpression unaryExpression when unaryExpression.getOperator() instanceof UnaryOperator.Not -> add(unaryExpression.getExpression(), !positive);
+            case LiteralExpression literalExpression when literalExpression.getValue() instanceof Boolean value -> {
+                if (value != positive) {
+                    unsatisfiable = true;
+                }
+            }
+            case AnyExpression anyExpression when anyExpression.getType() == ValueType.booleanType() -> require(anyExpression, positive);
+            case BinaryExpression binaryExpression -> add(binaryExpression, positive);
+            default -> complete = false;
+        }
+    }
+
+    private void add(BinaryExpression expression, boolean positive) {
+        BinaryOperator operator = expression.getOperator();
+        if ((operator == BinaryOperator.AND && positive) || (operator == BinaryOperator.OR && !positive)) {
+            add(expression.getLeft(), positive);
+            add(expression.getRight(), positive);
+            return;
+        }
+        if (operator != BinaryOperator.EQUAL_TO && operator != BinaryOperator.LESS_THAN && operator != BinaryOperator.GREATER_THAN) {
+            complete = false;
+            return;
+        }
+        Expression left = expression.getLeft();
+        Expression right = expression.getRight();
+        if (left instanceof LiteralExpression && right instanceof AnyExpression) {
+            // Move the variable to the left side of the operator.
+            left = expression.getRight();
+            right = expression.getLeft();
+            if (operator != BinaryOperator.EQUAL_TO) {
+                operator = operator == BinaryOperator.LESS_THAN ? BinaryOperator.GREATER_THAN : BinaryOperator.LESS_THAN;
+            }
+        }
+        if (!(left instanceof AnyExpression variable) || !(right instanceof LiteralExpression literal)) {
+            complete = false;
+            return;
+        }
+        if (literal.getValue() instanceof Boolean value && operator == BinaryOperator.EQUAL_TO) {
+            require(variable, value == positive);
+            return;
+        }
+        Rational value = getValue(literal);
+        if (value == null) {
+            complete = false;
+            return;
+        }
+        Bounds bounds = this.bounds.computeIfAbsent(variable, key -> new Bounds(key.getType() == ValueType.integerType()));
+        switch (operator) {
+            case EQUAL_TO -> {
+                if (positive) {
+                    bounds.lower(value, false);
+                    bounds.upper(value, false);
+                } else {
+                    bounds.exclude(value);
+                }
+            }
+            case LESS_THAN -> {
+                if (positive) {
+                    bounds.upper(value, true);
+                } else {
+                    bounds.lower(value, false);
+                }
+            }
+            case GREATER_THAN -> {
+                if (positive) {
+                    bounds.lower(value, true);
+                } else {
+                    bounds.upper(value, false);
+                }
+            }
+            default -> throw new IllegalStateException("unexpected operator: " + operator);
+        }
+        if (bounds.isEmpty()) {
+            unsatisfiable = true;
+        }
+    }
+
+    private void require(AnyExpression variable, boolean value) {
+        Boolean previous = values.putIfAbsent(variable, value);
+        if (previous != null && previous != value) {
+            unsatisfiable = true;
+        }
+    }
+
+    private static Rational getValue(LiteralExpression expression) {
+        return switch (expression.getValue()) {
+            case Long value -> Rational.valueOf(value);
+            case Constant.Real.Fraction value when value.denominator() != 0 -> Rational.valueOf(value.numerator(), value.denominator());
+            default -> null;
+        };
+    }
+
+    /**
+     * The bounds of a numeric variable.
+     */
+    private static final class Bounds {
+
+        private final boolean integer;
+        private Rational lower;
+        private boolean lowerStrict;
+        private Rational upper;
+        private boolean upperStrict;
+        private Set<Rational> excluded;
+
+        private Bounds(boolean integer) {
+            this.integer = integer;
+        }
+
+        private void lower(Rational value, boolean strict) {
+            if (integer) {
+                // A strict bound of an integer variable is equivalent to a bound on the next integer.
+                value = Rational.valueOf(strict ? value.floor().add(BigInteger.ONE) : ceiling(value));
+                strict = false;
+            }
+            int comparison = lower == null ? 1 : value.compareTo(lower);
+            if (comparison > 0 || (comparison == 0 && strict)) {
+                lower = value;
+                lowerStrict = strict;
+            }
+        }
+
+        private void upper(Rational value, boolean strict) {
+            if (integer) {
+                value = Rational.valueOf(strict ? ceiling(value).subtract(BigInteger.ONE) : value.floor());
+                strict = false;
+            }
+            int comparison = upper == null ? -1 : value.compareTo(upper);
+            if (comparison < 0 || (comparison == 0 && strict)) {
+                upper = value;
+                upperStrict = strict;
+            }
+        }
+
+        private void exclude(Rational value) {
+            if (integer && !(value.isInteger())) {
+                return;
+            }
+            if (excluded == null) {
+                excluded = new HashSet<>();
+            }
+            excluded.add(value);
+        }
+
+        /**
+         * {@return whether the interval of this variable is empty, without considering excluded values}
+         */
+        private boolean isEmpty() {
+            if (lower == null || upper == null) {
+                return false;
+            }
+            int comparison = lower.compareTo(upper);
+            return comparison > 0 || (comparison == 0 && (lowerStrict || upperStrict));
+        }
+
+        private boolean isSatisfiable() {
+            if (isEmpty()) {
+                return false;
+            }
+            if (excluded == null) {
+                return true;
+            }
+            if (lower == null || upper == null) {
+                // An unbounded interval always contains a value which is not excluded.
+                return true;
+            }
+            if (!(integer)) {
+                // An interval of reals with more than a single value contains infinitely many values.
+                return lower.compareTo(upper) != 0 || !(excluded.contains(lower));
+            }
+            BigInteger size = upper.getNumerator().subtract(lower.getNumerator()).add(BigInteger.ONE);
+            long excludedInside = excluded.stream()
+                    .filter(value -> value.compareTo(lower) >= 0 && value.compareTo(upper) <= 0)
+                    .count();
+            return size.compareTo(BigInteger.valueOf(excludedInside)) > 0;
+        }
+
+        private static BigInteger ceiling(Rational value) {
+            return value.negate().floor().negate();
+        }
+    }
+}
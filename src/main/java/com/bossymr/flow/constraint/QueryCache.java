@@ -0,0 +1,89 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.expression.Expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cache of the results of reachability queries.
+ * <p>
+ * Results are keyed on the fingerprint of the constraints of the queried snapshot, as such, a query for a snapshot with
+ * the same constraints as a previous query does not need to be checked by a solver. The constraints of each query are
+ * kept with its result, and a result is only returned if the constraints of the query are equal to the constraints of
+ * the cached query, so that two different sets of constraints with the same fingerprint never share a result. The
+ * constraints are only compared once a result with the same fingerprint is found. The cache is bounded, and the least recently used result is evicted once the cache is full. A cache is shared by all
+ * solvers of a data flow analyzer.
+ */
+public class QueryCache {
+
+    private final Map<Fingerprint, Entry> results;
+
+    /**
+     * Creates a new empty cache.
+     *
+     * @param capacity the maximum number of results kept by this cache.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public QueryCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Fingerprint, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the result of a query with the provided constraints.
+     *
+     * @param fingerprint the fingerprint of the constraints.
+     * @param constraints the constraints.
+     * @return the result, or {@code null} if the result is not cached, or if the cached result is of a query with
+     * different constraints and the same fingerprint.
+     */
+    public Reachable get(Fingerprint fingerprint, Set<Expression> constraints) {
+        Entry entry;
+        synchronized (this) {
+            entry = results.get(fingerprint);
+        }
+        if (entry == null || !(entry.constraints().equals(constraints))) {
+            return null;
+        }
+        return entry.result();
+    }
+
+    /**
+     * Adds the result of a query with the provided constraints. The set of constraints is kept by this cache, and is not
+     * copied, as such, it must not be modified afterwards.
+     *
+     * @param fingerprint the fingerprint of the constraints.
+     * @param constraints the constraints.
+     * @param result the result.
+     */
+    public void put(Fingerprint fingerprint, Set<Expression> constraints, Reachable result) {
+        Entry entry = new Entry(constraints, result);
+        synchronized (this) {
+            results.put(fingerprint, entry);
+        }
+    }
+
+    /**
+     * {@return the number of results in this cache}
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * A cached result.
+     *
+     * @param constraints the constraints of the query.
+     * @param result the result of the query.
+     */
+    private record Entry(Set<Expression> constraints, Reachable result) {}
+}
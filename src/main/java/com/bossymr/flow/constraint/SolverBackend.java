@@ -0,0 +1,43 @@
+package com.bossymr.flow.constraint;
+
+/**
+ * A {@code SolverBackend} is a decision procedure used to check whether a set of constraints is satisfiable.
+ * <p>
+ * The engine only interacts with a backend through sessions, which are created for a specific logic. Each query is
+ * checked by the first backend, in the order specified by the options of the data flow analyzer, which is available
+ * and supports the logic of the query.
+ *
+ * @see com.bossymr.flow.FlowOptions#getSolverBackends()
+ */
+public interface SolverBackend {
+
+    /**
+     * {@return the name of this backend}
+     */
+    String getName();
+
+    /**
+     * Checks whether this backend can be used on this platform. For example, a backend which depends on a native
+     * library is only available if the library can be loaded.
+     *
+     * @return whether this backend is available.
+     */
+    boolean isAvailable();
+
+    /**
+     * Checks whether this backend is able to decide constraints in the provided logic.
+     *
+     * @param logic the logic.
+     * @return whether this backend supports the logic.
+     */
+    boolean supports(Logic logic);
+
+    /**
+     * Creates a new session, which is only used by a single thread at a time.
+     *
+     * @param logic the logic of all constraints asserted in the session.
+     * @return a new session.
+     * @throws IllegalArgumentException if this backend does not support the logic.
+     */
+    SolverSession createSession(Logic logic);
+}
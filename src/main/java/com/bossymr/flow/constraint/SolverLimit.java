@@ -0,0 +1,76 @@
+package com.bossymr.flow.constraint;
+
+import java.time.Duration;
+
+/**
+ * The limits of a single satisfiability query.
+ * <p>
+ * If a query exceeds either limit, the solver gives up, and the result of the query is unknown. Resource units are
+ * deterministic, unlike time, as such, a query with only a resource limit always has the same result.
+ *
+ * @param timeout the maximum time spent on the query, or {@code null} if the time is not limited.
+ * @param resources the maximum number of resource units spent on the query, or {@code 0} if the resources are not
+ * limited.
+ */
+public record SolverLimit(Duration timeout, long resources) {
+
+    /**
+     * A limit which does not limit a query.
+     */
+    public static final SolverLimit UNLIMITED = new SolverLimit(null, 0);
+
+    /**
+     * Creates a new limit.
+     *
+     * @throws IllegalArgumentException if the timeout or the resource limit is negative.
+     */
+    public SolverLimit {
+        if (timeout != null && timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+        }
+        if (resources < 0) {
+            throw new IllegalArgumentException("resource limit must not be negative: " + resources);
+        }
+    }
+
+    /**
+     * Returns a limit which only limits the time spent on a query.
+     *
+     * @param timeout the maximum time.
+     * @return a limit.
+     */
+    public static SolverLimit ofTimeout(Duration timeout) {
+        return new SolverLimit(timeout, 0);
+    }
+
+    /**
+     * Returns a limit which only limits the resource units spent on a query.
+     *
+     * @param resources the maximum number of resource units.
+     * @return a limit.
+     */
+    public static SolverLimit ofResources(long resources) {
+        return new SolverLimit(null, resources);
+    }
+
+    /**
+     * {@return whether this limit limits either the time or the resource units spent on a query}
+     */
+    public boolean isLimited() {
+        return timeout != null || resources > 0;
+    }
+
+    /**
+     * Returns a limit where both the timeout and the resource limit are multiplied by the provided factor.
+     *
+     * @param factor the factor.
+     * @return a limit.
+     * @throws IllegalArgumentException if the factor is not positive.
+     */
+    public SolverLimit multipliedBy(long factor) {
+        if (factor <= 0) {
+            throw new IllegalArgumentException("factor must be positive: " + factor);
+        }
+        return new SolverLimit(timeout != null ? timeout.multipliedBy(factor) : null, Math.multiplyExact(resources, factor));
+    }
+}
@@ -0,0 +1,85 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.Expression;
+
+import java.util.List;
+
+/**
+ * A {@code SolverSession} is an incremental solver created by a {@link SolverBackend}.
+ * <p>
+ * Constraints are asserted in layers, where each layer can be removed together with all constraints asserted since it
+ * was added.
+ */
+public interface SolverSession extends AutoCloseable {
+
+    /**
+     * Adds a layer.
+     */
+    void push();
+
+    /**
+     * Removes the last layer, and all constraints asserted since it was added.
+     *
+     * @throws IllegalStateException if there is no layer to remove.
+     */
+    void pop();
+
+    /**
+     * Asserts the provided constraint.
+     *
+     * @param constraint the constraint.
+     */
+    void assertFormula(Expression constraint);
+
+    /**
+     * Checks whether all asserted constraints, and the provided assumptions, are satisfiable. The assumptions are not
+     * asserted, and only apply to this query.
+     *
+     * @param assumptions the assumptions.
+     * @return whether the constraints are satisfiable, or {@link Reachable#UNKNOWN} if the result could not be
+     * determined within the limits of the query.
+     */
+    Reachable checkSat(List<Expression> assumptions);
+
+    /**
+     * Returns the value of the provided variable in the model of the last query, which must have been satisfiable.
+     * Booleans are represented by {@link Boolean}, integers by {@link java.math.BigInteger}, reals by
+     * {@link com.bossymr.flow.Rational}, and strings by {@link String}.
+     *
+     * @param variable the variable.
+     * @return the value of the variable, or {@code null} if the value is not available.
+     */
+    Object getValue(AnyExpression variable);
+
+    /**
+     * Returns an unsat core of the last query, which must have been unsatisfiable. An unsat core is a subset of the
+     * asserted constraints and assumptions of the query which is unsatisfiable on its own. A session which cannot
+     * produce unsat cores returns {@code null}.
+     *
+     * @return the unsat core of the last query, or {@code null} if the unsat core is not available.
+     */
+    default List<Expression> getUnsatCore() {
+        return null;
+    }
+
+    /**
+     * Sets the limits of all subsequent queries.
+     *
+     * @param limit the limit.
+     */
+    void setLimit(SolverLimit limit);
+
+    /**
+     * Requests that the current query is abandoned as soon as possible, in which case its result is unknown. This
+     * method can be called from any thread. A session which cannot be interrupted ignores the request, and the query
+     * instead runs until it is either decided or exceeds its limit.
+     */
+    default void interrupt() {}
+
+    /**
+     * Releases the resources of this session. A session cannot be used once it is closed.
+     */
+    @Override
+    default void close() {}
+}
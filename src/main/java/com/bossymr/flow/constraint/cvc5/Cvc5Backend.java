@@ -0,0 +1,122 @@
+package com.bossymr.flow.constraint.cvc5;
+
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.constraint.SolverBackend;
+import com.bossymr.flow.constraint.SolverSession;
+import io.github.cvc5.TermManager;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A backend which uses cvc5, which supports every logic.
+ * <p>
+ * The backend is only available if the cvc5 library is on the class path, and its native library can be loaded on this
+ * platform. A term manager, and the solvers which use its terms, cannot be used by multiple threads at the same time,
+ * as such, each thread which creates sessions has its own term manager. All sessions created by the same thread share
+ * the same term manager, as such, an expression is only converted once for each thread regardless of the session it
+ * is asserted in. A portfolio performs the sessions created by a thread on other threads, as such, it only uses one
+ * session of each configuration at a time, and its configurations must be separate instances.
+ */
+public final class Cvc5Backend implements SolverBackend {
+
+    /**
+     * Whether the cvc5 library can be loaded, which is checked once by initializing the term manager class, without
+     * creating a term manager.
+     */
+    private static final boolean LOADABLE = isLoadable();
+
+    private final Map<String, String> options;
+
+    /**
+     * The converter of each thread which has created a session. The converter of a thread is removed once the thread
+     * terminates, together with its term manager and all of its terms.
+     */
+    private final ThreadLocal<Cvc5Converter> converters = new ThreadLocal<>();
+
+    /**
+     * Whether creating a term manager has failed, since the native library of cvc5 might only be loaded once a term
+     * manager is created.
+     */
+    private volatile boolean unavailable;
+
+    /**
+     * Creates a new backend with the default options.
+     */
+    public Cvc5Backend() {
+        this(Map.of());
+    }
+
+    /**
+     * Creates a new backend, where each solver is configured with the provided options.
+     *
+     * @param options the name and value of each option.
+     */
+    public Cvc5Backend(Map<String, String> options) {
+        this.options = Map.copyOf(options);
+    }
+
+    /**
+     * {@return the options of each solver created by this backend}
+     */
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public String getName() {
+        return options.isEmpty() ? "cvc5" : "cvc5" + new TreeMap<>(options);
+    }
+
+    private static boolean isLoadable() {
+        try {
+            Class.forName("io.github.cvc5.TermManager", true, Cvc5Backend.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            // Either the library, or its native library for this platform, is missing.
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return LOADABLE && !unavailable;
+    }
+
+    @Override
+    public boolean supports(Logic logic) {
+        return true;
+    }
+
+    @Override
+    public SolverSession createSession(Logic logic) {
+        Cvc5Converter converter = getConverter();
+        if (converter == null) {
+            throw new IllegalStateException("backend '" + getName() + "' is not available");
+        }
+        return new Cvc5Session(converter, logic, options);
+    }
+
+    /**
+     * {@return the converter of the current thread, or {@code null} if the backend is not available}
+     */
+    Cvc5Converter getConverter() {
+        Cvc5Converter converter = converters.get();
+        if (converter != null || !(isAvailable())) {
+            return converter;
+        }
+        try {
+            converter = new Cvc5Converter(new TermManager());
+            converters.set(converter);
+        } catch (LinkageError e) {
+            // Either the library, or its native library for this platform, is missing.
+            unavailable = true;
+        }
+        return converter;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,136 @@
+package com.bossymr.flow.constraint.cvc5;
+
+import com.bossymr.flow.Constant;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ArrayType;
+import com.bossymr.flow.type.PrimitiveType;
+import com.bossymr.flow.type.StructureType;
+import com.bossymr.flow.type.ValueType;
+import io.github.cvc5.Kind;
+import io.github.cvc5.Sort;
+import io.github.cvc5.Term;
+import io.github.cvc5.TermManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Converts expressions into terms, and types into sorts, of a specific term manager.
+ * <p>
+ * A term can only be used with the manager which created it, as such, each converter only caches the terms of its own
+ * manager, and sessions only share terms if they share a converter. Terms are cached for as long as their expression
+ * is used, and since equal expressions are usually the same instance, an expression which is asserted in multiple
+ * queries is only converted once. Unlike other expressions, every conversion of a variable creates a new constant, as
+ * such, the constant of each variable must be kept for as long as the variable is used.
+ */
+final class Cvc5Converter {
+
+    private final TermManager manager;
+    private final Map<Expression, Term> terms = new WeakHashMap<>();
+    private final Map<ValueType, Sort> sorts = new HashMap<>();
+
+    Cvc5Converter(TermManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * {@return the manager of this converter}
+     */
+    TermManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Converts the provided expression into a term.
+     *
+     * @param expression the expression.
+     * @return the term.
+     */
+    synchronized Term convert(Expression expression) {
+        Term term = terms.get(expression);
+        if (term == null) {
+            term = create(expression);
+            terms.put(expression, term);
+        }
+        return term;
+    }
+
+    private Term create(Expression expression) {
+        return switch (expression) {
+            case AnyExpression anyExpression -> manager.mkConst(getSort(anyExpression.getType()));
+            case LiteralExpression literalExpression -> create(literalExpression);
+            case BinaryExpression binaryExpression -> manager.mkTerm(getKind(binaryExpression.getOperator()), convert(binaryExpression.getLeft()), convert(binaryExpression.getRight()));
+            case UnaryExpression unaryExpression -> manager.mkTerm(getKind(unaryExpression.getOperator()), convert(unaryExpression.getExpression()));
+            case ConditionalExpression conditionalExpression -> manager.mkTerm(Kind.ITE, convert(conditionalExpression.getCondition()), convert(conditionalExpression.getThenExpression()), convert(conditionalExpression.getElseExpression()));
+        };
+    }
+
+    private Term create(LiteralExpression expression) {
+        return switch (expression.getValue()) {
+            case Boolean value -> manager.mkBoolean(value);
+            case Long value -> manager.mkInteger(value);
+            case Constant.Real.Fraction value -> manager.mkReal(value.numerator(), value.denominator());
+            case String value -> manager.mkString(value);
+            default -> throw new IllegalArgumentException("cannot convert literal '" + expression + "'");
+        };
+    }
+
+    private static Kind getKind(BinaryOperator operator) {
+        return switch (operator) {
+            case EQUAL_TO -> Kind.EQUAL;
+            case GREATER_THAN -> Kind.GT;
+            case LESS_THAN -> Kind.LT;
+            case ADD -> Kind.ADD;
+            case SUBTRACT -> Kind.SUB;
+            case MULTIPLY -> Kind.MULT;
+            case DIVIDE -> Kind.DIVISION;
+            case MODULO -> Kind.INTS_MODULUS;
+            case AND -> Kind.AND;
+            case XOR -> Kind.XOR;
+            case OR -> Kind.OR;
+        };
+    }
+
+    private static Kind getKind(UnaryOperator operator) {
+        return switch (operator) {
+            case UnaryOperator.Not ignored -> Kind.NOT;
+            case UnaryOperator.Negate ignored -> Kind.NEG;
+            case UnaryOperator.Convert convert when convert.getToType() == ValueType.realType() -> Kind.TO_REAL;
+            case UnaryOperator.Convert convert when convert.getToType() == ValueType.integerType() -> Kind.TO_INTEGER;
+            default -> throw new IllegalArgumentException("cannot convert operator '" + operator + "'");
+        };
+    }
+
+    /**
+     * Converts the provided type into a sort.
+     *
+     * @param type the type.
+     * @return the sort.
+     * @throws IllegalStateException if the type is empty.
+     */
+    synchronized Sort getSort(ValueType type) {
+        Sort sort = sorts.get(type);
+        if (sort == null) {
+            sort = createSort(type);
+            sorts.put(type, sort);
+        }
+        return sort;
+    }
+
+    private Sort createSort(ValueType type) {
+        return switch (type) {
+            case PrimitiveType.BOOLEAN -> manager.getBooleanSort();
+            case PrimitiveType.INTEGER -> manager.getIntegerSort();
+            case PrimitiveType.REAL -> manager.getRealSort();
+            case PrimitiveType.STRING -> manager.getStringSort();
+            case PrimitiveType.EMPTY -> throw new IllegalStateException("cannot create an object with empty type");
+            case ArrayType arrayType -> manager.mkArraySort(getSort(ValueType.integerType()), getSort(arrayType.getElementType()));
+            case StructureType structureType -> manager.mkTupleSort(structureType.getValues().stream()
+                    .map(this::getSort)
+                    .toArray(Sort[]::new));
+        };
+    }
+}
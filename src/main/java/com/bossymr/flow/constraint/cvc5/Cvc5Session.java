@@ -0,0 +1,218 @@
+package com.bossymr.flow.constraint.cvc5;
+
+import com.bossymr.flow.Rational;
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.constraint.Reachable;
+import com.bossymr.flow.constraint.SolverLimit;
+import com.bossymr.flow.constraint.SolverSession;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.type.ValueType;
+import io.github.cvc5.CVC5ApiException;
+import io.github.cvc5.Pair;
+import io.github.cvc5.Result;
+import io.github.cvc5.Solver;
+import io.github.cvc5.Term;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A session which asserts constraints in a cvc5 solver.
+ * <p>
+ * The expression of each asserted constraint and assumption is kept, so that the unsat core produced by the solver can
+ * be converted back into expressions.
+ * <p>
+ * cvc5 cannot stop a query once it has started, as such, an interrupted query runs until it is decided or exceeds its
+ * limit, after which its result is discarded.
+ */
+final class Cvc5Session implements SolverSession {
+
+    private final Cvc5Converter converter;
+    private final Solver solver;
+
+    /**
+     * The expression of each constraint asserted in each layer, where the first layer is the base layer.
+     */
+    private final List<Map<Term, Expression>> layers = new ArrayList<>();
+
+    /**
+     * The expression of each assumption of the last query.
+     */
+    private final Map<Term, Expression> assumptions = new HashMap<>();
+
+    /**
+     * Whether a query is being performed.
+     */
+    private boolean querying;
+
+    /**
+     * Whether the query being performed has been interrupted.
+     */
+    private boolean interrupted;
+
+    Cvc5Session(Cvc5Converter converter, Logic logic, Map<String, String> options) {
+        this.converter = converter;
+        this.solver = new Solver(converter.getManager());
+        try {
+            solver.setOption("produce-models", "true");
+            solver.setOption("produce-unsat-cores", "true");
+            options.forEach(solver::setOption);
+            solver.setLogic(logic.name());
+        } catch (CVC5ApiException e) {
+            throw new RuntimeException(e);
+        }
+        layers.add(new HashMap<>());
+    }
+
+    @Override
+    public void push() {
+        try {
+            solver.push();
+            layers.add(new HashMap<>());
+        } catch (CVC5ApiException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void pop() {
+        if (layers.size() == 1) {
+            throw new IllegalStateException("session has no layer to remove");
+        }
+        try {
+            solver.pop();
+            layers.removeLast();
+        } catch (CVC5ApiException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void assertFormula(Expression constraint) {
+        Term term = converter.convert(constraint);
+        solver.assertFormula(term);
+        layers.getLast().put(term, constraint);
+    }
+
+    @Override
+    public Reachable checkSat(List<Expression> assumptions) {
+        Result result;
+        this.assumptions.clear();
+        synchronized (this) {
+            querying = true;
+            interrupted = false;
+        }
+        boolean interrupted;
+        try {
+            if (assumptions.isEmpty()) {
+                result = solver.checkSat();
+            } else {
+                Term[] terms = new Term[assumptions.size()];
+                for (int i = 0; i < terms.length; i++) {
+                    terms[i] = converter.convert(assumptions.get(i));
+                    this.assumptions.put(terms[i], assumptions.get(i));
+                }
+                result = solver.checkSatAssuming(terms);
+            }
+        } finally {
+            synchronized (this) {
+                querying = false;
+                interrupted = this.interrupted;
+            }
+        }
+        if (interrupted) {
+            return Reachable.UNKNOWN;
+        }
+        if (result.isSat()) {
+            return Reachable.REACHABLE;
+        }
+        if (result.isUnsat()) {
+            return Reachable.NOT_REACHABLE;
+        }
+        return Reachable.UNKNOWN;
+    }
+
+    @Override
+    public Object getValue(AnyExpression variable) {
+        ValueType type = variable.getType();
+        if (type == ValueType.booleanType()) {
+            return solver.getValue(converter.convert(variable)).getBooleanValue();
+        }
+        if (type == ValueType.integerType()) {
+            return solver.getValue(converter.convert(variable)).getIntegerValue();
+        }
+        if (type == ValueType.realType()) {
+            Pair<BigInteger, BigInteger> value = solver.getValue(converter.convert(variable)).getRealValue();
+            return Rational.valueOf(value.first, value.second);
+        }
+        if (type == ValueType.stringType()) {
+            return solver.getValue(converter.convert(variable)).getStringValue();
+        }
+        return null;
+    }
+
+    @Override
+    public List<Expression> getUnsatCore() {
+        Set<Expression> core = new LinkedHashSet<>();
+        for (Term term : solver.getUnsatCore()) {
+            Expression constraint = getConstraint(term);
+            if (constraint == null) {
+                return null;
+            }
+            core.add(constraint);
+        }
+        if (!(assumptions.isEmpty())) {
+            for (Term term : solver.getUnsatAssumptions()) {
+                Expression constraint = getConstraint(term);
+                if (constraint == null) {
+                    return null;
+                }
+                core.add(constraint);
+            }
+        }
+        return List.copyOf(core);
+    }
+
+    /**
+     * {@return the expression of the provided constraint or assumption, or {@code null} if the term is not known}
+     */
+    private Expression getConstraint(Term term) {
+        for (Map<Term, Expression> layer : layers) {
+            Expression constraint = layer.get(term);
+            if (constraint != null) {
+                return constraint;
+            }
+        }
+        return assumptions.get(term);
+    }
+
+    @Override
+    public void setLimit(SolverLimit limit) {
+        solver.setOption("tlimit-per", String.valueOf(limit.timeout() != null ? Math.max(1, limit.timeout().toMillis()) : 0));
+        solver.setOption("rlimit-per", String.valueOf(limit.resources()));
+    }
+
+    /**
+     * Interrupts the query being performed, if any. The query is not stopped, but its result is unknown once it
+     * returns.
+     */
+    @Override
+    public void interrupt() {
+        synchronized (this) {
+            if (querying) {
+                interrupted = true;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        solver.deletePointer();
+    }
+}
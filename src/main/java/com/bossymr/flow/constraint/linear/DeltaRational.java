@@ -0,0 +1,73 @@
+package com.bossymr.flow.constraint.linear;
+
+import com.bossymr.flow.Rational;
+
+import java.math.BigInteger;
+
+/**
+ * A {@code DeltaRational} represents the number {@code real + delta * epsilon}, where {@code epsilon} is an
+ * infinitesimal positive number. A strict bound {@code x < c} is represented by the non-strict bound
+ * {@code x <= c - epsilon}.
+ *
+ * @param real the real part.
+ * @param delta the coefficient of the infinitesimal part.
+ */
+record DeltaRational(Rational real, Rational delta) implements Comparable<DeltaRational> {
+
+    static final DeltaRational ZERO = new DeltaRational(Rational.ZERO, Rational.ZERO);
+
+    static DeltaRational valueOf(Rational real) {
+        return new DeltaRational(real, Rational.ZERO);
+    }
+
+    DeltaRational add(DeltaRational other) {
+        return new DeltaRational(real.add(other.real), delta.add(other.delta));
+    }
+
+    DeltaRational subtract(DeltaRational other) {
+        return new DeltaRational(real.subtract(other.real), delta.subtract(other.delta));
+    }
+
+    DeltaRational multiply(Rational factor) {
+        return new DeltaRational(real.multiply(factor), delta.multiply(factor));
+    }
+
+    DeltaRational divide(Rational divisor) {
+        return new DeltaRational(real.divide(divisor), delta.divide(divisor));
+    }
+
+    /**
+     * {@return whether this number is an integer for every sufficiently small {@code epsilon}}
+     */
+    boolean isInteger() {
+        return delta.signum() == 0 && real.isInteger();
+    }
+
+    /**
+     * {@return the largest integer which is less than or equal to this number for every sufficiently small {@code epsilon}}
+     */
+    BigInteger floor() {
+        if (real.isInteger() && delta.signum() < 0) {
+            return real.getNumerator().subtract(BigInteger.ONE);
+        }
+        return real.floor();
+    }
+
+    /**
+     * {@return the value of this number for the provided {@code epsilon}}
+     */
+    Rational evaluate(Rational value) {
+        return real.add(delta.multiply(value));
+    }
+
+    @Override
+    public int compareTo(DeltaRational other) {
+        int comparison = real.compareTo(other.real);
+        return comparison != 0 ? comparison : delta.compareTo(other.delta);
+    }
+
+    @Override
+    public String toString() {
+        return delta.signum() == 0 ? real.toString() : real + " + " + delta + "*epsilon";
+    }
+}
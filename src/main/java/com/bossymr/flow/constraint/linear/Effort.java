@@ -0,0 +1,71 @@
+package com.bossymr.flow.constraint.linear;
+
+import com.bossymr.flow.constraint.SolverLimit;
+
+import java.io.Serial;
+
+/**
+ * The effort spent on a single query, which is limited by both the number of steps and the time spent.
+ * <p>
+ * A step is either a pivot of the tableau or a node of the search. Branch and bound does not terminate if the
+ * integer variables are unbounded, as such, the number of steps is limited even if the query is not limited.
+ */
+final class Effort {
+
+    /**
+     * The maximum number of steps of a query which is not limited.
+     */
+    static final long DEFAULT_STEPS = 1_000_000;
+
+    private final long maxSteps;
+    private final long deadline;
+    private long steps;
+    private volatile boolean interrupted;
+
+    Effort(SolverLimit limit) {
+        this.maxSteps = limit.resources() > 0 ? limit.resources() : DEFAULT_STEPS;
+        this.deadline = limit.timeout() != null ? System.nanoTime() + limit.timeout().toNanos() : 0;
+    }
+
+    /**
+     * Performs a step.
+     *
+     * @throws ExhaustedException if the query has exceeded its limit, or has been interrupted.
+     */
+    void step() {
+        steps += 1;
+        if (steps > maxSteps || interrupted) {
+            throw new ExhaustedException();
+        }
+        if (deadline != 0 && (steps & 0xFF) == 0 && System.nanoTime() - deadline > 0) {
+            throw new ExhaustedException();
+        }
+    }
+
+    /**
+     * Requests that the query is abandoned at its next step.
+     */
+    void interrupt() {
+        interrupted = true;
+    }
+
+    /**
+     * {@return the number of steps performed}
+     */
+    long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Thrown if a query has exceeded its limit, in which case the result of the query is unknown.
+     */
+    static final class ExhaustedException extends RuntimeException {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        ExhaustedException() {
+            super("query exceeded its limit", null, false, false);
+        }
+    }
+}
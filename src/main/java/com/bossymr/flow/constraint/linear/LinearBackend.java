@@ -0,0 +1,43 @@
+package com.bossymr.flow.constraint.linear;
+
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.constraint.SolverBackend;
+import com.bossymr.flow.constraint.SolverSession;
+
+/**
+ * A backend which decides linear arithmetic over integers and reals, together with booleans, without any native
+ * library. As a result, the backend is always available.
+ * <p>
+ * Each query is decided from scratch by a simplex solver together with branch and bound, without leaving the virtual
+ * machine. If a query contains a constraint which is not supported, its result is unknown.
+ */
+public final class LinearBackend implements SolverBackend {
+
+    @Override
+    public String getName() {
+        return "linear";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean supports(Logic logic) {
+        return logic == Logic.QF_LIA || logic == Logic.QF_LRA || logic == Logic.QF_LIRA;
+    }
+
+    @Override
+    public SolverSession createSession(Logic logic) {
+        if (!(supports(logic))) {
+            throw new IllegalArgumentException("backend '" + getName() + "' does not support logic: " + logic);
+        }
+        return new LinearSession();
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,84 @@
+package com.bossymr.flow.constraint.linear;
+
+import com.bossymr.flow.constraint.Reachable;
+import com.bossymr.flow.constraint.SolverLimit;
+import com.bossymr.flow.constraint.SolverSession;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.Expression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A session which keeps the asserted constraints of each layer, and decides every query from scratch.
+ */
+final class LinearSession implements SolverSession {
+
+    private final List<List<Expression>> layers = new ArrayList<>();
+    private SolverLimit limit = SolverLimit.UNLIMITED;
+    private Map<AnyExpression, Object> model = Map.of();
+
+    /**
+     * The solver of the current query, or {@code null} if no query is being performed.
+     */
+    private volatile LinearSolver solver;
+
+    LinearSession() {
+        layers.add(new ArrayList<>());
+    }
+
+    @Override
+    public void push() {
+        layers.add(new ArrayList<>());
+    }
+
+    @Override
+    public void pop() {
+        if (layers.size() == 1) {
+            throw new IllegalStateException("session has no layer to remove");
+        }
+        layers.removeLast();
+    }
+
+    @Override
+    public void assertFormula(Expression constraint) {
+        layers.getLast().add(constraint);
+    }
+
+    @Override
+    public Reachable checkSat(List<Expression> assumptions) {
+        List<Expression> constraints = new ArrayList<>();
+        for (List<Expression> layer : layers) {
+            constraints.addAll(layer);
+        }
+        constraints.addAll(assumptions);
+        LinearSolver solver = new LinearSolver(limit);
+        this.solver = solver;
+        try {
+            Reachable result = solver.solve(constraints);
+            model = result == Reachable.REACHABLE ? solver.getModel() : Map.of();
+            return result;
+        } finally {
+            this.solver = null;
+        }
+    }
+
+    @Override
+    public Object getValue(AnyExpression variable) {
+        return model.get(variable);
+    }
+
+    @Override
+    public void setLimit(SolverLimit limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public void interrupt() {
+        LinearSolver solver = this.solver;
+        if (solver != null) {
+            solver.interrupt();
+        }
+    }
+}
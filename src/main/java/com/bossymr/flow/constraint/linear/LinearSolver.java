@@ -0,0 +1,572 @@
+package com.bossymr.flow.constraint.linear;
+
+import com.bossymr.flow.Constant;
+import com.bossymr.flow.Rational;
+import com.bossymr.flow.constraint.Reachable;
+import com.bossymr.flow.constraint.SolverLimit;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ValueType;
+
+import java.io.Serial;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Checks whether a set of constraints over linear arithmetic and booleans is satisfiable.
+ * <p>
+ * The boolean structure of the constraints is searched depth-first: conjunctions are asserted directly, while
+ * disjunctions, and negated equalities, are split into alternatives which are tried in order. Each comparison is
+ * asserted as a bound on a linear combination of variables in a {@link Simplex}, which is checked at every node of the
+ * search, so that a branch is abandoned as soon as its bounds are infeasible. Once all constraints of a branch have
+ * been asserted, integer variables with a fractional value are handled by branch and bound.
+ * <p>
+ * Conditional expressions, and the remainder of a division by a constant, are replaced by fresh variables, which are
+ * defined by additional constraints. Constraints outside of linear arithmetic, such as the product of two variables or
+ * any constraint over strings, are not supported, in which case the result is unknown.
+ */
+final class LinearSolver {
+
+    private final Effort effort;
+    private final Simplex simplex;
+
+    /**
+     * The variable of each numeric variable in the constraints.
+     */
+    private final Map<AnyExpression, Integer> variables = new HashMap<>();
+
+    /**
+     * The variables which can only be assigned an integer value.
+     */
+    private final BitSet integers = new BitSet();
+
+    private final Map<Expression, Linear> linearized = new IdentityHashMap<>();
+    private final Set<Expression> prepared = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The slack variable which represents each linear combination of variables.
+     */
+    private final Map<Map<Integer, Rational>, Integer> slacks = new HashMap<>();
+
+    /**
+     * The constraints which define each fresh variable.
+     */
+    private final List<Item> definitions = new ArrayList<>();
+
+    /**
+     * The value of each boolean variable in the satisfying branch.
+     */
+    private Map<AnyExpression, Boolean> assignment;
+
+    LinearSolver(SolverLimit limit) {
+        this.effort = new Effort(limit);
+        this.simplex = new Simplex(effort);
+    }
+
+    /**
+     * Requests that the query is abandoned as soon as possible. This method can be called from any thread.
+     */
+    void interrupt() {
+        effort.interrupt();
+    }
+
+    /**
+     * Checks whether the provided constraints are satisfiable.
+     *
+     * @param constraints the constraints.
+     * @return whether the constraints are satisfiable, or {@link Reachable#UNKNOWN} if the constraints are not
+     * supported or the query exceeded its limit.
+     */
+    Reachable solve(List<Expression> constraints) {
+        try {
+            for (Expression constraint : constraints) {
+                prepare(constraint);
+            }
+            Deque<Item> pending = new ArrayDeque<>(definitions);
+            for (Expression constraint : constraints) {
+                pending.add(new Literal(constraint, true));
+            }
+            return search(pending, new HashMap<>()) ? Reachable.REACHABLE : Reachable.NOT_REACHABLE;
+        } catch (Effort.ExhaustedException | UnsupportedException e) {
+            return Reachable.UNKNOWN;
+        }
+    }
+
+    /**
+     * Returns the model of the last satisfiable query. Booleans are represented by {@link Boolean}, integers by
+     * {@link BigInteger}, and reals by {@link Rational}. Variables which are not constrained are not included.
+     *
+     * @return the model.
+     */
+    Map<AnyExpression, Object> getModel() {
+        Map<AnyExpression, Object> model = new HashMap<>(assignment);
+        Rational delta = simplex.getDelta();
+        for (Map.Entry<AnyExpression, Integer> entry : variables.entrySet()) {
+            Rational value = simplex.getValue(entry.getValue()).evaluate(delta);
+            model.put(entry.getKey(), entry.getKey().getType() == ValueType.integerType() ? value.getNumerator() : value);
+        }
+        return model;
+    }
+
+    private boolean search(Deque<Item> pending, Map<AnyExpression, Boolean> assignment) {
+        effort.step();
+        List<Choice> choices = new ArrayList<>();
+        while (!(pending.isEmpty())) {
+            boolean consistent = switch (pending.removeFirst()) {
+                case Literal literal -> expand(literal.expression(), literal.positive(), pending, choices, assignment);
+                case Bound bound -> assertBound(bound);
+                case Choice choice -> choices.add(choice);
+            };
+            if (!(consistent)) {
+                return false;
+            }
+        }
+        if (!(simplex.check())) {
+            return false;
+        }
+        if (choices.isEmpty()) {
+            return branchAndBound(assignment);
+        }
+        Choice choice = choices.removeFirst();
+        for (List<Item> alternative : choice.alternatives()) {
+            int mark = simplex.mark();
+            Deque<Item> next = new ArrayDeque<>(alternative);
+            next.addAll(choices);
+            if (search(next, new HashMap<>(assignment))) {
+                return true;
+            }
+            simplex.revert(mark);
+        }
+        return false;
+    }
+
+    private boolean branchAndBound(Map<AnyExpression, Boolean> assignment) {
+        if (!(simplex.check())) {
+            return false;
+        }
+        for (int variable = integers.nextSetBit(0); variable >= 0; variable = integers.nextSetBit(variable + 1)) {
+            DeltaRational value = simplex.getValue(variable);
+            if (value.isInteger()) {
+                continue;
+            }
+            effort.step();
+            // The variable is either at most the integer below its value, or at least the integer above its value.
+            BigInteger floor = value.floor();
+            int mark = simplex.mark();
+            if (simplex.assertUpper(variable, DeltaRational.valueOf(Rational.valueOf(floor))) && branchAndBound(assignment)) {
+                return true;
+            }
+            simplex.revert(mark);
+            if (simplex.assertLower(variable, DeltaRational.valueOf(Rational.valueOf(floor.add(BigInteger.ONE)))) && branchAndBound(assignment)) {
+                return true;
+            }
+            simplex.revert(mark);
+            return false;
+        }
+        this.assignment = assignment;
+        return true;
+    }
+
+    /**
+     * Asserts the provided boolean expression, by either asserting its parts or adding its alternatives.
+     *
+     * @return {@code false} if the expression conflicts with the current assignment.
+     */
+    private boolean expand(Expression expression, boolean positive, Deque<Item> pending, List<Choice> choices, Map<AnyExpression, Boolean> assignment) {
+        switch (expression) {
+            case UnaryExpression unaryExpression when unaryExpression.getOperator() instanceof UnaryOperator.Not -> pending.add(new Literal(unaryExpression.getExpression(), !positive));
+            case LiteralExpression literalExpression when literalExpression.getValue() instanceof Boolean value -> {
+                return value == positive;
+            }
+            case AnyExpression anyExpression when anyExpression.getType() == ValueType.booleanType() -> {
+                Boolean previous = assignment.putIfAbsent(anyExpression, positive);
+                return previous == null || previous == positive;
+            }
+            case ConditionalExpression conditionalExpression -> {
+                Expression condition = conditionalExpression.getCondition();
+                choices.add(new Choice(List.of(
+                        List.of(new Literal(condition, true), new Literal(conditionalExpression.getThenExpression(), positive)),
+                        List.of(new Literal(condition, false), new Literal(conditionalExpression.getElseExpression(), positive)))));
+            }
+            case BinaryExpression binaryExpression -> expand(binaryExpression, positive, pending, choices);
+            default -> throw new UnsupportedException();
+        }
+        return true;
+    }
+
+    private void expand(BinaryExpression expression, boolean positive, Deque<Item> pending, List<Choice> choices) {
+        Expression left = expression.getLeft();
+        Expression right = expression.getRight();
+        switch (expression.getOperator()) {
+            case AND -> {
+                if (positive) {
+                    pending.add(new Literal(left, true));
+                    pending.add(new Literal(right, true));
+                } else {
+                    choices.add(new Choice(List.of(List.of(new Literal(left, false)), List.of(new Literal(right, false)))));
+                }
+            }
+            case OR -> {
+                if (positive) {
+                    choices.add(new Choice(List.of(List.of(new Literal(left, true)), List.of(new Literal(right, true)))));
+                } else {
+                    pending.add(new Literal(left, false));
+                    pending.add(new Literal(right, false));
+                }
+            }
+            case XOR -> choices.add(equivalence(left, right, !positive));
+            case EQUAL_TO -> {
+                if (left.getType() == ValueType.booleanType()) {
+                    choices.add(equivalence(left, right, positive));
+                } else if (isNumeric(left.getType())) {
+                    Linear difference = linearize(left).subtract(linearize(right));
+                    if (positive) {
+                        pending.add(new Bound(difference, Relation.EQUAL));
+                    } else {
+                        choices.add(new Choice(List.of(List.of(new Bound(difference, Relation.LESS)), List.of(new Bound(difference.negate(), Relation.LESS)))));
+                    }
+                } else {
+                    throw new UnsupportedException();
+                }
+            }
+            case LESS_THAN -> {
+                Linear difference = linearize(left).subtract(linearize(right));
+                pending.add(positive ? new Bound(difference, Relation.LESS) : new Bound(difference.negate(), Relation.LESS_EQUAL));
+            }
+            case GREATER_THAN -> {
+                Linear difference = linearize(right).subtract(linearize(left));
+                pending.add(positive ? new Bound(difference, Relation.LESS) : new Bound(difference.negate(), Relation.LESS_EQUAL));
+            }
+            default -> throw new UnsupportedException();
+        }
+    }
+
+    private static Choice equivalence(Expression left, Expression right, boolean equal) {
+        return new Choice(List.of(
+                List.of(new Literal(left, true), new Literal(right, equal)),
+                List.of(new Literal(left, false), new Literal(right, !equal))));
+    }
+
+    /**
+     * Asserts the provided bound in the tableau.
+     *
+     * @return {@code false} if the bound conflicts with a previously asserted bound.
+     */
+    private boolean assertBound(Bound constraint) {
+        Linear linear = constraint.linear();
+        Relation relation = constraint.relation();
+        if (linear.isConstant()) {
+            int signum = linear.constant().signum();
+            return switch (relation) {
+                case LESS -> signum < 0;
+                case LESS_EQUAL -> signum <= 0;
+                case EQUAL -> signum == 0;
+            };
+        }
+        // The constraint is rewritten as: sum(coefficient * variable) <relation> bound.
+        TreeMap<Integer, Rational> coefficients = new TreeMap<>();
+        Rational factor = getFactor(linear.coefficients());
+        linear.coefficients().forEach((variable, coefficient) -> coefficients.put(variable, coefficient.multiply(factor)));
+        Rational bound = linear.constant().negate().multiply(factor);
+        if (isInteger(coefficients)) {
+            // The sum of integer variables with integer coefficients is an integer.
+            switch (relation) {
+                case LESS -> bound = Rational.valueOf(ceiling(bound).subtract(BigInteger.ONE));
+                case LESS_EQUAL -> bound = Rational.valueOf(bound.floor());
+                case EQUAL -> {
+                    if (!(bound.isInteger())) {
+                        return false;
+                    }
+                }
+            }
+            if (relation == Relation.LESS) {
+                relation = Relation.LESS_EQUAL;
+            }
+        }
+        int variable;
+        if (coefficients.size() == 1) {
+            variable = coefficients.firstKey();
+            if (coefficients.firstEntry().getValue().signum() < 0) {
+                // -variable <relation> bound, as such, variable <inverse relation> -bound.
+                DeltaRational value = DeltaRational.valueOf(bound.negate());
+                return switch (relation) {
+                    case LESS -> simplex.assertLower(variable, value.add(new DeltaRational(Rational.ZERO, Rational.ONE)));
+                    case LESS_EQUAL -> simplex.assertLower(variable, value);
+                    case EQUAL -> simplex.assertLower(variable, value) && simplex.assertUpper(variable, value);
+                };
+            }
+        } else {
+            variable = slacks.computeIfAbsent(coefficients, simplex::addRow);
+        }
+        DeltaRational value = DeltaRational.valueOf(bound);
+        return switch (relation) {
+            case LESS -> simplex.assertUpper(variable, value.subtract(new DeltaRational(Rational.ZERO, Rational.ONE)));
+            case LESS_EQUAL -> simplex.assertUpper(variable, value);
+            case EQUAL -> simplex.assertUpper(variable, value) && simplex.assertLower(variable, value);
+        };
+    }
+
+    /**
+     * Returns a positive factor which normalizes the provided coefficients. If all variables are integers, the
+     * coefficients are scaled to integers without a common divisor, otherwise, the first coefficient is scaled to
+     * {@code 1} or {@code -1}.
+     */
+    private Rational getFactor(Map<Integer, Rational> coefficients) {
+        if (!(isInteger(coefficients))) {
+            Rational first = coefficients.values().iterator().next();
+            return Rational.ONE.divide(first.signum() < 0 ? first.negate() : first);
+        }
+        BigInteger multiple = BigInteger.ONE;
+        for (Rational coefficient : coefficients.values()) {
+            BigInteger denominator = coefficient.getDenominator();
+            multiple = multiple.multiply(denominator).divide(multiple.gcd(denominator));
+        }
+        BigInteger divisor = BigInteger.ZERO;
+        for (Rational coefficient : coefficients.values()) {
+            divisor = divisor.gcd(coefficient.multiply(Rational.valueOf(multiple)).getNumerator());
+        }
+        return Rational.valueOf(multiple, divisor);
+    }
+
+    private boolean isInteger(Map<Integer, Rational> coefficients) {
+        for (int variable : coefficients.keySet()) {
+            if (!(integers.get(variable))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BigInteger ceiling(Rational value) {
+        return value.negate().floor().negate();
+    }
+
+    /**
+     * Linearizes every numeric expression in the provided expression, so that all fresh variables are defined before
+     * the search starts.
+     */
+    private void prepare(Expression expression) {
+        if (!(prepared.add(expression))) {
+            return;
+        }
+        if (isNumeric(expression.getType())) {
+            linearize(expression);
+            return;
+        }
+        switch (expression) {
+            case BinaryExpression binaryExpression -> {
+                prepare(binaryExpression.getLeft());
+                prepare(binaryExpression.getRight());
+            }
+            case UnaryExpression unaryExpression -> prepare(unaryExpression.getExpression());
+            case ConditionalExpression conditionalExpression -> {
+                prepare(conditionalExpression.getCondition());
+                prepare(conditionalExpression.getThenExpression());
+                prepare(conditionalExpression.getElseExpression());
+            }
+            default -> {}
+        }
+    }
+
+    private Linear linearize(Expression expression) {
+        Linear linear = linearized.get(expression);
+        if (linear == null) {
+            linear = createLinear(expression);
+            linearized.put(expression, linear);
+        }
+        return linear;
+    }
+
+    private Linear createLinear(Expression expression) {
+        return switch (expression) {
+            case AnyExpression anyExpression -> Linear.variable(variables.computeIfAbsent(anyExpression, key -> addVariable(key.getType() == ValueType.integerType())));
+            case LiteralExpression literalExpression -> switch (literalExpression.getValue()) {
+                case Long value -> Linear.constant(Rational.valueOf(value));
+                case Constant.Real.Fraction value when value.denominator() != 0 -> Linear.constant(Rational.valueOf(value.numerator(), value.denominator()));
+                default -> throw new UnsupportedException();
+            };
+            case UnaryExpression unaryExpression -> {
+                Linear value = linearize(unaryExpression.getExpression());
+                yield switch (unaryExpression.getOperator()) {
+                    case UnaryOperator.Negate ignored -> value.negate();
+                    case UnaryOperator.Convert convert when convert.getToType() == ValueType.integerType() && convert.getFromType() == ValueType.realType() -> floor(value);
+                    case UnaryOperator.Convert ignored -> value;
+                    default -> throw new UnsupportedException();
+                };
+            }
+            case BinaryExpression binaryExpression -> createLinear(binaryExpression);
+            case ConditionalExpression conditionalExpression -> {
+                prepare(conditionalExpression.getCondition());
+                Linear thenValue = linearize(conditionalExpression.getThenExpression());
+                Linear elseValue = linearize(conditionalExpression.getElseExpression());
+                Linear value = Linear.variable(addVariable(expression.getType() == ValueType.integerType()));
+                Expression condition = conditionalExpression.getCondition();
+                definitions.add(new Choice(List.of(
+                        List.of(new Literal(condition, true), new Bound(value.subtract(thenValue), Relation.EQUAL)),
+                        List.of(new Literal(condition, false), new Bound(value.subtract(elseValue), Relation.EQUAL)))));
+                yield value;
+            }
+        };
+    }
+
+    private Linear createLinear(BinaryExpression expression) {
+        Linear left = linearize(expression.getLeft());
+        Linear right = linearize(expression.getRight());
+        return switch (expression.getOperator()) {
+            case ADD -> left.add(right);
+            case SUBTRACT -> left.subtract(right);
+            case MULTIPLY -> {
+                if (left.isConstant()) {
+                    yield right.multiply(left.constant());
+                }
+                if (right.isConstant()) {
+                    yield left.multiply(right.constant());
+                }
+                throw new UnsupportedException();
+            }
+            case DIVIDE -> {
+                // The quotient of a division, including an integer division, is a real number.
+                if (!(right.isConstant()) || right.constant().signum() == 0) {
+                    throw new UnsupportedException();
+                }
+                yield left.multiply(Rational.ONE.divide(right.constant()));
+            }
+            case MODULO -> {
+                if (!(right.isConstant()) || right.constant().signum() == 0 || !(right.constant().isInteger())) {
+                    throw new UnsupportedException();
+                }
+                BigInteger divisor = right.constant().getNumerator().abs();
+                if (left.isConstant() && left.constant().isInteger()) {
+                    yield Linear.constant(Rational.valueOf(left.constant().getNumerator().mod(divisor)));
+                }
+                // left = divisor * quotient + remainder, where 0 <= remainder < divisor.
+                Linear quotient = Linear.variable(addVariable(true));
+                Linear remainder = Linear.variable(addVariable(true));
+                definitions.add(new Bound(left.subtract(quotient.multiply(Rational.valueOf(divisor))).subtract(remainder), Relation.EQUAL));
+                definitions.add(new Bound(remainder.negate(), Relation.LESS_EQUAL));
+                definitions.add(new Bound(remainder.subtract(Linear.constant(Rational.valueOf(divisor.subtract(BigInteger.ONE)))), Relation.LESS_EQUAL));
+                yield remainder;
+            }
+            default -> throw new UnsupportedException();
+        };
+    }
+
+    /**
+     * {@return the largest integer less than or equal to the provided value}
+     */
+    private Linear floor(Linear value) {
+        if (value.isConstant()) {
+            return Linear.constant(Rational.valueOf(value.constant().floor()));
+        }
+        // result <= value < result + 1
+        Linear result = Linear.variable(addVariable(true));
+        definitions.add(new Bound(result.subtract(value), Relation.LESS_EQUAL));
+        definitions.add(new Bound(value.subtract(result).subtract(Linear.constant(Rational.ONE)), Relation.LESS));
+        return result;
+    }
+
+    private int addVariable(boolean integer) {
+        int variable = simplex.addVariable();
+        integers.set(variable, integer);
+        return variable;
+    }
+
+    private static boolean isNumeric(ValueType type) {
+        return type == ValueType.integerType() || type == ValueType.realType();
+    }
+
+    /**
+     * A relation between a linear combination and zero.
+     */
+    private enum Relation {
+        LESS, LESS_EQUAL, EQUAL
+    }
+
+    /**
+     * A sum of variables multiplied by a coefficient, and a constant.
+     *
+     * @param coefficients the coefficient of each variable, where no coefficient is zero.
+     * @param constant the constant.
+     */
+    private record Linear(Map<Integer, Rational> coefficients, Rational constant) {
+
+        private static Linear constant(Rational constant) {
+            return new Linear(Map.of(), constant);
+        }
+
+        private static Linear variable(int variable) {
+            return new Linear(Map.of(variable, Rational.ONE), Rational.ZERO);
+        }
+
+        private boolean isConstant() {
+            return coefficients.isEmpty();
+        }
+
+        private Linear add(Linear other) {
+            return add(other, Rational.ONE);
+        }
+
+        private Linear subtract(Linear other) {
+            return add(other, Rational.ONE.negate());
+        }
+
+        private Linear add(Linear other, Rational factor) {
+            Map<Integer, Rational> coefficients = new TreeMap<>(this.coefficients);
+            other.coefficients.forEach((variable, coefficient) -> {
+                Rational sum = coefficients.getOrDefault(variable, Rational.ZERO).add(coefficient.multiply(factor));
+                if (sum.signum() == 0) {
+                    coefficients.remove(variable);
+                } else {
+                    coefficients.put(variable, sum);
+                }
+            });
+            return new Linear(coefficients, constant.add(other.constant.multiply(factor)));
+        }
+
+        private Linear multiply(Rational factor) {
+            if (factor.signum() == 0) {
+                return constant(Rational.ZERO);
+            }
+            Map<Integer, Rational> coefficients = new TreeMap<>();
+            this.coefficients.forEach((variable, coefficient) -> coefficients.put(variable, coefficient.multiply(factor)));
+            return new Linear(coefficients, constant.multiply(factor));
+        }
+
+        private Linear negate() {
+            return multiply(Rational.ONE.negate());
+        }
+    }
+
+    /**
+     * A constraint which has not yet been asserted.
+     */
+    private sealed interface Item permits Literal, Bound, Choice {}
+
+    /**
+     * A boolean expression which is either required to be {@code true} or {@code false}.
+     */
+    private record Literal(Expression expression, boolean positive) implements Item {}
+
+    /**
+     * A relation between a linear combination of variables and zero.
+     */
+    private record Bound(Linear linear, Relation relation) implements Item {}
+
+    /**
+     * A set of alternatives, where the constraints of at least one alternative must be satisfied.
+     */
+    private record Choice(List<List<Item>> alternatives) implements Item {}
+
+    /**
+     * Thrown if a constraint is not supported, in which case the result is unknown.
+     */
+    private static final class UnsupportedException extends RuntimeException {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedException() {
+            super("constraint is not supported", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.bossymr.flow.constraint.linear;
+
+import com.bossymr.flow.Rational;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A general simplex solver, which checks whether a set of bounds on linear combinations of variables is feasible.
+ * <p>
+ * Each linear combination is represented by a slack variable, which is defined by a row of the tableau. A variable is
+ * either basic, in which case it is defined by a row in terms of nonbasic variables, or nonbasic, in which case it is
+ * always within its bounds. Bounds are asserted on variables, and can be removed by reverting to a previous mark, as
+ * such, the tableau is only built once for all branches of a search. Variables are selected by Bland's rule, which
+ * guarantees that the solver terminates.
+ *
+ * @see <a href="https://doi.org/10.1007/11817963_11">A Fast Linear-Arithmetic Solver for DPLL(T)</a>
+ */
+final class Simplex {
+
+    private final Effort effort;
+
+    private final List<DeltaRational> values = new ArrayList<>();
+    private final List<DeltaRational> lower = new ArrayList<>();
+    private final List<DeltaRational> upper = new ArrayList<>();
+
+    /**
+     * The row of each variable, or {@code null} if the variable is nonbasic.
+     */
+    private final List<TreeMap<Integer, Rational>> rows = new ArrayList<>();
+
+    /**
+     * The previous bounds of each variable, in the order they were replaced.
+     */
+    private final List<Change> trail = new ArrayList<>();
+
+    Simplex(Effort effort) {
+        this.effort = effort;
+    }
+
+    /**
+     * Adds a nonbasic variable without bounds.
+     *
+     * @return the variable.
+     */
+    int addVariable() {
+        values.add(DeltaRational.ZERO);
+        lower.add(null);
+        upper.add(null);
+        rows.add(null);
+        return values.size() - 1;
+    }
+
+    /**
+     * Adds a basic variable which is equal to the provided linear combination of other variables.
+     *
+     * @param coefficients the coefficient of each variable.
+     * @return the variable.
+     */
+    int addRow(Map<Integer, Rational> coefficients) {
+        TreeMap<Integer, Rational> row = new TreeMap<>();
+        DeltaRational value = DeltaRational.ZERO;
+        for (Map.Entry<Integer, Rational> entry : coefficients.entrySet()) {
+            int variable = entry.getKey();
+            Rational coefficient = entry.getValue();
+            value = value.add(values.get(variable).multiply(coefficient));
+            TreeMap<Integer, Rational> definition = rows.get(variable);
+            if (definition == null) {
+                addTo(row, variable, coefficient);
+            } else {
+                for (Map.Entry<Integer, Rational> term : definition.entrySet()) {
+                    addTo(row, term.getKey(), term.getValue().multiply(coefficient));
+                }
+            }
+        }
+        int variable = addVariable();
+        values.set(variable, value);
+        rows.set(variable, row);
+        return variable;
+    }
+
+    /**
+     * {@return the value of the provided variable}
+     */
+    DeltaRational getValue(int variable) {
+        return values.get(variable);
+    }
+
+    /**
+     * {@return the number of variables}
+     */
+    int size() {
+        return values.size();
+    }
+
+    /**
+     * {@return a mark which can be used to remove all bounds asserted after this point}
+     */
+    int mark() {
+        return trail.size();
+    }
+
+    /**
+     * Removes all bounds asserted after the provided mark. The values of all variables are kept, since they still
+     * satisfy the tableau, and every nonbasic variable is still within its bounds.
+     *
+     * @param mark the mark.
+     */
+    void revert(int mark) {
+        while (trail.size() > mark) {
+            Change change = trail.removeLast();
+            (change.upper() ? upper : lower).set(change.variable(), change.bound());
+        }
+    }
+
+    /**
+     * Asserts that the provided variable is less than or equal to the provided bound.
+     *
+     * @param variable the variable.
+     * @param bound the bound.
+     * @return {@code false} if the bound conflicts with the lower bound of the variable.
+     */
+    boolean assertUpper(int variable, DeltaRational bound) {
+        DeltaRational lower = this.lower.get(variable);
+        if (lower != null && bound.compareTo(lower) < 0) {
+            return false;
+        }
+        DeltaRational upper = this.upper.get(variable);
+        if (upper != null && bound.compareTo(upper) >= 0) {
+            return true;
+        }
+        trail.add(new Change(variable, true, upper));
+        this.upper.set(variable, bound);
+        if (rows.get(variable) == null && values.get(variable).compareTo(bound) > 0) {
+            update(variable, bound);
+        }
+        return true;
+    }
+
+    /**
+     * Asserts that the provided variable is greater than or equal to the provided bound.
+     *
+     * @param variable the variable.
+     * @param bound the bound.
+     * @return {@code false} if the bound conflicts with the upper bound of the variable.
+     */
+    boolean assertLower(int variable, DeltaRational bound) {
+        DeltaRational upper = this.upper.get(variable);
+        if (upper != null && bound.compareTo(upper) > 0) {
+            return false;
+        }
+        DeltaRational lower = this.lower.get(variable);
+        if (lower != null && bound.compareTo(lower) <= 0) {
+            return true;
+        }
+        trail.add(new Change(variable, false, lower));
+        this.lower.set(variable, bound);
+        if (rows.get(variable) == null && values.get(variable).compareTo(bound) < 0) {
+            update(variable, bound);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether all asserted bounds can be satisfied. If so, every variable is assigned a value within its
+     * bounds.
+     *
+     * @return whether all asserted bounds can be satisfied.
+     * @throws Effort.ExhaustedException if the query has exceeded its limit.
+     */
+    boolean check() {
+        while (true) {
+            effort.step();
+            int basic = -1;
+            for (int variable = 0; variable < values.size(); variable++) {
+                if (rows.get(variable) != null && isViolated(variable)) {
+                    basic = variable;
+                    break;
+                }
+            }
+            if (basic < 0) {
+                return true;
+            }
+            DeltaRational lower = this.lower.get(basic);
+            boolean increase = lower != null && values.get(basic).compareTo(lower) < 0;
+            int nonbasic = -1;
+            for (Map.Entry<Integer, Rational> entry : rows.get(basic).entrySet()) {
+                int variable = entry.getKey();
+                boolean positive = entry.getValue().signum() > 0;
+                if (positive == increase ? canIncrease(variable) : canDecrease(variable)) {
+                    nonbasic = variable;
+                    break;
+                }
+            }
+            if (nonbasic < 0) {
+                return false;
+            }
+            pivotAndUpdate(basic, nonbasic, increase ? lower : upper.get(basic));
+        }
+    }
+
+    /**
+     * Returns a value for {@code epsilon}, such that every variable is within its bounds if the infinitesimal part of
+     * every value is replaced by the returned value.
+     *
+     * @return a value for {@code epsilon}.
+     */
+    Rational getDelta() {
+        Rational delta = Rational.ONE;
+        for (int variable = 0; variable < values.size(); variable++) {
+            DeltaRational value = values.get(variable);
+            delta = getDelta(delta, lower.get(variable), value);
+            delta = getDelta(delta, value, upper.get(variable));
+        }
+        return delta;
+    }
+
+    /**
+     * {@return the largest value, not greater than the provided value, for which {@code smaller <= larger}}
+     */
+    private static Rational getDelta(Rational delta, DeltaRational smaller, DeltaRational larger) {
+        if (smaller == null || larger == null) {
+            return delta;
+        }
+        int comparison = smaller.real().compareTo(larger.real());
+        Rational coefficient = smaller.delta().subtract(larger.delta());
+        if (comparison < 0 && coefficient.signum() > 0) {
+            Rational bound = larger.real().subtract(smaller.real()).divide(coefficient);
+            return bound.compareTo(delta) < 0 ? bound : delta;
+        }
+        return delta;
+    }
+
+    private boolean isViolated(int variable) {
+        DeltaRational value = values.get(variable);
+        DeltaRational lower = this.lower.get(variable);
+        DeltaRational upper = this.upper.get(variable);
+        return (lower != null && value.compareTo(lower) < 0) || (upper != null && value.compareTo(upper) > 0);
+    }
+
+    private boolean canIncrease(int variable) {
+        DeltaRational upper = this.upper.get(variable);
+        return upper == null || values.get(variable).compareTo(upper) < 0;
+    }
+
+    private boolean canDecrease(int variable) {
+        DeltaRational lower = this.lower.get(variable);
+        return lower == null || values.get(variable).compareTo(lower) > 0;
+    }
+
+    /**
+     * Sets the value of a nonbasic variable, and updates the value of every basic variable accordingly.
+     */
+    private void update(int nonbasic, DeltaRational value) {
+        DeltaRational difference = value.subtract(values.get(nonbasic));
+        for (int variable = 0; variable < values.size(); variable++) {
+            TreeMap<Integer, Rational> row = rows.get(variable);
+            if (row != null && row.containsKey(nonbasic)) {
+                values.set(variable, values.get(variable).add(difference.multiply(row.get(nonbasic))));
+            }
+        }
+        values.set(nonbasic, value);
+    }
+
+    /**
+     * Sets the value of a basic variable, by changing the value of a nonbasic variable, and then swaps the variables.
+     */
+    private void pivotAndUpdate(int basic, int nonbasic, DeltaRational value) {
+        TreeMap<Integer, Rational> row = rows.get(basic);
+        Rational coefficient = row.get(nonbasic);
+        DeltaRational difference = value.subtract(values.get(basic)).divide(coefficient);
+        values.set(basic, value);
+        values.set(nonbasic, values.get(nonbasic).add(difference));
+        for (int variable = 0; variable < values.size(); variable++) {
+            TreeMap<Integer, Rational> other = rows.get(variable);
+            if (variable != basic && other != null && other.containsKey(nonbasic)) {
+                values.set(variable, values.get(variable).add(difference.multiply(other.get(nonbasic))));
+            }
+        }
+        // basic = coefficient * nonbasic + rest, as such, nonbasic = (basic - rest) / coefficient.
+        Rational inverse = Rational.ONE.divide(coefficient);
+        TreeMap<Integer, Rational> definition = new TreeMap<>();
+        definition.put(basic, inverse);
+        for (Map.Entry<Integer, Rational> entry : row.entrySet()) {
+            if (entry.getKey() != nonbasic) {
+                definition.put(entry.getKey(), entry.getValue().multiply(inverse).negate());
+            }
+        }
+        rows.set(basic, null);
+        rows.set(nonbasic, definition);
+        for (TreeMap<Integer, Rational> other : rows) {
+            if (other == null || other == definition) {
+                continue;
+            }
+            Rational factor = other.remove(nonbasic);
+            if (factor == null) {
+                continue;
+            }
+            for (Map.Entry<Integer, Rational> entry : definition.entrySet()) {
+                addTo(other, entry.getKey(), entry.getValue().multiply(factor));
+            }
+        }
+    }
+
+    private static void addTo(TreeMap<Integer, Rational> row, int variable, Rational coefficient) {
+        Rational sum = row.getOrDefault(variable, Rational.ZERO).add(coefficient);
+        if (sum.signum() == 0) {
+            row.remove(variable);
+        } else {
+            row.put(variable, sum);
+        }
+    }
+
+    /**
+     * A bound which was replaced.
+     *
+     * @param variable the variable.
+     * @param upper whether the bound is an upper bound.
+     * @param bound the previous bound, or {@code null} if the variable was not bounded.
+     */
+    private record Change(int variable, boolean upper, DeltaRational bound) {}
+}
@@ -0,0 +1,106 @@
+package com.bossymr.flow.constraint.smtlib;
+
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.constraint.SolverBackend;
+import com.bossymr.flow.constraint.SolverSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A backend which records every query performed by another backend as an SMT-LIB2 script.
+ * <p>
+ * Each query is written to a separate script in the provided directory, named in the order the queries were
+ * performed. A script contains all constraints asserted in the session when the query was performed, with the layers
+ * they were asserted in, and the assumptions of the query. The name of the backend, the result of the query, and the
+ * time the backend took to decide the query are written as comments at the start of the script. A directory of
+ * recorded scripts can be replayed against any backend with {@link Replay}.
+ * <p>
+ * For example, to record all queries decided by the default backends:
+ * {@snippet :
+ * FlowOptions options = FlowOptions.defaultOptions()
+ *         .withSolverBackends(List.of(new RecordingBackend(new LinearBackend(), directory), new RecordingBackend(new Cvc5Backend(), directory)));
+ * }
+ */
+public final class RecordingBackend implements SolverBackend {
+
+    /**
+     * The number of queries recorded to each directory.
+     */
+    private static final Map<Path, AtomicLong> COUNTERS = new ConcurrentHashMap<>();
+
+    private final SolverBackend backend;
+    private final Path directory;
+    private final AtomicLong queries;
+
+    /**
+     * Creates a new {@code RecordingBackend}. Backends which record to the same directory share the same sequence of
+     * script names, as such, one backend does not overwrite the scripts of another. Scripts from a previous recording
+     * to the same directory are replaced.
+     *
+     * @param backend the backend which decides each query.
+     * @param directory the directory to write scripts to, which is created if it does not exist.
+     * @throws UncheckedIOException if the directory cannot be created.
+     */
+    public RecordingBackend(SolverBackend backend, Path directory) {
+        this.backend = backend;
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.queries = COUNTERS.computeIfAbsent(directory.toAbsolutePath().normalize(), key -> new AtomicLong());
+    }
+
+    /**
+     * {@return the backend which decides each query}
+     */
+    public SolverBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * {@return the directory scripts are written to}
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public String getName() {
+        return backend.getName();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return backend.isAvailable();
+    }
+
+    @Override
+    public boolean supports(Logic logic) {
+        return backend.supports(logic);
+    }
+
+    @Override
+    public SolverSession createSession(Logic logic) {
+        return new RecordingSession(this, backend.createSession(logic), logic);
+    }
+
+    /**
+     * {@return the path of the next script}
+     */
+    Path nextScript() {
+        return directory.resolve(String.format("query-%06d.smt2", queries.incrementAndGet()));
+    }
+
+    @Override
+    public String toString() {
+        return "recording(" + backend + ")";
+    }
+}
@@ -0,0 +1,103 @@
+package com.bossymr.flow.constraint.smtlib;
+
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.constraint.Reachable;
+import com.bossymr.flow.constraint.SolverLimit;
+import com.bossymr.flow.constraint.SolverSession;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.Expression;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SequencedMap;
+
+/**
+ * A session which keeps the constraints asserted in each layer, and records each query performed by another session.
+ */
+final class RecordingSession implements SolverSession {
+
+    private final RecordingBackend backend;
+    private final SolverSession session;
+    private final Logic logic;
+    private final List<List<Expression>> layers = new ArrayList<>();
+    private SolverLimit limit = SolverLimit.UNLIMITED;
+
+    RecordingSession(RecordingBackend backend, SolverSession session, Logic logic) {
+        this.backend = backend;
+        this.session = session;
+        this.logic = logic;
+        layers.add(new ArrayList<>());
+    }
+
+    @Override
+    public void push() {
+        session.push();
+        layers.add(new ArrayList<>());
+    }
+
+    @Override
+    public void pop() {
+        session.pop();
+        layers.removeLast();
+    }
+
+    @Override
+    public void assertFormula(Expression constraint) {
+        session.assertFormula(constraint);
+        layers.getLast().add(constraint);
+    }
+
+    @Override
+    public Reachable checkSat(List<Expression> assumptions) {
+        long start = System.nanoTime();
+        Reachable result = session.checkSat(assumptions);
+        long elapsed = System.nanoTime() - start;
+        SequencedMap<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("backend", backend.getName());
+        metadata.put("result", Replay.getStatus(result));
+        metadata.put("time-ns", String.valueOf(elapsed));
+        if (limit.timeout() != null) {
+            metadata.put("timeout-ms", String.valueOf(limit.timeout().toMillis()));
+        }
+        if (limit.resources() > 0) {
+            metadata.put("resources", String.valueOf(limit.resources()));
+        }
+        String script = SmtLibWriter.write(metadata, logic, layers, assumptions);
+        try {
+            Files.writeString(backend.nextScript(), script);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    @Override
+    public Object getValue(AnyExpression variable) {
+        return session.getValue(variable);
+    }
+
+    @Override
+    public List<Expression> getUnsatCore() {
+        return session.getUnsatCore();
+    }
+
+    @Override
+    public void setLimit(SolverLimit limit) {
+        session.setLimit(limit);
+        this.limit = limit;
+    }
+
+    @Override
+    public void interrupt() {
+        session.interrupt();
+    }
+
+    @Override
+    public void close() {
+        session.close();
+    }
+}
@@ -0,0 +1,235 @@
+package com.bossymr.flow.constraint.smtlib;
+
+import com.bossymr.flow.constraint.Reachable;
+import com.bossymr.flow.constraint.SolverBackend;
+import com.bossymr.flow.constraint.SolverLimit;
+import com.bossymr.flow.constraint.SolverSession;
+import com.bossymr.flow.constraint.cvc5.Cvc5Backend;
+import com.bossymr.flow.constraint.linear.LinearBackend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Replays a corpus of SMT-LIB2 scripts, such as the scripts recorded by a {@link RecordingBackend}, against a backend.
+ * <p>
+ * Each script is replayed in a new session, and the time the backend takes to decide each query is measured. If a
+ * script contains the result of the query when it was recorded, the result of the replay is compared with the recorded
+ * result. A corpus can be replayed from the command line, with the directory of the corpus and the name of the backend,
+ * either {@code linear} or {@code cvc5}, as arguments.
+ */
+public final class Replay {
+
+    private Replay() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Replays all scripts in the provided directory.
+     *
+     * @param directory the directory of the corpus.
+     * @param backend the backend.
+     * @param limit the limit of each query.
+     * @return the report of the replay.
+     * @throws IOException if a script cannot be read.
+     * @throws IllegalArgumentException if a script is not valid.
+     */
+    public static Report replay(Path directory, SolverBackend backend, SolverLimit limit) throws IOException {
+        List<Path> scripts;
+        try (Stream<Path> stream = Files.list(directory)) {
+            scripts = stream.filter(path -> path.getFileName().toString().endsWith(".smt2"))
+                    .sorted()
+                    .toList();
+        }
+        List<Sample> samples = new ArrayList<>();
+        int skipped = 0;
+        for (Path path : scripts) {
+            Script script = SmtLibReader.read(Files.readString(path));
+            if (!(backend.supports(script.logic()))) {
+                skipped++;
+                continue;
+            }
+            Reachable expected = getResult(script.metadata().get("result"));
+            SolverSession session = backend.createSession(script.logic());
+            session.setLimit(limit);
+            for (Script.Command command : script.commands()) {
+                switch (command) {
+                    case Script.Push ignored -> session.push();
+                    case Script.Pop ignored -> session.pop();
+                    case Script.Assert(var constraint) -> session.assertFormula(constraint);
+                    case Script.CheckSat(var assumptions) -> {
+                        long start = System.nanoTime();
+                        Reachable result = session.checkSat(assumptions);
+                        long elapsed = System.nanoTime() - start;
+                        samples.add(new Sample(path, expected, result, Duration.ofNanos(elapsed)));
+                    }
+                }
+            }
+        }
+        return new Report(List.copyOf(samples), skipped);
+    }
+
+    /**
+     * {@return the SMT-LIB2 status of the provided result}
+     */
+    static String getStatus(Reachable result) {
+        return switch (result) {
+            case REACHABLE -> "sat";
+            case NOT_REACHABLE -> "unsat";
+            case UNKNOWN -> "unknown";
+        };
+    }
+
+    private static Reachable getResult(String status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case "sat" -> Reachable.REACHABLE;
+            case "unsat" -> Reachable.NOT_REACHABLE;
+            default -> Reachable.UNKNOWN;
+        };
+    }
+
+    /**
+     * Replays a corpus from the command line.
+     *
+     * @param args the directory of the corpus, and optionally, the name of the backend and the timeout of each query
+     * in milliseconds.
+     * @throws IOException if a script cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: replay <directory> [linear|cvc5] [timeout-ms]");
+            System.exit(2);
+        }
+        SolverBackend backend = switch (args.length > 1 ? args[1] : "linear") {
+            case "linear" -> new LinearBackend();
+            case "cvc5" -> new Cvc5Backend();
+            default -> throw new IllegalArgumentException("unknown backend: " + args[1]);
+        };
+        SolverLimit limit = args.length > 2 ? SolverLimit.ofTimeout(Duration.ofMillis(Long.parseLong(args[2]))) : SolverLimit.UNLIMITED;
+        Report report = replay(Path.of(args[0]), backend, limit);
+        System.out.println(report);
+        for (Sample sample : report.getSlowest(10)) {
+            System.out.println("  " + sample.duration().toNanos() / 1000 + " us " + getStatus(sample.result()) + " " + sample.script());
+        }
+    }
+
+    /**
+     * A {@code Sample} is the result of a single query.
+     *
+     * @param script the script of the query.
+     * @param expected the result of the query when it was recorded, or {@code null} if the result is not known.
+     * @param result the result of the query.
+     * @param duration the time the backend took to decide the query.
+     */
+    public record Sample(Path script, Reachable expected, Reachable result, Duration duration) {
+
+        /**
+         * Checks whether the result of the query contradicts the recorded result. A query is only a mismatch if both
+         * results are known, since a query might be decided by one backend but not by another.
+         *
+         * @return whether the result contradicts the recorded result.
+         */
+        public boolean isMismatch() {
+            return expected != null && expected != Reachable.UNKNOWN && result != Reachable.UNKNOWN && expected != result;
+        }
+    }
+
+    /**
+     * A {@code Report} is the result of replaying a corpus.
+     *
+     * @param samples the result of each query, in the order they were replayed.
+     * @param skipped the number of scripts which were skipped, since the backend does not support their logic.
+     */
+    public record Report(List<Sample> samples, int skipped) {
+
+        /**
+         * {@return the number of queries which were replayed}
+         */
+        public int getQueries() {
+            return samples.size();
+        }
+
+        /**
+         * {@return the number of queries whose result contradicts the recorded result}
+         * @see Sample#isMismatch()
+         */
+        public int getMismatches() {
+            return (int) samples.stream().filter(Sample::isMismatch).count();
+        }
+
+        /**
+         * {@return the number of queries whose result is unknown}
+         */
+        public int getUnknown() {
+            return (int) samples.stream().filter(sample -> sample.result() == Reachable.UNKNOWN).count();
+        }
+
+        /**
+         * {@return the total time taken to decide all queries}
+         */
+        public Duration getTotalTime() {
+            return samples.stream()
+                    .map(Sample::duration)
+                    .reduce(Duration.ZERO, Duration::plus);
+        }
+
+        /**
+         * {@return the number of queries decided per second}
+         */
+        public double getThroughput() {
+            long nanos = getTotalTime().toNanos();
+            return nanos > 0 ? samples.size() * 1e9 / nanos : 0;
+        }
+
+        /**
+         * Returns the latency at the provided percentile, using the nearest-rank method.
+         *
+         * @param percentile the percentile, between 0 and 100.
+         * @return the latency at the percentile, or {@link Duration#ZERO} if no queries were replayed.
+         * @throws IllegalArgumentException if the percentile is not between 0 and 100.
+         */
+        public Duration getPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+            }
+            if (samples.isEmpty()) {
+                return Duration.ZERO;
+            }
+            List<Duration> durations = samples.stream()
+                    .map(Sample::duration)
+                    .sorted()
+                    .toList();
+            int rank = (int) Math.ceil(percentile / 100 * durations.size());
+            return durations.get(Math.max(0, rank - 1));
+        }
+
+        /**
+         * Returns the slowest queries, in descending order of latency.
+         *
+         * @param count the maximum number of queries.
+         * @return the slowest queries.
+         */
+        public List<Sample> getSlowest(int count) {
+            return samples.stream()
+                    .sorted(Comparator.comparing(Sample::duration).reversed())
+                    .limit(count)
+                    .toList();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("queries=%d, skipped=%d, unknown=%d, mismatches=%d, total=%d ms, throughput=%.1f/s, p50=%d us, p90=%d us, p99=%d us, max=%d us",
+                    getQueries(), skipped, getUnknown(), getMismatches(), getTotalTime().toMillis(), getThroughput(),
+                    getPercentile(50).toNanos() / 1000, getPercentile(90).toNanos() / 1000, getPercentile(99).toNanos() / 1000, getPercentile(100).toNanos() / 1000);
+        }
+    }
+}
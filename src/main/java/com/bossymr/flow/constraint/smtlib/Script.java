@@ -0,0 +1,46 @@
+package com.bossymr.flow.constraint.smtlib;
+
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.expression.Expression;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@code Script} is a sequence of commands read from an SMT-LIB2 script.
+ *
+ * @param logic the logic of the script.
+ * @param commands the commands of the script.
+ * @param metadata the metadata of the script, which is written as comments of the form {@code ; key: value}.
+ */
+record Script(Logic logic, List<Command> commands, Map<String, String> metadata) {
+
+    /**
+     * A command of a script.
+     */
+    sealed interface Command {}
+
+    /**
+     * Adds a layer.
+     */
+    record Push() implements Command {}
+
+    /**
+     * Removes the last layer.
+     */
+    record Pop() implements Command {}
+
+    /**
+     * Asserts a constraint.
+     *
+     * @param constraint the constraint.
+     */
+    record Assert(Expression constraint) implements Command {}
+
+    /**
+     * Checks whether all asserted constraints, and the provided assumptions, are satisfiable.
+     *
+     * @param assumptions the assumptions.
+     */
+    record CheckSat(List<Expression> assumptions) implements Command {}
+}
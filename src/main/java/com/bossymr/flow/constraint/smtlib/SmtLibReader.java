@@ -0,0 +1,321 @@
+package com.bossymr.flow.constraint.smtlib;
+
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ArrayType;
+import com.bossymr.flow.type.StructureType;
+import com.bossymr.flow.type.ValueType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Reads an SMT-LIB2 script, such as a script written by {@link SmtLibWriter}.
+ * <p>
+ * Only the subset of SMT-LIB2 which can be represented by expressions is supported, that is, constants and
+ * definitions without parameters, and the operators of the core, arithmetic, and string theories which correspond to
+ * an operator of an expression.
+ */
+final class SmtLibReader {
+
+    private final String text;
+    private int position;
+
+    private final Map<String, Expression> names = new HashMap<>();
+
+    private SmtLibReader(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Reads the provided script.
+     *
+     * @param text the script.
+     * @return the commands of the script.
+     * @throws IllegalArgumentException if the script is not valid, or is not supported.
+     */
+    static Script read(String text) {
+        SmtLibReader reader = new SmtLibReader(text);
+        Map<String, String> metadata = new LinkedHashMap<>();
+        for (String line : text.lines().toList()) {
+            if (!(line.startsWith(";"))) {
+                continue;
+            }
+            int separator = line.indexOf(':');
+            if (separator > 0) {
+                metadata.put(line.substring(1, separator).strip(), line.substring(separator + 1).strip());
+            }
+        }
+        Logic logic = Logic.ALL;
+        List<Script.Command> commands = new ArrayList<>();
+        Object value;
+        while ((value = reader.next()) != null) {
+            if (!(value instanceof List<?> command) || command.isEmpty() || !(command.getFirst() instanceof Symbol(String name))) {
+                throw new IllegalArgumentException("invalid command: " + value);
+            }
+            switch (name) {
+                case "set-logic" -> logic = Logic.valueOf(reader.symbol(command.get(1)));
+                case "declare-const" -> reader.names.put(reader.symbol(command.get(1)), new AnyExpression(reader.sort(command.get(2))));
+                case "declare-fun" -> {
+                    if (!(command.get(2) instanceof List<?> parameters) || !(parameters.isEmpty())) {
+                        throw new IllegalArgumentException("function with parameters is not supported: " + command);
+                    }
+                    reader.names.put(reader.symbol(command.get(1)), new AnyExpression(reader.sort(command.get(3))));
+                }
+                case "define-fun" -> {
+                    if (!(command.get(2) instanceof List<?> parameters) || !(parameters.isEmpty())) {
+                        throw new IllegalArgumentException("function with parameters is not supported: " + command);
+                    }
+                    reader.names.put(reader.symbol(command.get(1)), reader.term(command.get(4)));
+                }
+                case "push" -> {
+                    for (int i = 0; i < reader.count(command); i++) {
+                        commands.add(new Script.Push());
+                    }
+                }
+                case "pop" -> {
+                    for (int i = 0; i < reader.count(command); i++) {
+                        commands.add(new Script.Pop());
+                    }
+                }
+                case "assert" -> commands.add(new Script.Assert(reader.term(command.get(1))));
+                case "check-sat" -> commands.add(new Script.CheckSat(List.of()));
+                case "check-sat-assuming" -> {
+                    List<Expression> assumptions = new ArrayList<>();
+                    for (Object assumption : (List<?>) command.get(1)) {
+                        assumptions.add(reader.term(assumption));
+                    }
+                    commands.add(new Script.CheckSat(List.copyOf(assumptions)));
+                }
+                case "set-info", "set-option", "get-model", "get-value", "exit" -> {}
+                default -> throw new IllegalArgumentException("command '" + name + "' is not supported");
+            }
+        }
+        return new Script(logic, List.copyOf(commands), Collections.unmodifiableMap(metadata));
+    }
+
+    private int count(List<?> command) {
+        return command.size() > 1 ? ((BigInteger) command.get(1)).intValueExact() : 1;
+    }
+
+    private String symbol(Object value) {
+        if (!(value instanceof Symbol(String name))) {
+            throw new IllegalArgumentException("expected symbol: " + value);
+        }
+        return name;
+    }
+
+    private ValueType sort(Object value) {
+        if (value instanceof Symbol(String name)) {
+            return switch (name) {
+                case "Bool" -> ValueType.booleanType();
+                case "Int" -> ValueType.integerType();
+                case "Real" -> ValueType.realType();
+                case "String" -> ValueType.stringType();
+                default -> throw new IllegalArgumentException("sort '" + name + "' is not supported");
+            };
+        }
+        if (value instanceof List<?> list && !(list.isEmpty())) {
+            String name = symbol(list.getFirst());
+            if (name.equals("Array") && list.size() == 3 && sort(list.get(1)) == ValueType.integerType()) {
+                return new ArrayType(sort(list.get(2)));
+            }
+            if (name.equals("Tuple")) {
+                return new StructureType(list.subList(1, list.size()).stream()
+                        .map(this::sort)
+                        .toList());
+            }
+        }
+        throw new IllegalArgumentException("sort '" + value + "' is not supported");
+    }
+
+    private Expression term(Object value) {
+        switch (value) {
+            case BigInteger integer -> {
+                return LiteralExpression.integerLiteral(integer.longValueExact());
+            }
+            case BigDecimal decimal -> {
+                return real(decimal, BigDecimal.ONE);
+            }
+            case String string -> {
+                return LiteralExpression.stringLiteral(string);
+            }
+            case Symbol(String name) when name.equals("true") || name.equals("false") -> {
+                return LiteralExpression.booleanLiteral(Boolean.parseBoolean(name));
+            }
+            case Symbol(String name) -> {
+                Expression expression = names.get(name);
+                if (expression == null) {
+                    throw new IllegalArgumentException("symbol '" + name + "' is not declared");
+                }
+                return expression;
+            }
+            case List<?> list when !(list.isEmpty()) -> {
+                return application(symbol(list.getFirst()), list.subList(1, list.size()));
+            }
+            default -> throw new IllegalArgumentException("invalid term: " + value);
+        }
+    }
+
+    private Expression application(String name, List<?> arguments) {
+        if (name.equals("-") && arguments.size() == 1) {
+            // A negative literal is written as the negation of a literal.
+            return switch (arguments.getFirst()) {
+                case BigInteger integer -> LiteralExpression.integerLiteral(integer.negate().longValueExact());
+                case BigDecimal decimal -> real(decimal.negate(), BigDecimal.ONE);
+                default -> new UnaryExpression(new UnaryOperator.Negate(), term(arguments.getFirst()));
+            };
+        }
+        if (name.equals("/") && arguments.size() == 2 && getDecimal(arguments.get(0)) != null && getDecimal(arguments.get(1)) != null) {
+            return real(getDecimal(arguments.get(0)), getDecimal(arguments.get(1)));
+        }
+        List<Expression> operands = new ArrayList<>();
+        for (Object argument : arguments) {
+            operands.add(term(argument));
+        }
+        return switch (name) {
+            case "not" -> new UnaryExpression(new UnaryOperator.Not(), operands.getFirst());
+            case "-" -> fold(BinaryOperator.SUBTRACT, operands);
+            case "to_real" -> new UnaryExpression(new UnaryOperator.Convert(ValueType.integerType(), ValueType.realType()), operands.getFirst());
+            case "to_int" -> new UnaryExpression(new UnaryOperator.Convert(ValueType.realType(), ValueType.integerType()), operands.getFirst());
+            case "ite" -> new ConditionalExpression(operands.get(0), operands.get(1), operands.get(2));
+            case "=" -> fold(BinaryOperator.EQUAL_TO, operands);
+            case ">" -> fold(BinaryOperator.GREATER_THAN, operands);
+            case "<" -> fold(BinaryOperator.LESS_THAN, operands);
+            case ">=" -> new UnaryExpression(new UnaryOperator.Not(), fold(BinaryOperator.LESS_THAN, operands));
+            case "<=" -> new UnaryExpression(new UnaryOperator.Not(), fold(BinaryOperator.GREATER_THAN, operands));
+            case "+", "str.++" -> fold(BinaryOperator.ADD, operands);
+            case "*" -> fold(BinaryOperator.MULTIPLY, operands);
+            case "/", "div" -> fold(BinaryOperator.DIVIDE, operands);
+            case "mod" -> fold(BinaryOperator.MODULO, operands);
+            case "and" -> fold(BinaryOperator.AND, operands);
+            case "or" -> fold(BinaryOperator.OR, operands);
+            case "xor" -> fold(BinaryOperator.XOR, operands);
+            default -> throw new IllegalArgumentException("function '" + name + "' is not supported");
+        };
+    }
+
+    private static Expression fold(BinaryOperator operator, List<Expression> operands) {
+        if (operands.size() < 2) {
+            throw new IllegalArgumentException("operator '" + operator + "' expects at least two operands");
+        }
+        Expression expression = operands.getFirst();
+        for (int i = 1; i < operands.size(); i++) {
+            expression = new BinaryExpression(operator, expression, operands.get(i));
+        }
+        return expression;
+    }
+
+    private static BigDecimal getDecimal(Object value) {
+        return switch (value) {
+            case BigDecimal decimal -> decimal;
+            case List<?> list when list.size() == 2 && list.getFirst().equals(new Symbol("-")) && list.get(1) instanceof BigDecimal decimal -> decimal.negate();
+            default -> null;
+        };
+    }
+
+    private static Expression real(BigDecimal numerator, BigDecimal denominator) {
+        // The scale of both decimals is removed, such that the fraction only consists of integers.
+        int scale = Math.max(0, Math.max(numerator.scale(), denominator.scale()));
+        BigInteger n = numerator.movePointRight(scale).toBigIntegerExact();
+        BigInteger d = denominator.movePointRight(scale).toBigIntegerExact();
+        if (d.signum() < 0) {
+            n = n.negate();
+            d = d.negate();
+        }
+        BigInteger divisor = n.gcd(d);
+        if (divisor.signum() != 0) {
+            n = n.divide(divisor);
+            d = d.divide(divisor);
+        }
+        return LiteralExpression.numericLiteral(n.longValueExact(), d.longValueExact());
+    }
+
+    /**
+     * {@return the next value of the script, or {@code null} if the end of the script is reached}
+     */
+    private Object next() {
+        skip();
+        if (position >= text.length()) {
+            return null;
+        }
+        char character = text.charAt(position);
+        if (character == '(') {
+            position++;
+            List<Object> values = new ArrayList<>();
+            while (true) {
+                skip();
+                if (position >= text.length()) {
+                    throw new IllegalArgumentException("unexpected end of script");
+                }
+                if (text.charAt(position) == ')') {
+                    position++;
+                    return values;
+                }
+                values.add(next());
+            }
+        }
+        if (character == ')') {
+            throw new IllegalArgumentException("unexpected ')' at " + position);
+        }
+        if (character == '"') {
+            StringBuilder builder = new StringBuilder();
+            position++;
+            while (true) {
+                if (position >= text.length()) {
+                    throw new IllegalArgumentException("unterminated string");
+                }
+                char next = text.charAt(position++);
+                if (next == '"') {
+                    if (position < text.length() && text.charAt(position) == '"') {
+                        builder.append('"');
+                        position++;
+                        continue;
+                    }
+                    return builder.toString();
+                }
+                builder.append(next);
+            }
+        }
+        int start = position;
+        while (position < text.length() && !(Character.isWhitespace(text.charAt(position))) && "()\";".indexOf(text.charAt(position)) < 0) {
+            position++;
+        }
+        String token = text.substring(start, position);
+        if (token.matches("[0-9]+")) {
+            return new BigInteger(token);
+        }
+        if (token.matches("[0-9]+\\.[0-9]+")) {
+            return new BigDecimal(token);
+        }
+        if (token.startsWith("|") && token.endsWith("|") && token.length() > 1) {
+            return new Symbol(token.substring(1, token.length() - 1));
+        }
+        return new Symbol(token);
+    }
+
+    private void skip() {
+        while (position < text.length()) {
+            char character = text.charAt(position);
+            if (character == ';') {
+                while (position < text.length() && text.charAt(position) != '\n') {
+                    position++;
+                }
+            } else if (Character.isWhitespace(character)) {
+                position++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A symbol, which is either a reserved word, or the name of a function or sort.
+     *
+     * @param name the name of the symbol.
+     */
+    private record Symbol(String name) {}
+}
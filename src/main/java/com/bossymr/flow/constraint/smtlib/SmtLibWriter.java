@@ -0,0 +1,244 @@
+package com.bossymr.flow.constraint.smtlib;
+
+import com.bossymr.flow.Constant;
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ArrayType;
+import com.bossymr.flow.type.PrimitiveType;
+import com.bossymr.flow.type.StructureType;
+import com.bossymr.flow.type.ValueType;
+
+import java.math.BigInteger;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SequencedMap;
+
+/**
+ * Writes a query as an SMT-LIB2 script.
+ * <p>
+ * Each layer of the query, except the first, is opened with a {@code push} command, and the assumptions of the query
+ * are asserted in a separate layer before the {@code check-sat} command. A subexpression which is used more than once
+ * is defined once with {@code define-fun}, instead of being repeated, as such, the size of the script is proportional to
+ * the size of the query. Metadata, such as the result of the query, is written as comments of the form
+ * {@code ; key: value} at the start of the script.
+ */
+final class SmtLibWriter {
+
+    private final StringBuilder builder = new StringBuilder();
+
+    /**
+     * The number of references to each subexpression in the query.
+     */
+    private final Map<Expression, Integer> references = new IdentityHashMap<>();
+
+    /**
+     * The name of each variable and defined subexpression which has been written.
+     */
+    private final Map<Expression, String> names = new IdentityHashMap<>();
+
+    private SmtLibWriter() {}
+
+    /**
+     * Writes the provided query.
+     *
+     * @param metadata the metadata of the query.
+     * @param logic the logic of the query.
+     * @param layers the constraints asserted in each layer.
+     * @param assumptions the assumptions of the query.
+     * @return the script.
+     */
+    static String write(SequencedMap<String, String> metadata, Logic logic, List<List<Expression>> layers, List<Expression> assumptions) {
+        SmtLibWriter writer = new SmtLibWriter();
+        for (List<Expression> layer : layers) {
+            layer.forEach(writer::count);
+        }
+        assumptions.forEach(writer::count);
+        metadata.forEach((key, value) -> writer.builder.append("; ").append(key).append(": ").append(value).append('\n'));
+        writer.builder.append("(set-logic ").append(logic.name()).append(")\n");
+        for (int i = 0; i < layers.size(); i++) {
+            if (i > 0) {
+                writer.builder.append("(push 1)\n");
+            }
+            layers.get(i).forEach(writer::assertFormula);
+        }
+        if (!(assumptions.isEmpty())) {
+            writer.builder.append("(push 1)\n");
+            assumptions.forEach(writer::assertFormula);
+        }
+        writer.builder.append("(check-sat)\n");
+        return writer.builder.toString();
+    }
+
+    private void count(Expression expression) {
+        int count = references.merge(expression, 1, Integer::sum);
+        if (count > 1) {
+            return;
+        }
+        switch (expression) {
+            case UnaryExpression unaryExpression -> count(unaryExpression.getExpression());
+            case BinaryExpression binaryExpression -> {
+                count(binaryExpression.getLeft());
+                count(binaryExpression.getRight());
+            }
+            case ConditionalExpression conditionalExpression -> {
+                count(conditionalExpression.getCondition());
+                count(conditionalExpression.getThenExpression());
+                count(conditionalExpression.getElseExpression());
+            }
+            default -> {}
+        }
+    }
+
+    private void assertFormula(Expression expression) {
+        declare(expression);
+        builder.append("(assert ");
+        term(expression);
+        builder.append(")\n");
+    }
+
+    /**
+     * Declares all variables, and defines all shared subexpressions, of the provided expression which have not already
+     * been written.
+     */
+    private void declare(Expression expression) {
+        if (names.containsKey(expression)) {
+            return;
+        }
+        switch (expression) {
+            case AnyExpression anyExpression -> {
+                String name = "x" + anyExpression.getId();
+                builder.append("(declare-const ").append(name).append(' ').append(sort(anyExpression.getType())).append(")\n");
+                names.put(expression, name);
+                return;
+            }
+            case LiteralExpression ignored -> {
+                return;
+            }
+            case UnaryExpression unaryExpression -> declare(unaryExpression.getExpression());
+            case BinaryExpression binaryExpression -> {
+                declare(binaryExpression.getLeft());
+                declare(binaryExpression.getRight());
+            }
+            case ConditionalExpression conditionalExpression -> {
+                declare(conditionalExpression.getCondition());
+                declare(conditionalExpression.getThenExpression());
+                declare(conditionalExpression.getElseExpression());
+            }
+        }
+        if (references.getOrDefault(expression, 0) > 1) {
+            String name = "t" + names.size();
+            builder.append("(define-fun ").append(name).append(" () ").append(sort(expression.getType())).append(' ');
+            term(expression);
+            builder.append(")\n");
+            names.put(expression, name);
+        }
+    }
+
+    private void term(Expression expression) {
+        String name = names.get(expression);
+        if (name != null) {
+            builder.append(name);
+            return;
+        }
+        switch (expression) {
+            case AnyExpression ignored -> throw new IllegalStateException("variable '" + expression + "' is not declared");
+            case LiteralExpression literalExpression -> literal(literalExpression);
+            case UnaryExpression unaryExpression -> {
+                if (unaryExpression.getOperator() instanceof UnaryOperator.Convert convert && convert.getFromType().equals(convert.getToType())) {
+                    term(unaryExpression.getExpression());
+                    return;
+                }
+                builder.append('(').append(operator(unaryExpression.getOperator())).append(' ');
+                term(unaryExpression.getExpression());
+                builder.append(')');
+            }
+            case BinaryExpression binaryExpression -> {
+                builder.append('(').append(operator(binaryExpression.getOperator(), binaryExpression.getLeft().getType())).append(' ');
+                term(binaryExpression.getLeft());
+                builder.append(' ');
+                term(binaryExpression.getRight());
+                builder.append(')');
+            }
+            case ConditionalExpression conditionalExpression -> {
+                builder.append("(ite ");
+                term(conditionalExpression.getCondition());
+                builder.append(' ');
+                term(conditionalExpression.getThenExpression());
+                builder.append(' ');
+                term(conditionalExpression.getElseExpression());
+                builder.append(')');
+            }
+        }
+    }
+
+    private void literal(LiteralExpression expression) {
+        switch (expression.getValue()) {
+            case Boolean value -> builder.append(value);
+            case Long value -> numeral(BigInteger.valueOf(value), "");
+            case Constant.Real.Fraction value when value.denominator() == 1 -> numeral(BigInteger.valueOf(value.numerator()), ".0");
+            case Constant.Real.Fraction value -> {
+                builder.append("(/ ");
+                numeral(BigInteger.valueOf(value.numerator()), ".0");
+                builder.append(' ');
+                numeral(BigInteger.valueOf(value.denominator()), ".0");
+                builder.append(')');
+            }
+            case String value -> builder.append('"').append(value.replace("\"", "\"\"")).append('"');
+            default -> throw new IllegalArgumentException("cannot write literal '" + expression + "'");
+        }
+    }
+
+    private void numeral(BigInteger value, String suffix) {
+        if (value.signum() < 0) {
+            builder.append("(- ").append(value.negate()).append(suffix).append(')');
+        } else {
+            builder.append(value).append(suffix);
+        }
+    }
+
+    private static String operator(BinaryOperator operator, ValueType type) {
+        return switch (operator) {
+            case EQUAL_TO -> "=";
+            case GREATER_THAN -> ">";
+            case LESS_THAN -> "<";
+            case ADD -> type == ValueType.stringType() ? "str.++" : "+";
+            case SUBTRACT -> "-";
+            case MULTIPLY -> "*";
+            case DIVIDE -> "/";
+            case MODULO -> "mod";
+            case AND -> "and";
+            case XOR -> "xor";
+            case OR -> "or";
+        };
+    }
+
+    private static String operator(UnaryOperator operator) {
+        return switch (operator) {
+            case UnaryOperator.Not ignored -> "not";
+            case UnaryOperator.Negate ignored -> "-";
+            case UnaryOperator.Convert convert when convert.getToType() == ValueType.realType() -> "to_real";
+            case UnaryOperator.Convert convert when convert.getToType() == ValueType.integerType() -> "to_int";
+            default -> throw new IllegalArgumentException("cannot write operator '" + operator + "'");
+        };
+    }
+
+    /**
+     * {@return the name of the sort of the provided type}
+     */
+    static String sort(ValueType type) {
+        return switch (type) {
+            case PrimitiveType.BOOLEAN -> "Bool";
+            case PrimitiveType.INTEGER -> "Int";
+            case PrimitiveType.REAL -> "Real";
+            case PrimitiveType.STRING -> "String";
+            case PrimitiveType.EMPTY -> throw new IllegalStateException("cannot create an object with empty type");
+            case ArrayType arrayType -> "(Array Int " + sort(arrayType.getElementType()) + ")";
+            case StructureType structureType -> "(Tuple " + String.join(" ", structureType.getValues().stream()
+                    .map(SmtLibWriter::sort)
+                    .toList()) + ")";
+        };
+    }
+}
@@ -1,16 +1,20 @@
 package com.bossymr.flow.expression;
 
 import com.bossymr.flow.type.ValueType;
-import io.github.cvc5.Term;
-import io.github.cvc5.TermManager;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
+/**
+ * An {@code AnyExpression} represents a variable which can have any value of its type. Each variable is only equal to
+ * itself.
+ */
 public final class AnyExpression implements Expression {
 
-    private final ValueType valueType;
+    private static final AtomicLong identifiers = new AtomicLong();
 
-    private Term term;
+    private final ValueType valueType;
+    private final long id = identifiers.incrementAndGet();
 
     public AnyExpression(ValueType valueType) {
         this.valueType = valueType;
@@ -21,17 +25,21 @@ public final class AnyExpression implements Expression {
         return valueType;
     }
 
+    /**
+     * {@return a number which uniquely identifies this expression}
+     */
+    public long getId() {
+        return id;
+    }
+
     @Override
     public Expression translate(Function<Expression, Expression> mapper) {
         return mapper.apply(this);
     }
 
     @Override
-    public Term convert(TermManager manager) {
-        if (term != null) {
-            return term;
-        }
-        return term = manager.mkConst(valueType.getSort(manager));
+    public int hashCode() {
+        return Long.hashCode(id);
     }
 
     @Override
@@ -2,14 +2,13 @@ package com.bossymr.flow.expression;
 
 import com.bossymr.flow.instruction.BinaryOperator;
 import com.bossymr.flow.type.ValueType;
-import io.github.cvc5.Op;
-import io.github.cvc5.Term;
-import io.github.cvc5.TermManager;
 
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
- * A {@code BinaryExpression} represents a binary expression.
+ * A {@code BinaryExpression} represents a binary expression. Binary expressions are equal if they have the same
+ * operator and equal operands.
  */
 public final class BinaryExpression implements Expression {
 
@@ -17,8 +16,7 @@ public final class BinaryExpression implements Expression {
     private final ValueType type;
     private final Expression left;
     private final Expression right;
-
-    private Term term;
+    private final int hashCode;
 
     /**
      * Create a new {@code BinaryExpression}.
@@ -37,6 +35,7 @@ public final class BinaryExpression implements Expression {
         this.type = type;
         this.left = left;
         this.right = right;
+        this.hashCode = Objects.hash(operator, left, right);
     }
 
     @Override
@@ -50,8 +49,8 @@ public final class BinaryExpression implements Expression {
         if (self != this) {
             return self;
         }
-        Expression left = mapper.apply(this.left);
-        Expression right = mapper.apply(this.right);
+        Expression left = this.left.translate(mapper);
+        Expression right = this.right.translate(mapper);
         if (left != this.left || right != this.right) {
             return new BinaryExpression(operator, left, right);
         }
@@ -86,14 +85,16 @@ public final class BinaryExpression implements Expression {
     }
 
     @Override
-    public Term convert(TermManager manager) {
-        if (term != null) {
-            return term;
-        }
-        Term left = getLeft().convert(manager);
-        Term right = getRight().convert(manager);
-        Op operator = getOperator().convert(manager);
-        return term = manager.mkTerm(operator, left, right);
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BinaryExpression that = (BinaryExpression) o;
+        return hashCode == that.hashCode && operator == that.operator && left.equals(that.left) && right.equals(that.right);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
     }
 
     @Override
@@ -0,0 +1,95 @@
+package com.bossymr.flow.expression;
+
+import com.bossymr.flow.type.ValueType;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A {@code ConditionalExpression} represents an expression which is equal to one of two expressions depending on the
+ * value of a condition. Conditional expressions are equal if all of their operands are equal.
+ */
+public final class ConditionalExpression implements Expression {
+
+    private final Expression condition;
+    private final Expression thenExpression;
+    private final Expression elseExpression;
+    private final int hashCode;
+
+    /**
+     * Create a new {@code ConditionalExpression}.
+     *
+     * @param condition the condition.
+     * @param thenExpression the value of this expression if the condition is {@code true}.
+     * @param elseExpression the value of this expression if the condition is {@code false}.
+     * @throws IllegalArgumentException if the expression is not valid.
+     */
+    public ConditionalExpression(Expression condition, Expression thenExpression, Expression elseExpression) {
+        if (condition.getType() != ValueType.booleanType() || !thenExpression.getType().equals(elseExpression.getType())) {
+            throw new IllegalArgumentException("conditional expression '" + condition + " ? " + thenExpression + " : " + elseExpression + "' is not valid");
+        }
+        this.condition = condition;
+        this.thenExpression = thenExpression;
+        this.elseExpression = elseExpression;
+        this.hashCode = Objects.hash(condition, thenExpression, elseExpression);
+    }
+
+    @Override
+    public ValueType getType() {
+        return thenExpression.getType();
+    }
+
+    @Override
+    public Expression translate(Function<Expression, Expression> mapper) {
+        Expression self = mapper.apply(this);
+        if (self != this) {
+            return self;
+        }
+        Expression condition = this.condition.translate(mapper);
+        Expression thenExpression = this.thenExpression.translate(mapper);
+        Expression elseExpression = this.elseExpression.translate(mapper);
+        if (condition != this.condition || thenExpression != this.thenExpression || elseExpression != this.elseExpression) {
+            return new ConditionalExpression(condition, thenExpression, elseExpression);
+        }
+        return this;
+    }
+
+    /**
+     * {@return the condition of this expression}
+     */
+    public Expression getCondition() {
+        return condition;
+    }
+
+    /**
+     * {@return the value of this expression if the condition is {@code true}}
+     */
+    public Expression getThenExpression() {
+        return thenExpression;
+    }
+
+    /**
+     * {@return the value of this expression if the condition is {@code false}}
+     */
+    public Expression getElseExpression() {
+        return elseExpression;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConditionalExpression that = (ConditionalExpression) o;
+        return hashCode == that.hashCode && condition.equals(that.condition) && thenExpression.equals(that.thenExpression) && elseExpression.equals(that.elseExpression);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + getCondition() + " ? " + getThenExpression() + " : " + getElseExpression() + ")";
+    }
+}
@@ -1,15 +1,13 @@
 package com.bossymr.flow.expression;
 
 import com.bossymr.flow.type.ValueType;
-import io.github.cvc5.Term;
-import io.github.cvc5.TermManager;
 
 import java.util.function.Function;
 
 /**
  * An {@code Expression} represents an expression.
  */
-public sealed interface Expression permits AnyExpression, BinaryExpression, LiteralExpression, UnaryExpression {
+public sealed interface Expression permits AnyExpression, BinaryExpression, ConditionalExpression, LiteralExpression, UnaryExpression {
 
     /**
      * Returns the return type of this expression.
@@ -27,6 +25,4 @@ public sealed interface Expression permits AnyExpression, BinaryExpression, Lite
      * @return either this expression or a new expression.
      */
     Expression translate(Function<Expression, Expression> mapper);
-
-    Term convert(TermManager manager);
 }
@@ -0,0 +1,362 @@
+package com.bossymr.flow.expression;
+
+import com.bossymr.flow.Constant;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * An {@code ExpressionFactory} creates expressions, such that structurally equal expressions created by the same
+ * factory are the same instance.
+ * <p>
+ * Each expression is interned, as such, an expression which is equal to an expression previously created by this
+ * factory is replaced by the previous expression. As a result, expressions built on different paths share their
+ * subexpressions, and equal expressions can be compared by identity. An expression is only retained by this factory
+ * as long as it is used elsewhere. Literal integers close to zero, and literal booleans, are always retained.
+ * <p>
+ * A factory can be used by multiple threads at the same time. The interned expressions are split into stripes by their
+ * hash codes, where each stripe has its own lock, as such, threads which intern different expressions rarely wait for
+ * each other.
+ */
+public final class ExpressionFactory {
+
+    private static final int MIN_CACHED_INTEGER = -128;
+    private static final int MAX_CACHED_INTEGER = 1024;
+
+    /**
+     * The number of stripes of interned expressions, which must be a power of two.
+     */
+    private static final int STRIPES = 64;
+
+    private final boolean simplifying;
+
+    private final LiteralExpression[] integers = new LiteralExpression[MAX_CACHED_INTEGER - MIN_CACHED_INTEGER + 1];
+    private final LiteralExpression trueLiteral = LiteralExpression.booleanLiteral(true);
+    private final LiteralExpression falseLiteral = LiteralExpression.booleanLiteral(false);
+
+    /**
+     * The interned expressions, where each expression is kept in the stripe selected by its hash code.
+     */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Creates a new {@code ExpressionFactory}.
+     *
+     * @param simplifying whether expressions are simplified before they are interned.
+     * @see Simplifier
+     */
+    public ExpressionFactory(boolean simplifying) {
+        this.simplifying = simplifying;
+        for (int i = 0; i < integers.length; i++) {
+            integers[i] = LiteralExpression.integerLiteral(MIN_CACHED_INTEGER + i);
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * {@return whether expressions are simplified before they are interned}
+     */
+    public boolean isSimplifying() {
+        return simplifying;
+    }
+
+    /**
+     * Creates a literal expression with the provided value.
+     *
+     * @param constant the value.
+     * @return the literal expression.
+     */
+    public Expression literal(Constant<?> constant) {
+        return intern(new LiteralExpression(constant));
+    }
+
+    /**
+     * Creates a literal expression with the provided integer value.
+     *
+     * @param value the value.
+     * @return the literal expression.
+     */
+    public Expression integerLiteral(long value) {
+        if (value >= MIN_CACHED_INTEGER && value <= MAX_CACHED_INTEGER) {
+            return integers[(int) (value - MIN_CACHED_INTEGER)];
+        }
+        return intern(LiteralExpression.integerLiteral(value));
+    }
+
+    /**
+     * Creates a literal expression with the provided boolean value.
+     *
+     * @param value the value.
+     * @return the literal expression.
+     */
+    public Expression booleanLiteral(boolean value) {
+        return value ? trueLiteral : falseLiteral;
+    }
+
+    /**
+     * Creates a unary expression, which is simplified if this factory is simplifying.
+     *
+     * @param operator the operator.
+     * @param expression the expression.
+     * @return the unary expression.
+     * @throws IllegalArgumentException if the expression is not valid.
+     */
+    public Expression unary(UnaryOperator operator, Expression expression) {
+        return intern(simplifying ? Simplifier.unary(operator, expression) : new UnaryExpression(operator, expression));
+    }
+
+    /**
+     * Creates a binary expression, which is simplified if this factory is simplifying.
+     *
+     * @param operator the operator.
+     * @param left the expression to the left of the operator.
+     * @param right the expression to the right of the operator.
+     * @return the binary expression.
+     * @throws IllegalArgumentException if the expression is not valid.
+     */
+    public Expression binary(BinaryOperator operator, Expression left, Expression right) {
+        return intern(simplifying ? Simplifier.binary(operator, left, right) : new BinaryExpression(operator, left, right));
+    }
+
+    /**
+     * Creates a conditional expression, which is simplified if this factory is simplifying.
+     *
+     * @param condition the condition.
+     * @param thenExpression the value of the expression if the condition is {@code true}.
+     * @param elseExpression the value of the expression if the condition is {@code false}.
+     * @return the conditional expression.
+     * @throws IllegalArgumentException if the expression is not valid.
+     */
+    public Expression conditional(Expression condition, Expression thenExpression, Expression elseExpression) {
+        return intern(simplifying ? Simplifier.conditional(condition, thenExpression, elseExpression) : new ConditionalExpression(condition, thenExpression, elseExpression));
+    }
+
+    /**
+     * Simplifies the provided expression and all of its subexpressions, if this factory is simplifying, and interns
+     * the result. This method should be used for expressions which were not created by this factory.
+     *
+     * @param expression the expression.
+     * @return the canonical expression.
+     */
+    public Expression canonicalize(Expression expression) {
+        return intern(simplifying ? Simplifier.simplify(expression) : expression);
+    }
+
+    /**
+     * Replaces every occurrence of the provided expressions in the provided expression. Unlike
+     * {@link Expression#translate(java.util.function.Function)}, each shared subexpression is only replaced once, and
+     * every expression which is modified is created by this factory, and is simplified if this factory is simplifying.
+     *
+     * @param expression the expression.
+     * @param values the replacement of each expression.
+     * @return the expression, where each expression has been replaced.
+     */
+    public Expression substitute(Expression expression, Map<Expression, Expression> values) {
+        // Each operand is replaced before the expression which uses it, without recursion, since an expression might be
+        // nested to any depth.
+        Map<Expression, Expression> results = new IdentityHashMap<>();
+        Deque<Expression> queue = new ArrayDeque<>();
+        queue.push(expression);
+        while (!(queue.isEmpty())) {
+            Expression current = queue.peek();
+            if (results.containsKey(current)) {
+                queue.pop();
+                continue;
+            }
+            Expression value = values.get(current);
+            if (value != null) {
+                queue.pop();
+                results.put(current, value);
+                continue;
+            }
+            if (pushOperands(current, results, queue)) {
+                continue;
+            }
+            queue.pop();
+            Expression result = switch (current) {
+                case UnaryExpression unaryExpression -> {
+                    Expression operand = results.get(unaryExpression.getExpression());
+                    yield operand == unaryExpression.getExpression() ? current : unary(unaryExpression.getOperator(), operand);
+                }
+                case BinaryExpression binaryExpression -> {
+                    Expression left = results.get(binaryExpression.getLeft());
+                    Expression right = results.get(binaryExpression.getRight());
+                    yield left == binaryExpression.getLeft() && right == binaryExpression.getRight() ? current : binary(binaryExpression.getOperator(), left, right);
+                }
+                case ConditionalExpression conditionalExpression -> {
+                    Expression condition = results.get(conditionalExpression.getCondition());
+                    Expression thenExpression = results.get(conditionalExpression.getThenExpression());
+                    Expression elseExpression = results.get(conditionalExpression.getElseExpression());
+                    yield condition == conditionalExpression.getCondition() && thenExpression == conditionalExpression.getThenExpression() && elseExpression == conditionalExpression.getElseExpression()
+                            ? current
+                            : conditional(condition, thenExpression, elseExpression);
+                }
+                default -> current;
+            };
+            results.put(current, result);
+        }
+        return results.get(expression);
+    }
+
+    /**
+     * Interns the provided expression and all of its subexpressions.
+     *
+     * @param expression the expression.
+     * @return the interned expression, which is equal to the provided expression.
+     */
+    public Expression intern(Expression expression) {
+        Expression interned = find(expression);
+        if (interned != null) {
+            return interned;
+        }
+        // Each operand is interned before the expression which uses it, without recursion, since an expression might be
+        // nested to any depth.
+        Map<Expression, Expression> results = new IdentityHashMap<>();
+        Deque<Expression> queue = new ArrayDeque<>();
+        queue.push(expression);
+        while (!(queue.isEmpty())) {
+            Expression current = queue.peek();
+            if (results.containsKey(current)) {
+                queue.pop();
+                continue;
+            }
+            interned = current != expression ? find(current) : null;
+            if (interned != null) {
+                queue.pop();
+                results.put(current, interned);
+                continue;
+            }
+            if (pushOperands(current, results, queue)) {
+                continue;
+            }
+            queue.pop();
+            interned = switch (current) {
+                case UnaryExpression unaryExpression -> {
+                    Expression operand = results.get(unaryExpression.getExpression());
+                    yield operand == unaryExpression.getExpression() ? unaryExpression : new UnaryExpression(unaryExpression.getOperator(), operand);
+                }
+                case BinaryExpression binaryExpression -> {
+                    Expression left = results.get(binaryExpression.getLeft());
+                    Expression right = results.get(binaryExpression.getRight());
+                    yield left == binaryExpression.getLeft() && right == binaryExpression.getRight() ? binaryExpression : new BinaryExpression(binaryExpression.getOperator(), left, right);
+                }
+                case ConditionalExpression conditionalExpression -> {
+                    Expression condition = results.get(conditionalExpression.getCondition());
+                    Expression thenExpression = results.get(conditionalExpression.getThenExpression());
+                    Expression elseExpression = results.get(conditionalExpression.getElseExpression());
+                    yield condition == conditionalExpression.getCondition() && thenExpression == conditionalExpression.getThenExpression() && elseExpression == conditionalExpression.getElseExpression()
+                            ? conditionalExpression
+                            : new ConditionalExpression(condition, thenExpression, elseExpression);
+                }
+                default -> current;
+            };
+            results.put(current, getStripe(interned).add(interned));
+        }
+        return results.get(expression);
+    }
+
+    /**
+     * {@return the interned expression which is equal to the provided expression, or {@code null} if no such
+     * expression has been interned}
+     */
+    private Expression find(Expression expression) {
+        if (expression instanceof AnyExpression) {
+            return expression;
+        }
+        if (expression instanceof LiteralExpression literalExpression) {
+            if (literalExpression.getValue() instanceof Boolean value) {
+                return booleanLiteral(value);
+            }
+            if (literalExpression.getValue() instanceof Long value && value >= MIN_CACHED_INTEGER && value <= MAX_CACHED_INTEGER) {
+                return integers[(int) (value - MIN_CACHED_INTEGER)];
+            }
+        }
+        return getStripe(expression).get(expression);
+    }
+
+    private Stripe getStripe(Expression expression) {
+        int hash = expression.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Pushes each operand of the provided expression which does not yet have a result to the provided queue.
+     *
+     * @param expression the expression.
+     * @param results the result of each expression.
+     * @param queue the expressions which have not yet been visited.
+     * @return whether any operand was pushed.
+     */
+    private static boolean pushOperands(Expression expression, Map<Expression, Expression> results, Deque<Expression> queue) {
+        List<Expression> operands = switch (expression) {
+            case UnaryExpression unaryExpression -> List.of(unaryExpression.getExpression());
+            case BinaryExpression binaryExpression -> List.of(binaryExpression.getLeft(), binaryExpression.getRight());
+            case ConditionalExpression conditionalExpression -> List.of(conditionalExpression.getCondition(), conditionalExpression.getThenExpression(), conditionalExpression.getElseExpression());
+            default -> List.of();
+        };
+        boolean pushed = false;
+        for (Expression operand : operands) {
+            if (!(results.containsKey(operand))) {
+                queue.push(operand);
+                pushed = true;
+            }
+        }
+        return pushed;
+    }
+
+    /**
+     * {@return the number of interned expressions which are still in use}
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * A stripe of interned expressions, which is guarded by its own lock.
+     */
+    private static final class Stripe {
+
+        /**
+         * The interned expressions. The value of each entry is the key itself, which is only weakly reachable from the
+         * entry, as such, an entry is removed once its expression is no longer used.
+         */
+        private final Map<Expression, WeakReference<Expression>> expressions = new WeakHashMap<>();
+
+        private synchronized Expression get(Expression expression) {
+            WeakReference<Expression> reference = expressions.get(expression);
+            return reference != null ? reference.get() : null;
+        }
+
+        /**
+         * Interns the provided expression, unless an equal expression has already been interned by another thread.
+         *
+         * @param expression the expression.
+         * @return the interned expression.
+         */
+        private synchronized Expression add(Expression expression) {
+            Expression interned = get(expression);
+            if (interned != null) {
+                return interned;
+            }
+            expressions.put(expression, new WeakReference<>(expression));
+            return expression;
+        }
+
+        private synchronized int size() {
+            return expressions.size();
+        }
+    }
+}
@@ -2,20 +2,16 @@ package com.bossymr.flow.expression;
 
 import com.bossymr.flow.Constant;
 import com.bossymr.flow.type.ValueType;
-import io.github.cvc5.Term;
-import io.github.cvc5.TermManager;
 
 import java.util.function.Function;
 
 /**
- * A {@code LiteralExpression} represents a literal value.
+ * A {@code LiteralExpression} represents a literal value. Literal expressions are equal if they have equal constants.
  */
 public final class LiteralExpression implements Expression {
 
     private final Constant<?> constant;
 
-    private Term term;
-
     public LiteralExpression(Constant<?> constant) {
         this.constant = constant;
     }
@@ -91,11 +87,16 @@ public final class LiteralExpression implements Expression {
     }
 
     @Override
-    public Term convert(TermManager manager) {
-        if (term != null) {
-            return term;
-        }
-        return term = constant.convert(manager);
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LiteralExpression that = (LiteralExpression) o;
+        return constant.equals(that.constant);
+    }
+
+    @Override
+    public int hashCode() {
+        return constant.hashCode();
     }
 
     @Override
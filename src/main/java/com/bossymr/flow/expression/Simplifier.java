@@ -0,0 +1,495 @@
+package com.bossymr.flow.expression;
+
+import com.bossymr.flow.Constant;
+import com.bossymr.flow.Rational;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ValueType;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@code Simplifier} creates expressions in a canonical form, which is equivalent to, but often smaller than, the
+ * expression as written.
+ * <p>
+ * Subexpressions which only consist of literals are folded into a single literal, and double negations are cancelled.
+ * Sums are flattened, such that all literal terms are collected into a single literal to the right of the sum, and
+ * conjunctions and disjunctions are flattened, such that duplicate operands are removed. Comparisons are normalized,
+ * such that a comparison between two expressions is always a {@link BinaryOperator#LESS_THAN less than} comparison,
+ * and a comparison with a literal always has the literal to the right. For example, {@code ((x + 1) + 1) > 5} is
+ * simplified to {@code x > 3}.
+ * <p>
+ * Each method expects that its operands are already simplified, and only simplifies the expression as a whole. An
+ * expression which is not known to be simplified can be simplified with {@link #simplify(Expression)}. An expression
+ * is never simplified if the result would contain a literal which cannot be represented by a {@link Constant}.
+ */
+public final class Simplifier {
+
+    private Simplifier() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Simplifies the provided expression and all of its subexpressions.
+     *
+     * @param expression the expression.
+     * @return the simplified expression.
+     */
+    public static Expression simplify(Expression expression) {
+        return simplify(expression, new IdentityHashMap<>());
+    }
+
+    private static Expression simplify(Expression expression, Map<Expression, Expression> results) {
+        Expression result = results.get(expression);
+        if (result != null) {
+            return result;
+        }
+        result = switch (expression) {
+            case AnyExpression anyExpression -> anyExpression;
+            case LiteralExpression literalExpression -> literalExpression;
+            case UnaryExpression unaryExpression -> {
+                Expression operand = simplify(unaryExpression.getExpression(), results);
+                Expression simplified = unary(unaryExpression.getOperator(), operand);
+                yield isUnchanged(simplified, unaryExpression) ? unaryExpression : simplified;
+            }
+            case BinaryExpression binaryExpression -> {
+                Expression left = simplify(binaryExpression.getLeft(), results);
+                Expression right = simplify(binaryExpression.getRight(), results);
+                Expression simplified = binary(binaryExpression.getOperator(), left, right);
+                yield isUnchanged(simplified, binaryExpression) ? binaryExpression : simplified;
+            }
+            case ConditionalExpression conditionalExpression -> {
+                Expression condition = simplify(conditionalExpression.getCondition(), results);
+                Expression thenExpression = simplify(conditionalExpression.getThenExpression(), results);
+                Expression elseExpression = simplify(conditionalExpression.getElseExpression(), results);
+                Expression simplified = conditional(condition, thenExpression, elseExpression);
+                yield isUnchanged(simplified, conditionalExpression) ? conditionalExpression : simplified;
+            }
+        };
+        results.put(expression, result);
+        return result;
+    }
+
+    /**
+     * Checks whether the provided expression has the same structure as the original expression, in which case the
+     * original expression is used instead, to avoid creating a copy of every expression which is already simplified.
+     */
+    private static boolean isUnchanged(Expression simplified, Expression original) {
+        return switch (simplified) {
+            case UnaryExpression expression when original instanceof UnaryExpression other ->
+                    expression.getOperator() == other.getOperator() && isSame(expression.getExpression(), other.getExpression());
+            case BinaryExpression expression when original instanceof BinaryExpression other ->
+                    expression.getOperator() == other.getOperator() && isSame(expression.getLeft(), other.getLeft()) && isSame(expression.getRight(), other.getRight());
+            case ConditionalExpression expression when original instanceof ConditionalExpression other ->
+                    isSame(expression.getCondition(), other.getCondition()) && isSame(expression.getThenExpression(), other.getThenExpression()) && isSame(expression.getElseExpression(), other.getElseExpression());
+            default -> false;
+        };
+    }
+
+    private static boolean isSame(Expression expression, Expression other) {
+        if (expression instanceof LiteralExpression literal && other instanceof LiteralExpression otherLiteral) {
+            return literal.getType() == otherLiteral.getType() && literal.getValue().equals(otherLiteral.getValue());
+        }
+        return expression == other;
+    }
+
+    /**
+     * Creates a simplified unary expression.
+     *
+     * @param operator the operator.
+     * @param expression the simplified expression.
+     * @return the simplified expression.
+     * @throws IllegalArgumentException if the expression is not valid.
+     */
+    public static Expression unary(UnaryOperator operator, Expression expression) {
+        ValueType type = operator.getType(expression.getType());
+        if (type == null) {
+            return new UnaryExpression(operator, expression);
+        }
+        Object value = getValue(expression);
+        if (value != null) {
+            Expression literal = getLiteral(operator.evaluate(value), type);
+            if (literal != null) {
+                return literal;
+            }
+        }
+        switch (operator) {
+            case UnaryOperator.Not ignored when expression instanceof UnaryExpression operand && operand.getOperator() instanceof UnaryOperator.Not -> {
+                return operand.getExpression();
+            }
+            case UnaryOperator.Negate ignored when expression instanceof UnaryExpression operand && operand.getOperator() instanceof UnaryOperator.Negate -> {
+                return operand.getExpression();
+            }
+            case UnaryOperator.Convert convert when convert.getFromType() == convert.getToType() -> {
+                return expression;
+            }
+            case UnaryOperator.Convert convert when convert.getToType() == ValueType.integerType() && expression instanceof UnaryExpression operand && operand.getOperator() instanceof UnaryOperator.Convert other && other.getFromType() == ValueType.integerType() -> {
+                // An integer converted to a real, and then back to an integer, is the same integer.
+                return operand.getExpression();
+            }
+            default -> {}
+        }
+        return new UnaryExpression(operator, expression);
+    }
+
+    /**
+     * Creates a simplified binary expression.
+     *
+     * @param operator the operator.
+     * @param left the simplified expression to the left of the operator.
+     * @param right the simplified expression to the right of the operator.
+     * @return the simplified expression.
+     * @throws IllegalArgumentException if the expression is not valid.
+     */
+    public static Expression binary(BinaryOperator operator, Expression left, Expression right) {
+        ValueType type = operator.getType(left.getType(), right.getType());
+        if (type == null) {
+            return new BinaryExpression(operator, left, right);
+        }
+        Object leftValue = getValue(left);
+        Object rightValue = getValue(right);
+        if (leftValue != null && rightValue != null) {
+            Object value = operator.evaluate(leftValue, rightValue);
+            Expression literal = value != null ? getLiteral(value, type) : null;
+            if (literal != null) {
+                return literal;
+            }
+        }
+        Expression simplified = switch (operator) {
+            case EQUAL_TO -> equalTo(left, right);
+            case GREATER_THAN -> lessThan(right, left);
+            case LESS_THAN -> lessThan(left, right);
+            case ADD -> type == ValueType.stringType() ? null : add(left, right);
+            case SUBTRACT -> subtract(left, right);
+            case MULTIPLY -> multiply(left, right);
+            case AND, OR -> junction(operator, left, right);
+            case XOR -> xor(left, right);
+            default -> null;
+        };
+        return simplified != null ? simplified : new BinaryExpression(operator, left, right);
+    }
+
+    /**
+     * Creates a simplified conditional expression.
+     *
+     * @param condition the simplified condition.
+     * @param thenExpression the simplified value of the expression if the condition is {@code true}.
+     * @param elseExpression the simplified value of the expression if the condition is {@code false}.
+     * @return the simplified expression.
+     * @throws IllegalArgumentException if the expression is not valid.
+     */
+    public static Expression conditional(Expression condition, Expression thenExpression, Expression elseExpression) {
+        if (condition.getType() != ValueType.booleanType() || !thenExpression.getType().equals(elseExpression.getType())) {
+            return new ConditionalExpression(condition, thenExpression, elseExpression);
+        }
+        if (getValue(condition) instanceof Boolean value) {
+            return value ? thenExpression : elseExpression;
+        }
+        if (thenExpression.equals(elseExpression)) {
+            return thenExpression;
+        }
+        if (getValue(thenExpression) instanceof Boolean thenValue && getValue(elseExpression) instanceof Boolean elseValue) {
+            // Both values are different, since the expression would otherwise have been folded.
+            return thenValue ? condition : unary(new UnaryOperator.Not(), condition);
+        }
+        if (isNot(condition)) {
+            return new ConditionalExpression(((UnaryExpression) condition).getExpression(), elseExpression, thenExpression);
+        }
+        return new ConditionalExpression(condition, thenExpression, elseExpression);
+    }
+
+    private static Expression equalTo(Expression left, Expression right) {
+        if (left.equals(right)) {
+            return LiteralExpression.booleanLiteral(true);
+        }
+        if (!(left.getType().equals(right.getType()))) {
+            return null;
+        }
+        if (getValue(left) instanceof Boolean || getValue(right) instanceof Boolean) {
+            Expression variable = getValue(left) instanceof Boolean ? right : left;
+            boolean value = (Boolean) getValue(variable == left ? right : left);
+            return value ? variable : unary(new UnaryOperator.Not(), variable);
+        }
+        if (isNumeric(left.getType())) {
+            return compare(BinaryOperator.EQUAL_TO, BinaryOperator.EQUAL_TO, left, right);
+        }
+        if (getValue(left) != null) {
+            return new BinaryExpression(BinaryOperator.EQUAL_TO, right, left);
+        }
+        return null;
+    }
+
+    private static Expression lessThan(Expression left, Expression right) {
+        if (left.equals(right)) {
+            return LiteralExpression.booleanLiteral(false);
+        }
+        return compare(BinaryOperator.LESS_THAN, BinaryOperator.GREATER_THAN, left, right);
+    }
+
+    /**
+     * Normalizes a comparison between two numeric expressions, such that all literal terms are moved to the right of
+     * the comparison.
+     *
+     * @param operator the operator of the comparison.
+     * @param reversed the operator of the comparison, if the operands are swapped.
+     * @param left the expression to the left of the comparison.
+     * @param right the expression to the right of the comparison.
+     * @return the normalized comparison, or {@code null} if the comparison cannot be normalized.
+     */
+    private static Expression compare(BinaryOperator operator, BinaryOperator reversed, Expression left, Expression right) {
+        ValueType type = left.getType();
+        Rational leftConstant = getConstant(left);
+        Rational rightConstant = getConstant(right);
+        Expression leftTerms = getTerms(left);
+        Expression rightTerms = getTerms(right);
+        if (leftTerms == null && rightTerms == null) {
+            return null;
+        }
+        if (leftTerms == null) {
+            // c1 < y + c2 is equivalent to y > c1 - c2.
+            Expression literal = getLiteral(leftConstant.subtract(rightConstant), type);
+            return literal != null ? new BinaryExpression(reversed, rightTerms, literal) : null;
+        }
+        if (rightTerms == null) {
+            // x + c1 < c2 is equivalent to x < c2 - c1.
+            Expression literal = getLiteral(rightConstant.subtract(leftConstant), type);
+            return literal != null ? new BinaryExpression(operator, leftTerms, literal) : null;
+        }
+        if (leftConstant.signum() == 0) {
+            return new BinaryExpression(operator, left, right);
+        }
+        // x + c1 < y + c2 is equivalent to x < y + (c2 - c1).
+        Expression sum = getSum(rightTerms, rightConstant.subtract(leftConstant), type);
+        if (leftTerms.equals(sum)) {
+            return LiteralExpression.booleanLiteral(operator == BinaryOperator.EQUAL_TO);
+        }
+        return sum != null ? new BinaryExpression(operator, leftTerms, sum) : null;
+    }
+
+    private static Expression add(Expression left, Expression right) {
+        ValueType type = left.getType();
+        Expression leftTerms = getTerms(left);
+        Expression rightTerms = getTerms(right);
+        Rational constant = getConstant(left).add(getConstant(right));
+        Expression terms;
+        if (leftTerms == null || rightTerms == null) {
+            terms = leftTerms != null ? leftTerms : rightTerms;
+        } else {
+            terms = append(leftTerms, rightTerms);
+        }
+        if (terms == null) {
+            return getLiteral(constant, type);
+        }
+        return getSum(terms, constant, type);
+    }
+
+    /**
+     * Appends all terms of the provided sum to the end of the other sum, such that the sum is associated to the left.
+     */
+    private static Expression append(Expression sum, Expression terms) {
+        if (terms instanceof BinaryExpression expression && expression.getOperator() == BinaryOperator.ADD) {
+            return append(append(sum, expression.getLeft()), expression.getRight());
+        }
+        return new BinaryExpression(BinaryOperator.ADD, sum, terms);
+    }
+
+    private static Expression subtract(Expression left, Expression right) {
+        if (left.equals(right)) {
+            return getLiteral(Rational.ZERO, left.getType());
+        }
+        if (getValue(right) != null) {
+            Expression negation = getLiteral(getConstant(right).negate(), right.getType());
+            return negation != null ? add(left, negation) : null;
+        }
+        return null;
+    }
+
+    private static Expression multiply(Expression left, Expression right) {
+        if (getValue(left) != null) {
+            // The literal is moved to the right of the product.
+            Expression swapped = left;
+            left = right;
+            right = swapped;
+        }
+        if (getValue(right) == null) {
+            return null;
+        }
+        Rational value = getConstant(right);
+        if (value.signum() == 0) {
+            return right;
+        }
+        if (value.compareTo(Rational.ONE) == 0) {
+            return left;
+        }
+        return new BinaryExpression(BinaryOperator.MULTIPLY, left, right);
+    }
+
+    private static Expression xor(Expression left, Expression right) {
+        if (left.equals(right)) {
+            return LiteralExpression.booleanLiteral(false);
+        }
+        if (getValue(left) instanceof Boolean || getValue(right) instanceof Boolean) {
+            Expression variable = getValue(left) instanceof Boolean ? right : left;
+            boolean value = (Boolean) getValue(variable == left ? right : left);
+            return value ? unary(new UnaryOperator.Not(), variable) : variable;
+        }
+        return null;
+    }
+
+    /**
+     * Flattens a conjunction or disjunction. If any operand is the absorbing element of the operator, or if both an
+     * operand and its negation are operands, the expression is equal to the absorbing element.
+     */
+    private static Expression junction(BinaryOperator operator, Expression left, Expression right) {
+        boolean absorbing = operator == BinaryOperator.OR;
+        List<Expression> leftOperands = new ArrayList<>();
+        List<Expression> rightOperands = new ArrayList<>();
+        getOperands(operator, left, leftOperands);
+        getOperands(operator, right, rightOperands);
+        Set<Expression> operands = new HashSet<>();
+        Set<Expression> negations = new HashSet<>();
+        List<Expression> result = new ArrayList<>();
+        for (List<Expression> list : List.of(leftOperands, rightOperands)) {
+            for (Expression operand : list) {
+                if (getValue(operand) instanceof Boolean value) {
+                    if (value == absorbing) {
+                        return LiteralExpression.booleanLiteral(absorbing);
+                    }
+                    continue;
+                }
+                Expression negation = isNot(operand) ? ((UnaryExpression) operand).getExpression() : null;
+                if (negations.contains(operand) || (negation != null && operands.contains(negation))) {
+                    return LiteralExpression.booleanLiteral(absorbing);
+                }
+                if (operands.add(operand)) {
+                    if (negation != null) {
+                        negations.add(negation);
+                    }
+                    result.add(operand);
+                }
+            }
+        }
+        if (result.isEmpty()) {
+            return LiteralExpression.booleanLiteral(!absorbing);
+        }
+        // If the expression to the left is already flattened, it is reused as the start of the expression.
+        int index = 1;
+        Expression expression = result.getFirst();
+        if (result.size() >= leftOperands.size() && result.subList(0, leftOperands.size()).equals(leftOperands) && isFlattened(operator, left)) {
+            index = leftOperands.size();
+            expression = left;
+        }
+        for (int i = index; i < result.size(); i++) {
+            expression = new BinaryExpression(operator, expression, result.get(i));
+        }
+        return expression;
+    }
+
+    private static boolean isFlattened(BinaryOperator operator, Expression expression) {
+        while (expression instanceof BinaryExpression binaryExpression && binaryExpression.getOperator() == operator) {
+            if (binaryExpression.getRight() instanceof BinaryExpression right && right.getOperator() == operator) {
+                return false;
+            }
+            expression = binaryExpression.getLeft();
+        }
+        return true;
+    }
+
+    private static void getOperands(BinaryOperator operator, Expression expression, List<Expression> operands) {
+        if (expression instanceof BinaryExpression binaryExpression && binaryExpression.getOperator() == operator) {
+            getOperands(operator, binaryExpression.getLeft(), operands);
+            getOperands(operator, binaryExpression.getRight(), operands);
+        } else {
+            operands.add(expression);
+        }
+    }
+
+    private static boolean isNot(Expression expression) {
+        return expression instanceof UnaryExpression unaryExpression && unaryExpression.getOperator() instanceof UnaryOperator.Not;
+    }
+
+    private static boolean isNumeric(ValueType type) {
+        return type == ValueType.integerType() || type == ValueType.realType();
+    }
+
+    /**
+     * {@return the non-literal terms of the provided sum, or {@code null} if the sum is a literal}
+     */
+    private static Expression getTerms(Expression expression) {
+        if (getValue(expression) != null) {
+            return null;
+        }
+        if (expression instanceof BinaryExpression binaryExpression && binaryExpression.getOperator() == BinaryOperator.ADD && getValue(binaryExpression.getRight()) != null) {
+            return binaryExpression.getLeft();
+        }
+        return expression;
+    }
+
+    /**
+     * {@return the sum of all literal terms of the provided sum}
+     */
+    private static Rational getConstant(Expression expression) {
+        if (getValue(expression) != null) {
+            return getRational(expression);
+        }
+        if (expression instanceof BinaryExpression binaryExpression && binaryExpression.getOperator() == BinaryOperator.ADD && getValue(binaryExpression.getRight()) != null) {
+            return getRational(binaryExpression.getRight());
+        }
+        return Rational.ZERO;
+    }
+
+    private static Expression getSum(Expression terms, Rational constant, ValueType type) {
+        if (constant.signum() == 0) {
+            return terms;
+        }
+        Expression literal = getLiteral(constant, type);
+        return literal != null ? new BinaryExpression(BinaryOperator.ADD, terms, literal) : null;
+    }
+
+    private static Rational getRational(Expression expression) {
+        return switch (getValue(expression)) {
+            case BigInteger value -> Rational.valueOf(value);
+            case Rational value -> value;
+            default -> throw new IllegalArgumentException("expression '" + expression + "' is not numeric");
+        };
+    }
+
+    /**
+     * {@return the value of the provided expression, or {@code null} if the expression is not a literal}
+     */
+    private static Object getValue(Expression expression) {
+        if (!(expression instanceof LiteralExpression literalExpression)) {
+            return null;
+        }
+        return switch (literalExpression.getValue()) {
+            case Long value -> BigInteger.valueOf(value);
+            case Constant.Real.Fraction value -> value.denominator() != 0 ? Rational.valueOf(value.numerator(), value.denominator()) : null;
+            case Boolean value -> value;
+            case String value -> value;
+            default -> null;
+        };
+    }
+
+    /**
+     * {@return a literal with the provided value, or {@code null} if the value cannot be represented by a literal}
+     */
+    private static Expression getLiteral(Object value, ValueType type) {
+        if (value instanceof Rational rational && type == ValueType.integerType()) {
+            value = rational.isInteger() ? rational.getNumerator() : null;
+        }
+        return switch (value) {
+            case Boolean bool -> LiteralExpression.booleanLiteral(bool);
+            case String string -> LiteralExpression.stringLiteral(string);
+            case BigInteger integer when integer.bitLength() < Long.SIZE -> type == ValueType.realType() ? LiteralExpression.numericLiteral(integer.longValue()) : LiteralExpression.integerLiteral(integer.longValue());
+            case Rational rational when rational.getNumerator().bitLength() < Long.SIZE && rational.getDenominator().bitLength() < Long.SIZE ->
+                    LiteralExpression.numericLiteral(rational.getNumerator().longValue(), rational.getDenominator().longValue());
+            case null, default -> null;
+        };
+    }
+}
@@ -2,22 +2,20 @@ package com.bossymr.flow.expression;
 
 import com.bossymr.flow.instruction.UnaryOperator;
 import com.bossymr.flow.type.ValueType;
-import io.github.cvc5.Op;
-import io.github.cvc5.Term;
-import io.github.cvc5.TermManager;
 
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
- * A {@code UnaryExpression} represents a unary expression.
+ * A {@code UnaryExpression} represents a unary expression. Unary expressions are equal if they have equal operators
+ * and equal operands.
  */
 public final class UnaryExpression implements Expression {
 
     private final UnaryOperator operator;
     private final ValueType type;
     private final Expression expression;
-
-    private Term term;
+    private final int hashCode;
 
     /**
      * Create a new {@code UnaryExpression}.
@@ -33,6 +31,7 @@ public final class UnaryExpression implements Expression {
         this.operator = operator;
         this.type = type;
         this.expression = expression;
+        this.hashCode = Objects.hash(operator, expression);
     }
 
     @Override
@@ -46,7 +45,7 @@ public final class UnaryExpression implements Expression {
         if (self != this) {
             return self;
         }
-        Expression expression = mapper.apply(this.expression);
+        Expression expression = this.expression.translate(mapper);
         if (expression != this.expression) {
             return new UnaryExpression(operator, expression);
         }
@@ -72,13 +71,16 @@ public final class UnaryExpression implements Expression {
     }
 
     @Override
-    public Term convert(TermManager manager) {
-        if (term != null) {
-            return term;
-        }
-        Term expression = getExpression().convert(manager);
-        Op operator = getOperator().convert(manager);
-        return term = manager.mkTerm(operator, expression);
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UnaryExpression that = (UnaryExpression) o;
+        return hashCode == that.hashCode && operator.equals(that.operator) && expression.equals(that.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
     }
 
     @Override
@@ -1,7 +1,6 @@
 package com.bossymr.flow.instruction;
 
 import com.bossymr.flow.Flow;
-import com.bossymr.flow.expression.BinaryExpression;
 import com.bossymr.flow.expression.Expression;
 import com.bossymr.flow.state.FlowSnapshot;
 
@@ -23,7 +22,7 @@ public final class BinaryInstruction implements LinearInstruction {
     public void perform(Flow.Method method, FlowSnapshot snapshot) {
         Expression right = snapshot.pop();
         Expression left = snapshot.pop();
-        snapshot.push(new BinaryExpression(operator, left, right));
+        snapshot.push(snapshot.getFlow().getExpressionFactory().binary(operator, left, right));
     }
 
     public BinaryOperator getOperator() {
@@ -1,9 +1,9 @@
 package com.bossymr.flow.instruction;
 
+import com.bossymr.flow.Rational;
 import com.bossymr.flow.type.ValueType;
-import io.github.cvc5.Kind;
-import io.github.cvc5.Op;
-import io.github.cvc5.TermManager;
+
+import java.math.BigInteger;
 
 /**
  * An {@code Operator} represents a binary operator.
@@ -16,8 +16,8 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.EQUAL);
+        public Object evaluate(Object left, Object right) {
+            return left.equals(right);
         }
     },
     GREATER_THAN(">") {
@@ -30,8 +30,8 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.GT);
+        public Object evaluate(Object left, Object right) {
+            return compare(left, right) > 0;
         }
     },
     LESS_THAN("<") {
@@ -44,8 +44,8 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.LT);
+        public Object evaluate(Object left, Object right) {
+            return compare(left, right) < 0;
         }
     },
     ADD("+") {
@@ -61,8 +61,13 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.ADD);
+        public Object evaluate(Object left, Object right) {
+            return switch (left) {
+                case String value -> value + right;
+                case BigInteger value -> value.add((BigInteger) right);
+                case Rational value -> value.add((Rational) right);
+                default -> null;
+            };
         }
     },
     SUBTRACT("-") {
@@ -75,8 +80,12 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.SUB);
+        public Object evaluate(Object left, Object right) {
+            return switch (left) {
+                case BigInteger value -> value.subtract((BigInteger) right);
+                case Rational value -> value.subtract((Rational) right);
+                default -> null;
+            };
         }
     },
     MULTIPLY("*") {
@@ -89,8 +98,12 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.MULT);
+        public Object evaluate(Object left, Object right) {
+            return switch (left) {
+                case BigInteger value -> value.multiply((BigInteger) right);
+                case Rational value -> value.multiply((Rational) right);
+                default -> null;
+            };
         }
     },
     DIVIDE("/") {
@@ -103,8 +116,12 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.DIVISION);
+        public Object evaluate(Object left, Object right) {
+            // The quotient of an integer division is not defined by the solver, and neither is a division by zero.
+            if (left instanceof Rational value && ((Rational) right).signum() != 0) {
+                return value.divide((Rational) right);
+            }
+            return null;
         }
     },
     MODULO("%") {
@@ -117,8 +134,12 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.INTS_MODULUS);
+        public Object evaluate(Object left, Object right) {
+            // The remainder is always positive, regardless of the sign of the divisor.
+            if (((BigInteger) right).signum() == 0) {
+                return null;
+            }
+            return ((BigInteger) left).mod(((BigInteger) right).abs());
         }
     },
     AND("AND") {
@@ -131,8 +152,8 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.AND);
+        public Object evaluate(Object left, Object right) {
+            return (Boolean) left && (Boolean) right;
         }
     },
     XOR("XOR") {
@@ -145,8 +166,8 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.XOR);
+        public Object evaluate(Object left, Object right) {
+            return (Boolean) left ^ (Boolean) right;
         }
     },
     OR("OR") {
@@ -159,8 +180,8 @@ public enum BinaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.OR);
+        public Object evaluate(Object left, Object right) {
+            return (Boolean) left || (Boolean) right;
         }
     };
 
@@ -179,7 +200,20 @@ public enum BinaryOperator {
      */
     public abstract ValueType getType(ValueType left, ValueType right);
 
-    public abstract Op convert(TermManager manager);
+    /**
+     * Evaluates an expression with this operator. Booleans are represented by {@link Boolean}, integers by
+     * {@link BigInteger}, reals by {@link Rational}, and strings by {@link String}.
+     *
+     * @param left the value of the expression to the left of this operator.
+     * @param right the value of the expression to the right of this operator.
+     * @return the value of the expression, or {@code null} if the value is not defined.
+     */
+    public abstract Object evaluate(Object left, Object right);
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object left, Object right) {
+        return ((Comparable<Object>) left).compareTo(right);
+    }
 
     @Override
     public String toString() {
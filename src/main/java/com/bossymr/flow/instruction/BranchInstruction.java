@@ -1,8 +1,9 @@
 package com.bossymr.flow.instruction;
 
 import com.bossymr.flow.Flow;
+import com.bossymr.flow.constraint.Constraint;
 import com.bossymr.flow.expression.Expression;
-import com.bossymr.flow.expression.UnaryExpression;
+import com.bossymr.flow.expression.LiteralExpression;
 import com.bossymr.flow.state.FlowSnapshot;
 
 import java.util.ArrayList;
@@ -32,24 +33,39 @@ public final class BranchInstruction implements Instruction {
                 yield List.of(successorState);
             }
             case CONDITIONALLY -> {
-                // Before:
-                // {SatisfiabilityQueries=106, SatisfiabilityAssertions=1483, SatisfiabilityPush=1483, SatisfiabilityPop=1431, Snapshots=1080}
-                // After:
-                // {SatisfiabilityQueries=106, SatisfiabilityAssertions=1483, SatisfiabilityPush=1483, SatisfiabilityPop=1431, Snapshots=978}
-                // After fixing common predecessor:
-                // {SatisfiabilityQueries=106, SatisfiabilityAssertions=157, SatisfiabilityPush=157, SatisfiabilityPop=105, Snapshots=1080}
-                // After fixing branch instruction:
-                // {SatisfiabilityQueries=106, SatisfiabilityAssertions=107, SatisfiabilityPush=107, SatisfiabilityPop=55, Snapshots=978}
                 Expression condition = snapshot.pop();
+                if (condition instanceof LiteralExpression literal && literal.getValue() instanceof Boolean value) {
+                    // Only one side of the branch can be taken, as such, neither side needs to be checked.
+                    yield List.of(snapshot.successorState(value ? instruction : successor));
+                }
+                Constraint implication = snapshot.getImplication(condition);
+                if (implication != Constraint.UNKNOWN) {
+                    // The condition, or its negation, is already required, as such, only one side of the branch is
+                    // reachable, and it is as reachable as this snapshot.
+                    snapshot.getFlow().getStatistics().get(Flow.Statistic.ImpliedBranches).increment();
+                    yield List.of(snapshot.successorState(implication == Constraint.ALWAYS_TRUE ? instruction : successor));
+                }
+                Expression negation = snapshot.getFlow().getExpressionFactory().unary(new UnaryOperator.Not(), condition);
+                if (method.getOptions().isLazyFeasibility()) {
+                    // Both sides of the branch are explored, and are only checked once their reachability matters.
+                    FlowSnapshot trueSnapshot = snapshot.successorState(instruction);
+                    trueSnapshot.requireUnchecked(condition);
+                    FlowSnapshot falseSnapshot = snapshot.successorState(successor);
+                    falseSnapshot.requireUnchecked(negation);
+                    snapshot.getFlow().getStatistics().get(Flow.Statistic.DeferredBranches).increment();
+                    yield List.of(trueSnapshot, falseSnapshot);
+                }
                 List<FlowSnapshot> successors = new ArrayList<>();
-                FlowSnapshot falseSnapshot = snapshot.successorState(successor);
-                falseSnapshot.require(new UnaryExpression(new UnaryOperator.Not(), condition));
-                if (falseSnapshot.isReachable()) {
+                // Both sides of the branch are checked from the same solver position, a successor is only created if it
+                // is reachable.
+                if (snapshot.isReachable(negation)) {
+                    FlowSnapshot falseSnapshot = snapshot.successorState(successor);
+                    falseSnapshot.require(negation);
                     successors.add(falseSnapshot);
                 }
-                FlowSnapshot trueSnapshot = snapshot.successorState(instruction);
-                trueSnapshot.require(condition);
-                if (trueSnapshot.isReachable()) {
+                if (snapshot.isReachable(condition)) {
+                    FlowSnapshot trueSnapshot = snapshot.successorState(instruction);
+                    trueSnapshot.require(condition);
                     successors.add(trueSnapshot);
                 }
                 yield List.copyOf(successors.reversed());
@@ -0,0 +1,231 @@
+package com.bossymr.flow.instruction;
+
+import java.util.*;
+
+/**
+ * A control flow graph of a method.
+ * <p>
+ * The graph is compiled once from the instructions of a method, after which every instruction and label is resolved to
+ * its index, and the successors of every instruction are known. As a result, finding the next instruction of a snapshot
+ * does not require searching through the instructions of the method.
+ * <p>
+ * Instructions are also grouped into basic blocks, where each block is a sequence of instructions which is always
+ * entered at its first instruction and only exits after its last instruction.
+ */
+public final class ControlFlowGraph {
+
+    private final List<Instruction> instructions;
+
+    /**
+     * The index of every instruction. Instructions do not define equality, as such, the same instruction might appear
+     * in more than one method, but only once in each method.
+     */
+    private final Map<Instruction, Integer> indices;
+
+    /**
+     * The index of the instruction which is called after each instruction if it does not jump, or {@code -1} if the
+     * instruction never continues with the next instruction.
+     */
+    private final int[] fallthrough;
+
+    /**
+     * The index of the instruction which each instruction jumps to, or {@code -1} if the instruction does not jump.
+     */
+    private final int[] targets;
+
+    /**
+     * Whether each instruction is the target of a branch from an instruction at the same or a later index.
+     */
+    private final boolean[] loopHeaders;
+
+    /**
+     * The index of the basic block each instruction belongs to.
+     */
+    private final int[] blockIndices;
+
+    private final List<BasicBlock> blocks;
+
+    /**
+     * Compiles a control flow graph from the provided instructions.
+     *
+     * @param instructions the instructions.
+     * @throws IllegalStateException if an instruction appears more than once, or if an instruction jumps to a label
+     * which is not bound.
+     */
+    public ControlFlowGraph(List<Instruction> instructions) {
+        this.instructions = List.copyOf(instructions);
+        int size = this.instructions.size();
+        this.indices = new IdentityHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            Instruction instruction = this.instructions.get(i);
+            if (indices.putIfAbsent(instruction, i) != null) {
+                throw new IllegalStateException("instruction '" + instruction + "' is bound more than once");
+            }
+        }
+        this.fallthrough = new int[size];
+        this.targets = new int[size];
+        this.loopHeaders = new boolean[size];
+        boolean[] leaders = new boolean[size];
+        if (size > 0) {
+            leaders[0] = true;
+        }
+        for (int i = 0; i < size; i++) {
+            Instruction instruction = this.instructions.get(i);
+            int next = i + 1 < size ? i + 1 : -1;
+            fallthrough[i] = next;
+            targets[i] = -1;
+            if (instruction instanceof ReturnInstruction) {
+                fallthrough[i] = -1;
+            }
+            if (instruction instanceof BranchInstruction branchInstruction) {
+                Integer target = indices.get(branchInstruction.getInstruction());
+                if (target == null) {
+                    throw new IllegalStateException("label '" + branchInstruction.getInstruction() + "' is not bound");
+                }
+                targets[i] = target;
+                leaders[target] = true;
+                if (target <= i) {
+                    loopHeaders[target] = true;
+                }
+                if (branchInstruction.getKind() == BranchKind.ALWAYS) {
+                    fallthrough[i] = -1;
+                }
+            }
+            if ((instruction instanceof BranchInstruction || instruction instanceof ReturnInstruction) && next >= 0) {
+                leaders[next] = true;
+            }
+        }
+        this.blockIndices = new int[size];
+        List<int[]> ranges = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (leaders[i]) {
+                ranges.add(new int[]{i, i});
+            }
+            ranges.getLast()[1] = i;
+            blockIndices[i] = ranges.size() - 1;
+        }
+        List<BasicBlock> blocks = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            int start = ranges.get(i)[0];
+            int end = ranges.get(i)[1];
+            List<Integer> successors = new ArrayList<>(2);
+            if (fallthrough[end] >= 0) {
+                successors.add(blockIndices[fallthrough[end]]);
+            }
+            if (targets[end] >= 0 && !successors.contains(blockIndices[targets[end]])) {
+                successors.add(blockIndices[targets[end]]);
+            }
+            blocks.add(new BasicBlock(i, start, end, List.copyOf(successors)));
+        }
+        this.blocks = List.copyOf(blocks);
+    }
+
+    /**
+     * {@return the number of instructions in this graph}
+     */
+    public int size() {
+        return instructions.size();
+    }
+
+    /**
+     * {@return the instructions in this graph}
+     */
+    public List<Instruction> getInstructions() {
+        return instructions;
+    }
+
+    /**
+     * Returns the instruction at the specified index.
+     *
+     * @param index the index.
+     * @return the instruction at the specified index.
+     */
+    public Instruction getInstruction(int index) {
+        return instructions.get(index);
+    }
+
+    /**
+     * Returns the index of the provided instruction.
+     *
+     * @param instruction the instruction.
+     * @return the index of the provided instruction.
+     * @throws IllegalArgumentException if the instruction does not belong to this graph.
+     */
+    public int getIndex(Instruction instruction) {
+        Integer index = indices.get(instruction);
+        if (index == null) {
+            throw new IllegalArgumentException("instruction '" + instruction + "' belongs to another method");
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether the provided instruction belongs to this graph.
+     *
+     * @param instruction the instruction.
+     * @return whether the provided instruction belongs to this graph.
+     */
+    public boolean contains(Instruction instruction) {
+        return indices.containsKey(instruction);
+    }
+
+    /**
+     * Returns the index of the instruction which is called after the instruction at the specified index, if that
+     * instruction does not jump.
+     *
+     * @param index the index.
+     * @return the index of the next instruction, or {@code -1} if the instruction never continues with the next
+     * instruction.
+     */
+    public int getFallthrough(int index) {
+        return fallthrough[index];
+    }
+
+    /**
+     * Returns the index of the instruction which the instruction at the specified index jumps to.
+     *
+     * @param index the index.
+     * @return the index of the target instruction, or {@code -1} if the instruction does not jump.
+     */
+    public int getTarget(int index) {
+        return targets[index];
+    }
+
+    /**
+     * Checks whether the instruction at the specified index is a loop header. An instruction is a loop header if it is
+     * jumped to by an instruction at the same or a later index.
+     *
+     * @param index the index.
+     * @return whether the instruction is a loop header.
+     */
+    public boolean isLoopHeader(int index) {
+        return loopHeaders[index];
+    }
+
+    /**
+     * Returns the index of the basic block which contains the instruction at the specified index.
+     *
+     * @param index the index.
+     * @return the index of the basic block.
+     */
+    public int getBlockIndex(int index) {
+        return blockIndices[index];
+    }
+
+    /**
+     * {@return the basic blocks in this graph, in the order they appear in the method}
+     */
+    public List<BasicBlock> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * A basic block.
+     *
+     * @param index the index of this block.
+     * @param start the index of the first instruction in this block.
+     * @param end the index of the last instruction in this block.
+     * @param successors the indices of all blocks which might be entered after this block.
+     */
+    public record BasicBlock(int index, int start, int end, List<Integer> successors) {}
+}
@@ -10,7 +10,7 @@ public final class DuplicateInstruction implements LinearInstruction {
 
     @Override
     public void perform(Flow.Method method, FlowSnapshot snapshot) {
-        snapshot.push(snapshot.getStack().getLast());
+        snapshot.push(snapshot.peek());
     }
 
     @Override
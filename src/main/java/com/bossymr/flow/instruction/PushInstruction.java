@@ -2,7 +2,6 @@ package com.bossymr.flow.instruction;
 
 import com.bossymr.flow.Constant;
 import com.bossymr.flow.Flow;
-import com.bossymr.flow.expression.LiteralExpression;
 import com.bossymr.flow.state.FlowSnapshot;
 
 import java.util.Objects;
@@ -20,8 +19,7 @@ public final class PushInstruction implements LinearInstruction {
 
     @Override
     public void perform(Flow.Method method, FlowSnapshot snapshot) {
-        snapshot.push(new LiteralExpression(constant));
-
+        snapshot.push(snapshot.getFlow().getExpressionFactory().literal(constant));
     }
 
     public Constant<?> getConstant() {
@@ -15,7 +15,7 @@ public final class ReturnInstruction implements Instruction {
 
     @Override
     public List<FlowSnapshot> call(Flow.Method method, FlowSnapshot snapshot, Instruction successor) {
-        method.getExitPoints().add(snapshot);
+        method.addExitPoint(snapshot);
         return List.of();
     }
 
@@ -2,7 +2,6 @@ package com.bossymr.flow.instruction;
 
 import com.bossymr.flow.Flow;
 import com.bossymr.flow.expression.Expression;
-import com.bossymr.flow.expression.UnaryExpression;
 import com.bossymr.flow.state.FlowSnapshot;
 
 /**
@@ -19,7 +18,7 @@ public final class UnaryInstruction implements LinearInstruction {
     @Override
     public void perform(Flow.Method method, FlowSnapshot snapshot) {
         Expression expression = snapshot.pop();
-        snapshot.push(new UnaryExpression(operator, expression));
+        snapshot.push(snapshot.getFlow().getExpressionFactory().unary(operator, expression));
     }
 
     /**
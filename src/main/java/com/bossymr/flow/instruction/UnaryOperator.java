@@ -1,12 +1,13 @@
 package com.bossymr.flow.instruction;
 
+import com.bossymr.flow.Rational;
 import com.bossymr.flow.type.ValueType;
-import io.github.cvc5.Kind;
-import io.github.cvc5.Op;
-import io.github.cvc5.TermManager;
+
+import java.math.BigInteger;
+import java.util.Objects;
 
 /**
- * A unary operation that can be applied to an expression.
+ * A unary operation that can be applied to an expression. Operators are equal if they perform the same operation.
  */
 public interface UnaryOperator {
 
@@ -18,7 +19,14 @@ public interface UnaryOperator {
      */
     ValueType getType(ValueType type);
 
-    Op convert(TermManager manager);
+    /**
+     * Evaluates an expression with this operator. Booleans are represented by {@link Boolean}, integers by
+     * {@link BigInteger}, reals by {@link Rational}, and strings by {@link String}.
+     *
+     * @param value the value of the expression this operator is applied to.
+     * @return the value of the expression, or {@code null} if the value is not defined.
+     */
+    Object evaluate(Object value);
 
     /**
      * Logically negates a boolean value.
@@ -33,8 +41,18 @@ public interface UnaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.NOT);
+        public Object evaluate(Object value) {
+            return !(Boolean) value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Not;
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
         }
 
         @Override
@@ -56,8 +74,22 @@ public interface UnaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            return manager.mkOp(Kind.NEG);
+        public Object evaluate(Object value) {
+            return switch (value) {
+                case BigInteger number -> number.negate();
+                case Rational number -> number.negate();
+                default -> null;
+            };
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Negate;
+        }
+
+        @Override
+        public int hashCode() {
+            return 2;
         }
 
         @Override
@@ -111,14 +143,26 @@ public interface UnaryOperator {
         }
 
         @Override
-        public Op convert(TermManager manager) {
-            if (getToType() == ValueType.realType()) {
-                return manager.mkOp(Kind.TO_REAL);
+        public Object evaluate(Object value) {
+            if (value instanceof BigInteger number && toType == ValueType.realType()) {
+                return Rational.valueOf(number);
             }
-            if (getToType() == ValueType.integerType()) {
-                return manager.mkOp(Kind.TO_INTEGER);
+            if (value instanceof Rational number && toType == ValueType.integerType()) {
+                return number.floor();
             }
-            throw new IllegalStateException("convert " + getFromType() + " -> " + toType);
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == null || getClass() != o.getClass()) return false;
+            Convert convert = (Convert) o;
+            return fromType.equals(convert.fromType) && toType.equals(convert.toType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromType, toType);
         }
 
         @Override
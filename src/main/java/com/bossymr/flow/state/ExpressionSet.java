@@ -0,0 +1,213 @@
+package com.bossymr.flow.state;
+
+import com.bossymr.flow.expression.Expression;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of expressions.
+ * <p>
+ * A set is a trie where each node has 32 children, and where each level of the trie is indexed by 5 bits of the hash
+ * code of an expression. As a result, adding an expression creates a new set which only copies the nodes along the path
+ * to the expression, and shares all other nodes with the original set. Expressions whose hash codes are equal are kept
+ * in a single bucket below the last level of the trie.
+ * <p>
+ * The shape of a trie only depends on the expressions in the set, as such, two sets are compared node by node, and
+ * nodes which are shared by both sets are not visited.
+ */
+final class ExpressionSet extends AbstractSet<Expression> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    /**
+     * An empty set.
+     */
+    static final ExpressionSet EMPTY = new ExpressionSet(new Object[WIDTH], 0);
+
+    /**
+     * The root of this trie. Each child is either {@code null}, an expression, another node, or a bucket of expressions
+     * with the same hash code.
+     */
+    private final Object[] root;
+
+    private final int size;
+
+    private ExpressionSet(Object[] root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        if (!(object instanceof Expression expression)) {
+            return false;
+        }
+        int hash = expression.hashCode();
+        Object node = root;
+        for (int shift = 0; node instanceof Object[] branch; shift += BITS) {
+            node = branch[(hash >>> shift) & MASK];
+        }
+        if (node instanceof Bucket bucket) {
+            return bucket.contains(expression);
+        }
+        return expression.equals(node);
+    }
+
+    /**
+     * Returns a set which contains all expressions in this set and the provided expression.
+     *
+     * @param expression the expression.
+     * @return a new set, or this set if it already contains the expression.
+     */
+    ExpressionSet with(Expression expression) {
+        Object[] root = (Object[]) add(this.root, 0, expression.hashCode(), expression);
+        return root != this.root ? new ExpressionSet(root, size + 1) : this;
+    }
+
+    /**
+     * Adds the provided expression to the provided node.
+     *
+     * @return a new node, or the provided node if it already contains the expression.
+     */
+    private static Object add(Object node, int shift, int hash, Expression expression) {
+        if (node == null) {
+            return expression;
+        }
+        if (node instanceof Bucket bucket) {
+            return bucket.contains(expression) ? bucket : bucket.add(expression);
+        }
+        if (node instanceof Expression element) {
+            if (element.equals(expression)) {
+                return element;
+            }
+            if (shift >= Integer.SIZE) {
+                return new Bucket(new Expression[]{element, expression});
+            }
+            Object[] branch = new Object[WIDTH];
+            branch[(element.hashCode() >>> shift) & MASK] = element;
+            return add(branch, shift, hash, expression);
+        }
+        Object[] branch = (Object[]) node;
+        int index = (hash >>> shift) & MASK;
+        Object child = add(branch[index], shift + BITS, hash, expression);
+        if (child == branch[index]) {
+            return branch;
+        }
+        Object[] copy = branch.clone();
+        copy[index] = child;
+        return copy;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Expression> iterator() {
+        return new Iterator<>() {
+
+            /**
+             * The nodes which have not yet been visited, where the next expression is at the top once
+             * {@link #hasNext()} has returned {@code true}.
+             */
+            private final Deque<Object> nodes = new ArrayDeque<>(List.of(root));
+
+            @Override
+            public boolean hasNext() {
+                while (!(nodes.isEmpty()) && !(nodes.peek() instanceof Expression)) {
+                    Object node = nodes.pop();
+                    if (node instanceof Bucket bucket) {
+                        for (Expression expression : bucket.expressions()) {
+                            nodes.push(expression);
+                        }
+                    } else {
+                        for (Object child : (Object[]) node) {
+                            if (child != null) {
+                                nodes.push(child);
+                            }
+                        }
+                    }
+                }
+                return !(nodes.isEmpty());
+            }
+
+            @Override
+            public Expression next() {
+                if (!(hasNext())) {
+                    throw new NoSuchElementException();
+                }
+                return (Expression) nodes.pop();
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object instanceof ExpressionSet set) {
+            return size == set.size && equals(root, set.root);
+        }
+        return super.equals(object);
+    }
+
+    /**
+     * Checks whether the provided nodes contain the same expressions. Nodes which are shared by both sets are equal,
+     * and are not visited.
+     */
+    private static boolean equals(Object node, Object other) {
+        if (node == other) {
+            return true;
+        }
+        if (node instanceof Object[] branch && other instanceof Object[] otherBranch) {
+            for (int i = 0; i < WIDTH; i++) {
+                if (!(equals(branch[i], otherBranch[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (node instanceof Bucket bucket && other instanceof Bucket otherBucket) {
+            if (bucket.expressions().length != otherBucket.expressions().length) {
+                return false;
+            }
+            for (Expression expression : bucket.expressions()) {
+                if (!(otherBucket.contains(expression))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return node instanceof Expression expression && expression.equals(other);
+    }
+
+    /**
+     * Expressions with the same hash code.
+     *
+     * @param expressions the expressions.
+     */
+    private record Bucket(Expression[] expressions) {
+
+        private boolean contains(Expression expression) {
+            for (Expression element : expressions) {
+                if (element.equals(expression)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Bucket add(Expression expression) {
+            Expression[] copy = Arrays.copyOf(expressions, expressions.length + 1);
+            copy[expressions.length] = expression;
+            return new Bucket(copy);
+        }
+    }
+}
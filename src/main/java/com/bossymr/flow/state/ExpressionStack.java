@@ -0,0 +1,119 @@
+package com.bossymr.flow.state;
+
+import com.bossymr.flow.expression.Expression;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An immutable stack of expressions.
+ * <p>
+ * A stack is a linked list of its elements, where the top of the stack is the head of the list. As a result, pushing
+ * or popping an expression creates a new stack which shares all other elements with the original stack.
+ */
+final class ExpressionStack {
+
+    /**
+     * An empty stack.
+     */
+    static final ExpressionStack EMPTY = new ExpressionStack(null, null, 0);
+
+    private final Expression head;
+    private final ExpressionStack tail;
+    private final int size;
+
+    private ExpressionStack(Expression head, ExpressionStack tail, int size) {
+        this.head = head;
+        this.tail = tail;
+        this.size = size;
+    }
+
+    /**
+     * Returns a stack with the provided expression at the top of this stack.
+     *
+     * @param expression the expression.
+     * @return a new stack.
+     */
+    ExpressionStack push(Expression expression) {
+        return new ExpressionStack(expression, this, size + 1);
+    }
+
+    /**
+     * {@return the expression at the top of this stack}
+     *
+     * @throws NoSuchElementException if this stack is empty.
+     */
+    Expression peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return head;
+    }
+
+    /**
+     * {@return this stack without the expression at the top of this stack}
+     *
+     * @throws NoSuchElementException if this stack is empty.
+     */
+    ExpressionStack pop() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return tail;
+    }
+
+    /**
+     * Returns a stack with the provided expressions, where the first element is the bottom of the stack, and the last
+     * element is the top of the stack.
+     *
+     * @param expressions the expressions.
+     * @return a new stack.
+     */
+    static ExpressionStack of(List<Expression> expressions) {
+        ExpressionStack stack = EMPTY;
+        for (Expression expression : expressions) {
+            stack = stack.push(expression);
+        }
+        return stack;
+    }
+
+    /**
+     * Returns the expression at the provided index, where the bottom of the stack is at index {@code 0}.
+     *
+     * @param index the index.
+     * @return the expression at the index.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    Expression get(int index) {
+        ExpressionStack stack = this;
+        for (int i = size - 1 - Objects.checkIndex(index, size); i > 0; i--) {
+            stack = stack.tail;
+        }
+        return stack.head;
+    }
+
+    /**
+     * {@return the number of expressions in this stack}
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the expressions in this stack, where the first element is the bottom of the stack, and the last element
+     * is the top of the stack.
+     *
+     * @return the expressions in this stack.
+     */
+    List<Expression> toList() {
+        Expression[] expressions = new Expression[size];
+        ExpressionStack stack = this;
+        for (int i = size - 1; i >= 0; i--) {
+            expressions[i] = stack.head;
+            stack = stack.tail;
+        }
+        return Arrays.asList(expressions);
+    }
+}
@@ -79,9 +79,16 @@ public class FlowGraph {
             for (int currentSnapshot = 0; currentSnapshot < snapshots.size(); currentSnapshot++) {
                 FlowSnapshot snapshot = snapshots.get(currentSnapshot);
                 withSnapshot(snapshots, method, snapshot);
-                FlowSnapshot predecessor = snapshot.getPredecessor();
-                if (predecessor != null && !snapshots.contains(predecessor)) {
-                    snapshots.add(predecessor);
+                // The predecessor of a merged snapshot is the common predecessor of the merged snapshots, as such, the
+                // merged snapshots are shown as its predecessors instead.
+                List<FlowSnapshot> predecessors = new ArrayList<>(snapshot.getMergedSnapshots());
+                if (predecessors.isEmpty() && snapshot.getPredecessor() != null) {
+                    predecessors.add(snapshot.getPredecessor());
+                }
+                for (FlowSnapshot predecessor : predecessors) {
+                    if (!snapshots.contains(predecessor)) {
+                        snapshots.add(predecessor);
+                    }
                 }
                 if (snapshot.getInstruction() instanceof CallInstruction instruction) {
                     Flow.Method target = instruction.getMethod();
@@ -93,7 +100,7 @@ public class FlowGraph {
                         withExternalEdge(snapshots, method, snapshot, target, callSnapshot);
                     }
                 }
-                if (predecessor != null) {
+                for (FlowSnapshot predecessor : predecessors) {
                     withInternalEdge(snapshots, method, predecessor, snapshot);
                 }
             }
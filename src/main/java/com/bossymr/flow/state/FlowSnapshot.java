@@ -2,16 +2,20 @@ package com.bossymr.flow.state;
 
 import com.bossymr.flow.Flow;
 import com.bossymr.flow.constraint.Constraint;
+import com.bossymr.flow.constraint.Fingerprint;
 import com.bossymr.flow.constraint.Reachable;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.BinaryExpression;
 import com.bossymr.flow.expression.Expression;
 import com.bossymr.flow.expression.UnaryExpression;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.BranchInstruction;
 import com.bossymr.flow.instruction.Instruction;
 import com.bossymr.flow.instruction.UnaryOperator;
-import io.github.cvc5.Result;
-import io.github.cvc5.Solver;
 
 import java.util.*;
 
+import static com.bossymr.flow.constraint.Reachable.NOT_REACHABLE;
 import static com.bossymr.flow.constraint.Reachable.REACHABLE;
 import static com.bossymr.flow.constraint.Reachable.UNKNOWN;
 
@@ -24,12 +28,60 @@ public class FlowSnapshot {
 
     private final FlowSnapshot predecessor;
     private final FlowSnapshot weakPredecessor;
+    private final List<FlowSnapshot> mergedSnapshots;
     private final Instruction instruction;
+    private final int depth;
 
-    private final Set<Expression> constraints = new HashSet<>();
+    /**
+     * A predecessor of this snapshot used to skip over a number of predecessors. Jumps are assigned so that any
+     * predecessor of a snapshot can be reached in a logarithmic number of steps, by following either the jump or the
+     * predecessor of each snapshot. The jump of a snapshot without a predecessor is the snapshot itself.
+     */
+    private final FlowSnapshot jump;
 
-    private final List<Expression> stack = new ArrayList<>();
-    private final HashMap<Integer, Expression> variables = new HashMap<>();
+    /**
+     * The constraints defined in this snapshot. Most snapshots do not define any constraints, as such, the set is only
+     * created once a constraint is added.
+     */
+    private Set<Expression> constraints;
+
+    /**
+     * The conditions implied by the constraints of this snapshot and all of its predecessors, which are the constraints
+     * and the operands of each conjunction required as a constraint. The set is shared with the predecessor of this
+     * snapshot until a constraint is added.
+     */
+    private ExpressionSet implications = ExpressionSet.EMPTY;
+
+    /**
+     * The constraints of this snapshot and all of its predecessors. The set is shared with the predecessor of this
+     * snapshot until a constraint is added.
+     */
+    private ExpressionSet pathConstraints = ExpressionSet.EMPTY;
+
+    /**
+     * The fingerprint of the constraints of this snapshot and all of its predecessors, or {@code null} if it has not
+     * been computed since the last constraint was added.
+     */
+    private Fingerprint fingerprint;
+
+    /**
+     * The number of conditions required by this snapshot and its predecessors since the last snapshot which was known
+     * to be reachable, which were required without checking whether the snapshot is still reachable.
+     */
+    private int uncheckedConditions;
+
+    /**
+     * The reachability of this snapshot, or {@code null} if it has not been decided since the last constraint was added.
+     * An unknown result is not kept, since it might be decided by a later query.
+     */
+    private volatile Reachable reachability;
+
+    /**
+     * The stack and variables of a snapshot are immutable, and are shared with its predecessor until they are modified.
+     * As a result, creating a successor does not copy the state of its predecessor.
+     */
+    private ExpressionStack stack = ExpressionStack.EMPTY;
+    private VariableTable variables = VariableTable.EMPTY;
 
     private FlowSnapshot(Flow flow, Instruction instruction) {
         flow.getStatistics().get(Flow.Statistic.Snapshots).increment();
@@ -37,17 +89,54 @@ public class FlowSnapshot {
         this.instruction = instruction;
         this.predecessor = null;
         this.weakPredecessor = null;
+        this.mergedSnapshots = List.of();
+        this.depth = 0;
+        this.jump = this;
     }
 
     private FlowSnapshot(Flow flow, FlowSnapshot predecessor, FlowSnapshot weakPredecessor, Instruction instruction) {
         flow.getStatistics().get(Flow.Statistic.Snapshots).increment();
         this.flow = flow;
         this.weakPredecessor = weakPredecessor;
+        this.mergedSnapshots = List.of();
         this.instruction = instruction;
         Objects.requireNonNull(predecessor);
         this.predecessor = predecessor;
-        this.stack.addAll(predecessor.stack);
-        this.variables.putAll(predecessor.variables);
+        this.depth = predecessor.depth + 1;
+        this.jump = getJump(predecessor);
+        this.stack = predecessor.stack;
+        this.variables = predecessor.variables;
+        this.implications = predecessor.implications;
+        this.pathConstraints = predecessor.pathConstraints;
+        this.uncheckedConditions = predecessor.uncheckedConditions;
+    }
+
+    private FlowSnapshot(Flow flow, List<FlowSnapshot> mergedSnapshots, FlowSnapshot predecessor, Instruction instruction) {
+        flow.getStatistics().get(Flow.Statistic.Snapshots).increment();
+        this.flow = flow;
+        this.predecessor = Objects.requireNonNull(predecessor);
+        this.weakPredecessor = null;
+        this.mergedSnapshots = mergedSnapshots;
+        this.instruction = instruction;
+        this.depth = predecessor.depth + 1;
+        this.jump = getJump(predecessor);
+        this.implications = predecessor.implications;
+        this.pathConstraints = predecessor.pathConstraints;
+    }
+
+    /**
+     * Returns the jump of a successor to the provided snapshot. If the jumps of the predecessor skip over the same number
+     * of snapshots twice in a row, the successor can skip over both, otherwise, the successor jumps to its predecessor.
+     *
+     * @param predecessor the predecessor.
+     * @return the jump of the successor.
+     */
+    private static FlowSnapshot getJump(FlowSnapshot predecessor) {
+        FlowSnapshot jump = predecessor.jump;
+        if (predecessor.depth - jump.depth == jump.depth - jump.jump.depth) {
+            return jump.jump;
+        }
+        return predecessor;
     }
 
     /**
@@ -60,6 +149,120 @@ public class FlowSnapshot {
         return new FlowSnapshot(engine, null);
     }
 
+    /**
+     * Checks whether the provided snapshots can be merged into a single snapshot.
+     * <p>
+     * Two snapshots can be merged if they represent the same instruction, if their stacks have the same shape, and if
+     * they diverged at a conditional branch, so that their path conditions are mutually exclusive.
+     *
+     * @param snapshot the first snapshot.
+     * @param other the second snapshot.
+     * @return whether the snapshots can be merged.
+     */
+    public static boolean isMergeable(FlowSnapshot snapshot, FlowSnapshot other) {
+        if (snapshot.flow != other.flow || snapshot.instruction != other.instruction) {
+            return false;
+        }
+        if (snapshot.stack.size() != other.stack.size()) {
+            return false;
+        }
+        for (ExpressionStack stack = snapshot.stack, otherStack = other.stack; stack.size() > 0; stack = stack.pop(), otherStack = otherStack.pop()) {
+            if (!(stack.peek().getType().equals(otherStack.peek().getType()))) {
+                return false;
+            }
+        }
+        FlowSnapshot commonPredecessor = snapshot.commonPredecessor(other);
+        return commonPredecessor != null && commonPredecessor != snapshot && commonPredecessor != other
+                && commonPredecessor.getInstruction() instanceof BranchInstruction;
+    }
+
+    /**
+     * Merges the provided snapshots into a single snapshot.
+     * <p>
+     * The predecessor of the merged snapshot is the last common predecessor of both snapshots. Values which differ
+     * between the snapshots are replaced by conditional expressions, which select the value of a snapshot depending on
+     * its path condition after the common predecessor. The merged snapshot requires that either path condition is
+     * satisfied. Variables which are only defined in one snapshot are unconstrained on the path of the other snapshot,
+     * and variables which have different types are not defined in the merged snapshot.
+     *
+     * @param snapshot the first snapshot.
+     * @param other the second snapshot.
+     * @return the merged snapshot.
+     * @throws IllegalArgumentException if the snapshots cannot be merged.
+     * @see #isMergeable(FlowSnapshot, FlowSnapshot)
+     */
+    public static FlowSnapshot merge(FlowSnapshot snapshot, FlowSnapshot other) {
+        if (!(isMergeable(snapshot, other))) {
+            throw new IllegalArgumentException("cannot merge snapshot '" + snapshot + "' with '" + other + "'");
+        }
+        FlowSnapshot commonPredecessor = snapshot.commonPredecessor(other);
+        Expression condition = snapshot.getPathCondition(commonPredecessor);
+        Expression otherCondition = other.getPathCondition(commonPredecessor);
+        FlowSnapshot merged = new FlowSnapshot(snapshot.flow, List.of(snapshot, other), commonPredecessor, snapshot.instruction);
+        List<Expression> stack = snapshot.stack.toList();
+        List<Expression> otherStack = other.stack.toList();
+        for (int i = 0; i < stack.size(); i++) {
+            merged.push(merged.mergeValue(condition, otherCondition, stack.get(i), otherStack.get(i)));
+        }
+        snapshot.variables.forEach((variable, value) -> {
+            Expression otherValue = other.variables.get(variable);
+            if (otherValue == null) {
+                // The variable is not defined by the other snapshot, as such, its value is unconstrained on that path.
+                otherValue = new AnyExpression(value.getType());
+            }
+            if (value.getType().equals(otherValue.getType())) {
+                merged.store(variable, merged.mergeValue(condition, otherCondition, value, otherValue));
+            }
+        });
+        other.variables.forEach((variable, otherValue) -> {
+            if (snapshot.variables.get(variable) == null) {
+                merged.store(variable, merged.mergeValue(condition, otherCondition, new AnyExpression(otherValue.getType()), otherValue));
+            }
+        });
+        if (condition != null && otherCondition != null) {
+            merged.require(snapshot.flow.getExpressionFactory().binary(BinaryOperator.OR, condition, otherCondition));
+        }
+        merged.uncheckedConditions = Math.max(snapshot.uncheckedConditions, other.uncheckedConditions);
+        snapshot.flow.getStatistics().get(Flow.Statistic.MergedSnapshots).increment();
+        return merged;
+    }
+
+    private Expression mergeValue(Expression condition, Expression otherCondition, Expression value, Expression otherValue) {
+        if (value == otherValue) {
+            return value;
+        }
+        if (condition != null) {
+            return flow.getExpressionFactory().conditional(condition, value, otherValue);
+        }
+        // Both snapshots diverged at a conditional branch, as such, at least one of the snapshots has a path condition.
+        return flow.getExpressionFactory().conditional(otherCondition, otherValue, value);
+    }
+
+    /**
+     * {@return the conjunction of all constraints defined in this snapshot and all of its predecessors, or {@code null}
+     * if no constraints are defined}
+     */
+    public Expression getPathCondition() {
+        return getPathCondition(null);
+    }
+
+    /**
+     * Returns the conjunction of all constraints defined in this snapshot and its predecessors, up until, but not
+     * including, the provided predecessor.
+     *
+     * @param predecessor the predecessor.
+     * @return the conjunction of all constraints, or {@code null} if no constraints are defined.
+     */
+    private Expression getPathCondition(FlowSnapshot predecessor) {
+        Expression condition = null;
+        for (FlowSnapshot snapshot = this; snapshot != null && snapshot != predecessor; snapshot = snapshot.predecessor) {
+            for (Expression constraint : snapshot.getConstraints()) {
+                condition = condition == null ? constraint : flow.getExpressionFactory().binary(BinaryOperator.AND, constraint, condition);
+            }
+        }
+        return condition;
+    }
+
     /**
      * Create a successor to this snapshot representing the same instruction as this snapshot.
      *
@@ -107,6 +310,13 @@ public class FlowSnapshot {
         return predecessor;
     }
 
+    /**
+     * {@return the number of predecessors of this snapshot}
+     */
+    public int getDepth() {
+        return depth;
+    }
+
     /**
      * {@return all predecessors up until this snapshot}
      */
@@ -120,22 +330,52 @@ public class FlowSnapshot {
         return snapshots.reversed();
     }
 
+    /**
+     * Returns the predecessor of this snapshot at the specified depth.
+     *
+     * @param depth the depth.
+     * @return the predecessor at the specified depth, or {@code null} if the depth is greater than the depth of this
+     * snapshot, or negative.
+     */
+    public FlowSnapshot getPredecessor(int depth) {
+        if (depth < 0 || depth > this.depth) {
+            return null;
+        }
+        FlowSnapshot snapshot = this;
+        while (snapshot.depth > depth) {
+            snapshot = snapshot.jump.depth >= depth ? snapshot.jump : snapshot.predecessor;
+        }
+        return snapshot;
+    }
+
     /**
      * Returns the last common predecessor of this snapshot and the provided snapshot. Trying to get the common
-     * predecessor of this snapshot and {@code null} returns all predecessors.
+     * predecessor of this snapshot and {@code null} returns {@code null}.
      *
      * @param snapshot the snapshot
      * @return the last common predecessor, or {@code null} if a common predecessor was not found
      */
     public FlowSnapshot commonPredecessor(FlowSnapshot snapshot) {
-        List<FlowSnapshot> predecessors = getPredecessors();
-        while (snapshot != null) {
-            if (predecessors.contains(snapshot)) {
-                return snapshot;
+        if (snapshot == null) {
+            return null;
+        }
+        FlowSnapshot current = getPredecessor(Math.min(depth, snapshot.depth));
+        FlowSnapshot other = snapshot.getPredecessor(Math.min(depth, snapshot.depth));
+        // Both snapshots are at the same depth, as such, their jumps are also at the same depth.
+        while (current != other) {
+            if (current.predecessor == null) {
+                // The snapshots do not share a root.
+                return null;
+            }
+            if (current.jump != other.jump) {
+                current = current.jump;
+                other = other.jump;
+            } else {
+                current = current.predecessor;
+                other = other.predecessor;
             }
-            snapshot = snapshot.getPredecessor();
         }
-        return null;
+        return current;
     }
 
     /**
@@ -150,18 +390,85 @@ public class FlowSnapshot {
         return weakPredecessor;
     }
 
+    /**
+     * Returns the snapshots which were merged into this snapshot.
+     * <p>
+     * If this snapshot was created by merging two snapshots, the predecessor of this snapshot is the last common
+     * predecessor of the merged snapshots, and the merged snapshots are the actual predecessors of this snapshot.
+     *
+     * @return the snapshots which were merged into this snapshot, or an empty list if this snapshot was not merged.
+     */
+    public List<FlowSnapshot> getMergedSnapshots() {
+        return mergedSnapshots;
+    }
+
     /**
      * {@return all constraints defined in this snapshot}
      */
     public Set<Expression> getConstraints() {
-        return constraints;
+        return constraints != null ? constraints : Set.of();
+    }
+
+    /**
+     * Returns all constraints of this snapshot and all of its predecessors. The returned set is immutable, and is shared
+     * with the successors of this snapshot until a constraint is added, as such, it is not copied.
+     *
+     * @return all constraints of this snapshot and all of its predecessors.
+     */
+    public Set<Expression> getPathConstraints() {
+        return pathConstraints;
     }
 
     /**
-     * {@return the current program stack}
+     * {@return all constraints of this snapshot and all of its predecessors, and the provided assumption}
+     */
+    public Set<Expression> getPathConstraints(Expression assumption) {
+        return pathConstraints.with(assumption);
+    }
+
+    /**
+     * Returns the current program stack, where the last element is the top of the stack. The returned list is a view of
+     * the stack of this snapshot, as such, modifying it modifies this snapshot, but not its predecessors or successors.
+     *
+     * @return the current program stack
      */
     public List<Expression> getStack() {
-        return stack;
+        return new StackView();
+    }
+
+    /**
+     * {@return the number of conditions which were required without checking whether this snapshot is reachable}
+     */
+    public int getUncheckedConditions() {
+        return uncheckedConditions;
+    }
+
+    /**
+     * Adds the provided condition to the path condition of this snapshot, without checking whether this snapshot is
+     * still reachable. The reachability of this snapshot is instead checked by {@link #isFeasible()}.
+     *
+     * @param condition the condition.
+     */
+    public void requireUnchecked(Expression condition) {
+        require(condition);
+        uncheckedConditions++;
+    }
+
+    /**
+     * Checks whether this snapshot is reachable, if any condition was required without checking whether this snapshot
+     * is reachable.
+     *
+     * @return if this snapshot is reachable.
+     */
+    public boolean isFeasible() {
+        if (uncheckedConditions == 0) {
+            return true;
+        }
+        if (!(isReachable())) {
+            return false;
+        }
+        uncheckedConditions = 0;
+        return true;
     }
 
     /**
@@ -175,38 +482,144 @@ public class FlowSnapshot {
     }
 
     /**
-     * {@return if this snapshot is reachable}
+     * Returns whether this snapshot is reachable. Once decided, the result is kept until a constraint is added to this
+     * snapshot, as such, asking whether the same snapshot is reachable again does not query the solver.
+     * <p>
+     * A snapshot without constraints is reachable if and only if its predecessor is reachable, as such, the result is
+     * decided by the closest predecessor with constraints, and is kept by every snapshot in between. If the predecessor
+     * of that snapshot is known to be unreachable, the snapshot is unreachable without querying the solver.
+     *
+     * @return if this snapshot is reachable.
      */
     public Reachable getReachability() {
-        Solver solver = flow.getSolver().getSolver(this);
-        flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).increment();
-        Result result = solver.checkSat();
-        if (result.isSat()) {
-            return Reachable.REACHABLE;
+        Reachable reachability = this.reachability;
+        if (reachability != null) {
+            return reachability;
+        }
+        // Find the closest snapshot with constraints, without recursion, since a path might contain any number of
+        // snapshots.
+        List<FlowSnapshot> snapshots = new ArrayList<>();
+        FlowSnapshot snapshot = this;
+        while (snapshot.reachability == null && snapshot.getConstraints().isEmpty() && snapshot.predecessor != null) {
+            snapshots.add(snapshot);
+            snapshot = snapshot.predecessor;
+        }
+        reachability = snapshot.reachability;
+        if (reachability == null) {
+            if (snapshot.predecessor != null && snapshot.predecessor.reachability == NOT_REACHABLE) {
+                reachability = NOT_REACHABLE;
+            } else {
+                reachability = flow.getSolver().getReachability(snapshot);
+            }
+            if (reachability == UNKNOWN) {
+                return UNKNOWN;
+            }
+            snapshot.reachability = reachability;
+        }
+        for (FlowSnapshot successor : snapshots) {
+            successor.reachability = reachability;
+        }
+        return reachability;
+    }
+
+    /**
+     * Checks whether a successor of this snapshot which requires the provided expression is reachable, without creating
+     * the successor.
+     *
+     * @param assumption the expression required by the successor.
+     * @return if the successor is reachable.
+     */
+    public boolean isReachable(Expression assumption) {
+        return switch (getReachability(assumption)) {
+            case REACHABLE, UNKNOWN -> true;
+            case NOT_REACHABLE -> false;
+        };
+    }
+
+    /**
+     * Checks whether a successor of this snapshot which requires the provided expression is reachable, without creating
+     * the successor.
+     *
+     * @param assumption the expression required by the successor.
+     * @return if the successor is reachable.
+     */
+    public Reachable getReachability(Expression assumption) {
+        return flow.getSolver().getReachability(this, assumption);
+    }
+
+    /**
+     * Returns the fingerprint of the constraints of this snapshot and all of its predecessors. Snapshots with the same
+     * constraints have the same fingerprint, regardless of the order in which the constraints were added.
+     *
+     * @return the fingerprint of the constraints of this snapshot.
+     */
+    public Fingerprint getFingerprint() {
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+        // The fingerprint is computed from the closest predecessor with a fingerprint, without recursion, since a path
+        // might contain any number of snapshots.
+        Deque<FlowSnapshot> predecessors = new ArrayDeque<>();
+        FlowSnapshot snapshot = this;
+        while (snapshot != null && snapshot.fingerprint == null) {
+            predecessors.addFirst(snapshot);
+            snapshot = snapshot.predecessor;
         }
-        if (result.isUnsat()) {
-            return Reachable.NOT_REACHABLE;
+        Fingerprint fingerprint = snapshot != null ? snapshot.fingerprint : Fingerprint.EMPTY;
+        for (FlowSnapshot predecessor : predecessors) {
+            fingerprint = fingerprint.with(predecessor.getConstraints());
+            predecessor.fingerprint = fingerprint;
         }
-        return Reachable.UNKNOWN;
+        return fingerprint;
+    }
+
+    /**
+     * Checks whether the provided condition, or its negation, is implied by the constraints of this snapshot and all of
+     * its predecessors, without querying the solver. A condition is implied if it is equal to a constraint, or to an
+     * operand of a conjunction required as a constraint. The implied conditions are kept in a set which is shared with
+     * the predecessor of this snapshot, as such, the constraints of the predecessors are not visited.
+     *
+     * @param condition the condition.
+     * @return {@link Constraint#ALWAYS_TRUE} if the condition is implied, {@link Constraint#ALWAYS_FALSE} if its
+     * negation is implied, and {@link Constraint#UNKNOWN} otherwise.
+     */
+    public Constraint getImplication(Expression condition) {
+        if (implications.size() == 0) {
+            return Constraint.UNKNOWN;
+        }
+        if (implications.contains(condition)) {
+            return Constraint.ALWAYS_TRUE;
+        }
+        if (condition instanceof UnaryExpression expression && expression.getOperator() instanceof UnaryOperator.Not
+                && implications.contains(expression.getExpression())) {
+            return Constraint.ALWAYS_FALSE;
+        }
+        Expression negation = flow.getExpressionFactory().unary(new UnaryOperator.Not(), condition);
+        return implications.contains(negation) ? Constraint.ALWAYS_FALSE : Constraint.UNKNOWN;
     }
 
     /**
      * Attempts to compute the result of the provided expression.
+     * <p>
+     * If the expression, or its negation, is implied by the constraints of this snapshot, only this snapshot is checked.
      *
      * @param expression the expression to compute.
      * @return the result of the provided expression.
+     * @see #getImplication(Expression)
      */
     public Constraint compute(Expression expression) {
-        FlowSnapshot trueSnapshot = successorState();
-        trueSnapshot.require(expression);
-        Reachable trueReachability = trueSnapshot.getReachability();
-        if (trueReachability == UNKNOWN) {
-            return Constraint.UNKNOWN;
+        Reachable trueReachability;
+        Reachable falseReachability;
+        Constraint implication = getImplication(expression);
+        if (implication != Constraint.UNKNOWN) {
+            Reachable reachability = getReachability();
+            trueReachability = implication == Constraint.ALWAYS_TRUE ? reachability : NOT_REACHABLE;
+            falseReachability = implication == Constraint.ALWAYS_FALSE ? reachability : NOT_REACHABLE;
+        } else {
+            trueReachability = getReachability(expression);
+            falseReachability = trueReachability != UNKNOWN ? getReachability(flow.getExpressionFactory().unary(new UnaryOperator.Not(), expression)) : UNKNOWN;
         }
-        FlowSnapshot falseSnapshot = successorState();
-        falseSnapshot.require(new UnaryExpression(new UnaryOperator.Not(), expression));
-        Reachable falseReachability = falseSnapshot.getReachability();
-        if (falseReachability == UNKNOWN) {
+        if (trueReachability == UNKNOWN || falseReachability == UNKNOWN) {
             return Constraint.UNKNOWN;
         }
         if (trueReachability == REACHABLE && falseReachability == REACHABLE) {
@@ -227,7 +640,7 @@ public class FlowSnapshot {
      * @param expression the expression.
      */
     public void push(Expression expression) {
-        stack.addLast(expression);
+        stack = stack.push(expression);
     }
 
     /**
@@ -236,7 +649,18 @@ public class FlowSnapshot {
      * @return an expression.
      */
     public Expression pop() {
-        return stack.removeLast();
+        Expression expression = stack.peek();
+        stack = stack.pop();
+        return expression;
+    }
+
+    /**
+     * Returns the expression at the top of the stack, without removing it.
+     *
+     * @return an expression.
+     */
+    public Expression peek() {
+        return stack.peek();
     }
 
     /**
@@ -246,7 +670,7 @@ public class FlowSnapshot {
      * @param expression the expression
      */
     public void store(int variable, Expression expression) {
-        variables.put(variable, expression);
+        variables = variables.put(variable, expression);
     }
 
     /**
@@ -265,6 +689,91 @@ public class FlowSnapshot {
      * @param expression the expression.
      */
     public void require(Expression expression) {
-        constraints.add(expression);
+        if (constraints == null) {
+            constraints = new LinkedHashSet<>(2);
+        }
+        if (constraints.add(expression)) {
+            pathConstraints = pathConstraints.with(expression);
+            fingerprint = null;
+            reachability = null;
+            addImplications(expression);
+        }
+    }
+
+    /**
+     * Adds the provided constraint, and the operands of the constraint if it is a conjunction, or the operand of the
+     * constraint if it is a double negation, to the conditions implied by this snapshot.
+     *
+     * @param constraint the constraint.
+     */
+    private void addImplications(Expression constraint) {
+        Deque<Expression> queue = new ArrayDeque<>();
+        queue.add(constraint);
+        while (!(queue.isEmpty())) {
+            Expression condition = queue.removeLast();
+            implications = implications.with(condition);
+            if (condition instanceof BinaryExpression expression && expression.getOperator() == BinaryOperator.AND) {
+                queue.add(expression.getLeft());
+                queue.add(expression.getRight());
+            }
+            if (condition instanceof UnaryExpression expression && expression.getOperator() instanceof UnaryOperator.Not
+                    && expression.getExpression() instanceof UnaryExpression operand && operand.getOperator() instanceof UnaryOperator.Not) {
+                // If expressions are not simplified, the negation of a negation is not cancelled.
+                queue.add(operand.getExpression());
+            }
+        }
+    }
+
+    /**
+     * A view of the stack of this snapshot. Adding or removing the last element pushes or pops an expression, any other
+     * modification replaces the stack of this snapshot.
+     */
+    private final class StackView extends AbstractList<Expression> {
+
+        @Override
+        public Expression get(int index) {
+            return stack.get(index);
+        }
+
+        @Override
+        public int size() {
+            return stack.size();
+        }
+
+        @Override
+        public Expression set(int index, Expression expression) {
+            List<Expression> expressions = new ArrayList<>(stack.toList());
+            Expression previous = expressions.set(index, Objects.requireNonNull(expression));
+            stack = ExpressionStack.of(expressions);
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Expression expression) {
+            Objects.requireNonNull(expression);
+            if (index == stack.size()) {
+                stack = stack.push(expression);
+            } else {
+                List<Expression> expressions = new ArrayList<>(stack.toList());
+                expressions.add(index, expression);
+                stack = ExpressionStack.of(expressions);
+            }
+            modCount++;
+        }
+
+        @Override
+        public Expression remove(int index) {
+            Expression expression;
+            if (index == stack.size() - 1) {
+                expression = stack.peek();
+                stack = stack.pop();
+            } else {
+                List<Expression> expressions = new ArrayList<>(stack.toList());
+                expression = expressions.remove(index);
+                stack = ExpressionStack.of(expressions);
+            }
+            modCount++;
+            return expression;
+        }
     }
 }
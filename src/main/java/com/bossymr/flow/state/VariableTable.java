@@ -0,0 +1,130 @@
+package com.bossymr.flow.state;
+
+import com.bossymr.flow.expression.Expression;
+
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable table of variables.
+ * <p>
+ * A table is a trie where each node has 32 children, and where each level of the trie is indexed by 5 bits of the
+ * variable. As a result, storing a variable creates a new table which only copies the nodes along the path to the
+ * variable, and shares all other nodes with the original table.
+ */
+final class VariableTable {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    /**
+     * An empty table.
+     */
+    static final VariableTable EMPTY = new VariableTable(new Object[WIDTH], 0);
+
+    /**
+     * The root of this trie. Nodes at the lowest level contain expressions, and all other nodes contain other nodes.
+     */
+    private final Object[] root;
+
+    /**
+     * The number of bits used to index the root of this trie.
+     */
+    private final int shift;
+
+    private VariableTable(Object[] root, int shift) {
+        this.root = root;
+        this.shift = shift;
+    }
+
+    /**
+     * Returns the key of the specified variable. Variables might be negative, as such, variables are mapped to
+     * non-negative keys, so that variables close to zero are stored close to the root of the trie.
+     *
+     * @param variable the variable.
+     * @return the key.
+     */
+    private static int getKey(int variable) {
+        return (variable << 1) ^ (variable >> 31);
+    }
+
+    private static int getVariable(int key) {
+        return (key >>> 1) ^ -(key & 1);
+    }
+
+    /**
+     * Returns the expression stored in the specified variable.
+     *
+     * @param variable the variable.
+     * @return the expression, or {@code null} if the variable is not defined.
+     */
+    Expression get(int variable) {
+        int key = getKey(variable);
+        if (shift + BITS < Integer.SIZE && (key >>> (shift + BITS)) != 0) {
+            return null;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(key >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (Expression) node[key & MASK];
+    }
+
+    /**
+     * Returns a table where the provided expression is stored in the specified variable.
+     *
+     * @param variable the variable.
+     * @param expression the expression.
+     * @return a new table.
+     */
+    VariableTable put(int variable, Expression expression) {
+        int key = getKey(variable);
+        Object[] root = this.root;
+        int shift = this.shift;
+        while (shift + BITS < Integer.SIZE && (key >>> (shift + BITS)) != 0) {
+            Object[] parent = new Object[WIDTH];
+            parent[0] = root;
+            root = parent;
+            shift += BITS;
+        }
+        return new VariableTable(put(root, shift, key, expression), shift);
+    }
+
+    private static Object[] put(Object[] node, int level, int key, Expression expression) {
+        Object[] copy = node != null ? node.clone() : new Object[WIDTH];
+        if (level == 0) {
+            copy[key & MASK] = expression;
+        } else {
+            int index = (key >>> level) & MASK;
+            copy[index] = put((Object[]) copy[index], level - BITS, key, expression);
+        }
+        return copy;
+    }
+
+    /**
+     * Performs the provided action for every variable defined in this table.
+     *
+     * @param action the action.
+     */
+    void forEach(BiConsumer<Integer, Expression> action) {
+        forEach(root, shift, 0, action);
+    }
+
+    private static void forEach(Object[] node, int level, int prefix, BiConsumer<Integer, Expression> action) {
+        for (int i = 0; i < WIDTH; i++) {
+            Object child = node[i];
+            if (child == null) {
+                continue;
+            }
+            int key = prefix | (i << level);
+            if (level == 0) {
+                action.accept(getVariable(key), (Expression) child);
+            } else {
+                forEach((Object[]) child, level - BITS, key, action);
+            }
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package com.bossymr.flow.type;
 
-import io.github.cvc5.Sort;
-import io.github.cvc5.TermManager;
-
 import java.util.Objects;
 
 /**
@@ -12,8 +9,6 @@ public final class ArrayType implements ValueType {
 
     private final ValueType elementType;
 
-    private Sort sort;
-
     /**
      * Create a new {@code ArrayType}.
      * @param elementType the element type.
@@ -35,15 +30,6 @@ public final class ArrayType implements ValueType {
         return true;
     }
 
-    @Override
-    public Sort getSort(TermManager manager) {
-        if (sort == null) {
-            Sort integerSort = ValueType.integerType().getSort(manager);
-            sort = manager.mkArraySort(integerSort, elementType.getSort(manager));
-        }
-        return sort;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -1,8 +1,5 @@
 package com.bossymr.flow.type;
 
-import io.github.cvc5.Sort;
-import io.github.cvc5.TermManager;
-
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -14,8 +11,6 @@ public final class StructureType implements ValueType {
 
     private final List<ValueType> values;
 
-    private Sort sort;
-
     /**
      * Create a new {@code StructureType}.
      *
@@ -46,17 +41,6 @@ public final class StructureType implements ValueType {
         return true;
     }
 
-    @Override
-    public Sort getSort(TermManager manager) {
-        if (sort == null) {
-            Sort[] sorts = values.stream()
-                    .map(value -> value.getSort(manager))
-                    .toArray(Sort[]::new);
-            sort = manager.mkTupleSort(sorts);
-        }
-        return sort;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -1,8 +1,5 @@
 package com.bossymr.flow.type;
 
-import io.github.cvc5.Sort;
-import io.github.cvc5.TermManager;
-
 /**
  * A {@code ValueType} represents the type of an expression or value.
  */
@@ -88,6 +85,4 @@ public sealed interface ValueType permits ArrayType, PrimitiveType, StructureTyp
     default ArrayType createArrayType() {
         return new ArrayType(this);
     }
-
-    Sort getSort(TermManager manager);
 }
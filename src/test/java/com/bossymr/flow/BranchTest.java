@@ -1,11 +1,30 @@
 package com.bossymr.flow;
 
 import com.bossymr.flow.constraint.Constraint;
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.constraint.Reachable;
+import com.bossymr.flow.constraint.SolverBackend;
+import com.bossymr.flow.constraint.SolverLimit;
+import com.bossymr.flow.constraint.SolverSession;
+import com.bossymr.flow.constraint.linear.LinearBackend;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.ConditionalExpression;
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.instruction.AssertInstruction;
+import com.bossymr.flow.instruction.Instruction;
 import com.bossymr.flow.instruction.Label;
+import com.bossymr.flow.state.FlowSnapshot;
 import com.bossymr.flow.type.ValueType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 class BranchTest {
 
     @DisplayName("Assert condition is true/false in then/else clause")
@@ -92,4 +111,223 @@ class BranchTest {
                 .returnValue());
         System.out.println(flow.getStatistics());
     }
+
+    @DisplayName("Assert snapshots are merged after each if-statement")
+    @Test
+    void mergeSequentialIfStatements() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withMerging(true));
+        int counter = 3;
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.integerType(), ValueType.booleanType(), ValueType.booleanType(), ValueType.booleanType()), codeBuilder -> {
+            codeBuilder.pushInteger(0).store(counter);
+            for (int i = 0; i < 3; i++) {
+                codeBuilder.load(i)
+                        .ifThenElse(thenBuilder -> thenBuilder.load(counter).pushInteger(1).add().store(counter),
+                                elseBuilder -> elseBuilder.load(counter).pushInteger(2).add().store(counter));
+            }
+            codeBuilder.load(counter).returnValue();
+        });
+        assertEquals(1, method.getExitPoints().size());
+        System.out.println(flow.getStatistics());
+    }
+
+    @DisplayName("Assert variables defined by one side of a merged if-statement are kept")
+    @Test
+    void mergeVariableDefinedOnOneSide() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withMerging(true));
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.integerType(), ValueType.booleanType()), codeBuilder -> codeBuilder
+                .load(0)
+                .ifThen(thenBuilder -> thenBuilder.pushInteger(1).store(1))
+                .pushInteger(0)
+                .returnValue());
+        assertEquals(1, method.getExitPoints().size());
+        FlowSnapshot exitPoint = method.getExitPoints().getFirst();
+        ConditionalExpression value = assertInstanceOf(ConditionalExpression.class, exitPoint.load(1));
+        // The value is unconstrained on the path which did not define the variable.
+        List<Expression> values = List.of(value.getThenExpression(), value.getElseExpression());
+        assertTrue(values.contains(LiteralExpression.integerLiteral(1)));
+        assertTrue(values.stream().anyMatch(AnyExpression.class::isInstance));
+    }
+
+    @DisplayName("Assert paths explored in parallel reach the same exit points")
+    @Test
+    void parallelSequentialIfStatements() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withParallelism(4));
+        int counter = 3;
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.integerType(), ValueType.booleanType(), ValueType.booleanType(), ValueType.booleanType()), codeBuilder -> {
+            codeBuilder.pushInteger(0).store(counter);
+            for (int i = 0; i < 3; i++) {
+                codeBuilder.load(i)
+                        .ifThenElse(thenBuilder -> thenBuilder.load(counter).pushInteger(1).add().store(counter),
+                                elseBuilder -> elseBuilder.load(counter).pushInteger(2).add().store(counter));
+            }
+            codeBuilder.load(counter).returnValue();
+        });
+        assertEquals(8, method.getExitPoints().size());
+        System.out.println(flow.getStatistics());
+    }
+
+    @DisplayName("Assert closing the analyzer shuts down its pools and closes its solvers")
+    @Test
+    void closeAnalyzer() {
+        AtomicInteger sessions = new AtomicInteger();
+        SolverBackend linear = new LinearBackend();
+        SolverBackend backend = new SolverBackend() {
+            @Override
+            public String getName() {
+                return linear.getName();
+            }
+
+            @Override
+            public boolean isAvailable() {
+                return true;
+            }
+
+            @Override
+            public boolean supports(Logic logic) {
+                return linear.supports(logic);
+            }
+
+            @Override
+            public SolverSession createSession(Logic logic) {
+                sessions.incrementAndGet();
+                SolverSession session = linear.createSession(logic);
+                return new SolverSession() {
+                    @Override
+                    public void push() {
+                        session.push();
+                    }
+
+                    @Override
+                    public void pop() {
+                        session.pop();
+                    }
+
+                    @Override
+                    public void assertFormula(Expression constraint) {
+                        session.assertFormula(constraint);
+                    }
+
+                    @Override
+                    public Reachable checkSat(List<Expression> assumptions) {
+                        return session.checkSat(assumptions);
+                    }
+
+                    @Override
+                    public Object getValue(AnyExpression variable) {
+                        return session.getValue(variable);
+                    }
+
+                    @Override
+                    public void setLimit(SolverLimit limit) {
+                        session.setLimit(limit);
+                    }
+
+                    @Override
+                    public void close() {
+                        sessions.decrementAndGet();
+                    }
+                };
+            }
+        };
+        Flow flow = new Flow(FlowOptions.defaultOptions()
+                .withParallelism(4)
+                .withMethodParallelism(2)
+                .withPresolving(false)
+                .withSolverBackends(List.of(backend)));
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .duplicate()
+                .store(0)
+                .pushInteger(0)
+                .greaterThan()
+                .ifThen(thenBuilder -> thenBuilder.pushInteger(1).store(0))
+                .load(0)
+                .returnValue());
+        assertEquals(2, method.getExitPoints().size());
+        ForkJoinPool pool = flow.getPool(4);
+        assertTrue(sessions.get() > 0);
+        flow.close();
+        assertTrue(pool.isTerminated());
+        assertEquals(0, sessions.get());
+        assertThrows(IllegalStateException.class, flow::getSolver);
+    }
+
+    @DisplayName("Assert unreachable paths are abandoned once their reachability is checked lazily")
+    @Test
+    void lazyFeasibility() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withLazyFeasibility(true));
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .duplicate()
+                .store(0)
+                .pushInteger(0)
+                .greaterThan()
+                .ifThen(thenBuilder -> thenBuilder
+                        .load(0)
+                        .duplicate()
+                        .store(0)
+                        .pushInteger(0)
+                        .lessThan()
+                        // This doesn't throw an exception because the path is abandoned before the assertion.
+                        .ifThen(innerBuilder -> innerBuilder.pushBoolean(false).debugAssert()))
+                .load(0)
+                .returnValue());
+        assertEquals(2, method.getExitPoints().size());
+        assertEquals(2, flow.getStatistics().get(Flow.Statistic.DeferredBranches).sum());
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.PrunedPaths).sum());
+        System.out.println(flow.getStatistics());
+    }
+
+    @DisplayName("Assert snapshots on unreachable paths are not returned if reachability is checked lazily")
+    @Test
+    void lazyFeasibilitySnapshots() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withLazyFeasibility(true));
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .duplicate()
+                .store(0)
+                .pushInteger(0)
+                .greaterThan()
+                .ifThen(thenBuilder -> thenBuilder
+                        .load(0)
+                        .duplicate()
+                        .store(0)
+                        .pushInteger(0)
+                        .lessThan()
+                        .ifThen(innerBuilder -> innerBuilder.pushBoolean(false).debugAssert()))
+                .load(0)
+                .returnValue());
+        List<Instruction> instructions = method.getInstructions();
+        Instruction instruction = instructions.get(instructions.indexOf(instructions.stream()
+                .filter(AssertInstruction.class::isInstance)
+                .findFirst()
+                .orElseThrow()) - 1);
+        assertEquals(List.of(), method.beforeInstruction(instruction));
+        assertEquals(List.of(), method.afterInstruction(instruction));
+        assertEquals(2, method.beforeInstruction(instructions.getLast()).size());
+    }
+
+    @DisplayName("Assert branch on required condition is not checked")
+    @Test
+    void impliedCondition() {
+        Flow flow = new Flow();
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .duplicate()
+                .store(0)
+                .pushInteger(0)
+                .greaterThan()
+                .ifThen(thenBuilder -> thenBuilder
+                        .load(0)
+                        .duplicate()
+                        .store(0)
+                        .pushInteger(0)
+                        .greaterThan()
+                        .ifThenElse(innerBuilder -> innerBuilder.pushInteger(1).store(0),
+                                innerBuilder -> innerBuilder.pushBoolean(false).debugAssert()))
+                .load(0)
+                .returnValue());
+        assertEquals(2, method.getExitPoints().size());
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.ImpliedBranches).sum());
+    }
 }
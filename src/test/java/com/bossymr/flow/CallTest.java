@@ -1,9 +1,17 @@
 package com.bossymr.flow;
 
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.state.FlowSnapshot;
 import com.bossymr.flow.type.ValueType;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 class CallTest {
 
     @Test
@@ -54,4 +62,111 @@ class CallTest {
                 .returnValue()));
     }
 
+    @DisplayName("Assert path condition of callee is required by caller")
+    @Test
+    void functionCallWithBranches() {
+        Flow flow = new Flow();
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .pushInteger(0)
+                .greaterThan()
+                .ifThenElse(thenBuilder -> thenBuilder.pushInteger(1),
+                        elseBuilder -> elseBuilder.pushInteger(2))
+                .returnValue());
+        Assertions.assertEquals(2, method.getSummary().getEntries().size());
+        flow.createMethod("bar", new Signature(ValueType.emptyType()), codeBuilder -> codeBuilder
+                .pushInteger(5)
+                .call(method)
+                .pushInteger(1)
+                .equalTo()
+                .debugAssert()
+                .returnValue());
+    }
+
+    @DisplayName("Assert merged summary has a single entry")
+    @Test
+    void mergedSummary() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withMergingSummaries(true).withPresolving(true).withSimplifying(true));
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .pushInteger(0)
+                .greaterThan()
+                .ifThenElse(thenBuilder -> thenBuilder.pushInteger(1),
+                        elseBuilder -> elseBuilder.pushInteger(2))
+                .returnValue());
+        Assertions.assertEquals(1, method.getSummary().getEntries().size());
+        long queries = flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).sum();
+        flow.createMethod("bar", new Signature(ValueType.emptyType()), codeBuilder -> codeBuilder
+                .pushInteger(-5)
+                .call(method)
+                .pushInteger(2)
+                .equalTo()
+                .debugAssert()
+                .returnValue());
+        // The arguments are literals, as such, the summary is instantiated without a query.
+        Assertions.assertEquals(queries, flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).sum());
+    }
+
+    @DisplayName("Assert each exit point of an entry is returned")
+    @Test
+    void sharedReturnValue() {
+        Flow flow = new Flow();
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .pushInteger(0)
+                .greaterThan()
+                .ifThen(thenBuilder -> thenBuilder.pushInteger(1).returnValue())
+                .pushInteger(1)
+                .returnValue());
+        Assertions.assertEquals(2, method.getExitPoints().size());
+        Assertions.assertEquals(1, method.getSummary().getEntries().size());
+        FlowSnapshot caller = FlowSnapshot.emptyState(flow);
+        caller.push(new AnyExpression(ValueType.integerType()));
+        List<FlowSnapshot> exitPoints = method.getExitPoints(caller);
+        Assertions.assertEquals(Set.copyOf(method.getExitPoints()), exitPoints.stream()
+                .map(FlowSnapshot::getWeakPredecessor)
+                .collect(Collectors.toSet()));
+        for (FlowSnapshot exitPoint : exitPoints) {
+            Assertions.assertEquals(LiteralExpression.integerLiteral(1), exitPoint.peek());
+        }
+    }
+
+    @DisplayName("Assert methods are analyzed in the background after their callees")
+    @Test
+    void analyzeInBackground() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withMethodParallelism(4));
+        Flow.Method first = flow.createMethod("first", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .pushInteger(1)
+                .add()
+                .returnValue());
+        Flow.Method second = flow.createMethod("second", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .pushInteger(0)
+                .greaterThan()
+                .ifThenElse(thenBuilder -> thenBuilder.pushInteger(1),
+                        elseBuilder -> elseBuilder.pushInteger(2))
+                .returnValue());
+        Flow.Method caller = flow.createMethod("caller", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .duplicate()
+                .store(0)
+                .call(first)
+                .load(0)
+                .call(second)
+                .add()
+                .returnValue());
+        Assertions.assertEquals(List.of(first, second), caller.getCallees());
+        Assertions.assertEquals(2, caller.getExitPoints().size());
+        Assertions.assertTrue(first.isAnalyzed());
+        Assertions.assertTrue(second.isAnalyzed());
+        Flow.Method failing = flow.createMethod("failing", new Signature(ValueType.emptyType()), codeBuilder -> codeBuilder
+                .pushInteger(1)
+                .call(first)
+                .pushInteger(3)
+                .equalTo()
+                .debugAssert()
+                .returnValue());
+        Assertions.assertThrows(AssertionError.class, failing::await);
+    }
 }
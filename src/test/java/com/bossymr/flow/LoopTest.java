@@ -5,6 +5,11 @@ import com.bossymr.flow.type.ValueType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
 class LoopTest {
 
     @DisplayName("Increment a counter by 1 for 100 iterations")
@@ -48,4 +53,32 @@ class LoopTest {
         System.out.println(flow.getStatistics());
     }
 
+    @DisplayName("Abandon a loop over a symbolic bound after 10 iterations")
+    @Test
+    void symbolicForLoopExceedsBudget() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withMaxLoopVisits(10));
+        int bound = 0;
+        int iterator = 1;
+        Flow.Method method = flow.createMethod("foo", new Signature(ValueType.emptyType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .pushInteger(0)
+                .store(iterator)
+                .loop((breakLabel, loopBuilder) -> loopBuilder
+                        .load(iterator)
+                        .duplicate()
+                        .store(iterator)
+                        .load(bound)
+                        .lessThan()
+                        .ifThenElse(thenBuilder -> thenBuilder
+                                        .load(iterator)
+                                        .pushInteger(1)
+                                        .add()
+                                        .store(iterator),
+                                elseBuilder -> elseBuilder
+                                        .jump(breakLabel)))
+                .returnValue());
+        assertFalse(method.isComplete());
+        assertEquals(Set.of(Budget.LOOP_VISITS), method.getExceededBudgets());
+        assertEquals(10, method.getExitPoints().size());
+        System.out.println(flow.getStatistics());
+    }
 }
@@ -0,0 +1,64 @@
+package com.bossymr.flow;
+
+import com.bossymr.flow.instruction.Instruction;
+import com.bossymr.flow.instruction.PushInstruction;
+import com.bossymr.flow.state.FlowSnapshot;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotIndexTest {
+
+    private static Flow.Method createMethod(Flow flow) {
+        return flow.createMethod("abs", new Signature(ValueType.integerType(), ValueType.integerType()), codeBuilder -> codeBuilder
+                .load(0)
+                .duplicate()
+                .store(0)
+                .pushInteger(0)
+                .lessThan()
+                .ifThen(thenBuilder -> thenBuilder
+                        .load(0)
+                        .negate()
+                        .store(0))
+                .load(0)
+                .returnValue());
+    }
+
+    @DisplayName("Assert snapshots before and after each instruction are found")
+    @Test
+    void findSnapshots() {
+        Flow flow = new Flow();
+        Flow.Method method = createMethod(flow);
+        List<Instruction> instructions = method.getInstructions();
+        List<FlowSnapshot> entry = method.beforeInstruction(instructions.getFirst());
+        assertEquals(1, entry.size());
+        assertTrue(entry.getFirst().getStack().isEmpty());
+        List<FlowSnapshot> successors = method.afterInstruction(instructions.getFirst());
+        assertEquals(1, successors.size());
+        assertSame(instructions.get(1), successors.getFirst().getInstruction());
+        List<FlowSnapshot> exit = method.beforeInstruction(instructions.getLast());
+        assertEquals(2, exit.size());
+        for (FlowSnapshot snapshot : exit) {
+            assertEquals(ValueType.integerType(), snapshot.peek().getType());
+        }
+        assertEquals(List.of(), method.afterInstruction(instructions.getLast()));
+        assertEquals(List.of(), method.beforeInstruction(new PushInstruction(new Constant.Integer(0))));
+    }
+
+    @DisplayName("Assert snapshots can no longer be found once released")
+    @Test
+    void releaseSnapshots() {
+        Flow flow = new Flow();
+        Flow.Method method = createMethod(flow);
+        Instruction instruction = method.getInstructions().getLast();
+        assertEquals(2, method.beforeInstruction(instruction).size());
+        method.release();
+        assertThrows(IllegalStateException.class, () -> method.beforeInstruction(instruction));
+        assertThrows(IllegalStateException.class, () -> method.afterInstruction(instruction));
+        assertEquals(2, method.getExitPoints().size());
+    }
+}
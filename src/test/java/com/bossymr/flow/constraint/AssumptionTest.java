@@ -0,0 +1,57 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.Flow;
+import com.bossymr.flow.FlowOptions;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.BinaryExpression;
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.state.FlowSnapshot;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AssumptionTest {
+
+    private static Flow createFlow() {
+        return new Flow(FlowOptions.defaultOptions()
+                .withPresolving(false)
+                .withQueryCacheSize(0)
+                .withModelCacheSize(0)
+                .withConflictStoreSize(0));
+    }
+
+    @DisplayName("Assert both sides of a decision are checked as assumptions without creating snapshots")
+    @Test
+    void computeWithAssumptions() {
+        Flow flow = createFlow();
+        Expression x = new AnyExpression(ValueType.integerType());
+        FlowSnapshot predecessor = FlowSnapshot.emptyState(flow);
+        predecessor.require(new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(0)));
+        FlowSnapshot snapshot = predecessor.successorState();
+        snapshot.require(new BinaryExpression(BinaryOperator.LESS_THAN, x, LiteralExpression.integerLiteral(10)));
+        long snapshots = flow.getStatistics().get(Flow.Statistic.Snapshots).sum();
+        assertEquals(Constraint.ANY_VALUE, snapshot.compute(new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(5))));
+        assertEquals(Constraint.ALWAYS_FALSE, snapshot.compute(new BinaryExpression(BinaryOperator.LESS_THAN, x, LiteralExpression.integerLiteral(0))));
+        assertEquals(snapshots, flow.getStatistics().get(Flow.Statistic.Snapshots).sum());
+        assertEquals(4, flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).sum());
+        // The solver enters the predecessor once, and every query is performed from the same position.
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.SatisfiabilityPush).sum());
+        assertEquals(0, flow.getStatistics().get(Flow.Statistic.SatisfiabilityPop).sum());
+    }
+
+    @DisplayName("Assert assumption is not kept by the solver after a query")
+    @Test
+    void discardAssumption() {
+        Flow flow = createFlow();
+        Expression x = new AnyExpression(ValueType.integerType());
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        snapshot.require(new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(0)));
+        assertEquals(Reachable.NOT_REACHABLE, snapshot.getReachability(new BinaryExpression(BinaryOperator.LESS_THAN, x, LiteralExpression.integerLiteral(0))));
+        assertEquals(Reachable.REACHABLE, snapshot.getReachability());
+        assertEquals(Reachable.REACHABLE, snapshot.getReachability(new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(1))));
+    }
+}
@@ -0,0 +1,83 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.Flow;
+import com.bossymr.flow.FlowOptions;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.BinaryExpression;
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.state.FlowSnapshot;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictStoreTest {
+
+    @DisplayName("Assert constraints which contain a conflict are found")
+    @Test
+    void findContainedConflict() {
+        ConflictStore store = new ConflictStore(4);
+        Expression x = new AnyExpression(ValueType.booleanType());
+        Expression y = new AnyExpression(ValueType.booleanType());
+        Expression z = new AnyExpression(ValueType.booleanType());
+        store.add(List.of(x, y));
+        assertEquals(Set.of(x, y), store.find(List.of(z, y, x)));
+        assertNull(store.find(List.of(x, z)));
+        assertNull(store.find(List.of()));
+    }
+
+    @DisplayName("Assert least recently used conflict is evicted")
+    @Test
+    void evictLeastRecentlyUsed() {
+        ConflictStore store = new ConflictStore(2);
+        Expression x = new AnyExpression(ValueType.booleanType());
+        Expression y = new AnyExpression(ValueType.booleanType());
+        Expression z = new AnyExpression(ValueType.booleanType());
+        store.add(List.of(x));
+        store.add(List.of(y));
+        assertNotNull(store.find(List.of(x)));
+        store.add(List.of(z));
+        assertEquals(2, store.size());
+        assertNull(store.find(List.of(y)));
+        assertNotNull(store.find(List.of(x)));
+        assertNotNull(store.find(List.of(z)));
+    }
+
+    @DisplayName("Assert snapshot which contains a learned conflict is not checked by a solver")
+    @Test
+    void rejectLearnedConflict() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withQueryCacheSize(0).withModelCacheSize(0).withConflictStoreSize(1024));
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        snapshot.require(new BinaryExpression(BinaryOperator.LESS_THAN, x, y));
+        snapshot.require(new BinaryExpression(BinaryOperator.LESS_THAN, y, x));
+        assertEquals(Reachable.NOT_REACHABLE, flow.getSolver().getReachability(snapshot));
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.LearnedConflicts).sum());
+        long queries = flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).sum();
+        FlowSnapshot successor = snapshot.successorState();
+        successor.require(new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(0)));
+        assertEquals(Reachable.NOT_REACHABLE, flow.getSolver().getReachability(successor));
+        assertEquals(queries, flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).sum());
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.ConflictStoreHits).sum());
+    }
+
+    @DisplayName("Assert conflicts are not learned by default")
+    @Test
+    void ignoreConflictsByDefault() {
+        Flow flow = new Flow();
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        snapshot.require(new BinaryExpression(BinaryOperator.LESS_THAN, x, y));
+        snapshot.require(new BinaryExpression(BinaryOperator.LESS_THAN, y, x));
+        assertEquals(Reachable.NOT_REACHABLE, flow.getSolver().getReachability(snapshot));
+        assertEquals(0, flow.getStatistics().get(Flow.Statistic.LearnedConflicts).sum());
+    }
+}
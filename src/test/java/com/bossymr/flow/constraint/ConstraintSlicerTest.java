@@ -0,0 +1,34 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.BinaryExpression;
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConstraintSlicerTest {
+
+    @DisplayName("Assert constraints are grouped by shared variables")
+    @Test
+    void sliceBySharedVariables() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        Expression z = new AnyExpression(ValueType.integerType());
+        Expression zero = LiteralExpression.integerLiteral(0);
+        Expression first = new BinaryExpression(BinaryOperator.GREATER_THAN, x, zero);
+        Expression second = new BinaryExpression(BinaryOperator.GREATER_THAN, z, zero);
+        Expression third = new BinaryExpression(BinaryOperator.LESS_THAN, x, y);
+        Expression fourth = new BinaryExpression(BinaryOperator.EQUAL_TO, zero, zero);
+        Expression fifth = new BinaryExpression(BinaryOperator.LESS_THAN, y, zero);
+        List<List<Expression>> groups = ConstraintSlicer.slice(List.of(first, second, third, fourth, fifth), Set.of(second));
+        assertEquals(List.of(List.of(second), List.of(first, third, fifth), List.of(fourth)), groups);
+    }
+}
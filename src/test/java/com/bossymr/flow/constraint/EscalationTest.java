@@ -0,0 +1,158 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.Flow;
+import com.bossymr.flow.FlowOptions;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.BinaryExpression;
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.state.FlowSnapshot;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EscalationTest {
+
+    private static final List<SolverLimit> LIMITS = List.of(SolverLimit.ofResources(1), SolverLimit.ofResources(10), SolverLimit.ofResources(100));
+
+    /**
+     * A backend which only decides a query if the query is allowed at least a number of resource units.
+     */
+    private static final class ThresholdBackend implements SolverBackend {
+
+        private final long threshold;
+
+        /**
+         * The limit of the last query which was decided, or {@code null} if no query has been decided.
+         */
+        private SolverLimit decidedLimit;
+
+        private ThresholdBackend(long threshold) {
+            this.threshold = threshold;
+        }
+
+        @Override
+        public String getName() {
+            return "threshold";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean supports(Logic logic) {
+            return true;
+        }
+
+        @Override
+        public SolverSession createSession(Logic logic) {
+            return new SolverSession() {
+
+                private SolverLimit limit = SolverLimit.UNLIMITED;
+
+                @Override
+                public void push() {}
+
+                @Override
+                public void pop() {}
+
+                @Override
+                public void assertFormula(Expression constraint) {}
+
+                @Override
+                public Reachable checkSat(List<Expression> assumptions) {
+                    if (limit.resources() < threshold) {
+                        return Reachable.UNKNOWN;
+                    }
+                    decidedLimit = limit;
+                    return Reachable.REACHABLE;
+                }
+
+                @Override
+                public Object getValue(AnyExpression variable) {
+                    return null;
+                }
+
+                @Override
+                public void setLimit(SolverLimit limit) {
+                    this.limit = limit;
+                }
+            };
+        }
+    }
+
+    private static Flow createFlow(SolverBackend backend) {
+        return new Flow(FlowOptions.defaultOptions()
+                .withPresolving(false)
+                .withQueryCacheSize(0)
+                .withModelCacheSize(0)
+                .withSolverBackends(List.of(backend))
+                .withSolverLimits(LIMITS));
+    }
+
+    private static Reachable check(Flow flow) {
+        Expression x = new AnyExpression(ValueType.integerType());
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        snapshot.require(new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(0)));
+        return snapshot.getReachability();
+    }
+
+    private static long get(Flow flow, int tier, Flow.TierStatistic statistic) {
+        EnumMap<Flow.TierStatistic, LongAdder> statistics = flow.getTierStatistics().get(tier);
+        return statistics.get(statistic).sum();
+    }
+
+    @DisplayName("Assert unknown query is escalated until a limit decides it")
+    @Test
+    void escalateUntilDecided() {
+        ThresholdBackend backend = new ThresholdBackend(10);
+        Flow flow = createFlow(backend);
+        assertEquals(Reachable.REACHABLE, check(flow));
+        assertEquals(LIMITS.get(1), backend.decidedLimit);
+        assertEquals(LIMITS.size(), flow.getTierStatistics().size());
+        assertEquals(1, get(flow, 0, Flow.TierStatistic.Queries));
+        assertEquals(1, get(flow, 0, Flow.TierStatistic.Unknown));
+        assertEquals(1, get(flow, 1, Flow.TierStatistic.Queries));
+        assertEquals(0, get(flow, 1, Flow.TierStatistic.Unknown));
+        assertEquals(0, get(flow, 2, Flow.TierStatistic.Queries));
+        assertEquals(0, get(flow, 2, Flow.TierStatistic.Nanoseconds));
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.EscalatedQueries).sum());
+        assertEquals(2, flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).sum());
+    }
+
+    @DisplayName("Assert query is decided by the first limit without escalation")
+    @Test
+    void decideWithFirstLimit() {
+        ThresholdBackend backend = new ThresholdBackend(1);
+        Flow flow = createFlow(backend);
+        assertEquals(Reachable.REACHABLE, check(flow));
+        assertEquals(LIMITS.getFirst(), backend.decidedLimit);
+        assertEquals(1, get(flow, 0, Flow.TierStatistic.Queries));
+        assertEquals(0, get(flow, 0, Flow.TierStatistic.Unknown));
+        assertEquals(0, get(flow, 1, Flow.TierStatistic.Queries));
+        assertEquals(0, flow.getStatistics().get(Flow.Statistic.EscalatedQueries).sum());
+    }
+
+    @DisplayName("Assert query is unknown if it exceeds every limit")
+    @Test
+    void exceedEveryLimit() {
+        ThresholdBackend backend = new ThresholdBackend(1000);
+        Flow flow = createFlow(backend);
+        assertEquals(Reachable.UNKNOWN, check(flow));
+        assertNull(backend.decidedLimit);
+        for (int i = 0; i < LIMITS.size(); i++) {
+            assertEquals(1, get(flow, i, Flow.TierStatistic.Queries));
+            assertEquals(1, get(flow, i, Flow.TierStatistic.Unknown));
+        }
+        assertEquals(LIMITS.size() - 1, flow.getStatistics().get(Flow.Statistic.EscalatedQueries).sum());
+    }
+}
@@ -0,0 +1,112 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.Flow;
+import com.bossymr.flow.FlowOptions;
+import com.bossymr.flow.constraint.linear.LinearBackend;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.state.FlowSnapshot;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogicTest {
+
+    /**
+     * A backend which records the logic of each session it creates, and never decides a query.
+     */
+    private static final class LogicBackend implements SolverBackend {
+
+        private final List<Logic> logics = new ArrayList<>();
+
+        @Override
+        public String getName() {
+            return "logic";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean supports(Logic logic) {
+            return true;
+        }
+
+        @Override
+        public SolverSession createSession(Logic logic) {
+            logics.add(logic);
+            return new SolverSession() {
+                @Override
+                public void push() {}
+
+                @Override
+                public void pop() {}
+
+                @Override
+                public void assertFormula(Expression constraint) {}
+
+                @Override
+                public Reachable checkSat(List<Expression> assumptions) {
+                    return Reachable.UNKNOWN;
+                }
+
+                @Override
+                public Object getValue(AnyExpression variable) {
+                    return null;
+                }
+
+                @Override
+                public void setLimit(SolverLimit limit) {}
+            };
+        }
+    }
+
+    private static Reachable check(Flow flow) {
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        snapshot.require(new BinaryExpression(BinaryOperator.GREATER_THAN, new AnyExpression(ValueType.integerType()), LiteralExpression.integerLiteral(0)));
+        return snapshot.getReachability();
+    }
+
+    @DisplayName("Assert narrowest logic is selected")
+    @Test
+    void selectNarrowestLogic() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        Expression r = new AnyExpression(ValueType.realType());
+        Expression two = LiteralExpression.integerLiteral(2);
+        Expression linear = new BinaryExpression(BinaryOperator.GREATER_THAN, new BinaryExpression(BinaryOperator.MULTIPLY, x, two), y);
+        Expression nonlinear = new BinaryExpression(BinaryOperator.GREATER_THAN, new BinaryExpression(BinaryOperator.MULTIPLY, x, y), two);
+        Expression modulo = new BinaryExpression(BinaryOperator.EQUAL_TO, new BinaryExpression(BinaryOperator.MODULO, x, two), y);
+        Expression real = new BinaryExpression(BinaryOperator.LESS_THAN, r, LiteralExpression.numericLiteral(1, 2));
+        Expression converted = new BinaryExpression(BinaryOperator.LESS_THAN, new UnaryExpression(new UnaryOperator.Convert(ValueType.integerType(), ValueType.realType()), x), r);
+        Expression string = new BinaryExpression(BinaryOperator.EQUAL_TO, new AnyExpression(ValueType.stringType()), LiteralExpression.stringLiteral("a"));
+        assertEquals(Logic.QF_LIA, Logic.of(List.of(linear, modulo), new HashMap<>()));
+        assertEquals(Logic.QF_NIA, Logic.of(List.of(linear, nonlinear), new HashMap<>()));
+        assertEquals(Logic.QF_LRA, Logic.of(List.of(real), new HashMap<>()));
+        assertEquals(Logic.QF_LIRA, Logic.of(List.of(real, converted), new HashMap<>()));
+        assertEquals(Logic.QF_SLIA, Logic.of(List.of(string, linear), new HashMap<>()));
+        assertEquals(Logic.ALL, Logic.of(List.of(string, real), new HashMap<>()));
+        assertEquals(Logic.QF_LIA, Logic.of(List.of(), new HashMap<>()));
+    }
+
+    @DisplayName("Assert logic of each query is only selected if enabled, or if no backend supports all theories")
+    @Test
+    void selectLogicIfEnabled() {
+        LogicBackend backend = new LogicBackend();
+        check(new Flow(FlowOptions.defaultOptions().withPresolving(false).withSolverBackends(List.of(backend))));
+        assertEquals(List.of(Logic.ALL), backend.logics);
+        backend.logics.clear();
+        check(new Flow(FlowOptions.defaultOptions().withPresolving(false).withSelectingLogic(true).withSolverBackends(List.of(backend))));
+        assertEquals(List.of(Logic.QF_LIA), backend.logics);
+        assertEquals(Reachable.REACHABLE, check(new Flow(FlowOptions.defaultOptions().withPresolving(false).withSolverBackends(List.of(new LinearBackend())))));
+    }
+}
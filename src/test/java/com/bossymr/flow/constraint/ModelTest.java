@@ -0,0 +1,86 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.Flow;
+import com.bossymr.flow.FlowOptions;
+import com.bossymr.flow.Rational;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.state.FlowSnapshot;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelTest {
+
+    @DisplayName("Assert model evaluates arithmetic with solver semantics")
+    @Test
+    void evaluateArithmetic() {
+        AnyExpression x = new AnyExpression(ValueType.integerType());
+        Model model = new Model(Map.of(x, BigInteger.valueOf(-7)));
+        assertEquals(BigInteger.valueOf(2), model.evaluate(new BinaryExpression(BinaryOperator.MODULO, x, LiteralExpression.integerLiteral(3))));
+        assertEquals(BigInteger.valueOf(2), model.evaluate(new BinaryExpression(BinaryOperator.MODULO, x, LiteralExpression.integerLiteral(-3))));
+        assertNull(model.evaluate(new BinaryExpression(BinaryOperator.MODULO, x, LiteralExpression.integerLiteral(0))));
+        Expression real = new UnaryExpression(new UnaryOperator.Convert(ValueType.integerType(), ValueType.realType()), x);
+        Expression half = new BinaryExpression(BinaryOperator.DIVIDE, real, LiteralExpression.numericLiteral(2));
+        assertEquals(Rational.valueOf(-7, 2), model.evaluate(half));
+        Expression floor = new UnaryExpression(new UnaryOperator.Convert(ValueType.realType(), ValueType.integerType()), half);
+        assertEquals(BigInteger.valueOf(-4), model.evaluate(floor));
+    }
+
+    @DisplayName("Assert model satisfies constraints")
+    @Test
+    void satisfyConstraints() {
+        AnyExpression x = new AnyExpression(ValueType.integerType());
+        AnyExpression y = new AnyExpression(ValueType.integerType());
+        Model model = new Model(Map.of(x, BigInteger.valueOf(5)));
+        Expression positive = new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(0));
+        Expression small = new BinaryExpression(BinaryOperator.LESS_THAN, x, LiteralExpression.integerLiteral(10));
+        Expression zero = new BinaryExpression(BinaryOperator.EQUAL_TO, y, LiteralExpression.integerLiteral(0));
+        Expression large = new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(10));
+        assertTrue(model.satisfies(List.of(positive, small, zero)));
+        assertFalse(model.satisfies(List.of(positive, large)));
+        Expression conditional = new ConditionalExpression(large, LiteralExpression.integerLiteral(1), LiteralExpression.integerLiteral(2));
+        assertEquals(BigInteger.valueOf(2), model.evaluate(conditional));
+    }
+
+    @DisplayName("Assert most recent model is found first")
+    @Test
+    void findModel() {
+        AnyExpression x = new AnyExpression(ValueType.integerType());
+        ModelCache cache = new ModelCache(2);
+        Model first = new Model(Map.of(x, BigInteger.ONE));
+        Model second = new Model(Map.of(x, BigInteger.TWO));
+        Model third = new Model(Map.of(x, BigInteger.TEN));
+        cache.add(first);
+        cache.add(second);
+        cache.add(third);
+        Expression positive = new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(0));
+        Expression one = new BinaryExpression(BinaryOperator.EQUAL_TO, x, LiteralExpression.integerLiteral(1));
+        assertSame(third, cache.find(List.of(positive)));
+        assertNull(cache.find(List.of(one)));
+        assertEquals(2, cache.size());
+    }
+
+    @DisplayName("Assert query satisfied by the model of a previous query is not checked by the solver if enabled")
+    @Test
+    void reuseModels() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withPresolving(false).withModelCacheSize(4));
+        AnyExpression x = new AnyExpression(ValueType.integerType());
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        snapshot.require(new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(0)));
+        assertEquals(Reachable.REACHABLE, snapshot.getReachability());
+        FlowSnapshot other = FlowSnapshot.emptyState(flow);
+        other.require(new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(-5)));
+        assertEquals(Reachable.REACHABLE, other.getReachability());
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).sum());
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.ModelCacheHits).sum());
+        assertNull(new Flow().getModelCache());
+    }
+}
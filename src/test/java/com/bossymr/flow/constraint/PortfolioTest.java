@@ -0,0 +1,259 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.Flow;
+import com.bossymr.flow.FlowOptions;
+import com.bossymr.flow.constraint.linear.LinearBackend;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.BinaryExpression;
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.state.FlowSnapshot;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioTest {
+
+    /**
+     * A backend which never decides a query.
+     */
+    private static final class UndecidedBackend implements SolverBackend {
+
+        @Override
+        public String getName() {
+            return "undecided";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean supports(Logic logic) {
+            return true;
+        }
+
+        @Override
+        public SolverSession createSession(Logic logic) {
+            return new SolverSession() {
+                @Override
+                public void push() {}
+
+                @Override
+                public void pop() {}
+
+                @Override
+                public void assertFormula(Expression constraint) {}
+
+                @Override
+                public Reachable checkSat(List<Expression> assumptions) {
+                    return Reachable.UNKNOWN;
+                }
+
+                @Override
+                public Object getValue(AnyExpression variable) {
+                    return null;
+                }
+
+                @Override
+                public void setLimit(SolverLimit limit) {}
+            };
+        }
+    }
+
+    /**
+     * A backend which never returns from a query, even if it is interrupted, until it is released.
+     */
+    private static final class BlockedBackend implements SolverBackend {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        /**
+         * The number of queries which have been started.
+         */
+        private final AtomicInteger queries = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return "blocked";
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean supports(Logic logic) {
+            return true;
+        }
+
+        @Override
+        public SolverSession createSession(Logic logic) {
+            return new SolverSession() {
+                @Override
+                public void push() {}
+
+                @Override
+                public void pop() {}
+
+                @Override
+                public void assertFormula(Expression constraint) {}
+
+                @Override
+                public Reachable checkSat(List<Expression> assumptions) {
+                    queries.incrementAndGet();
+                    while (true) {
+                        try {
+                            release.await();
+                            return Reachable.UNKNOWN;
+                        } catch (InterruptedException ignored) {}
+                    }
+                }
+
+                @Override
+                public Object getValue(AnyExpression variable) {
+                    return null;
+                }
+
+                @Override
+                public void setLimit(SolverLimit limit) {}
+            };
+        }
+    }
+
+    private static Reachable check(Flow flow, Expression... constraints) {
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        for (Expression constraint : constraints) {
+            snapshot.require(constraint);
+        }
+        return snapshot.getReachability();
+    }
+
+    @DisplayName("Assert hard query is decided by portfolio and routed to winner")
+    @Test
+    void raceHardQueries() {
+        SolverBackend winner = new LinearBackend();
+        FlowOptions options = FlowOptions.defaultOptions()
+                .withPresolving(false)
+                .withQueryCacheSize(0)
+                .withModelCacheSize(0)
+                .withSelectingLogic(true)
+                .withSolverBackends(List.of(new UndecidedBackend()))
+                .withSolverLimits(List.of(SolverLimit.ofResources(1)))
+                .withPortfolio(List.of(new UndecidedBackend(), winner));
+        Flow flow = new Flow(options);
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        Expression sum = new BinaryExpression(BinaryOperator.ADD, x, y);
+        assertEquals(Reachable.NOT_REACHABLE, check(flow,
+                new BinaryExpression(BinaryOperator.GREATER_THAN, sum, LiteralExpression.integerLiteral(2)),
+                new BinaryExpression(BinaryOperator.LESS_THAN, sum, LiteralExpression.integerLiteral(3))));
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.PortfolioQueries).sum());
+        assertSame(winner, flow.getPortfolio().getWinner(Portfolio.Shape.of(Logic.QF_LIA, 2)));
+        assertEquals(Reachable.REACHABLE, check(flow,
+                new BinaryExpression(BinaryOperator.GREATER_THAN, sum, LiteralExpression.integerLiteral(2)),
+                new BinaryExpression(BinaryOperator.LESS_THAN, x, y)));
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.PortfolioQueries).sum());
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.PortfolioRoutedQueries).sum());
+    }
+
+    @DisplayName("Assert query is unknown if no configuration decides it")
+    @Test
+    void undecidedQueries() {
+        FlowOptions options = FlowOptions.defaultOptions()
+                .withPresolving(false)
+                .withSolverBackends(List.of(new UndecidedBackend()))
+                .withSolverLimits(List.of(SolverLimit.ofResources(1)))
+                .withPortfolio(List.of(new UndecidedBackend(), new UndecidedBackend()));
+        Flow flow = new Flow(options);
+        Expression x = new AnyExpression(ValueType.integerType());
+        assertEquals(Reachable.UNKNOWN, check(flow, new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(2))));
+        assertTrue(flow.getPortfolio().getWinners().isEmpty());
+    }
+
+    @DisplayName("Assert race is abandoned once its timeout has elapsed if a configuration never returns")
+    @Test
+    void abandonBlockedRace() {
+        BlockedBackend blocked = new BlockedBackend();
+        FlowOptions options = FlowOptions.defaultOptions()
+                .withPresolving(false)
+                .withQueryCacheSize(0)
+                .withSolverBackends(List.of(new UndecidedBackend()))
+                .withSolverLimits(List.of(SolverLimit.ofTimeout(Duration.ofMillis(10)), SolverLimit.ofTimeout(Duration.ofMillis(100))))
+                .withPortfolio(List.of(blocked, new UndecidedBackend()));
+        Flow flow = new Flow(options);
+        Expression x = new AnyExpression(ValueType.integerType());
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                assertEquals(Reachable.UNKNOWN, check(flow, new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(2))));
+                // The blocked configuration is still running, as such, it is not used by the next race.
+                assertEquals(Reachable.UNKNOWN, check(flow, new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(3))));
+                assertEquals(2, flow.getStatistics().get(Flow.Statistic.PortfolioQueries).sum());
+                flow.close();
+            });
+        } finally {
+            blocked.release.countDown();
+        }
+    }
+
+    @DisplayName("Assert race is limited by a multiple of a single limit, and portfolio without a finite limit is rejected")
+    @Test
+    void limitRace() {
+        List<SolverBackend> configurations = List.of(new UndecidedBackend());
+        assertEquals(SolverLimit.ofResources(10), new Portfolio(configurations, List.of(SolverLimit.ofResources(1))).getLimit());
+        assertEquals(SolverLimit.ofResources(5), new Portfolio(configurations, List.of(SolverLimit.ofResources(1), SolverLimit.ofResources(5))).getLimit());
+        assertThrows(IllegalArgumentException.class, () -> new Portfolio(configurations, List.of(SolverLimit.UNLIMITED)));
+        assertThrows(IllegalArgumentException.class, () -> new Portfolio(configurations, List.of()));
+    }
+
+    @DisplayName("Assert configuration is not used by a race of another logic while it is still running")
+    @Test
+    void skipBusyConfiguration() {
+        BlockedBackend blocked = new BlockedBackend();
+        FlowOptions options = FlowOptions.defaultOptions()
+                .withPresolving(false)
+                .withQueryCacheSize(0)
+                .withSelectingLogic(true)
+                .withSolverBackends(List.of(new UndecidedBackend()))
+                .withSolverLimits(List.of(SolverLimit.ofTimeout(Duration.ofMillis(10)), SolverLimit.ofTimeout(Duration.ofMillis(100))))
+                .withPortfolio(List.of(blocked, new UndecidedBackend()));
+        Flow flow = new Flow(options);
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.realType());
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                assertEquals(Reachable.UNKNOWN, check(flow, new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(2))));
+                // The query has another logic, as such, it is performed by another session of the blocked configuration.
+                assertEquals(Reachable.UNKNOWN, check(flow, new BinaryExpression(BinaryOperator.GREATER_THAN, y, LiteralExpression.numericLiteral(2))));
+                assertEquals(2, flow.getStatistics().get(Flow.Statistic.PortfolioQueries).sum());
+                assertEquals(1, blocked.queries.get());
+                flow.close();
+            });
+        } finally {
+            blocked.release.countDown();
+        }
+    }
+
+    @DisplayName("Assert configuration which is provided twice, or which is also a solver backend, is rejected")
+    @Test
+    void rejectSharedConfiguration() {
+        SolverBackend backend = new UndecidedBackend();
+        List<SolverLimit> limits = List.of(SolverLimit.ofResources(1));
+        assertThrows(IllegalArgumentException.class, () -> new Portfolio(List.of(backend, backend), limits));
+        FlowOptions options = FlowOptions.defaultOptions()
+                .withSolverBackends(List.of(backend))
+                .withSolverLimits(limits)
+                .withPortfolio(List.of(backend, new UndecidedBackend()));
+        assertThrows(IllegalArgumentException.class, () -> new Flow(options));
+    }
+}
@@ -0,0 +1,80 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.Flow;
+import com.bossymr.flow.FlowOptions;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.state.FlowSnapshot;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PresolverTest {
+
+    private static Expression compare(BinaryOperator operator, Expression left, Expression right) {
+        return new BinaryExpression(operator, left, right);
+    }
+
+    private static Expression not(Expression expression) {
+        return new UnaryExpression(new UnaryOperator.Not(), expression);
+    }
+
+    @DisplayName("Assert bounds on integers are decided")
+    @Test
+    void decideIntegerBounds() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression zero = LiteralExpression.integerLiteral(0);
+        Expression one = LiteralExpression.integerLiteral(1);
+        Expression two = LiteralExpression.integerLiteral(2);
+        // 0 < x < 2, as such, x = 1.
+        assertEquals(Reachable.REACHABLE, Presolver.decide(List.of(compare(BinaryOperator.GREATER_THAN, x, zero), compare(BinaryOperator.LESS_THAN, x, two))));
+        assertEquals(Reachable.NOT_REACHABLE, Presolver.decide(List.of(compare(BinaryOperator.GREATER_THAN, x, zero), compare(BinaryOperator.LESS_THAN, x, two), not(compare(BinaryOperator.EQUAL_TO, one, x)))));
+        assertEquals(Reachable.NOT_REACHABLE, Presolver.decide(List.of(compare(BinaryOperator.GREATER_THAN, x, zero), compare(BinaryOperator.LESS_THAN, x, one))));
+        assertEquals(Reachable.REACHABLE, Presolver.decide(List.of(not(compare(BinaryOperator.LESS_THAN, x, one)), not(compare(BinaryOperator.GREATER_THAN, x, one)))));
+    }
+
+    @DisplayName("Assert bounds on reals and booleans are decided")
+    @Test
+    void decideRealAndBooleanBounds() {
+        Expression r = new AnyExpression(ValueType.realType());
+        Expression b = new AnyExpression(ValueType.booleanType());
+        Expression zero = LiteralExpression.numericLiteral(0);
+        Expression one = LiteralExpression.numericLiteral(1);
+        assertEquals(Reachable.REACHABLE, Presolver.decide(List.of(compare(BinaryOperator.GREATER_THAN, r, zero), compare(BinaryOperator.LESS_THAN, r, one))));
+        assertEquals(Reachable.NOT_REACHABLE, Presolver.decide(List.of(compare(BinaryOperator.GREATER_THAN, r, one), compare(BinaryOperator.LESS_THAN, r, one))));
+        assertEquals(Reachable.NOT_REACHABLE, Presolver.decide(List.of(b, not(b))));
+        assertEquals(Reachable.REACHABLE, Presolver.decide(List.of(b, compare(BinaryOperator.EQUAL_TO, b, LiteralExpression.booleanLiteral(true)))));
+    }
+
+    @DisplayName("Assert other constraints are not decided unless bounds conflict")
+    @Test
+    void decideOtherConstraints() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        Expression zero = LiteralExpression.integerLiteral(0);
+        Expression other = compare(BinaryOperator.LESS_THAN, x, y);
+        assertNull(Presolver.decide(List.of(other, compare(BinaryOperator.GREATER_THAN, x, zero))));
+        assertEquals(Reachable.NOT_REACHABLE, Presolver.decide(List.of(other, compare(BinaryOperator.GREATER_THAN, x, zero), compare(BinaryOperator.LESS_THAN, x, zero))));
+    }
+
+    @DisplayName("Assert bounds are only decided without a solver if enabled")
+    @Test
+    void presolveIfEnabled() {
+        for (boolean presolving : new boolean[]{false, true}) {
+            Flow flow = new Flow(FlowOptions.defaultOptions().withPresolving(presolving));
+            Expression x = new AnyExpression(ValueType.integerType());
+            FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+            snapshot.require(compare(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(0)));
+            snapshot.require(compare(BinaryOperator.LESS_THAN, x, LiteralExpression.integerLiteral(2)));
+            assertEquals(Reachable.REACHABLE, snapshot.getReachability());
+            assertEquals(presolving ? 1 : 0, flow.getStatistics().get(Flow.Statistic.PresolvedQueries).sum());
+            assertEquals(presolving ? 0 : 1, flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).sum());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.bossymr.flow.constraint;
+
+import com.bossymr.flow.Flow;
+import com.bossymr.flow.FlowOptions;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.BinaryExpression;
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.state.FlowSnapshot;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCacheTest {
+
+    @DisplayName("Assert fingerprint does not depend on order of constraints")
+    @Test
+    void fingerprintIgnoresOrder() {
+        Flow flow = new Flow();
+        Expression variable = new AnyExpression(ValueType.integerType());
+        Expression zero = LiteralExpression.integerLiteral(0);
+        Expression ten = LiteralExpression.integerLiteral(10);
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        snapshot.require(new BinaryExpression(BinaryOperator.GREATER_THAN, variable, zero));
+        FlowSnapshot successor = snapshot.successorState();
+        successor.require(new BinaryExpression(BinaryOperator.LESS_THAN, variable, ten));
+        FlowSnapshot other = FlowSnapshot.emptyState(flow);
+        other.require(new BinaryExpression(BinaryOperator.LESS_THAN, variable, ten));
+        other.require(new BinaryExpression(BinaryOperator.GREATER_THAN, variable, zero));
+        assertEquals(successor.getFingerprint(), other.getFingerprint());
+        FlowSnapshot commuted = FlowSnapshot.emptyState(flow);
+        commuted.require(new BinaryExpression(BinaryOperator.EQUAL_TO, variable, zero));
+        FlowSnapshot equal = FlowSnapshot.emptyState(flow);
+        equal.require(new BinaryExpression(BinaryOperator.EQUAL_TO, zero, variable));
+        assertEquals(commuted.getFingerprint(), equal.getFingerprint());
+    }
+
+    @DisplayName("Assert fingerprint depends on variables and operands")
+    @Test
+    void fingerprintDistinguishesConstraints() {
+        Flow flow = new Flow();
+        Expression variable = new AnyExpression(ValueType.integerType());
+        Expression otherVariable = new AnyExpression(ValueType.integerType());
+        Expression zero = LiteralExpression.integerLiteral(0);
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        snapshot.require(new BinaryExpression(BinaryOperator.GREATER_THAN, variable, zero));
+        FlowSnapshot other = FlowSnapshot.emptyState(flow);
+        other.require(new BinaryExpression(BinaryOperator.GREATER_THAN, otherVariable, zero));
+        FlowSnapshot swapped = FlowSnapshot.emptyState(flow);
+        swapped.require(new BinaryExpression(BinaryOperator.GREATER_THAN, zero, variable));
+        assertNotEquals(snapshot.getFingerprint(), other.getFingerprint());
+        assertNotEquals(snapshot.getFingerprint(), swapped.getFingerprint());
+        Fingerprint fingerprint = snapshot.getFingerprint();
+        snapshot.require(new BinaryExpression(BinaryOperator.LESS_THAN, variable, zero));
+        assertNotEquals(fingerprint, snapshot.getFingerprint());
+    }
+
+    @DisplayName("Assert least recently used result is evicted")
+    @Test
+    void evictLeastRecentlyUsed() {
+        QueryCache cache = new QueryCache(2);
+        Fingerprint first = new Fingerprint(1, 1, 1);
+        Fingerprint second = new Fingerprint(2, 2, 1);
+        Fingerprint third = new Fingerprint(3, 3, 1);
+        Set<Expression> constraints = Set.of(new AnyExpression(ValueType.booleanType()));
+        cache.put(first, constraints, Reachable.REACHABLE);
+        cache.put(second, constraints, Reachable.NOT_REACHABLE);
+        assertEquals(Reachable.REACHABLE, cache.get(first, constraints));
+        cache.put(third, constraints, Reachable.REACHABLE);
+        assertEquals(2, cache.size());
+        assertNull(cache.get(second, constraints));
+        assertEquals(Reachable.REACHABLE, cache.get(first, constraints));
+        assertEquals(Reachable.REACHABLE, cache.get(third, constraints));
+    }
+
+    @DisplayName("Assert result is not returned for different constraints with the same fingerprint")
+    @Test
+    void rejectFingerprintCollision() {
+        QueryCache cache = new QueryCache(2);
+        Fingerprint fingerprint = new Fingerprint(1, 1, 1);
+        Expression x = new AnyExpression(ValueType.booleanType());
+        Expression y = new AnyExpression(ValueType.booleanType());
+        cache.put(fingerprint, Set.of(x), Reachable.REACHABLE);
+        assertNull(cache.get(fingerprint, Set.of(y)));
+        assertNull(cache.get(fingerprint, Set.of(x, y)));
+        assertEquals(Reachable.REACHABLE, cache.get(fingerprint, Set.of(x)));
+    }
+
+    @DisplayName("Assert query with the same constraints as a previous query is answered by the cache if enabled")
+    @Test
+    void cacheQueries() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withQueryCacheSize(16));
+        Expression variable = new AnyExpression(ValueType.integerType());
+        Expression constraint = new BinaryExpression(BinaryOperator.GREATER_THAN, variable, LiteralExpression.integerLiteral(0));
+        for (int i = 0; i < 2; i++) {
+            FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+            snapshot.require(constraint);
+            assertEquals(Reachable.REACHABLE, snapshot.getReachability());
+        }
+        assertEquals(1, flow.getQueryCache().size());
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.QueryCacheMisses).sum());
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.QueryCacheHits).sum());
+        assertNull(new Flow().getQueryCache());
+    }
+}
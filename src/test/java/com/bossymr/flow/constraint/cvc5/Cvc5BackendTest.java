@@ -0,0 +1,44 @@
+package com.bossymr.flow.constraint.cvc5;
+
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.BinaryExpression;
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class Cvc5BackendTest {
+
+    @DisplayName("Assert expressions converted by different threads do not share a term manager")
+    @Test
+    void convertOnSeparateThreads() throws Exception {
+        Cvc5Backend backend = new Cvc5Backend();
+        // The native library of cvc5 is only available on some platforms.
+        assumeTrue(backend.isAvailable());
+        Expression expression = new BinaryExpression(BinaryOperator.GREATER_THAN, new AnyExpression(ValueType.integerType()), LiteralExpression.integerLiteral(0));
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            CompletableFuture<Cvc5Converter> first = CompletableFuture.supplyAsync(() -> convert(backend, expression), executor);
+            CompletableFuture<Cvc5Converter> second = CompletableFuture.supplyAsync(() -> convert(backend, expression), executor);
+            Cvc5Converter converter = convert(backend, expression);
+            assertSame(converter, backend.getConverter());
+            assertNotSame(first.get().getManager(), second.get().getManager());
+            assertNotSame(converter.getManager(), first.get().getManager());
+            assertNotSame(converter.getManager(), second.get().getManager());
+        }
+    }
+
+    private static Cvc5Converter convert(Cvc5Backend backend, Expression expression) {
+        Cvc5Converter converter = backend.getConverter();
+        converter.convert(expression);
+        return converter;
+    }
+}
@@ -0,0 +1,97 @@
+package com.bossymr.flow.constraint.linear;
+
+import com.bossymr.flow.Rational;
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.constraint.Reachable;
+import com.bossymr.flow.constraint.SolverSession;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinearBackendTest {
+
+    private static Expression binary(BinaryOperator operator, Expression left, Expression right) {
+        return new BinaryExpression(operator, left, right);
+    }
+
+    private static Expression not(Expression expression) {
+        return new UnaryExpression(new UnaryOperator.Not(), expression);
+    }
+
+    private static Reachable check(Expression... constraints) {
+        SolverSession session = new LinearBackend().createSession(Logic.QF_LIRA);
+        return session.checkSat(List.of(constraints));
+    }
+
+    @DisplayName("Assert integer constraints are decided")
+    @Test
+    void decideIntegerConstraints() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        Expression two = LiteralExpression.integerLiteral(2);
+        Expression three = LiteralExpression.integerLiteral(3);
+        // 2 * x = 1 has no integer solution.
+        assertEquals(Reachable.NOT_REACHABLE, check(binary(BinaryOperator.EQUAL_TO, binary(BinaryOperator.MULTIPLY, two, x), LiteralExpression.integerLiteral(1))));
+        // 1 < 3 * x < 3 has no integer solution, but requires branch and bound to decide.
+        Expression product = binary(BinaryOperator.MULTIPLY, x, three);
+        assertEquals(Reachable.NOT_REACHABLE, check(binary(BinaryOperator.GREATER_THAN, product, LiteralExpression.integerLiteral(1)), binary(BinaryOperator.LESS_THAN, binary(BinaryOperator.ADD, product, y), binary(BinaryOperator.ADD, three, y))));
+        // x + y = 5, x - y = 1, as such, x = 3 and y = 2.
+        assertEquals(Reachable.REACHABLE, check(binary(BinaryOperator.EQUAL_TO, binary(BinaryOperator.ADD, x, y), LiteralExpression.integerLiteral(5)), binary(BinaryOperator.EQUAL_TO, binary(BinaryOperator.SUBTRACT, x, y), LiteralExpression.integerLiteral(1))));
+        // x % 3 = 2, 0 < x < 5, !(x = 2), as such, no value of x exists.
+        assertEquals(Reachable.NOT_REACHABLE, check(binary(BinaryOperator.EQUAL_TO, binary(BinaryOperator.MODULO, x, three), two), binary(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(0)), binary(BinaryOperator.LESS_THAN, x, LiteralExpression.integerLiteral(5)), not(binary(BinaryOperator.EQUAL_TO, x, two))));
+    }
+
+    @DisplayName("Assert real and boolean constraints are decided")
+    @Test
+    void decideRealAndBooleanConstraints() {
+        Expression r = new AnyExpression(ValueType.realType());
+        Expression b = new AnyExpression(ValueType.booleanType());
+        Expression zero = LiteralExpression.numericLiteral(0);
+        Expression one = LiteralExpression.numericLiteral(1);
+        // 0 < 3 * r < 1 has a real solution.
+        Expression product = binary(BinaryOperator.MULTIPLY, r, LiteralExpression.numericLiteral(3));
+        assertEquals(Reachable.REACHABLE, check(binary(BinaryOperator.GREATER_THAN, product, zero), binary(BinaryOperator.LESS_THAN, product, one)));
+        // (b ? r : -r) > 0, where b must be false if r < 0.
+        Expression conditional = new ConditionalExpression(b, r, new UnaryExpression(new UnaryOperator.Negate(), r));
+        assertEquals(Reachable.REACHABLE, check(binary(BinaryOperator.GREATER_THAN, conditional, zero), binary(BinaryOperator.LESS_THAN, r, zero)));
+        assertEquals(Reachable.NOT_REACHABLE, check(binary(BinaryOperator.GREATER_THAN, conditional, zero), binary(BinaryOperator.LESS_THAN, r, zero), b));
+        assertEquals(Reachable.NOT_REACHABLE, check(binary(BinaryOperator.XOR, b, b)));
+    }
+
+    @DisplayName("Assert model satisfies constraints")
+    @Test
+    void produceModel() {
+        AnyExpression x = new AnyExpression(ValueType.integerType());
+        AnyExpression r = new AnyExpression(ValueType.realType());
+        Expression converted = new UnaryExpression(new UnaryOperator.Convert(ValueType.integerType(), ValueType.realType()), x);
+        SolverSession session = new LinearBackend().createSession(Logic.QF_LIRA);
+        session.push();
+        // x < r < x + 1, 2 < r < 3
+        session.assertFormula(binary(BinaryOperator.LESS_THAN, converted, r));
+        session.assertFormula(binary(BinaryOperator.LESS_THAN, r, binary(BinaryOperator.ADD, converted, LiteralExpression.numericLiteral(1))));
+        assertEquals(Reachable.REACHABLE, session.checkSat(List.of(binary(BinaryOperator.GREATER_THAN, r, LiteralExpression.numericLiteral(2)), binary(BinaryOperator.LESS_THAN, r, LiteralExpression.numericLiteral(3)))));
+        assertEquals(BigInteger.TWO, session.getValue(x));
+        Rational value = (Rational) session.getValue(r);
+        assertTrue(value.compareTo(Rational.valueOf(2)) > 0 && value.compareTo(Rational.valueOf(3)) < 0);
+        session.pop();
+        assertThrows(IllegalStateException.class, session::pop);
+    }
+
+    @DisplayName("Assert unsupported constraints are unknown")
+    @Test
+    void unsupportedConstraints() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        assertEquals(Reachable.UNKNOWN, check(binary(BinaryOperator.GREATER_THAN, binary(BinaryOperator.MULTIPLY, x, y), LiteralExpression.integerLiteral(2))));
+        assertEquals(Reachable.UNKNOWN, check(binary(BinaryOperator.EQUAL_TO, new AnyExpression(ValueType.stringType()), LiteralExpression.stringLiteral("a"))));
+        assertFalse(new LinearBackend().supports(Logic.QF_NIA));
+    }
+}
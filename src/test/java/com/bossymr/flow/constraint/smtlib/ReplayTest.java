@@ -0,0 +1,71 @@
+package com.bossymr.flow.constraint.smtlib;
+
+import com.bossymr.flow.constraint.Logic;
+import com.bossymr.flow.constraint.Reachable;
+import com.bossymr.flow.constraint.SolverLimit;
+import com.bossymr.flow.constraint.SolverSession;
+import com.bossymr.flow.constraint.linear.LinearBackend;
+import com.bossymr.flow.expression.*;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+
+    @DisplayName("Assert written scripts can be read")
+    @Test
+    void writeAndRead() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression r = new AnyExpression(ValueType.realType());
+        Expression sum = new BinaryExpression(BinaryOperator.ADD, x, LiteralExpression.integerLiteral(-3));
+        Expression first = new BinaryExpression(BinaryOperator.LESS_THAN, sum, LiteralExpression.integerLiteral(10));
+        Expression second = new UnaryExpression(new UnaryOperator.Not(), new BinaryExpression(BinaryOperator.EQUAL_TO, sum, x));
+        Expression third = new BinaryExpression(BinaryOperator.GREATER_THAN, r, LiteralExpression.numericLiteral(-1, 2));
+        String text = SmtLibWriter.write(new LinkedHashMap<>(), Logic.QF_LIRA, List.of(List.of(first), List.of(second)), List.of(third));
+        // The sum is used by both constraints, as such, it is only written once.
+        assertTrue(text.contains("define-fun"));
+        Script script = SmtLibReader.read(text);
+        assertEquals(Logic.QF_LIRA, script.logic());
+        List<Script.Command> commands = script.commands();
+        assertEquals(6, commands.size());
+        assertInstanceOf(Script.CheckSat.class, commands.getLast());
+        // Variables are read as new variables, as such, constraints are compared by their written form.
+        assertEquals(((Script.Assert) commands.get(4)).constraint().toString(), third.toString());
+    }
+
+    @DisplayName("Assert recorded queries are replayed with the same result")
+    @Test
+    void recordAndReplay(@TempDir Path directory) throws IOException {
+        RecordingBackend backend = new RecordingBackend(new LinearBackend(), directory);
+        Expression x = new AnyExpression(ValueType.integerType());
+        SolverSession session = backend.createSession(Logic.QF_LIA);
+        session.assertFormula(new BinaryExpression(BinaryOperator.GREATER_THAN, x, LiteralExpression.integerLiteral(0)));
+        session.push();
+        session.assertFormula(new BinaryExpression(BinaryOperator.LESS_THAN, x, LiteralExpression.integerLiteral(2)));
+        assertEquals(Reachable.REACHABLE, session.checkSat(List.of()));
+        assertEquals(Reachable.NOT_REACHABLE, session.checkSat(List.of(new BinaryExpression(BinaryOperator.EQUAL_TO, x, LiteralExpression.integerLiteral(5)))));
+        session.pop();
+        assertEquals(Reachable.REACHABLE, session.checkSat(List.of()));
+        try (Stream<Path> scripts = Files.list(directory)) {
+            assertEquals(3, scripts.count());
+        }
+        Replay.Report report = Replay.replay(directory, new LinearBackend(), SolverLimit.UNLIMITED);
+        assertEquals(3, report.getQueries());
+        assertEquals(0, report.getMismatches());
+        assertEquals(0, report.getUnknown());
+        assertEquals(Reachable.NOT_REACHABLE, report.samples().get(1).result());
+        assertEquals(report.getPercentile(100), report.getSlowest(1).getFirst().duration());
+    }
+}
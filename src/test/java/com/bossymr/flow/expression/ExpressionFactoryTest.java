@@ -0,0 +1,108 @@
+package com.bossymr.flow.expression;
+
+import com.bossymr.flow.Constant;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionFactoryTest {
+
+    @DisplayName("Assert structurally equal expressions are equal")
+    @Test
+    void structuralEquality() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression expression = new BinaryExpression(BinaryOperator.LESS_THAN, x, LiteralExpression.integerLiteral(100));
+        Expression other = new BinaryExpression(BinaryOperator.LESS_THAN, x, LiteralExpression.integerLiteral(100));
+        assertEquals(expression, other);
+        assertEquals(expression.hashCode(), other.hashCode());
+        assertEquals(new UnaryExpression(new UnaryOperator.Not(), expression), new UnaryExpression(new UnaryOperator.Not(), other));
+        assertNotEquals(expression, new BinaryExpression(BinaryOperator.LESS_THAN, new AnyExpression(ValueType.integerType()), LiteralExpression.integerLiteral(100)));
+        assertNotEquals(LiteralExpression.integerLiteral(1), LiteralExpression.numericLiteral(1));
+    }
+
+    @DisplayName("Assert structurally equal expressions are interned")
+    @Test
+    void internExpressions() {
+        ExpressionFactory factory = new ExpressionFactory(false);
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression expression = factory.binary(BinaryOperator.LESS_THAN, x, factory.literal(new Constant.Integer(100)));
+        assertSame(expression, factory.binary(BinaryOperator.LESS_THAN, x, factory.integerLiteral(100)));
+        assertSame(expression, factory.intern(new BinaryExpression(BinaryOperator.LESS_THAN, x, LiteralExpression.integerLiteral(100))));
+        assertSame(factory.integerLiteral(100), ((BinaryExpression) expression).getRight());
+        assertSame(factory.booleanLiteral(true), factory.intern(LiteralExpression.booleanLiteral(true)));
+        // Subexpressions of an expression are also interned.
+        Expression sum = factory.intern(new BinaryExpression(BinaryOperator.ADD, new BinaryExpression(BinaryOperator.ADD, x, LiteralExpression.integerLiteral(5000)), x));
+        assertSame(factory.binary(BinaryOperator.ADD, x, factory.integerLiteral(5000)), ((BinaryExpression) sum).getLeft());
+    }
+
+    @DisplayName("Assert expressions are simplified before they are interned")
+    @Test
+    void simplifyExpressions() {
+        ExpressionFactory factory = new ExpressionFactory(true);
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression expression = factory.binary(BinaryOperator.ADD, factory.binary(BinaryOperator.ADD, x, factory.integerLiteral(1)), factory.integerLiteral(1));
+        assertSame(factory.binary(BinaryOperator.ADD, x, factory.integerLiteral(2)), expression);
+        assertSame(factory.booleanLiteral(false), factory.binary(BinaryOperator.LESS_THAN, expression, expression));
+    }
+
+    @DisplayName("Assert deeply nested expressions are interned and substituted")
+    @Test
+    void deepExpressions() {
+        ExpressionFactory factory = new ExpressionFactory(false);
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        Expression expression = x;
+        for (int i = 0; i < 100_000; i++) {
+            expression = new BinaryExpression(BinaryOperator.ADD, expression, LiteralExpression.integerLiteral(i));
+        }
+        Expression interned = factory.intern(expression);
+        assertSame(interned, factory.intern(interned));
+        Expression substituted = factory.substitute(interned, Map.of(x, y));
+        Expression operand = substituted;
+        while (operand instanceof BinaryExpression binaryExpression) {
+            operand = binaryExpression.getLeft();
+        }
+        assertSame(y, operand);
+        assertSame(interned, factory.substitute(interned, Map.of()));
+    }
+
+    @DisplayName("Assert equal expressions interned by different threads are the same instance")
+    @Test
+    void internConcurrently() throws Exception {
+        ExpressionFactory factory = new ExpressionFactory(false);
+        Expression x = new AnyExpression(ValueType.integerType());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Expression>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    List<Expression> expressions = new ArrayList<>();
+                    for (int j = 0; j < 1000; j++) {
+                        expressions.add(factory.intern(new BinaryExpression(BinaryOperator.ADD, x, LiteralExpression.integerLiteral(5000 + j))));
+                    }
+                    return expressions;
+                }));
+            }
+            List<Expression> expected = futures.getFirst().get();
+            for (Future<List<Expression>> future : futures) {
+                List<Expression> expressions = future.get();
+                for (int j = 0; j < expected.size(); j++) {
+                    assertSame(expected.get(j), expressions.get(j));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
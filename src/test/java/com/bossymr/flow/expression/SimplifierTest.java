@@ -0,0 +1,105 @@
+package com.bossymr.flow.expression;
+
+import com.bossymr.flow.Flow;
+import com.bossymr.flow.FlowOptions;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimplifierTest {
+
+    @DisplayName("Assert literals are folded")
+    @Test
+    void foldLiterals() {
+        Expression expression = LiteralExpression.integerLiteral(0);
+        for (int i = 0; i < 100; i++) {
+            expression = Simplifier.binary(BinaryOperator.ADD, expression, LiteralExpression.integerLiteral(1));
+        }
+        LiteralExpression literal = assertInstanceOf(LiteralExpression.class, expression);
+        assertEquals(100L, literal.getValue());
+        Expression half = Simplifier.binary(BinaryOperator.DIVIDE, LiteralExpression.numericLiteral(1), LiteralExpression.numericLiteral(2));
+        assertEquals(LiteralExpression.numericLiteral(1, 2).getValue(), assertInstanceOf(LiteralExpression.class, half).getValue());
+        // The quotient of a division by zero is not defined, as such, it is not folded.
+        assertInstanceOf(BinaryExpression.class, Simplifier.binary(BinaryOperator.DIVIDE, LiteralExpression.numericLiteral(1), LiteralExpression.numericLiteral(0)));
+        Expression overflow = Simplifier.binary(BinaryOperator.ADD, LiteralExpression.integerLiteral(Long.MAX_VALUE), LiteralExpression.integerLiteral(1));
+        assertInstanceOf(BinaryExpression.class, overflow);
+    }
+
+    @DisplayName("Assert sums are flattened")
+    @Test
+    void flattenSums() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression expression = x;
+        for (int i = 0; i < 100; i++) {
+            expression = Simplifier.binary(BinaryOperator.ADD, expression, LiteralExpression.integerLiteral(1));
+        }
+        BinaryExpression sum = assertInstanceOf(BinaryExpression.class, expression);
+        assertSame(x, sum.getLeft());
+        assertEquals(100L, ((LiteralExpression) sum.getRight()).getValue());
+        assertSame(x, Simplifier.binary(BinaryOperator.SUBTRACT, expression, LiteralExpression.integerLiteral(100)));
+    }
+
+    @DisplayName("Assert comparisons are normalized")
+    @Test
+    void normalizeComparisons() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        Expression sum = Simplifier.binary(BinaryOperator.ADD, x, LiteralExpression.integerLiteral(2));
+        // (x + 2) > 5 is normalized to x > 3.
+        BinaryExpression comparison = assertInstanceOf(BinaryExpression.class, Simplifier.binary(BinaryOperator.GREATER_THAN, sum, LiteralExpression.integerLiteral(5)));
+        assertEquals(BinaryOperator.GREATER_THAN, comparison.getOperator());
+        assertSame(x, comparison.getLeft());
+        assertEquals(3L, ((LiteralExpression) comparison.getRight()).getValue());
+        // 5 < (x + 2) is normalized to x > 3.
+        comparison = assertInstanceOf(BinaryExpression.class, Simplifier.binary(BinaryOperator.LESS_THAN, LiteralExpression.integerLiteral(5), sum));
+        assertEquals(BinaryOperator.GREATER_THAN, comparison.getOperator());
+        assertSame(x, comparison.getLeft());
+        // x > y is normalized to y < x.
+        comparison = assertInstanceOf(BinaryExpression.class, Simplifier.binary(BinaryOperator.GREATER_THAN, x, y));
+        assertEquals(BinaryOperator.LESS_THAN, comparison.getOperator());
+        assertSame(y, comparison.getLeft());
+        assertEquals(false, ((LiteralExpression) Simplifier.binary(BinaryOperator.LESS_THAN, x, x)).getValue());
+    }
+
+    @DisplayName("Assert conjunctions and negations are simplified")
+    @Test
+    void simplifyBooleans() {
+        Expression a = new AnyExpression(ValueType.booleanType());
+        Expression b = new AnyExpression(ValueType.booleanType());
+        Expression notA = Simplifier.unary(new UnaryOperator.Not(), a);
+        assertSame(a, Simplifier.unary(new UnaryOperator.Not(), notA));
+        Expression conjunction = Simplifier.binary(BinaryOperator.AND, Simplifier.binary(BinaryOperator.AND, a, b), a);
+        BinaryExpression expression = assertInstanceOf(BinaryExpression.class, conjunction);
+        assertSame(a, expression.getLeft());
+        assertSame(b, expression.getRight());
+        assertEquals(false, ((LiteralExpression) Simplifier.binary(BinaryOperator.AND, conjunction, notA)).getValue());
+        assertEquals(true, ((LiteralExpression) Simplifier.binary(BinaryOperator.OR, b, Simplifier.binary(BinaryOperator.OR, notA, a))).getValue());
+        assertSame(b, Simplifier.binary(BinaryOperator.OR, LiteralExpression.booleanLiteral(false), b));
+        assertSame(a, Simplifier.conditional(a, LiteralExpression.booleanLiteral(true), LiteralExpression.booleanLiteral(false)));
+    }
+
+    @DisplayName("Assert simplified expressions are equivalent")
+    @Test
+    void simplifyExpression() {
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression one = LiteralExpression.integerLiteral(1);
+        Expression expression = new BinaryExpression(BinaryOperator.LESS_THAN, new BinaryExpression(BinaryOperator.ADD, new BinaryExpression(BinaryOperator.ADD, one, x), one), LiteralExpression.integerLiteral(3));
+        Expression simplified = Simplifier.simplify(expression);
+        assertEquals("(" + x + " < 1)", simplified.toString());
+        assertSame(simplified, Simplifier.simplify(simplified));
+    }
+
+    @DisplayName("Assert expressions are only simplified if enabled")
+    @Test
+    void simplifyIfEnabled() {
+        Expression one = LiteralExpression.integerLiteral(1);
+        ExpressionFactory factory = new Flow().getExpressionFactory();
+        assertInstanceOf(BinaryExpression.class, factory.binary(BinaryOperator.ADD, one, one));
+        factory = new Flow(FlowOptions.defaultOptions().withSimplifying(true)).getExpressionFactory();
+        assertEquals(LiteralExpression.integerLiteral(2), factory.binary(BinaryOperator.ADD, one, one));
+    }
+}
@@ -0,0 +1,50 @@
+package com.bossymr.flow.instruction;
+
+import com.bossymr.flow.Constant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ControlFlowGraphTest {
+
+    @DisplayName("Assert branches are resolved to the index of their label")
+    @Test
+    void branchResolvedToLabel() {
+        Label thenLabel = new Label();
+        Label afterLabel = new Label();
+        List<Instruction> instructions = List.of(
+                new PushInstruction(new Constant.Boolean(true)),
+                new BranchInstruction(BranchKind.CONDITIONALLY, thenLabel),
+                new PushInstruction(new Constant.Integer(0)),
+                new BranchInstruction(BranchKind.ALWAYS, afterLabel),
+                thenLabel,
+                new PushInstruction(new Constant.Integer(1)),
+                afterLabel,
+                new ReturnInstruction());
+        ControlFlowGraph graph = new ControlFlowGraph(instructions);
+        assertEquals(4, graph.getTarget(1));
+        assertEquals(2, graph.getFallthrough(1));
+        assertEquals(6, graph.getTarget(3));
+        assertEquals(-1, graph.getFallthrough(3));
+        assertEquals(-1, graph.getFallthrough(7));
+        assertEquals(6, graph.getIndex(afterLabel));
+        assertEquals(4, graph.getBlocks().size());
+        assertEquals(List.of(1, 2), graph.getBlocks().get(0).successors());
+        assertEquals(List.of(3), graph.getBlocks().get(1).successors());
+        assertEquals(List.of(), graph.getBlocks().get(3).successors());
+    }
+
+    @DisplayName("Assert jumping to an unbound label throws")
+    @Test
+    void unboundLabelThrows() {
+        Label label = new Label();
+        List<Instruction> instructions = List.of(
+                new BranchInstruction(BranchKind.ALWAYS, label),
+                new ReturnInstruction());
+        Assertions.assertThrows(IllegalStateException.class, () -> new ControlFlowGraph(instructions));
+    }
+}
@@ -0,0 +1,188 @@
+package com.bossymr.flow.state;
+
+import com.bossymr.flow.Flow;
+import com.bossymr.flow.FlowOptions;
+import com.bossymr.flow.constraint.Constraint;
+import com.bossymr.flow.constraint.Reachable;
+import com.bossymr.flow.expression.AnyExpression;
+import com.bossymr.flow.expression.Expression;
+import com.bossymr.flow.expression.ExpressionFactory;
+import com.bossymr.flow.expression.LiteralExpression;
+import com.bossymr.flow.instruction.BinaryOperator;
+import com.bossymr.flow.instruction.UnaryOperator;
+import com.bossymr.flow.type.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlowSnapshotTest {
+
+    @DisplayName("Assert modifying a successor does not modify its predecessor")
+    @Test
+    void successorSharesState() {
+        Flow flow = new Flow();
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        Expression zero = LiteralExpression.integerLiteral(0);
+        Expression one = LiteralExpression.integerLiteral(1);
+        snapshot.push(zero);
+        snapshot.store(0, zero);
+        FlowSnapshot successor = snapshot.successorState();
+        successor.push(one);
+        successor.store(0, one);
+        successor.store(1, one);
+        assertEquals(List.of(zero), snapshot.getStack());
+        assertEquals(List.of(zero, one), successor.getStack());
+        assertSame(zero, snapshot.load(0));
+        assertNull(snapshot.load(1));
+        assertSame(one, successor.load(0));
+        assertSame(one, successor.pop());
+        assertSame(zero, successor.peek());
+    }
+
+    @DisplayName("Assert modifying the stack view modifies only the snapshot")
+    @Test
+    void stackViewModifiesSnapshot() {
+        Flow flow = new Flow();
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        Expression zero = LiteralExpression.integerLiteral(0);
+        Expression one = LiteralExpression.integerLiteral(1);
+        Expression two = LiteralExpression.integerLiteral(2);
+        snapshot.push(zero);
+        FlowSnapshot successor = snapshot.successorState();
+        List<Expression> stack = successor.getStack();
+        stack.add(one);
+        assertSame(one, successor.peek());
+        stack.set(0, two);
+        assertEquals(List.of(two, one), successor.getStack());
+        assertSame(one, stack.removeLast());
+        assertSame(two, successor.peek());
+        assertEquals(List.of(zero), snapshot.getStack());
+    }
+
+    @DisplayName("Assert variables far apart are stored and loaded")
+    @Test
+    void storeSparseVariables() {
+        Flow flow = new Flow();
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        int[] variables = {0, 31, 32, 1023, 1024, 100_000, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        for (int variable : variables) {
+            snapshot.store(variable, LiteralExpression.integerLiteral(variable));
+        }
+        for (int variable : variables) {
+            assertEquals(String.valueOf(variable), snapshot.load(variable).toString());
+        }
+        assertNull(snapshot.load(2));
+        assertNull(snapshot.load(-2));
+    }
+
+    @DisplayName("Assert the common predecessor of two long paths is found")
+    @Test
+    void commonPredecessorOfLongPaths() {
+        Flow flow = new Flow();
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        for (int i = 0; i < 1000; i++) {
+            snapshot = snapshot.successorState();
+        }
+        FlowSnapshot branch = snapshot;
+        FlowSnapshot left = branch;
+        FlowSnapshot right = branch;
+        for (int i = 0; i < 777; i++) {
+            left = left.successorState();
+        }
+        for (int i = 0; i < 123; i++) {
+            right = right.successorState();
+        }
+        assertSame(branch, left.commonPredecessor(right));
+        assertSame(branch, right.commonPredecessor(left));
+        assertSame(branch, left.commonPredecessor(branch));
+        assertSame(left, left.commonPredecessor(left));
+        assertEquals(500, left.getPredecessor(500).getDepth());
+        assertNull(left.commonPredecessor(FlowSnapshot.emptyState(flow)));
+    }
+
+    @DisplayName("Assert reachability is only decided once")
+    @Test
+    void memoizeReachability() {
+        Flow flow = new Flow(FlowOptions.defaultOptions().withQueryCacheSize(0).withModelCacheSize(0));
+        ExpressionFactory factory = flow.getExpressionFactory();
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.integerType());
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow).successorState();
+        snapshot.require(factory.binary(BinaryOperator.LESS_THAN, x, y));
+        FlowSnapshot successor = snapshot.successorState().successorState();
+        assertEquals(Reachable.REACHABLE, successor.getReachability());
+        assertEquals(Reachable.REACHABLE, snapshot.getReachability());
+        assertEquals(1, flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).sum());
+        successor.require(factory.binary(BinaryOperator.LESS_THAN, y, x));
+        assertEquals(Reachable.NOT_REACHABLE, successor.getReachability());
+        assertEquals(Reachable.NOT_REACHABLE, successor.successorState().getReachability());
+        assertEquals(2, flow.getStatistics().get(Flow.Statistic.SatisfiabilityQueries).sum());
+    }
+
+    @DisplayName("Assert required conditions are implied")
+    @Test
+    void implyRequiredCondition() {
+        Flow flow = new Flow();
+        ExpressionFactory factory = flow.getExpressionFactory();
+        Expression x = new AnyExpression(ValueType.integerType());
+        Expression y = new AnyExpression(ValueType.booleanType());
+        Expression condition = factory.binary(BinaryOperator.LESS_THAN, x, factory.integerLiteral(3));
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        snapshot.require(factory.binary(BinaryOperator.AND, y, condition));
+        FlowSnapshot successor = snapshot.successorState();
+        assertEquals(Constraint.ALWAYS_TRUE, successor.getImplication(condition));
+        assertEquals(Constraint.ALWAYS_FALSE, successor.getImplication(factory.unary(new UnaryOperator.Not(), y)));
+        assertEquals(Constraint.UNKNOWN, successor.getImplication(factory.binary(BinaryOperator.LESS_THAN, x, factory.integerLiteral(4))));
+    }
+
+    @DisplayName("Assert conditions required by distant predecessors are implied")
+    @Test
+    void implyDistantCondition() {
+        Flow flow = new Flow();
+        ExpressionFactory factory = flow.getExpressionFactory();
+        Expression x = new AnyExpression(ValueType.integerType());
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        for (int i = 0; i < 1000; i++) {
+            snapshot = snapshot.successorState();
+            snapshot.require(factory.binary(BinaryOperator.GREATER_THAN, x, factory.integerLiteral(-i)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            Expression condition = factory.binary(BinaryOperator.GREATER_THAN, x, factory.integerLiteral(-i));
+            assertEquals(Constraint.ALWAYS_TRUE, snapshot.getImplication(condition));
+            assertEquals(Constraint.ALWAYS_FALSE, snapshot.getImplication(factory.unary(new UnaryOperator.Not(), condition)));
+        }
+        assertEquals(Constraint.UNKNOWN, snapshot.getImplication(factory.binary(BinaryOperator.GREATER_THAN, x, factory.integerLiteral(1))));
+        assertEquals(Constraint.UNKNOWN, snapshot.getPredecessor(1).getImplication(factory.binary(BinaryOperator.GREATER_THAN, x, factory.integerLiteral(-1))));
+    }
+
+    @DisplayName("Assert path constraints contain the constraints of all predecessors")
+    @Test
+    void collectPathConstraints() {
+        Flow flow = new Flow();
+        ExpressionFactory factory = flow.getExpressionFactory();
+        Expression x = new AnyExpression(ValueType.integerType());
+        FlowSnapshot snapshot = FlowSnapshot.emptyState(flow);
+        Set<Expression> constraints = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            snapshot = snapshot.successorState();
+            Expression constraint = factory.binary(BinaryOperator.GREATER_THAN, x, factory.integerLiteral(-i));
+            snapshot.require(constraint);
+            constraints.add(constraint);
+        }
+        assertEquals(constraints, snapshot.getPathConstraints());
+        assertEquals(snapshot.getPathConstraints(), constraints);
+        Expression assumption = factory.binary(BinaryOperator.LESS_THAN, x, factory.integerLiteral(10));
+        Set<Expression> assumed = snapshot.getPathConstraints(assumption);
+        assertEquals(constraints.size(), snapshot.getPathConstraints().size());
+        FlowSnapshot successor = snapshot.successorState();
+        successor.require(assumption);
+        assertEquals(assumed, successor.getPathConstraints());
+        assertNotEquals(snapshot.getPathConstraints(), successor.getPathConstraints());
+        assertThrows(UnsupportedOperationException.class, () -> successor.getPathConstraints().add(assumption));
+    }
+}